@@ -0,0 +1,20 @@
+package com.seminote.analytics.ingest;
+
+import java.util.List;
+
+/**
+ * Keeps events that the database rejected for good, such as an unknown
+ * {@code user_id}, so one bad event cannot hold up the rest of the stream.
+ */
+public interface AnalyticsDeadLetterWriter {
+
+    /** Writer that keeps nothing; the pipeline still logs and counts the events. */
+    AnalyticsDeadLetterWriter DISCARD = (events, reason) -> { };
+
+    /**
+     * Store rejected events as received.
+     * @param events events that could not be written
+     * @param reason database error that rejected them
+     */
+    void write(List<AnalyticsEvent> events, String reason);
+}
@@ -0,0 +1,41 @@
+package com.seminote.analytics.ingest;
+
+import java.time.Instant;
+
+/**
+ * One practice event as stored in the {@code analytics} table.
+ *
+ * @param userId learner id, may be null for anonymous events
+ * @param eventType event type such as {@code note_played}
+ * @param eventDataJson event payload serialized as JSON, may be null
+ * @param sessionId practice session id, may be null
+ * @param timestamp when the event happened
+ * @param latencyMicros {@code latencyMs} from the payload in microseconds, or {@link #NO_LATENCY}
+ */
+public record AnalyticsEvent(Long userId, String eventType, String eventDataJson, String sessionId,
+                             Instant timestamp, long latencyMicros) {
+
+    /** Marker for events without a latency sample. */
+    public static final long NO_LATENCY = -1L;
+
+    /**
+     * Create an event without a latency sample.
+     * @param userId learner id
+     * @param eventType event type
+     * @param eventDataJson payload as JSON
+     * @param sessionId practice session id
+     * @param timestamp when the event happened
+     */
+    public AnalyticsEvent(final Long userId, final String eventType, final String eventDataJson,
+                          final String sessionId, final Instant timestamp) {
+        this(userId, eventType, eventDataJson, sessionId, timestamp, NO_LATENCY);
+    }
+
+    /**
+     * Whether the event carries a latency sample.
+     * @return true if {@link #latencyMicros()} is set
+     */
+    public boolean hasLatency() {
+        return latencyMicros >= 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.seminote.analytics.ingest;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Event as submitted by clients to the ingestion endpoint.
+ *
+ * @param userId learner id, optional; must be the caller when given
+ * @param eventType event type, required
+ * @param eventData free-form payload stored as JSONB
+ * @param sessionId practice session id
+ * @param timestamp client timestamp, defaults to the time of receipt
+ */
+public record AnalyticsEventRequest(Long userId, String eventType, Map<String, Object> eventData, String sessionId,
+                                    Instant timestamp) {
+}
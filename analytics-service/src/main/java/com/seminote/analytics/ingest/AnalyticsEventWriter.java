@@ -0,0 +1,16 @@
+package com.seminote.analytics.ingest;
+
+import java.util.List;
+
+/**
+ * Persists flushed event batches.
+ */
+public interface AnalyticsEventWriter {
+
+    /**
+     * Write a batch of events in one round trip.
+     * @param events events to write, never empty
+     * @throws org.springframework.dao.DataAccessException if the batch could not be written
+     */
+    void write(List<AnalyticsEvent> events);
+}
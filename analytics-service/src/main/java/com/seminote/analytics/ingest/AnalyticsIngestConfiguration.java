@@ -0,0 +1,71 @@
+package com.seminote.analytics.ingest;
+
+import com.seminote.analytics.rollup.DailyRollupRepository;
+import com.seminote.analytics.rollup.RollupAnalyticsEventWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Wires the analytics ingestion pipeline.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AnalyticsIngestProperties.class)
+public class AnalyticsIngestConfiguration {
+
+    /**
+     * Repository for per-user daily rollups.
+     * @param jdbcTemplate template over the service datasource
+     * @return rollup repository
+     */
+    @Bean
+    public DailyRollupRepository dailyRollupRepository(final JdbcTemplate jdbcTemplate) {
+        return new DailyRollupRepository(jdbcTemplate);
+    }
+
+    /**
+     * Batch writer for the {@code analytics} table and its daily rollups.
+     * @param jdbcTemplate template over the service datasource
+     * @param properties ingestion settings
+     * @param rollups rollup repository
+     * @param transactionTemplate transaction spanning raw rows and rollups
+     * @return event writer
+     */
+    @Bean
+    public AnalyticsEventWriter analyticsEventWriter(final JdbcTemplate jdbcTemplate,
+                                                     final AnalyticsIngestProperties properties,
+                                                     final DailyRollupRepository rollups,
+                                                     final TransactionTemplate transactionTemplate) {
+        return new RollupAnalyticsEventWriter(new JdbcAnalyticsEventWriter(jdbcTemplate, properties.getWriteMode()),
+                rollups, transactionTemplate);
+    }
+
+    /**
+     * Store for events the database rejects, such as an unknown user id.
+     * @param jdbcTemplate template over the service datasource
+     * @return dead-letter writer
+     */
+    @Bean
+    public AnalyticsDeadLetterWriter analyticsDeadLetterWriter(final JdbcTemplate jdbcTemplate) {
+        return new JdbcAnalyticsDeadLetterWriter(jdbcTemplate);
+    }
+
+    /**
+     * Buffered ingestion pipeline.
+     * @param properties ingestion settings
+     * @param writer batch writer
+     * @param deadLetters store for rejected events
+     * @param registry metrics registry
+     * @return pipeline, started with the application context
+     */
+    @Bean
+    public AnalyticsIngestPipeline analyticsIngestPipeline(final AnalyticsIngestProperties properties,
+                                                           final AnalyticsEventWriter writer,
+                                                           final AnalyticsDeadLetterWriter deadLetters,
+                                                           final MeterRegistry registry) {
+        return new AnalyticsIngestPipeline(properties, writer, deadLetters, registry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.seminote.analytics.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.analytics.live.LiveSessionAggregator;
+import com.seminote.common.users.GatewayUser;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch ingestion endpoint for practice events.
+ *
+ * Events are recorded for the authenticated caller: a request without the
+ * gateway's user header is rejected with 401 and an event naming another user
+ * with 403. Accepted batches are only buffered; the response is 202 once the batch is
+ * in memory. A full buffer yields 429 with {@code Retry-After} so clients
+ * back off and resend the same batch. Events the {@code analytics} table could
+ * never hold (a user id outside its INTEGER column, a timestamp before 2000 or
+ * more than a day ahead) are rejected with 400 up front. Numeric {@code latencyMs} and
+ * {@code timingErrorMs} payload fields are lifted out at ingestion so rollups
+ * and live session aggregation never re-parse JSON.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsIngestController {
+
+    static final int MAX_EVENT_TYPE_LENGTH = 100;
+    static final int MAX_SESSION_ID_LENGTH = 255;
+    static final Instant MIN_TIMESTAMP = Instant.parse("2000-01-01T00:00:00Z");
+    static final Duration MAX_CLOCK_SKEW = Duration.ofDays(1);
+    static final String LATENCY_FIELD = "latencyMs";
+    static final String TIMING_ERROR_FIELD = "timingErrorMs";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final AnalyticsIngestPipeline pipeline;
+    private final LiveSessionAggregator liveSessions;
+    private final AnalyticsIngestProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Create the controller.
+     * @param pipeline ingestion pipeline
+     * @param liveSessions aggregator for sessions in progress
+     * @param properties ingestion settings
+     * @param objectMapper mapper used to serialize event payloads
+     */
+    public AnalyticsIngestController(final AnalyticsIngestPipeline pipeline,
+                                     final LiveSessionAggregator liveSessions,
+                                     final AnalyticsIngestProperties properties,
+                                     final ObjectMapper objectMapper) {
+        this.pipeline = pipeline;
+        this.liveSessions = liveSessions;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Accept a batch of events.
+     * @param callerId user id forwarded by the gateway
+     * @param requests events to ingest
+     * @return 202 with the accepted count, or 429 when the buffer is full
+     */
+    @PostMapping("/events")
+    public ResponseEntity<IngestResponse> ingest(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @RequestBody final List<AnalyticsEventRequest> requests) {
+        long userId = GatewayUser.require(callerId);
+        if (requests.isEmpty()) {
+            return ResponseEntity.accepted().body(new IngestResponse(0));
+        }
+        if (requests.size() > properties.getMaxRequestEvents()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + properties.getMaxRequestEvents() + " events per request");
+        }
+        Instant receivedAt = Instant.now();
+        List<AnalyticsEvent> events = new ArrayList<>(requests.size());
+        for (AnalyticsEventRequest request : requests) {
+            events.add(toEvent(userId, request, receivedAt));
+        }
+        if (!pipeline.offer(events)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(new IngestResponse(0));
+        }
+        for (int i = 0; i < events.size(); i++) {
+            liveSessions.record(events.get(i), timingErrorMicros(requests.get(i).eventData()));
+        }
+        return ResponseEntity.accepted().body(new IngestResponse(events.size()));
+    }
+
+    private AnalyticsEvent toEvent(final long userId, final AnalyticsEventRequest request, final Instant receivedAt) {
+        String eventType = request.eventType();
+        if (eventType == null || eventType.isBlank() || eventType.length() > MAX_EVENT_TYPE_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid eventType");
+        }
+        if (request.sessionId() != null && request.sessionId().length() > MAX_SESSION_ID_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sessionId");
+        }
+        if (request.userId() != null && request.userId() != userId) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Events can only be recorded for the caller");
+        }
+        if (userId > Integer.MAX_VALUE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid userId");
+        }
+        Instant timestamp = request.timestamp() != null ? request.timestamp() : receivedAt;
+        if (timestamp.isBefore(MIN_TIMESTAMP) || timestamp.isAfter(receivedAt.plus(MAX_CLOCK_SKEW))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid timestamp");
+        }
+        return new AnalyticsEvent(userId, eventType, toJson(request.eventData()), request.sessionId(),
+                timestamp, latencyMicros(request.eventData()));
+    }
+
+    private static long latencyMicros(final Map<String, Object> eventData) {
+        if (eventData != null && eventData.get(LATENCY_FIELD) instanceof Number latency
+                && latency.doubleValue() >= 0) {
+            return Math.round(latency.doubleValue() * MICROS_PER_MILLI);
+        }
+        return AnalyticsEvent.NO_LATENCY;
+    }
+
+    private static long timingErrorMicros(final Map<String, Object> eventData) {
+        if (eventData != null && eventData.get(TIMING_ERROR_FIELD) instanceof Number error) {
+            return Math.round(error.doubleValue() * MICROS_PER_MILLI);
+        }
+        return LiveSessionAggregator.NO_TIMING_ERROR;
+    }
+
+    private String toJson(final Map<String, Object> eventData) {
+        if (eventData == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(eventData);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid eventData", e);
+        }
+    }
+
+    /**
+     * Ingestion result.
+     * @param accepted number of events buffered
+     */
+    public record IngestResponse(int accepted) {
+    }
+}
@@ -0,0 +1,239 @@
+package com.seminote.analytics.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers ingested events and flushes them to Postgres in large batches.
+ *
+ * Request threads only append to a bounded {@link EventRingBuffer}; a single
+ * flusher thread drains it whenever the flush size is reached or the flush
+ * interval passes. When the database falls behind the buffer fills up and
+ * {@link #offer(List)} starts rejecting batches, which the endpoint turns into
+ * 429 responses instead of queueing without bound. A flush that fails for a
+ * transient reason is retried with backoff and is never dropped while the
+ * service is running. A flush the database rejects for good (an integrity or
+ * data error) is split in halves until the offending events are isolated;
+ * those go to the {@link AnalyticsDeadLetterWriter} and the rest is written.
+ */
+public class AnalyticsIngestPipeline implements SmartLifecycle {
+
+    /** Lifecycle phase: after storage setup, before components that feed the pipeline. */
+    public static final int PHASE = DEFAULT_PHASE - 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsIngestPipeline.class);
+    private static final long INITIAL_BACKOFF_MS = 50;
+    private static final long MAX_BACKOFF_MS = 5_000;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+
+    private final EventRingBuffer buffer;
+    private final AnalyticsEventWriter writer;
+    private final AnalyticsDeadLetterWriter deadLetters;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter deadLettered;
+    private final Timer flushLatency;
+    private final DistributionSummary flushBatchSize;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Create a pipeline that only logs and counts rejected events.
+     * @param properties buffer and flush settings
+     * @param writer batch writer
+     * @param registry registry for ingestion metrics
+     */
+    public AnalyticsIngestPipeline(final AnalyticsIngestProperties properties, final AnalyticsEventWriter writer,
+                                   final MeterRegistry registry) {
+        this(properties, writer, AnalyticsDeadLetterWriter.DISCARD, registry);
+    }
+
+    /**
+     * Create a pipeline.
+     * @param properties buffer and flush settings
+     * @param writer batch writer
+     * @param deadLetters store for events the database rejects for good
+     * @param registry registry for ingestion metrics
+     */
+    public AnalyticsIngestPipeline(final AnalyticsIngestProperties properties, final AnalyticsEventWriter writer,
+                                   final AnalyticsDeadLetterWriter deadLetters, final MeterRegistry registry) {
+        this.buffer = new EventRingBuffer(properties.getBufferCapacity(), properties.getFlushSize());
+        this.writer = writer;
+        this.deadLetters = deadLetters;
+        this.flushSize = properties.getFlushSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.accepted = Counter.builder("seminote.analytics.events.accepted")
+                .description("Events accepted into the ingestion buffer").register(registry);
+        this.rejected = Counter.builder("seminote.analytics.events.rejected")
+                .description("Events rejected because the ingestion buffer was full").register(registry);
+        this.written = Counter.builder("seminote.analytics.events.written")
+                .description("Events written to Postgres").register(registry);
+        this.deadLettered = Counter.builder("seminote.analytics.events.dead_lettered")
+                .description("Events the database rejected, set aside instead of retried").register(registry);
+        this.flushLatency = Timer.builder("seminote.analytics.flush")
+                .description("Time to write one flushed batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.flushBatchSize = DistributionSummary.builder("seminote.analytics.flush.size")
+                .description("Events per flushed batch").register(registry);
+        Gauge.builder("seminote.analytics.buffer.size", buffer, EventRingBuffer::size)
+                .description("Events waiting to be flushed").register(registry);
+    }
+
+    /**
+     * Buffer a batch of events, all or nothing.
+     * @param events events to buffer
+     * @return false if the buffer is full or the pipeline is stopped
+     */
+    public boolean offer(final List<AnalyticsEvent> events) {
+        if (running && buffer.offerAll(events)) {
+            accepted.increment(events.size());
+            return true;
+        }
+        rejected.increment(events.size());
+        return false;
+    }
+
+    /**
+     * Number of events waiting to be flushed.
+     * @return buffered event count
+     */
+    public int pending() {
+        return buffer.size();
+    }
+
+    /**
+     * Buffer capacity after rounding to a power of two.
+     * @return maximum buffered events
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "analytics-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        buffer.wakeUp();
+        try {
+            flusher.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runFlusher() {
+        List<AnalyticsEvent> batch = new ArrayList<>(flushSize);
+        while (running) {
+            try {
+                buffer.awaitFlush(flushIntervalNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            flush(batch);
+        }
+        while (buffer.size() > 0 && flush(batch)) {
+            // Drain what was accepted before shutdown
+        }
+    }
+
+    private boolean flush(final List<AnalyticsEvent> batch) {
+        batch.clear();
+        if (buffer.drainTo(batch, flushSize) == 0) {
+            return true;
+        }
+        return write(batch);
+    }
+
+    private boolean write(final List<AnalyticsEvent> events) {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                writer.write(events);
+                flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                flushBatchSize.record(events.size());
+                written.increment(events.size());
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                return isolate(events, e);
+            } catch (RuntimeException e) {
+                if (!running && attempt >= SHUTDOWN_ATTEMPTS) {
+                    LOGGER.error("Dropping {} analytics events on shutdown after {} failed flushes",
+                            events.size(), attempt, e);
+                    return false;
+                }
+                LOGGER.warn("Analytics flush of {} events failed (attempt {}), retrying in {} ms: {}",
+                        events.size(), attempt, backoffMs, e.toString());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Retrying a rejected batch can never succeed, so bisect it: halves that
+     * write cleanly are kept and single rejected events are dead-lettered.
+     */
+    private boolean isolate(final List<AnalyticsEvent> events, final DataIntegrityViolationException e) {
+        if (events.size() > 1) {
+            int half = events.size() / 2;
+            boolean first = write(events.subList(0, half));
+            return write(events.subList(half, events.size())) && first;
+        }
+        String reason = e.getMostSpecificCause().getMessage();
+        LOGGER.error("Dead-lettering analytics event {} rejected by the database: {}", events.get(0), reason);
+        deadLettered.increment();
+        try {
+            deadLetters.write(events, reason);
+        } catch (RuntimeException deadLetterFailure) {
+            LOGGER.error("Could not store dead-lettered analytics event, dropping it", deadLetterFailure);
+        }
+        return true;
+    }
+}
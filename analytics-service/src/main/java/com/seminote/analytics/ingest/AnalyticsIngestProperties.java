@@ -0,0 +1,73 @@
+package com.seminote.analytics.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the analytics event ingestion pipeline.
+ */
+@ConfigurationProperties(prefix = "seminote.analytics.ingest")
+public class AnalyticsIngestProperties {
+
+    private static final int DEFAULT_BUFFER_CAPACITY = 65_536;
+    private static final int DEFAULT_FLUSH_SIZE = 5_000;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+    private static final int DEFAULT_MAX_REQUEST_EVENTS = 1_000;
+
+    /**
+     * How buffered events are written to Postgres.
+     */
+    public enum WriteMode {
+        /** Stream rows with {@code COPY ... FROM STDIN}. */
+        COPY,
+        /** Batched multi-row {@code INSERT}s, for proxies that do not support COPY. */
+        INSERT
+    }
+
+    private int bufferCapacity = DEFAULT_BUFFER_CAPACITY;
+    private int flushSize = DEFAULT_FLUSH_SIZE;
+    private Duration flushInterval = Duration.ofMillis(DEFAULT_FLUSH_INTERVAL_MS);
+    private int maxRequestEvents = DEFAULT_MAX_REQUEST_EVENTS;
+    private WriteMode writeMode = WriteMode.COPY;
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(final int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    public void setFlushSize(final int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(final Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxRequestEvents() {
+        return maxRequestEvents;
+    }
+
+    public void setMaxRequestEvents(final int maxRequestEvents) {
+        this.maxRequestEvents = maxRequestEvents;
+    }
+
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(final WriteMode writeMode) {
+        this.writeMode = writeMode;
+    }
+}
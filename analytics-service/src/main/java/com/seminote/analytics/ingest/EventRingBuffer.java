@@ -0,0 +1,119 @@
+package com.seminote.analytics.ingest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer between the ingestion endpoint and the flusher.
+ *
+ * Batches are accepted all-or-nothing so a client either gets its whole
+ * batch buffered or a clear signal to back off. The flusher is woken when
+ * the flush size is reached; otherwise it flushes on its own timer.
+ */
+final class EventRingBuffer {
+
+    private final AnalyticsEvent[] slots;
+    private final int mask;
+    private final int flushSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushReady = lock.newCondition();
+
+    private long head;
+    private long tail;
+
+    EventRingBuffer(final int capacity, final int flushSize) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.slots = new AnalyticsEvent[size];
+        this.mask = size - 1;
+        this.flushSize = Math.max(1, Math.min(flushSize, size));
+    }
+
+    /**
+     * Append a batch if it fits entirely.
+     * @param events events to buffer
+     * @return false when the buffer does not have room for the whole batch
+     */
+    boolean offerAll(final List<AnalyticsEvent> events) {
+        lock.lock();
+        try {
+            if (slots.length - (tail - head) < events.size()) {
+                return false;
+            }
+            for (AnalyticsEvent event : events) {
+                slots[(int) (tail++ & mask)] = event;
+            }
+            if (tail - head >= flushSize) {
+                flushReady.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move up to {@code max} events into {@code sink}.
+     * @param sink destination list
+     * @param max maximum events to move
+     * @return number of events moved
+     */
+    int drainTo(final List<AnalyticsEvent> sink, final int max) {
+        lock.lock();
+        try {
+            int count = (int) Math.min(max, tail - head);
+            for (int i = 0; i < count; i++) {
+                int index = (int) (head++ & mask);
+                sink.add(slots[index]);
+                slots[index] = null;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a full flush batch is buffered or the timeout passes.
+     * @param timeout maximum wait
+     * @param unit timeout unit
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitFlush(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (tail - head < flushSize && nanos > 0) {
+                nanos = flushReady.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wake the flusher immediately, used on shutdown.
+     */
+    void wakeUp() {
+        lock.lock();
+        try {
+            flushReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,45 @@
+package com.seminote.analytics.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes rejected events to {@code analytics_dead_letters}, which has no
+ * foreign keys and only text columns, so any event the endpoint accepted fits.
+ */
+public class JdbcAnalyticsDeadLetterWriter implements AnalyticsDeadLetterWriter {
+
+    static final String INSERT_SQL = "INSERT INTO analytics_dead_letters "
+            + "(user_id, event_type, event_data, session_id, timestamp, reason) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a writer.
+     * @param jdbcTemplate template over the analytics datasource
+     */
+    public JdbcAnalyticsDeadLetterWriter(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(final List<AnalyticsEvent> events, final String reason) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            if (event.userId() != null) {
+                statement.setLong(1, event.userId());
+            } else {
+                statement.setNull(1, Types.BIGINT);
+            }
+            statement.setString(2, event.eventType());
+            statement.setString(3, event.eventDataJson());
+            statement.setString(4, event.sessionId());
+            statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.ofInstant(event.timestamp(), ZoneOffset.UTC)));
+            statement.setString(6, reason);
+        });
+    }
+}
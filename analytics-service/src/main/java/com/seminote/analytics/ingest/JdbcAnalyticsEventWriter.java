@@ -0,0 +1,141 @@
+package com.seminote.analytics.ingest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes event batches to the {@code analytics} table.
+ *
+ * In {@link AnalyticsIngestProperties.WriteMode#COPY} mode rows are encoded as
+ * CSV and streamed with {@code COPY ... FROM STDIN}, falling back to batched
+ * inserts when the connection is not a Postgres connection. Timestamps are
+ * stored as UTC.
+ */
+public class JdbcAnalyticsEventWriter implements AnalyticsEventWriter {
+
+    static final String COPY_SQL = "COPY analytics (user_id, event_type, event_data, session_id, timestamp) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    static final String INSERT_SQL = "INSERT INTO analytics (user_id, event_type, event_data, session_id, timestamp) "
+            + "VALUES (?, ?, CAST(? AS JSONB), ?, ?)";
+
+    private static final int COPY_CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsIngestProperties.WriteMode writeMode;
+
+    /**
+     * Create a writer.
+     * @param jdbcTemplate template over the analytics datasource
+     * @param writeMode COPY or batched INSERT
+     */
+    public JdbcAnalyticsEventWriter(final JdbcTemplate jdbcTemplate,
+                                    final AnalyticsIngestProperties.WriteMode writeMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeMode = writeMode;
+    }
+
+    @Override
+    public void write(final List<AnalyticsEvent> events) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (writeMode == AnalyticsIngestProperties.WriteMode.COPY
+                    && connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), events);
+            } else {
+                insert(connection, events);
+            }
+            return null;
+        });
+    }
+
+    private static void copy(final PGConnection connection, final List<AnalyticsEvent> events) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK_BYTES + 1024);
+            for (AnalyticsEvent event : events) {
+                appendCsvRow(chunk, event);
+                if (chunk.length() >= COPY_CHUNK_BYTES) {
+                    writeChunk(copyIn, chunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(copyIn, chunk);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeChunk(final CopyIn copyIn, final StringBuilder chunk) throws SQLException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static void insert(final Connection connection, final List<AnalyticsEvent> events) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (AnalyticsEvent event : events) {
+                if (event.userId() != null) {
+                    statement.setLong(1, event.userId());
+                } else {
+                    statement.setNull(1, Types.BIGINT);
+                }
+                statement.setString(2, event.eventType());
+                statement.setString(3, event.eventDataJson());
+                statement.setString(4, event.sessionId());
+                statement.setTimestamp(5, Timestamp.valueOf(toUtc(event)));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    static void appendCsvRow(final StringBuilder out, final AnalyticsEvent event) {
+        if (event.userId() != null) {
+            out.append(event.userId().longValue());
+        }
+        out.append(',');
+        appendCsvField(out, event.eventType());
+        out.append(',');
+        appendCsvField(out, event.eventDataJson());
+        out.append(',');
+        appendCsvField(out, event.sessionId());
+        out.append(',');
+        out.append(toUtc(event));
+        out.append('\n');
+    }
+
+    /** Null is written as an unquoted empty field, everything else is quoted. */
+    private static void appendCsvField(final StringBuilder out, final String value) {
+        if (value == null) {
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static LocalDateTime toUtc(final AnalyticsEvent event) {
+        return LocalDateTime.ofInstant(event.timestamp(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,263 @@
+package com.seminote.analytics.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.analytics.ingest.AnalyticsEvent;
+import com.seminote.analytics.ingest.AnalyticsIngestPipeline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory aggregation of practice sessions in progress.
+ *
+ * Events accepted by the ingestion endpoint are folded into per-session
+ * state as they arrive, so live numbers never touch Postgres. Snapshots are
+ * computed from a small ring of time slots and are cheap enough to serve on
+ * every poll or SSE push. When a session ends, explicitly or by going idle,
+ * its totals are written once as a {@value #SUMMARY_EVENT} event through the
+ * regular ingestion pipeline and the state is dropped.
+ *
+ * Runs in the default lifecycle phase, after the pipeline, so sessions still
+ * live on shutdown are summarised before the pipeline drains.
+ */
+public class LiveSessionAggregator implements SmartLifecycle {
+
+    /** Event type counted as a played note. */
+    public static final String NOTE_EVENT = "note_played";
+
+    /** Event type that ends a session. */
+    public static final String END_EVENT = "session_ended";
+
+    /** Event type of the persisted session summary. */
+    public static final String SUMMARY_EVENT = "session_summary";
+
+    /** Marker for events without a timing error. */
+    public static final long NO_TIMING_ERROR = Long.MIN_VALUE;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveSessionAggregator.class);
+
+    private final LiveSessionProperties properties;
+    private final AnalyticsIngestPipeline pipeline;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final long slotMillis;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Queue<AnalyticsEvent> pendingSummaries = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<LiveSessionSnapshot>> endListeners = new CopyOnWriteArrayList<>();
+
+    private volatile ScheduledExecutorService sweeper;
+
+    /**
+     * Create an aggregator.
+     * @param properties window and eviction settings
+     * @param pipeline pipeline that persists session summaries
+     * @param objectMapper mapper for summary payloads
+     * @param registry registry for the active session gauge
+     */
+    public LiveSessionAggregator(final LiveSessionProperties properties, final AnalyticsIngestPipeline pipeline,
+                                 final ObjectMapper objectMapper, final MeterRegistry registry) {
+        this(properties, pipeline, objectMapper, registry, System::currentTimeMillis);
+    }
+
+    LiveSessionAggregator(final LiveSessionProperties properties, final AnalyticsIngestPipeline pipeline,
+                          final ObjectMapper objectMapper, final MeterRegistry registry, final LongSupplier clock) {
+        this.properties = properties;
+        this.pipeline = pipeline;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.slotMillis = Math.max(1, properties.getSlotDuration().toMillis());
+        Gauge.builder("seminote.analytics.live.sessions", sessions, Map::size)
+                .description("Practice sessions aggregated in memory").register(registry);
+    }
+
+    /**
+     * Fold an accepted event into its session. Events without a session id are ignored.
+     * @param event accepted event
+     * @param timingErrorMicros signed timing error in microseconds, or {@link #NO_TIMING_ERROR}
+     */
+    public void record(final AnalyticsEvent event, final long timingErrorMicros) {
+        String sessionId = event.sessionId();
+        if (sessionId == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (END_EVENT.equals(event.eventType())) {
+            SessionState state = sessions.get(sessionId);
+            if (state != null) {
+                state.record(event.userId(), false, NO_TIMING_ERROR, event.latencyMicros(), now);
+                end(sessionId);
+            }
+            return;
+        }
+        SessionState state = sessions.get(sessionId);
+        if (state == null) {
+            if (sessions.size() >= properties.getMaxSessions()) {
+                return;
+            }
+            state = sessions.computeIfAbsent(sessionId,
+                    id -> new SessionState(id, properties.getWindowSlots(), slotMillis, now));
+        }
+        state.record(event.userId(), NOTE_EVENT.equals(event.eventType()), timingErrorMicros,
+                event.latencyMicros(), now);
+    }
+
+    /**
+     * Current snapshot of a session.
+     * @param sessionId practice session id
+     * @return snapshot, or null if the session is not live
+     */
+    public LiveSessionSnapshot snapshot(final String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        return state != null ? state.snapshot(clock.getAsLong()) : null;
+    }
+
+    /**
+     * End a session: persist its summary, notify listeners and drop its state.
+     * @param sessionId practice session id
+     * @return final snapshot, or null if the session was not live
+     */
+    public LiveSessionSnapshot end(final String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null || !state.end()) {
+            return null;
+        }
+        sessions.remove(sessionId, state);
+        LiveSessionSnapshot last = state.snapshot(clock.getAsLong());
+        persist(last);
+        for (Consumer<LiveSessionSnapshot> listener : endListeners) {
+            listener.accept(last);
+        }
+        return last;
+    }
+
+    /**
+     * Register a callback invoked with the final snapshot of every ended session.
+     * @param listener end listener
+     */
+    public void addEndListener(final Consumer<LiveSessionSnapshot> listener) {
+        endListeners.add(listener);
+    }
+
+    /**
+     * Number of live sessions.
+     * @return session count
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * End idle sessions and retry summaries the pipeline rejected.
+     */
+    public void sweep() {
+        long now = clock.getAsLong();
+        long idleMillis = properties.getIdleTimeout().toMillis();
+        List<String> idle = new ArrayList<>();
+        for (Map.Entry<String, SessionState> entry : sessions.entrySet()) {
+            if (entry.getValue().isIdle(now, idleMillis)) {
+                idle.add(entry.getKey());
+            }
+        }
+        for (String sessionId : idle) {
+            end(sessionId);
+        }
+        Iterator<AnalyticsEvent> it = pendingSummaries.iterator();
+        while (it.hasNext()) {
+            AnalyticsEvent summary = it.next();
+            if (!pipeline.offer(List.of(summary))) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private void persist(final LiveSessionSnapshot snapshot) {
+        AnalyticsEvent summary = new AnalyticsEvent(snapshot.userId(), SUMMARY_EVENT, summaryJson(snapshot),
+                snapshot.sessionId(), Instant.ofEpochMilli(clock.getAsLong()));
+        if (!pendingSummaries.isEmpty() || !pipeline.offer(List.of(summary))) {
+            pendingSummaries.add(summary);
+        }
+    }
+
+    private String summaryJson(final LiveSessionSnapshot snapshot) {
+        LiveSessionSnapshot.Stats total = snapshot.total();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("startedAt", snapshot.startedAt().toString());
+        data.put("endedAt", snapshot.lastEventAt().toString());
+        data.put("durationSeconds", total.seconds());
+        data.put("events", total.events());
+        data.put("notesPlayed", total.notesPlayed());
+        data.put("timingErrorMeanMs", total.timingErrorMeanMs());
+        data.put("timingErrorMeanAbsMs", total.timingErrorMeanAbsMs());
+        data.put("timingErrorHistogram", total.timingErrorHistogram());
+        data.put("detectionLatencyP50Ms", total.latencyP50Ms());
+        data.put("detectionLatencyP99Ms", total.latencyP99Ms());
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize session summary", e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-live-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (sweeper == null) {
+            return;
+        }
+        sweeper.shutdownNow();
+        sweeper = null;
+        for (String sessionId : new ArrayList<>(sessions.keySet())) {
+            end(sessionId);
+        }
+        sweep();
+        if (!pendingSummaries.isEmpty()) {
+            LOGGER.warn("Dropping {} live session summaries on shutdown", pendingSummaries.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sweeper != null;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Live session sweep failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.seminote.analytics.live;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes live session snapshots to SSE subscribers.
+ *
+ * One snapshot per session is computed per push interval and shared by all
+ * of its subscribers. When the session ends each subscriber receives the
+ * final snapshot as an {@value #ENDED_EVENT} event and the stream completes.
+ */
+public class LiveSessionBroadcaster implements SmartLifecycle {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String ENDED_EVENT = "ended";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveSessionBroadcaster.class);
+    private static final Duration EMITTER_TIMEOUT = Duration.ofMinutes(30);
+
+    private final LiveSessionAggregator aggregator;
+    private final LiveSessionProperties properties;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService pusher;
+
+    /**
+     * Create a broadcaster.
+     * @param aggregator source of snapshots
+     * @param properties push settings
+     */
+    public LiveSessionBroadcaster(final LiveSessionAggregator aggregator, final LiveSessionProperties properties) {
+        this.aggregator = aggregator;
+        this.properties = properties;
+        aggregator.addEndListener(this::sessionEnded);
+    }
+
+    /**
+     * Subscribe to a session's snapshots.
+     * @param sessionId practice session id
+     * @return emitter that receives a snapshot every push interval
+     */
+    public SseEmitter subscribe(final String sessionId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT.toMillis());
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(sessionId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> emitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        LiveSessionSnapshot snapshot = aggregator.snapshot(sessionId);
+        if (snapshot != null) {
+            send(emitter, SNAPSHOT_EVENT, snapshot);
+        }
+        return emitter;
+    }
+
+    /**
+     * Send the current snapshot to every subscriber.
+     */
+    public void push() {
+        for (Map.Entry<String, List<SseEmitter>> entry : subscribers.entrySet()) {
+            List<SseEmitter> emitters = entry.getValue();
+            if (emitters.isEmpty()) {
+                subscribers.remove(entry.getKey(), emitters);
+                continue;
+            }
+            LiveSessionSnapshot snapshot = aggregator.snapshot(entry.getKey());
+            if (snapshot == null) {
+                continue;
+            }
+            for (SseEmitter emitter : emitters) {
+                send(emitter, SNAPSHOT_EVENT, snapshot);
+            }
+        }
+    }
+
+    private void sessionEnded(final LiveSessionSnapshot snapshot) {
+        List<SseEmitter> emitters = subscribers.remove(snapshot.sessionId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, ENDED_EVENT, snapshot)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private static boolean send(final SseEmitter emitter, final String name, final LiveSessionSnapshot snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(snapshot));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (pusher != null) {
+            return;
+        }
+        pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-live-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getPushInterval().toMillis();
+        pusher.scheduleAtFixedRate(() -> {
+            try {
+                push();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Live session push failed: {}", e.toString());
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (pusher == null) {
+            return;
+        }
+        pusher.shutdownNow();
+        pusher = null;
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pusher != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.seminote.analytics.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.analytics.ingest.AnalyticsIngestPipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires live session aggregation.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(LiveSessionProperties.class)
+public class LiveSessionConfiguration {
+
+    /**
+     * In-memory session aggregator.
+     * @param properties live session settings
+     * @param pipeline pipeline that persists session summaries
+     * @param objectMapper mapper for summary payloads
+     * @param registry metrics registry
+     * @return aggregator
+     */
+    @Bean
+    public LiveSessionAggregator liveSessionAggregator(final LiveSessionProperties properties,
+                                                       final AnalyticsIngestPipeline pipeline,
+                                                       final ObjectMapper objectMapper,
+                                                       final MeterRegistry registry) {
+        return new LiveSessionAggregator(properties, pipeline, objectMapper, registry);
+    }
+
+    /**
+     * SSE broadcaster for live snapshots.
+     * @param aggregator session aggregator
+     * @param properties live session settings
+     * @return broadcaster
+     */
+    @Bean
+    public LiveSessionBroadcaster liveSessionBroadcaster(final LiveSessionAggregator aggregator,
+                                                         final LiveSessionProperties properties) {
+        return new LiveSessionBroadcaster(aggregator, properties);
+    }
+}
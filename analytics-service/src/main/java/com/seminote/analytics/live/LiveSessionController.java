@@ -0,0 +1,71 @@
+package com.seminote.analytics.live;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live numbers for practice sessions in progress, served from memory.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics/sessions")
+public class LiveSessionController {
+
+    private final LiveSessionAggregator aggregator;
+    private final LiveSessionBroadcaster broadcaster;
+
+    /**
+     * Create the controller.
+     * @param aggregator live session aggregator
+     * @param broadcaster SSE broadcaster
+     */
+    public LiveSessionController(final LiveSessionAggregator aggregator, final LiveSessionBroadcaster broadcaster) {
+        this.aggregator = aggregator;
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Current snapshot of a live session.
+     * @param sessionId practice session id
+     * @return snapshot
+     */
+    @GetMapping("/{sessionId}/live")
+    public LiveSessionSnapshot snapshot(@PathVariable final String sessionId) {
+        LiveSessionSnapshot snapshot = aggregator.snapshot(sessionId);
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session is not live");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stream snapshots of a session as server-sent events. Subscribing before
+     * the first event is allowed; pushes start once the session is live.
+     * @param sessionId practice session id
+     * @return SSE stream of {@code snapshot} events, ending with an {@code ended} event
+     */
+    @GetMapping(path = "/{sessionId}/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable final String sessionId) {
+        return broadcaster.subscribe(sessionId);
+    }
+
+    /**
+     * End a session and persist its summary.
+     * @param sessionId practice session id
+     * @return final snapshot
+     */
+    @PostMapping("/{sessionId}/end")
+    public LiveSessionSnapshot end(@PathVariable final String sessionId) {
+        LiveSessionSnapshot snapshot = aggregator.end(sessionId);
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session is not live");
+        }
+        return snapshot;
+    }
+}
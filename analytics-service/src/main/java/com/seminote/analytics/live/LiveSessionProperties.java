@@ -0,0 +1,73 @@
+package com.seminote.analytics.live;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for live practice session aggregation.
+ */
+@ConfigurationProperties(prefix = "seminote.analytics.live")
+public class LiveSessionProperties {
+
+    private static final int DEFAULT_WINDOW_SLOTS = 12;
+    private static final long DEFAULT_SLOT_SECONDS = 5;
+    private static final long DEFAULT_IDLE_MINUTES = 5;
+    private static final long DEFAULT_SWEEP_SECONDS = 10;
+    private static final int DEFAULT_MAX_SESSIONS = 50_000;
+
+    private int windowSlots = DEFAULT_WINDOW_SLOTS;
+    private Duration slotDuration = Duration.ofSeconds(DEFAULT_SLOT_SECONDS);
+    private Duration idleTimeout = Duration.ofMinutes(DEFAULT_IDLE_MINUTES);
+    private Duration sweepInterval = Duration.ofSeconds(DEFAULT_SWEEP_SECONDS);
+    private Duration pushInterval = Duration.ofSeconds(1);
+    private int maxSessions = DEFAULT_MAX_SESSIONS;
+
+    public int getWindowSlots() {
+        return windowSlots;
+    }
+
+    public void setWindowSlots(final int windowSlots) {
+        this.windowSlots = windowSlots;
+    }
+
+    public Duration getSlotDuration() {
+        return slotDuration;
+    }
+
+    public void setSlotDuration(final Duration slotDuration) {
+        this.slotDuration = slotDuration;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(final Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public Duration getPushInterval() {
+        return pushInterval;
+    }
+
+    public void setPushInterval(final Duration pushInterval) {
+        this.pushInterval = pushInterval;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(final int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+}
@@ -0,0 +1,35 @@
+package com.seminote.analytics.live;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a live practice session.
+ *
+ * @param sessionId practice session id
+ * @param userId learner id, may be null
+ * @param startedAt arrival time of the first event
+ * @param lastEventAt arrival time of the latest event
+ * @param ended whether the session has ended
+ * @param total stats since the session started
+ * @param window stats for the sliding window only
+ */
+public record LiveSessionSnapshot(String sessionId, Long userId, Instant startedAt, Instant lastEventAt,
+                                  boolean ended, Stats total, Stats window) {
+
+    /**
+     * Aggregated stats over a span of the session.
+     *
+     * @param seconds length of the span in seconds
+     * @param events events received
+     * @param notesPlayed {@code note_played} events
+     * @param timingErrorMeanMs mean signed timing error, negative means early
+     * @param timingErrorMeanAbsMs mean absolute timing error
+     * @param timingErrorHistogram counts per {@link TimingErrorBuckets} bucket
+     * @param latencyP50Ms median detection latency
+     * @param latencyP99Ms 99th percentile detection latency
+     */
+    public record Stats(double seconds, long events, long notesPlayed, double timingErrorMeanMs,
+                        double timingErrorMeanAbsMs, long[] timingErrorHistogram, double latencyP50Ms,
+                        double latencyP99Ms) {
+    }
+}
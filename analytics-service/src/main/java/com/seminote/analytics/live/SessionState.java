@@ -0,0 +1,180 @@
+package com.seminote.analytics.live;
+
+import com.seminote.analytics.rollup.LatencyBuckets;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Mutable aggregate of one live session.
+ *
+ * Totals and a ring of fixed-length time slots are kept in flat primitive
+ * arrays, so recording an event never allocates. A slot is cleared lazily the
+ * first time it is reused for a newer time bucket. All access is guarded by
+ * the instance monitor; critical sections are a handful of array writes.
+ */
+final class SessionState {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+
+    private final String sessionId;
+    private final int slots;
+    private final long slotMillis;
+    private final long startedAtMillis;
+
+    private final long[] slotIndex;
+    private final long[] slotEvents;
+    private final long[] slotNotes;
+    private final long[] slotTimingSum;
+    private final long[] slotTimingAbsSum;
+    private final long[] slotTimingCount;
+    private final long[] slotTimingHistogram;
+    private final long[] slotLatencyHistogram;
+
+    private final long[] totalTimingHistogram = new long[TimingErrorBuckets.COUNT];
+    private final long[] totalLatencyHistogram = new long[LatencyBuckets.COUNT];
+    private long totalEvents;
+    private long totalNotes;
+    private long totalTimingSum;
+    private long totalTimingAbsSum;
+    private long totalTimingCount;
+
+    private Long userId;
+    private long lastEventMillis;
+    private boolean ended;
+
+    SessionState(final String sessionId, final int slots, final long slotMillis, final long nowMillis) {
+        this.sessionId = sessionId;
+        this.slots = slots;
+        this.slotMillis = slotMillis;
+        this.startedAtMillis = nowMillis;
+        this.lastEventMillis = nowMillis;
+        this.slotIndex = new long[slots];
+        Arrays.fill(slotIndex, -1L);
+        this.slotEvents = new long[slots];
+        this.slotNotes = new long[slots];
+        this.slotTimingSum = new long[slots];
+        this.slotTimingAbsSum = new long[slots];
+        this.slotTimingCount = new long[slots];
+        this.slotTimingHistogram = new long[slots * TimingErrorBuckets.COUNT];
+        this.slotLatencyHistogram = new long[slots * LatencyBuckets.COUNT];
+    }
+
+    synchronized boolean record(final Long eventUserId, final boolean note, final long timingErrorMicros,
+                                final long latencyMicros, final long nowMillis) {
+        if (ended) {
+            return false;
+        }
+        if (userId == null) {
+            userId = eventUserId;
+        }
+        lastEventMillis = Math.max(lastEventMillis, nowMillis);
+        int slot = slotFor(lastEventMillis);
+        slotEvents[slot]++;
+        totalEvents++;
+        if (note) {
+            slotNotes[slot]++;
+            totalNotes++;
+        }
+        if (timingErrorMicros != LiveSessionAggregator.NO_TIMING_ERROR) {
+            int bucket = TimingErrorBuckets.indexOf(timingErrorMicros);
+            long abs = Math.abs(timingErrorMicros);
+            slotTimingSum[slot] += timingErrorMicros;
+            slotTimingAbsSum[slot] += abs;
+            slotTimingCount[slot]++;
+            slotTimingHistogram[slot * TimingErrorBuckets.COUNT + bucket]++;
+            totalTimingSum += timingErrorMicros;
+            totalTimingAbsSum += abs;
+            totalTimingCount++;
+            totalTimingHistogram[bucket]++;
+        }
+        if (latencyMicros >= 0) {
+            int bucket = LatencyBuckets.indexOf(latencyMicros);
+            slotLatencyHistogram[slot * LatencyBuckets.COUNT + bucket]++;
+            totalLatencyHistogram[bucket]++;
+        }
+        return true;
+    }
+
+    synchronized LiveSessionSnapshot snapshot(final long nowMillis) {
+        long current = nowMillis / slotMillis;
+        long events = 0;
+        long notes = 0;
+        long timingSum = 0;
+        long timingAbsSum = 0;
+        long timingCount = 0;
+        long[] timing = new long[TimingErrorBuckets.COUNT];
+        long[] latency = new long[LatencyBuckets.COUNT];
+        for (int slot = 0; slot < slots; slot++) {
+            long index = slotIndex[slot];
+            if (index < 0 || current - index >= slots) {
+                continue;
+            }
+            events += slotEvents[slot];
+            notes += slotNotes[slot];
+            timingSum += slotTimingSum[slot];
+            timingAbsSum += slotTimingAbsSum[slot];
+            timingCount += slotTimingCount[slot];
+            addRange(timing, slotTimingHistogram, slot * TimingErrorBuckets.COUNT);
+            addRange(latency, slotLatencyHistogram, slot * LatencyBuckets.COUNT);
+        }
+        double windowSeconds = Math.min(slots * slotMillis, nowMillis - startedAtMillis) / MILLIS_PER_SECOND;
+        double totalSeconds = (lastEventMillis - startedAtMillis) / MILLIS_PER_SECOND;
+        return new LiveSessionSnapshot(sessionId, userId, Instant.ofEpochMilli(startedAtMillis),
+                Instant.ofEpochMilli(lastEventMillis), ended,
+                stats(totalSeconds, totalEvents, totalNotes, totalTimingSum, totalTimingAbsSum, totalTimingCount,
+                        totalTimingHistogram.clone(), totalLatencyHistogram),
+                stats(windowSeconds, events, notes, timingSum, timingAbsSum, timingCount, timing, latency));
+    }
+
+    synchronized boolean isIdle(final long nowMillis, final long idleMillis) {
+        return nowMillis - lastEventMillis >= idleMillis;
+    }
+
+    synchronized boolean end() {
+        if (ended) {
+            return false;
+        }
+        ended = true;
+        return true;
+    }
+
+    private int slotFor(final long nowMillis) {
+        long index = nowMillis / slotMillis;
+        int slot = (int) (index % slots);
+        if (slotIndex[slot] != index) {
+            slotIndex[slot] = index;
+            slotEvents[slot] = 0;
+            slotNotes[slot] = 0;
+            slotTimingSum[slot] = 0;
+            slotTimingAbsSum[slot] = 0;
+            slotTimingCount[slot] = 0;
+            Arrays.fill(slotTimingHistogram, slot * TimingErrorBuckets.COUNT,
+                    (slot + 1) * TimingErrorBuckets.COUNT, 0L);
+            Arrays.fill(slotLatencyHistogram, slot * LatencyBuckets.COUNT,
+                    (slot + 1) * LatencyBuckets.COUNT, 0L);
+        }
+        return slot;
+    }
+
+    private static void addRange(final long[] target, final long[] source, final int offset) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[offset + i];
+        }
+    }
+
+    private static LiveSessionSnapshot.Stats stats(final double seconds, final long events, final long notes,
+                                                   final long timingSum, final long timingAbsSum,
+                                                   final long timingCount, final long[] timingHistogram,
+                                                   final long[] latencyHistogram) {
+        return new LiveSessionSnapshot.Stats(seconds, events, notes,
+                timingCount == 0 ? 0.0 : timingSum / MICROS_PER_MILLI / timingCount,
+                timingCount == 0 ? 0.0 : timingAbsSum / MICROS_PER_MILLI / timingCount,
+                timingHistogram,
+                LatencyBuckets.percentileMillis(latencyHistogram, P50),
+                LatencyBuckets.percentileMillis(latencyHistogram, P99));
+    }
+}
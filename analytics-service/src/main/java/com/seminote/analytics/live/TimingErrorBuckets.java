@@ -0,0 +1,35 @@
+package com.seminote.analytics.live;
+
+/**
+ * Fixed buckets for signed note timing errors: 5 ms wide between -150 ms and
+ * +150 ms, plus one overflow bucket on each side. Negative errors are early
+ * notes, positive errors late ones.
+ */
+public final class TimingErrorBuckets {
+
+    /** Width of one bucket in microseconds. */
+    public static final long WIDTH_MICROS = 5_000;
+
+    /** Lower bound of the first regular bucket in microseconds. */
+    public static final long MIN_MICROS = -150_000;
+
+    /** Number of buckets including both overflow buckets. */
+    public static final int COUNT = (int) (-2 * MIN_MICROS / WIDTH_MICROS) + 2;
+
+    private TimingErrorBuckets() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Bucket index of a timing error.
+     * @param micros signed timing error in microseconds
+     * @return bucket index, 0 and {@link #COUNT} - 1 are the overflow buckets
+     */
+    public static int indexOf(final long micros) {
+        if (micros < MIN_MICROS) {
+            return 0;
+        }
+        long index = Math.floorDiv(micros - MIN_MICROS, WIDTH_MICROS) + 1;
+        return (int) Math.min(index, COUNT - 1);
+    }
+}
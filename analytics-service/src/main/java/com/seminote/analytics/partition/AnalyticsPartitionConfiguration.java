@@ -0,0 +1,28 @@
+package com.seminote.analytics.partition;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires partition maintenance for the {@code analytics} table.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AnalyticsPartitionProperties.class)
+public class AnalyticsPartitionConfiguration {
+
+    /**
+     * Partition manager, started with the application context.
+     * @param jdbcTemplate template over the service datasource
+     * @param properties partition settings
+     * @return partition manager
+     */
+    @Bean
+    public AnalyticsPartitionManager analyticsPartitionManager(final JdbcTemplate jdbcTemplate,
+                                                               final AnalyticsPartitionProperties properties) {
+        return new AnalyticsPartitionManager(jdbcTemplate, properties, Clock.systemUTC());
+    }
+}
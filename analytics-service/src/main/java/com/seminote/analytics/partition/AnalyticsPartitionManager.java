@@ -0,0 +1,212 @@
+package com.seminote.analytics.partition;
+
+import com.seminote.analytics.ingest.AnalyticsIngestPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code analytics} range partitions ahead of the clock and drops
+ * expired ones.
+ *
+ * Upcoming partitions are created on startup and then on every maintenance
+ * run, so events never pile up in {@code analytics_default}; rows that did
+ * land there for a new partition's range are moved into it as it is created.
+ * Expired partitions are detached and dropped whole, which frees the space
+ * immediately instead of leaving a large DELETE for vacuum. Rollups are kept
+ * independently of raw retention.
+ */
+public class AnalyticsPartitionManager implements SmartLifecycle {
+
+    static final String PARENT_TABLE = "analytics";
+    static final String PARTITION_PREFIX = PARENT_TABLE + "_p";
+    static final String DEFAULT_PARTITION = PARENT_TABLE + "_default";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsPartitionManager.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6}|\\d{8})");
+    private static final int MONTHLY_SUFFIX_LENGTH = 6;
+    private static final String LIST_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + PARENT_TABLE + "'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsPartitionProperties properties;
+    private final Clock clock;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create a partition manager.
+     * @param jdbcTemplate template over the analytics datasource
+     * @param properties partition settings
+     * @param clock time source, partitions follow its UTC date
+     */
+    public AnalyticsPartitionManager(final JdbcTemplate jdbcTemplate, final AnalyticsPartitionProperties properties,
+                                     final Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Create missing upcoming partitions and drop expired ones.
+     */
+    public void maintain() {
+        LocalDate today = LocalDate.now(clock);
+        for (LocalDate start : upcomingPartitions(today)) {
+            createPartition(start);
+        }
+        for (String name : expiredPartitions(jdbcTemplate.queryForList(LIST_SQL, String.class), today)) {
+            dropPartition(name);
+        }
+    }
+
+    /**
+     * Start dates of the current partition and the configured number ahead of it.
+     * @param today current UTC date
+     * @return partition start dates, oldest first
+     */
+    List<LocalDate> upcomingPartitions(final LocalDate today) {
+        PartitionGranularity granularity = properties.getGranularity();
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate start = granularity.startOf(today);
+        for (int i = 0; i <= properties.getPremake(); i++) {
+            starts.add(start);
+            start = granularity.next(start);
+        }
+        return starts;
+    }
+
+    /**
+     * Partitions whose whole range is older than the retention period.
+     * @param names partition table names, unrecognised names are ignored
+     * @param today current UTC date
+     * @return names of partitions to drop
+     */
+    List<String> expiredPartitions(final Collection<String> names, final LocalDate today) {
+        LocalDate cutoff = today.minus(properties.getRetention());
+        List<String> expired = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            String suffix = matcher.group(1);
+            boolean monthly = suffix.length() == MONTHLY_SUFFIX_LENGTH;
+            PartitionGranularity granularity = monthly ? PartitionGranularity.MONTHLY : PartitionGranularity.DAILY;
+            LocalDate start = LocalDate.parse(monthly ? suffix + "01" : suffix, DateTimeFormatter.BASIC_ISO_DATE);
+            if (!granularity.next(start).isAfter(cutoff)) {
+                expired.add(name);
+            }
+        }
+        return expired;
+    }
+
+    static String partitionName(final PartitionGranularity granularity, final LocalDate start) {
+        return PARTITION_PREFIX + granularity.suffix(start);
+    }
+
+    /**
+     * Postgres refuses to create a partition while the default partition holds
+     * rows in its range, so those rows are moved over in the same statement.
+     */
+    static String createPartitionSql(final PartitionGranularity granularity, final LocalDate start) {
+        String name = partitionName(granularity, start);
+        String from = "'" + start + "'";
+        String to = "'" + granularity.next(start) + "'";
+        return "DO $$ BEGIN\n"
+                + "IF to_regclass('" + name + "') IS NULL THEN\n"
+                + "  CREATE TEMP TABLE " + name + "_moved (LIKE " + PARENT_TABLE + ") ON COMMIT DROP;\n"
+                + "  WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE timestamp >= " + from + " AND timestamp < " + to + " RETURNING *)\n"
+                + "  INSERT INTO " + name + "_moved SELECT * FROM moved;\n"
+                + "  CREATE TABLE " + name + " PARTITION OF " + PARENT_TABLE
+                + " FOR VALUES FROM (" + from + ") TO (" + to + ");\n"
+                + "  INSERT INTO " + PARENT_TABLE + " SELECT * FROM " + name + "_moved;\n"
+                + "  DROP TABLE " + name + "_moved;\n"
+                + "END IF;\n"
+                + "END $$";
+    }
+
+    private void createPartition(final LocalDate start) {
+        PartitionGranularity granularity = properties.getGranularity();
+        String name = partitionName(granularity, start);
+        try {
+            jdbcTemplate.execute(createPartitionSql(granularity, start));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not create analytics partition {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Plain DETACH: the CONCURRENTLY form is rejected while a default partition exists.
+     */
+    private void dropPartition(final String name) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            LOGGER.info("Dropped expired analytics partition {}", name);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not drop analytics partition {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Analytics partition maintenance failed: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        maintainQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getMaintenanceInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Start before the ingestion pipeline so the current partition exists
+     * before the first flush.
+     * @return lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return AnalyticsIngestPipeline.PHASE - 1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.seminote.analytics.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Settings for {@code analytics} table partition maintenance.
+ */
+@ConfigurationProperties(prefix = "seminote.analytics.partitions")
+public class AnalyticsPartitionProperties {
+
+    private static final int DEFAULT_PREMAKE = 2;
+    private static final int DEFAULT_RETENTION_MONTHS = 13;
+
+    private PartitionGranularity granularity = PartitionGranularity.MONTHLY;
+    private int premake = DEFAULT_PREMAKE;
+    private Period retention = Period.ofMonths(DEFAULT_RETENTION_MONTHS);
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    public PartitionGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(final PartitionGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public int getPremake() {
+        return premake;
+    }
+
+    public void setPremake(final int premake) {
+        this.premake = premake;
+    }
+
+    public Period getRetention() {
+        return retention;
+    }
+
+    public void setRetention(final Period retention) {
+        this.retention = retention;
+    }
+
+    public Duration getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+
+    public void setMaintenanceInterval(final Duration maintenanceInterval) {
+        this.maintenanceInterval = maintenanceInterval;
+    }
+}
@@ -0,0 +1,52 @@
+package com.seminote.analytics.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Size of one {@code analytics} range partition. The suffix format differs per
+ * granularity, so partitions of either kind can be recognised by name.
+ */
+public enum PartitionGranularity {
+
+    /** One partition per UTC calendar month, e.g. {@code analytics_p202610}. */
+    MONTHLY(DateTimeFormatter.ofPattern("yyyyMM")) {
+        @Override
+        LocalDate startOf(final LocalDate day) {
+            return day.with(TemporalAdjusters.firstDayOfMonth());
+        }
+
+        @Override
+        LocalDate next(final LocalDate start) {
+            return start.plusMonths(1);
+        }
+    },
+
+    /** One partition per UTC day, e.g. {@code analytics_p20261016}. */
+    DAILY(DateTimeFormatter.ofPattern("yyyyMMdd")) {
+        @Override
+        LocalDate startOf(final LocalDate day) {
+            return day;
+        }
+
+        @Override
+        LocalDate next(final LocalDate start) {
+            return start.plusDays(1);
+        }
+    };
+
+    private final DateTimeFormatter suffix;
+
+    PartitionGranularity(final DateTimeFormatter suffix) {
+        this.suffix = suffix;
+    }
+
+    abstract LocalDate startOf(LocalDate day);
+
+    abstract LocalDate next(LocalDate start);
+
+    String suffix(final LocalDate start) {
+        return suffix.format(start);
+    }
+}
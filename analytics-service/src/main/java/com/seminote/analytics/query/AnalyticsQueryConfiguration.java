@@ -0,0 +1,22 @@
+package com.seminote.analytics.query;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Wires the analytics read side.
+ */
+@Configuration(proxyBeanMethods = false)
+public class AnalyticsQueryConfiguration {
+
+    /**
+     * Repository for raw drill-down reads.
+     * @param jdbcTemplate template over the service datasource
+     * @return raw event repository
+     */
+    @Bean
+    public RawEventRepository rawEventRepository(final JdbcTemplate jdbcTemplate) {
+        return new RawEventRepository(jdbcTemplate);
+    }
+}
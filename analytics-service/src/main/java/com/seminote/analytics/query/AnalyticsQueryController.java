@@ -0,0 +1,106 @@
+package com.seminote.analytics.query;
+
+import com.seminote.analytics.rollup.DailyRollupRepository;
+import com.seminote.common.users.GatewayUser;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Read API for practice analytics.
+ *
+ * Dashboards read {@code /summary}, which is served entirely from daily
+ * rollups. {@code /events} drills down into raw partitions and is limited to
+ * short time windows. Users can only read their own analytics.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsQueryController {
+
+    static final int DEFAULT_SUMMARY_DAYS = 30;
+    static final int MAX_SUMMARY_DAYS = 366;
+    static final Duration MAX_DRILL_DOWN_WINDOW = Duration.ofDays(31);
+    static final int MAX_DRILL_DOWN_LIMIT = 1_000;
+
+    private final DailyRollupRepository rollups;
+    private final RawEventRepository rawEvents;
+
+    /**
+     * Create the controller.
+     * @param rollups daily rollup repository
+     * @param rawEvents raw event repository
+     */
+    public AnalyticsQueryController(final DailyRollupRepository rollups, final RawEventRepository rawEvents) {
+        this.rollups = rollups;
+        this.rawEvents = rawEvents;
+    }
+
+    /**
+     * Practice summary of a user, from rollups.
+     * @param callerId user id forwarded by the gateway
+     * @param userId learner id
+     * @param from first UTC day, defaults to 29 days before {@code to}
+     * @param to last UTC day, defaults to today
+     * @return summary with a per-day breakdown
+     */
+    @GetMapping("/users/{userId}/summary")
+    public UserAnalyticsSummary summary(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+        GatewayUser.requireSelf(callerId, userId);
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_SUMMARY_DAYS - 1);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_SUMMARY_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range must be between 1 and " + MAX_SUMMARY_DAYS + " days");
+        }
+        return UserAnalyticsSummary.of(userId, start, end, rollups.find(userId, start, end));
+    }
+
+    /**
+     * Raw events of a user for drill-downs.
+     * @param callerId user id forwarded by the gateway
+     * @param userId learner id
+     * @param from inclusive start instant
+     * @param to exclusive end instant
+     * @param eventType optional event type filter
+     * @param limit maximum events, newest first
+     * @return matching events
+     */
+    @GetMapping("/users/{userId}/events")
+    public List<RawAnalyticsEvent> events(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId,
+            @RequestParam final Instant from,
+            @RequestParam final Instant to,
+            @RequestParam(required = false) final String eventType,
+            @RequestParam(defaultValue = "100") final int limit) {
+        GatewayUser.requireSelf(callerId, userId);
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_DRILL_DOWN_WINDOW) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Window must be positive and at most " + MAX_DRILL_DOWN_WINDOW.toDays() + " days");
+        }
+        if (limit < 1 || limit > MAX_DRILL_DOWN_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Limit must be between 1 and " + MAX_DRILL_DOWN_LIMIT);
+        }
+        return rawEvents.find(userId, from, to, eventType, limit);
+    }
+}
@@ -0,0 +1,18 @@
+package com.seminote.analytics.query;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * Raw event returned by drill-down queries.
+ *
+ * @param id row id
+ * @param eventType event type
+ * @param eventData stored JSON payload, passed through unparsed
+ * @param sessionId practice session id
+ * @param timestamp when the event happened
+ */
+public record RawAnalyticsEvent(long id, String eventType, @JsonRawValue String eventData, String sessionId,
+                                Instant timestamp) {
+}
@@ -0,0 +1,61 @@
+package com.seminote.analytics.query;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drill-down reads against the raw {@code analytics} partitions.
+ *
+ * Every query is bounded by a timestamp range so Postgres only scans the
+ * partitions that overlap it.
+ */
+public class RawEventRepository {
+
+    private static final String SELECT_SQL = "SELECT id, event_type, event_data::text AS event_data, session_id, "
+            + "timestamp FROM analytics WHERE user_id = ? AND timestamp >= ? AND timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the analytics datasource
+     */
+    public RawEventRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Most recent events of a user in a time range.
+     * @param userId learner id
+     * @param from inclusive start
+     * @param to exclusive end
+     * @param eventType optional event type filter
+     * @param limit maximum rows
+     * @return events, newest first
+     */
+    public List<RawAnalyticsEvent> find(final long userId, final Instant from, final Instant to,
+                                        final String eventType, final int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        args.add(LocalDateTime.ofInstant(from, ZoneOffset.UTC));
+        args.add(LocalDateTime.ofInstant(to, ZoneOffset.UTC));
+        if (eventType != null) {
+            sql.append(" AND event_type = ?");
+            args.add(eventType);
+        }
+        sql.append(" ORDER BY timestamp DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new RawAnalyticsEvent(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getString("event_data"),
+                rs.getString("session_id"),
+                rs.getObject("timestamp", LocalDateTime.class).toInstant(ZoneOffset.UTC)), args.toArray());
+    }
+}
@@ -0,0 +1,73 @@
+package com.seminote.analytics.query;
+
+import com.seminote.analytics.rollup.DailyRollupRepository.StoredDailyRollup;
+import com.seminote.analytics.rollup.LatencyBuckets;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dashboard view of a user's practice over a day range, built from rollups.
+ *
+ * @param userId learner id
+ * @param from first day
+ * @param to last day
+ * @param eventCount events in the range
+ * @param practiceMinutes minutes with at least one event
+ * @param latencyP50Ms median latency
+ * @param latencyP95Ms 95th percentile latency
+ * @param latencyP99Ms 99th percentile latency
+ * @param days per-day breakdown, days without events are omitted
+ */
+public record UserAnalyticsSummary(long userId, LocalDate from, LocalDate to, long eventCount, long practiceMinutes,
+                                   double latencyP50Ms, double latencyP95Ms, double latencyP99Ms,
+                                   List<DailyStats> days) {
+
+    private static final double P50 = 50.0;
+    private static final double P95 = 95.0;
+    private static final double P99 = 99.0;
+
+    /**
+     * Build a summary from stored rollups.
+     * @param userId learner id
+     * @param from first day
+     * @param to last day
+     * @param rollups stored rollup rows
+     * @return summary
+     */
+    public static UserAnalyticsSummary of(final long userId, final LocalDate from, final LocalDate to,
+                                          final List<StoredDailyRollup> rollups) {
+        long events = 0;
+        long minutes = 0;
+        long[] histogram = new long[LatencyBuckets.COUNT];
+        List<DailyStats> days = new ArrayList<>(rollups.size());
+        for (StoredDailyRollup rollup : rollups) {
+            events += rollup.eventCount();
+            minutes += rollup.practiceMinutes();
+            LatencyBuckets.merge(histogram, rollup.latencyHistogram());
+            days.add(new DailyStats(rollup.day(), rollup.eventCount(), rollup.practiceMinutes(),
+                    LatencyBuckets.percentileMillis(rollup.latencyHistogram(), P50),
+                    LatencyBuckets.percentileMillis(rollup.latencyHistogram(), P95),
+                    LatencyBuckets.percentileMillis(rollup.latencyHistogram(), P99)));
+        }
+        return new UserAnalyticsSummary(userId, from, to, events, minutes,
+                LatencyBuckets.percentileMillis(histogram, P50),
+                LatencyBuckets.percentileMillis(histogram, P95),
+                LatencyBuckets.percentileMillis(histogram, P99),
+                days);
+    }
+
+    /**
+     * One day of a summary.
+     * @param day UTC day
+     * @param eventCount events on that day
+     * @param practiceMinutes minutes with at least one event
+     * @param latencyP50Ms median latency
+     * @param latencyP95Ms 95th percentile latency
+     * @param latencyP99Ms 99th percentile latency
+     */
+    public record DailyStats(LocalDate day, long eventCount, int practiceMinutes, double latencyP50Ms,
+                             double latencyP95Ms, double latencyP99Ms) {
+    }
+}
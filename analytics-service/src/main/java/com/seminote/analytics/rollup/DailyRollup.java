@@ -0,0 +1,72 @@
+package com.seminote.analytics.rollup;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day aggregate of a flushed batch, ready to be merged into
+ * {@code analytics_daily_rollups}.
+ */
+public final class DailyRollup {
+
+    /** Minutes in a UTC day, one bit each in {@link #activeMinuteBits()}. */
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private final long userId;
+    private final LocalDate day;
+    private final long[] activeMinutes = new long[(MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE];
+    private final long[] latencyHistogram = new long[LatencyBuckets.COUNT];
+    private long eventCount;
+
+    DailyRollup(final long userId, final LocalDate day) {
+        this.userId = userId;
+        this.day = day;
+    }
+
+    void add(final int minuteOfDay, final long latencyMicros) {
+        eventCount++;
+        activeMinutes[minuteOfDay / Long.SIZE] |= 1L << (minuteOfDay % Long.SIZE);
+        if (latencyMicros >= 0) {
+            latencyHistogram[LatencyBuckets.indexOf(latencyMicros)]++;
+        }
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public long[] getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Number of minutes with at least one event.
+     * @return active minutes in this batch
+     */
+    public int getActiveMinuteCount() {
+        int count = 0;
+        for (long word : activeMinutes) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Active minutes as a Postgres bit string literal, minute 0 first.
+     * @return 1440 characters of '0' and '1'
+     */
+    public String activeMinuteBits() {
+        char[] bits = new char[MINUTES_PER_DAY];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            bits[minute] = (activeMinutes[minute / Long.SIZE] & (1L << (minute % Long.SIZE))) != 0 ? '1' : '0';
+        }
+        return new String(bits);
+    }
+}
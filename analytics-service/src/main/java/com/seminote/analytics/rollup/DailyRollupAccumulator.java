@@ -0,0 +1,49 @@
+package com.seminote.analytics.rollup;
+
+import com.seminote.analytics.ingest.AnalyticsEvent;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds a flushed batch into one {@link DailyRollup} per user and UTC day.
+ * Anonymous events are stored raw but not rolled up.
+ */
+public final class DailyRollupAccumulator {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long SECONDS_PER_MINUTE = 60L;
+
+    private final Map<Key, DailyRollup> rollups = new HashMap<>();
+
+    /**
+     * Aggregate a batch.
+     * @param events flushed events
+     * @return rollups for the batch
+     */
+    public static Collection<DailyRollup> aggregate(final List<AnalyticsEvent> events) {
+        DailyRollupAccumulator accumulator = new DailyRollupAccumulator();
+        for (AnalyticsEvent event : events) {
+            accumulator.add(event);
+        }
+        return accumulator.rollups.values();
+    }
+
+    private void add(final AnalyticsEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        long epochSecond = event.timestamp().getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int minuteOfDay = (int) (Math.floorMod(epochSecond, SECONDS_PER_DAY) / SECONDS_PER_MINUTE);
+        rollups.computeIfAbsent(new Key(event.userId(), epochDay),
+                key -> new DailyRollup(key.userId(), LocalDate.ofEpochDay(key.epochDay())))
+                .add(minuteOfDay, event.latencyMicros());
+    }
+
+    private record Key(long userId, long epochDay) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.seminote.analytics.rollup;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and incrementally updates {@code analytics_daily_rollups}.
+ */
+public class DailyRollupRepository {
+
+    static final String UPSERT_SQL = "INSERT INTO analytics_daily_rollups "
+            + "(user_id, day, event_count, active_minutes, latency_histogram) "
+            + "VALUES (?, ?, ?, CAST(? AS BIT(1440)), ?) "
+            + "ON CONFLICT (user_id, day) DO UPDATE SET "
+            + "event_count = analytics_daily_rollups.event_count + EXCLUDED.event_count, "
+            + "active_minutes = analytics_daily_rollups.active_minutes | EXCLUDED.active_minutes, "
+            + "latency_histogram = analytics_merge_histogram("
+            + "analytics_daily_rollups.latency_histogram, EXCLUDED.latency_histogram), "
+            + "updated_at = CURRENT_TIMESTAMP";
+
+    static final String SELECT_SQL = "SELECT day, event_count, bit_count(active_minutes) AS practice_minutes, "
+            + "latency_histogram FROM analytics_daily_rollups "
+            + "WHERE user_id = ? AND day >= ? AND day <= ? ORDER BY day";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the analytics datasource
+     */
+    public DailyRollupRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Merge batch rollups into the stored ones. Rows are upserted in a stable
+     * order so concurrent writers cannot deadlock on each other.
+     * @param rollups rollups of one flushed batch
+     */
+    public void merge(final Collection<DailyRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<DailyRollup> ordered = new ArrayList<>(rollups);
+        ordered.sort((a, b) -> a.getUserId() != b.getUserId()
+                ? Long.compare(a.getUserId(), b.getUserId()) : a.getDay().compareTo(b.getDay()));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(final PreparedStatement statement, final int i) throws SQLException {
+                DailyRollup rollup = ordered.get(i);
+                statement.setLong(1, rollup.getUserId());
+                statement.setDate(2, Date.valueOf(rollup.getDay()));
+                statement.setLong(3, rollup.getEventCount());
+                statement.setObject(4, rollup.activeMinuteBits(), Types.OTHER);
+                statement.setArray(5, toSqlArray(statement, rollup.getLatencyHistogram()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+    }
+
+    /**
+     * Stored rollups of a user for an inclusive day range.
+     * @param userId learner id
+     * @param from first day
+     * @param to last day
+     * @return one row per day with events, oldest first
+     */
+    public List<StoredDailyRollup> find(final long userId, final LocalDate from, final LocalDate to) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new StoredDailyRollup(
+                rs.getDate("day").toLocalDate(),
+                rs.getLong("event_count"),
+                rs.getInt("practice_minutes"),
+                readHistogram(rs)), userId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private static Array toSqlArray(final PreparedStatement statement, final long[] values) throws SQLException {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return statement.getConnection().createArrayOf("bigint", boxed);
+    }
+
+    private static long[] readHistogram(final ResultSet rs) throws SQLException {
+        long[] counts = new long[LatencyBuckets.COUNT];
+        Array array = rs.getArray("latency_histogram");
+        if (array != null) {
+            Object[] values = (Object[]) array.getArray();
+            for (int i = 0; i < Math.min(values.length, counts.length); i++) {
+                counts[i] = values[i] != null ? ((Number) values[i]).longValue() : 0L;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * One stored rollup row.
+     * @param day UTC day
+     * @param eventCount events on that day
+     * @param practiceMinutes minutes with at least one event
+     * @param latencyHistogram latency bucket counts
+     */
+    public record StoredDailyRollup(LocalDate day, long eventCount, int practiceMinutes, long[] latencyHistogram) {
+    }
+}
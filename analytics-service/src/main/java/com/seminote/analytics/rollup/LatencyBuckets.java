@@ -0,0 +1,76 @@
+package com.seminote.analytics.rollup;
+
+import java.util.Arrays;
+
+/**
+ * Fixed latency buckets stored in {@code analytics_daily_rollups.latency_histogram}.
+ *
+ * The bounds never change once rows exist, so histograms from any day can be
+ * merged by adding counts. The last bucket collects everything above the
+ * largest bound.
+ */
+public final class LatencyBuckets {
+
+    private static final long[] UPPER_BOUNDS_MICROS = {
+        1_000, 2_000, 3_000, 5_000, 7_500, 10_000, 15_000, 20_000, 30_000, 40_000, 50_000, 75_000,
+        100_000, 150_000, 200_000, 300_000, 500_000, 750_000, 1_000_000, 2_000_000, 5_000_000,
+    };
+
+    /** Number of buckets including the overflow bucket. */
+    public static final int COUNT = UPPER_BOUNDS_MICROS.length + 1;
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double PERCENT = 100.0;
+
+    private LatencyBuckets() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Bucket index for a latency sample.
+     * @param micros latency in microseconds
+     * @return bucket index between 0 and {@link #COUNT} - 1
+     */
+    public static int indexOf(final long micros) {
+        int index = Arrays.binarySearch(UPPER_BOUNDS_MICROS, micros);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Latency at a percentile, reported as the upper bound of its bucket.
+     * Samples in the overflow bucket report the largest bound.
+     * @param counts histogram counts, {@link #COUNT} entries
+     * @param percentile percentile between 0 and 100
+     * @return latency in milliseconds, zero for an empty histogram
+     */
+    public static double percentileMillis(final long[] counts, final double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0.0), PERCENT);
+        long rank = Math.max(1, (long) Math.ceil(clamped / PERCENT * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return UPPER_BOUNDS_MICROS[Math.min(i, UPPER_BOUNDS_MICROS.length - 1)] / MICROS_PER_MILLI;
+            }
+        }
+        return UPPER_BOUNDS_MICROS[UPPER_BOUNDS_MICROS.length - 1] / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Add one histogram into another.
+     * @param target histogram to add into
+     * @param source histogram to add
+     */
+    public static void merge(final long[] target, final long[] source) {
+        for (int i = 0; i < Math.min(target.length, source.length); i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.seminote.analytics.rollup;
+
+import com.seminote.analytics.ingest.AnalyticsEvent;
+import com.seminote.analytics.ingest.AnalyticsEventWriter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Writes raw events and their daily rollups in one transaction, so a retried
+ * flush can never count the same batch twice.
+ */
+public class RollupAnalyticsEventWriter implements AnalyticsEventWriter {
+
+    private final AnalyticsEventWriter delegate;
+    private final DailyRollupRepository rollups;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Create a writer.
+     * @param delegate writer for raw events
+     * @param rollups rollup repository
+     * @param transactionTemplate transaction spanning both writes
+     */
+    public RollupAnalyticsEventWriter(final AnalyticsEventWriter delegate, final DailyRollupRepository rollups,
+                                      final TransactionTemplate transactionTemplate) {
+        this.delegate = delegate;
+        this.rollups = rollups;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void write(final List<AnalyticsEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            delegate.write(events);
+            rollups.merge(DailyRollupAccumulator.aggregate(events));
+        });
+    }
+}
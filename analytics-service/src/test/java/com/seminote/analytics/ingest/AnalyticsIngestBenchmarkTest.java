@@ -0,0 +1,149 @@
+package com.seminote.analytics.ingest;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end ingestion benchmark against Postgres.
+ *
+ * Producers push request-sized batches into the pipeline the same way the
+ * endpoint does, backing off on rejection; the run ends once every event is
+ * in the {@code analytics} table. Reports events/s and flush latency for
+ * both write modes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("load")
+class AnalyticsIngestBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsIngestBenchmarkTest.class);
+    private static final int PRODUCERS = 8;
+    private static final int BATCHES_PER_PRODUCER = 250;
+    private static final int EVENTS_PER_BATCH = 100;
+    private static final long TOTAL_EVENTS = (long) PRODUCERS * BATCHES_PER_PRODUCER * EVENTS_PER_BATCH;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withCopyFileToContainer(MountableFile.forHostPath("../infrastructure/sql/init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static long userId;
+
+    @BeforeAll
+    static void createPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (username, email, password_hash) "
+                + "VALUES ('bench', 'bench@seminote.com', 'x') RETURNING id", Long.class);
+    }
+
+    @AfterAll
+    static void closePool() {
+        dataSource.close();
+    }
+
+    @BeforeEach
+    void truncate() {
+        jdbcTemplate.execute("TRUNCATE analytics");
+    }
+
+    @ParameterizedTest
+    @EnumSource(AnalyticsIngestProperties.WriteMode.class)
+    void ingestsBurstsInLargeBatches(final AnalyticsIngestProperties.WriteMode mode) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AnalyticsIngestProperties properties = new AnalyticsIngestProperties();
+        properties.setWriteMode(mode);
+        AnalyticsIngestPipeline pipeline = new AnalyticsIngestPipeline(properties,
+                new JdbcAnalyticsEventWriter(jdbcTemplate, mode), registry);
+        pipeline.start();
+
+        long start = System.nanoTime();
+        long rejectedBatches = produce(pipeline);
+        pipeline.stop();
+        long elapsedNanos = System.nanoTime() - start;
+
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM analytics", Long.class);
+        Timer flush = registry.get("seminote.analytics.flush").timer();
+        double eventsPerSecond = TOTAL_EVENTS / (elapsedNanos / 1e9);
+        LOGGER.info("{}: {} events in {} ms ({} events/s), {} flushes, mean flush {} ms, max flush {} ms, "
+                        + "{} batches retried after 429",
+                mode, TOTAL_EVENTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(eventsPerSecond),
+                flush.count(), Math.round(flush.mean(TimeUnit.MILLISECONDS)),
+                Math.round(flush.max(TimeUnit.MILLISECONDS)), rejectedBatches);
+
+        assertEquals(TOTAL_EVENTS, rows);
+        assertTrue(flush.count() < TOTAL_EVENTS / EVENTS_PER_BATCH,
+                "Flushes should coalesce several request batches");
+    }
+
+    private static long produce(final AnalyticsIngestPipeline pipeline) throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int p = 0; p < PRODUCERS; p++) {
+                String sessionId = "session-" + p;
+                results.add(producers.submit(() -> {
+                    long rejected = 0;
+                    for (int b = 0; b < BATCHES_PER_PRODUCER; b++) {
+                        List<AnalyticsEvent> batch = batch(sessionId, b);
+                        while (!pipeline.offer(batch)) {
+                            rejected++;
+                            Thread.sleep(Duration.ofMillis(1));
+                        }
+                    }
+                    return rejected;
+                }));
+            }
+            long rejected = 0;
+            for (Future<Long> result : results) {
+                rejected += result.get();
+            }
+            return rejected;
+        } finally {
+            producers.shutdown();
+        }
+    }
+
+    private static List<AnalyticsEvent> batch(final String sessionId, final int batchNumber) {
+        List<AnalyticsEvent> batch = new ArrayList<>(EVENTS_PER_BATCH);
+        Instant now = Instant.now();
+        for (int i = 0; i < EVENTS_PER_BATCH; i++) {
+            int note = (batchNumber + i) % 88;
+            batch.add(new AnalyticsEvent(userId, "note_played",
+                    "{\"note\":" + note + ",\"velocity\":64,\"timingErrorMs\":" + (i % 40) + "}", sessionId, now));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,193 @@
+package com.seminote.analytics.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsIngestPipelineTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AnalyticsIngestPipeline pipeline;
+
+    @AfterEach
+    void stopPipeline() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void flushesWhenFlushSizeIsReached() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter(1);
+        pipeline = new AnalyticsIngestPipeline(properties(16, 4, Duration.ofMinutes(1)), writer, registry);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(events(4)));
+
+        assertTrue(writer.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(4), writer.batchSizes);
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter(1);
+        pipeline = new AnalyticsIngestPipeline(properties(16, 8, Duration.ofMillis(20)), writer, registry);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(events(3)));
+
+        assertTrue(writer.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(3), writer.batchSizes);
+    }
+
+    @Test
+    void rejectsWholeBatchWhenBufferIsFull() {
+        BlockingWriter writer = new BlockingWriter();
+        pipeline = new AnalyticsIngestPipeline(properties(8, 8, Duration.ofMinutes(1)), writer, registry);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(events(6)));
+        assertFalse(pipeline.offer(events(3)));
+        assertEquals(6, pipeline.pending());
+        assertEquals(3.0, registry.counter("seminote.analytics.events.rejected").count());
+        writer.release.countDown();
+    }
+
+    @Test
+    void retriesFailedFlushWithoutLosingEvents() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter(1);
+        writer.failures = 2;
+        pipeline = new AnalyticsIngestPipeline(properties(16, 2, Duration.ofMinutes(1)), writer, registry);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(events(2)));
+
+        assertTrue(writer.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2), writer.batchSizes);
+        assertEquals(2.0, registry.counter("seminote.analytics.events.written").count());
+    }
+
+    @Test
+    void deadLettersRejectedEventsAndWritesTheRest() throws InterruptedException {
+        List<AnalyticsEvent> stored = new CopyOnWriteArrayList<>();
+        AnalyticsEventWriter writer = events -> {
+            if (events.stream().anyMatch(event -> event.userId() == 99L)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            stored.addAll(events);
+        };
+        List<AnalyticsEvent> deadLettered = new CopyOnWriteArrayList<>();
+        CountDownLatch deadLetterWritten = new CountDownLatch(1);
+        AnalyticsDeadLetterWriter deadLetters = (events, reason) -> {
+            deadLettered.addAll(events);
+            deadLetterWritten.countDown();
+        };
+        pipeline = new AnalyticsIngestPipeline(properties(16, 8, Duration.ofMinutes(1)), writer, deadLetters,
+                registry);
+        pipeline.start();
+
+        List<AnalyticsEvent> batch = events(8);
+        batch.set(5, new AnalyticsEvent(99L, "note_played", "{}", "session-1", Instant.now()));
+        assertTrue(pipeline.offer(batch));
+
+        assertTrue(deadLetterWritten.await(5, TimeUnit.SECONDS));
+        pipeline.stop();
+        assertEquals(List.of(99L), deadLettered.stream().map(AnalyticsEvent::userId).toList());
+        assertEquals(7, stored.size());
+        assertEquals(1.0, registry.counter("seminote.analytics.events.dead_lettered").count());
+
+        pipeline = new AnalyticsIngestPipeline(properties(16, 1, Duration.ofMinutes(1)), writer, deadLetters,
+                new SimpleMeterRegistry());
+        pipeline.start();
+        assertTrue(pipeline.offer(events(1)));
+        pipeline.stop();
+        assertEquals(8, stored.size(), "Later flushes are not held up by the rejected event");
+    }
+
+    @Test
+    void drainsBufferOnStop() {
+        RecordingWriter writer = new RecordingWriter(1);
+        pipeline = new AnalyticsIngestPipeline(properties(16, 8, Duration.ofMinutes(1)), writer, registry);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(events(5)));
+        pipeline.stop();
+
+        assertEquals(List.of(5), writer.batchSizes);
+        assertFalse(pipeline.offer(events(1)));
+    }
+
+    @Test
+    void encodesCsvRowsForCopy() {
+        StringBuilder row = new StringBuilder();
+        JdbcAnalyticsEventWriter.appendCsvRow(row, new AnalyticsEvent(7L, "note_played",
+                "{\"note\":\"C4\",\"label\":\"say \\\"hi\\\"\"}", null, Instant.parse("2026-01-02T03:04:05.678Z")));
+
+        assertEquals("7,\"note_played\",\"{\"\"note\"\":\"\"C4\"\",\"\"label\"\":\"\"say \\\"\"hi\\\"\"\"\"}\","
+                + ",2026-01-02T03:04:05.678\n", row.toString());
+    }
+
+    private static AnalyticsIngestProperties properties(final int capacity, final int flushSize,
+                                                        final Duration flushInterval) {
+        AnalyticsIngestProperties properties = new AnalyticsIngestProperties();
+        properties.setBufferCapacity(capacity);
+        properties.setFlushSize(flushSize);
+        properties.setFlushInterval(flushInterval);
+        return properties;
+    }
+
+    private static List<AnalyticsEvent> events(final int count) {
+        List<AnalyticsEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new AnalyticsEvent(1L, "note_played", "{}", "session-1", Instant.now()));
+        }
+        return events;
+    }
+
+    private static final class RecordingWriter implements AnalyticsEventWriter {
+
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch;
+        private volatile int failures;
+
+        RecordingWriter(final int expectedBatches) {
+            this.latch = new CountDownLatch(expectedBatches);
+        }
+
+        @Override
+        public void write(final List<AnalyticsEvent> events) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("database unavailable");
+            }
+            batchSizes.add(events.size());
+            latch.countDown();
+        }
+    }
+
+    private static final class BlockingWriter implements AnalyticsEventWriter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(final List<AnalyticsEvent> events) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
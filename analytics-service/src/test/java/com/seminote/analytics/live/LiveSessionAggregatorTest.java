@@ -0,0 +1,128 @@
+package com.seminote.analytics.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.analytics.ingest.AnalyticsEvent;
+import com.seminote.analytics.ingest.AnalyticsEventWriter;
+import com.seminote.analytics.ingest.AnalyticsIngestPipeline;
+import com.seminote.analytics.ingest.AnalyticsIngestProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveSessionAggregatorTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final List<AnalyticsEvent> written = Collections.synchronizedList(new ArrayList<>());
+    private AnalyticsIngestPipeline pipeline;
+    private LiveSessionAggregator aggregator;
+
+    @BeforeEach
+    void createAggregator() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AnalyticsIngestProperties ingest = new AnalyticsIngestProperties();
+        ingest.setFlushInterval(Duration.ofMillis(10));
+        AnalyticsEventWriter writer = written::addAll;
+        pipeline = new AnalyticsIngestPipeline(ingest, writer, registry);
+        pipeline.start();
+        LiveSessionProperties properties = new LiveSessionProperties();
+        properties.setWindowSlots(4);
+        properties.setSlotDuration(Duration.ofSeconds(5));
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        aggregator = new LiveSessionAggregator(properties, pipeline, new ObjectMapper(), registry, now::get);
+    }
+
+    @AfterEach
+    void stopPipeline() {
+        pipeline.stop();
+    }
+
+    @Test
+    void aggregatesNotesTimingAndLatency() {
+        aggregator.record(note(2_000), -10_000);
+        aggregator.record(note(4_000), 30_000);
+        aggregator.record(event("tempo_changed", AnalyticsEvent.NO_LATENCY), LiveSessionAggregator.NO_TIMING_ERROR);
+
+        LiveSessionSnapshot snapshot = aggregator.snapshot("s1");
+
+        assertEquals(3, snapshot.total().events());
+        assertEquals(2, snapshot.total().notesPlayed());
+        assertEquals(10.0, snapshot.total().timingErrorMeanMs());
+        assertEquals(20.0, snapshot.total().timingErrorMeanAbsMs());
+        assertEquals(1, snapshot.total().timingErrorHistogram()[TimingErrorBuckets.indexOf(-10_000)]);
+        assertEquals(5.0, snapshot.total().latencyP99Ms());
+        assertEquals(7L, snapshot.userId());
+        assertFalse(snapshot.ended());
+    }
+
+    @Test
+    void windowForgetsOldSlotsButTotalsDoNot() {
+        aggregator.record(note(1_000), 0);
+        now.addAndGet(Duration.ofSeconds(25).toMillis());
+        aggregator.record(note(1_000), 0);
+
+        LiveSessionSnapshot snapshot = aggregator.snapshot("s1");
+
+        assertEquals(2, snapshot.total().notesPlayed());
+        assertEquals(1, snapshot.window().notesPlayed());
+        assertEquals(20.0, snapshot.window().seconds());
+    }
+
+    @Test
+    void endEventPersistsSummaryOnce() throws InterruptedException {
+        List<LiveSessionSnapshot> ended = new ArrayList<>();
+        aggregator.addEndListener(ended::add);
+        aggregator.record(note(1_000), 5_000);
+        aggregator.record(event(LiveSessionAggregator.END_EVENT, AnalyticsEvent.NO_LATENCY),
+                LiveSessionAggregator.NO_TIMING_ERROR);
+
+        assertNull(aggregator.snapshot("s1"));
+        assertNull(aggregator.end("s1"));
+        assertEquals(1, ended.size());
+        assertTrue(ended.get(0).ended());
+
+        pipeline.stop();
+        assertEquals(1, written.size());
+        AnalyticsEvent summary = written.get(0);
+        assertEquals(LiveSessionAggregator.SUMMARY_EVENT, summary.eventType());
+        assertEquals("s1", summary.sessionId());
+        assertTrue(summary.eventDataJson().contains("\"notesPlayed\":1"));
+    }
+
+    @Test
+    void sweepEndsIdleSessions() {
+        aggregator.record(note(1_000), 0);
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        aggregator.sweep();
+        assertEquals(1, aggregator.sessionCount());
+
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        aggregator.sweep();
+        assertEquals(0, aggregator.sessionCount());
+    }
+
+    @Test
+    void timingErrorBucketsAreSymmetric() {
+        assertEquals(0, TimingErrorBuckets.indexOf(-200_000));
+        assertEquals(1, TimingErrorBuckets.indexOf(-150_000));
+        assertEquals(TimingErrorBuckets.COUNT / 2, TimingErrorBuckets.indexOf(0));
+        assertEquals(TimingErrorBuckets.COUNT - 1, TimingErrorBuckets.indexOf(150_000));
+    }
+
+    private static AnalyticsEvent note(final long latencyMicros) {
+        return event(LiveSessionAggregator.NOTE_EVENT, latencyMicros);
+    }
+
+    private static AnalyticsEvent event(final String type, final long latencyMicros) {
+        return new AnalyticsEvent(7L, type, "{}", "s1", Instant.now(), latencyMicros);
+    }
+}
@@ -0,0 +1,65 @@
+package com.seminote.analytics.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsPartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    @Test
+    void premakesMonthlyPartitions() {
+        AnalyticsPartitionManager manager = manager(PartitionGranularity.MONTHLY, Period.ofMonths(13));
+
+        assertEquals(List.of(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 1)),
+                manager.upcomingPartitions(TODAY));
+        assertEquals("analytics_p202610",
+                AnalyticsPartitionManager.partitionName(PartitionGranularity.MONTHLY, LocalDate.of(2026, 10, 1)));
+    }
+
+    @Test
+    void premakesDailyPartitions() {
+        AnalyticsPartitionManager manager = manager(PartitionGranularity.DAILY, Period.ofDays(30));
+
+        assertEquals(List.of(TODAY, TODAY.plusDays(1), TODAY.plusDays(2)), manager.upcomingPartitions(TODAY));
+        assertEquals("analytics_p20261016",
+                AnalyticsPartitionManager.partitionName(PartitionGranularity.DAILY, TODAY));
+    }
+
+    @Test
+    void dropsOnlyPartitionsEntirelyOutsideRetention() {
+        AnalyticsPartitionManager manager = manager(PartitionGranularity.MONTHLY, Period.ofMonths(13));
+
+        // Cutoff is 2025-09-16: August ends before it, September still holds retained rows
+        List<String> expired = manager.expiredPartitions(List.of(
+                "analytics_p202508", "analytics_p202509", "analytics_p202610",
+                "analytics_p20250801", "analytics_default", "analytics_p2025"), TODAY);
+
+        assertEquals(List.of("analytics_p202508", "analytics_p20250801"), expired);
+    }
+
+    @Test
+    void newPartitionMovesItsRangeOutOfTheDefaultPartition() {
+        String sql = AnalyticsPartitionManager.createPartitionSql(PartitionGranularity.MONTHLY,
+                LocalDate.of(2026, 11, 1));
+
+        assertTrue(sql.contains("to_regclass('analytics_p202611') IS NULL"));
+        assertTrue(sql.contains("DELETE FROM analytics_default WHERE timestamp >= '2026-11-01' "
+                + "AND timestamp < '2026-12-01'"));
+        assertTrue(sql.indexOf("DELETE FROM") < sql.indexOf("PARTITION OF analytics"),
+                "Rows must leave the default partition before the new one is created");
+    }
+
+    private static AnalyticsPartitionManager manager(final PartitionGranularity granularity, final Period retention) {
+        AnalyticsPartitionProperties properties = new AnalyticsPartitionProperties();
+        properties.setGranularity(granularity);
+        properties.setRetention(retention);
+        return new AnalyticsPartitionManager(null, properties, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,129 @@
+package com.seminote.analytics.rollup;
+
+import com.seminote.analytics.ingest.AnalyticsEvent;
+import com.seminote.analytics.ingest.AnalyticsIngestProperties;
+import com.seminote.analytics.ingest.JdbcAnalyticsEventWriter;
+import com.seminote.analytics.partition.AnalyticsPartitionManager;
+import com.seminote.analytics.partition.AnalyticsPartitionProperties;
+import com.seminote.analytics.query.RawAnalyticsEvent;
+import com.seminote.analytics.query.RawEventRepository;
+import com.seminote.analytics.query.UserAnalyticsSummary;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partitions, rollups and the read side against the real schema.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AnalyticsStorageIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withCopyFileToContainer(MountableFile.forHostPath("../infrastructure/sql/init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static AnalyticsPartitionManager partitions;
+
+    @BeforeAll
+    static void createPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        partitions = new AnalyticsPartitionManager(jdbcTemplate, new AnalyticsPartitionProperties(),
+                Clock.systemUTC());
+    }
+
+    @AfterAll
+    static void closePool() {
+        dataSource.close();
+    }
+
+    @Test
+    void rollupsMergeAcrossFlushesAndRawRowsLandInCurrentPartition() {
+        partitions.maintain();
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'demo_user'", Long.class);
+        DailyRollupRepository rollups = new DailyRollupRepository(jdbcTemplate);
+        RollupAnalyticsEventWriter writer = new RollupAnalyticsEventWriter(
+                new JdbcAnalyticsEventWriter(jdbcTemplate, AnalyticsIngestProperties.WriteMode.COPY), rollups,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        Instant minute = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(10, ChronoUnit.HOURS);
+
+        writer.write(List.of(event(userId, minute, 4_000), event(userId, minute.plusSeconds(30), 4_000)));
+        writer.write(List.of(event(userId, minute.plusSeconds(90), 40_000)));
+
+        LocalDate day = LocalDate.ofInstant(minute, ZoneOffset.UTC);
+        UserAnalyticsSummary summary = UserAnalyticsSummary.of(userId, day, day, rollups.find(userId, day, day));
+        assertEquals(3, summary.eventCount());
+        assertEquals(2, summary.practiceMinutes());
+        assertEquals(5.0, summary.latencyP50Ms());
+        assertEquals(40.0, summary.latencyP99Ms());
+
+        String partition = "analytics_p" + day.toString().substring(0, 7).replace("-", "");
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition, Long.class));
+
+        List<RawAnalyticsEvent> raw = new RawEventRepository(jdbcTemplate)
+                .find(userId, minute, minute.plusSeconds(120), "note_played", 10);
+        assertEquals(3, raw.size());
+        assertEquals(minute.plusSeconds(90), raw.get(0).timestamp());
+        assertEquals("{\"latencyMs\": 4}", raw.get(2).eventData());
+    }
+
+    @Test
+    void expiredPartitionsAreDroppedWhole() {
+        jdbcTemplate.execute("CREATE TABLE analytics_p201901 PARTITION OF analytics "
+                + "FOR VALUES FROM ('2019-01-01') TO ('2019-02-01')");
+        jdbcTemplate.update("INSERT INTO analytics (event_type, timestamp) VALUES ('note_played', '2019-01-15')");
+
+        partitions.maintain();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_class WHERE relname = 'analytics_p201901'", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM analytics WHERE timestamp < '2020-01-01'", Long.class));
+    }
+
+    @Test
+    void newPartitionTakesOverRowsFromTheDefaultPartition() {
+        LocalDate nextMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).plusMonths(1);
+        String partition = "analytics_p" + nextMonth.toString().substring(0, 7).replace("-", "");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        jdbcTemplate.update("INSERT INTO analytics (event_type, timestamp) VALUES ('note_played', ?)",
+                Timestamp.valueOf(nextMonth.atTime(12, 0)));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM analytics_default", Long.class));
+
+        partitions.maintain();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition, Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM analytics_default", Long.class));
+    }
+
+    private static AnalyticsEvent event(final long userId, final Instant timestamp, final long latencyMicros) {
+        return new AnalyticsEvent(userId, "note_played", "{\"latencyMs\":" + latencyMicros / 1000 + "}", "s1",
+                timestamp, latencyMicros);
+    }
+}
@@ -0,0 +1,74 @@
+package com.seminote.analytics.rollup;
+
+import com.seminote.analytics.ingest.AnalyticsEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyRollupAccumulatorTest {
+
+    @Test
+    void groupsByUserAndUtcDay() {
+        Collection<DailyRollup> rollups = DailyRollupAccumulator.aggregate(List.of(
+                event(1L, "2026-10-16T23:59:30Z", 4_000),
+                event(1L, "2026-10-17T00:00:10Z", AnalyticsEvent.NO_LATENCY),
+                event(2L, "2026-10-16T10:00:00Z", 12_000),
+                event(null, "2026-10-16T10:00:00Z", 12_000)));
+
+        assertEquals(3, rollups.size());
+        DailyRollup first = find(rollups, 1L, LocalDate.of(2026, 10, 16));
+        assertEquals(1, first.getEventCount());
+        assertEquals(1, first.getLatencyHistogram()[LatencyBuckets.indexOf(4_000)]);
+        DailyRollup second = find(rollups, 1L, LocalDate.of(2026, 10, 17));
+        assertEquals(0, Arrays.stream(second.getLatencyHistogram()).sum());
+    }
+
+    @Test
+    void countsDistinctActiveMinutes() {
+        Collection<DailyRollup> rollups = DailyRollupAccumulator.aggregate(List.of(
+                event(1L, "2026-10-16T00:00:05Z", 1_000),
+                event(1L, "2026-10-16T00:00:55Z", 1_000),
+                event(1L, "2026-10-16T00:01:00Z", 1_000),
+                event(1L, "2026-10-16T23:59:59Z", 1_000)));
+
+        DailyRollup rollup = rollups.iterator().next();
+        assertEquals(4, rollup.getEventCount());
+        assertEquals(3, rollup.getActiveMinuteCount());
+        String bits = rollup.activeMinuteBits();
+        assertEquals(DailyRollup.MINUTES_PER_DAY, bits.length());
+        assertEquals("11", bits.substring(0, 2));
+        assertEquals('1', bits.charAt(DailyRollup.MINUTES_PER_DAY - 1));
+        assertEquals(3, bits.chars().filter(c -> c == '1').count());
+    }
+
+    @Test
+    void percentilesUseBucketUpperBounds() {
+        long[] histogram = new long[LatencyBuckets.COUNT];
+        for (int i = 0; i < 98; i++) {
+            histogram[LatencyBuckets.indexOf(4_000)]++;
+        }
+        histogram[LatencyBuckets.indexOf(45_000)] += 2;
+
+        assertEquals(5.0, LatencyBuckets.percentileMillis(histogram, 50.0));
+        assertEquals(50.0, LatencyBuckets.percentileMillis(histogram, 99.0));
+        assertEquals(0.0, LatencyBuckets.percentileMillis(new long[LatencyBuckets.COUNT], 99.0));
+        assertEquals(LatencyBuckets.COUNT - 1, LatencyBuckets.indexOf(Long.MAX_VALUE));
+    }
+
+    private static DailyRollup find(final Collection<DailyRollup> rollups, final long userId, final LocalDate day) {
+        return rollups.stream()
+                .filter(r -> r.getUserId() == userId && r.getDay().equals(day))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static AnalyticsEvent event(final Long userId, final String timestamp, final long latencyMicros) {
+        return new AnalyticsEvent(userId, "note_played", "{}", "s1", Instant.parse(timestamp), latencyMicros);
+    }
+}
@@ -19,6 +19,10 @@ import org.springframework.web.bind.annotation.RestController;
  * - Request/response logging
  * - Circuit breaker patterns
  * - WebRTC signaling coordination
+ *
+ * Routing runs on Spring Cloud Gateway (Netty/WebFlux). Routes, per-route
+ * timeouts and the upstream connection pool are declared in
+ * {@code application.properties}.
  */
 @SpringBootApplication
 public final class ApiGatewayApplication {
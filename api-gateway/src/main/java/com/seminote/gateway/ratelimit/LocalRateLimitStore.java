@@ -0,0 +1,29 @@
+package com.seminote.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Redis counters.
+ *
+ * Used for single-node deployments and tests; several limiters sharing one
+ * instance behave like gateway nodes sharing one Redis. Expiry is not
+ * modelled, counters live as long as the store.
+ */
+public final class LocalRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Map<String, Long>> addAndGet(final Map<String, Long> deltas, final Duration ttl) {
+        Map<String, Long> totals = new HashMap<>(deltas.size() * 2);
+        deltas.forEach((key, delta) ->
+                totals.put(key, counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta)));
+        return Mono.just(totals);
+    }
+}
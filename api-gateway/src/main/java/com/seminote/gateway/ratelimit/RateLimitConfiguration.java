@@ -0,0 +1,53 @@
+package com.seminote.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * Wires the token-bucket rate limiter used by the {@code RequestRateLimiter} filter.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    /**
+     * Cluster-wide consumption counters.
+     * @param properties rate limit settings
+     * @param redisTemplate reactive Redis template
+     * @return Redis or in-process store depending on {@code seminote.gateway.rate-limit.store}
+     */
+    @Bean
+    public RateLimitStore rateLimitStore(final RateLimitProperties properties,
+                                         final ReactiveStringRedisTemplate redisTemplate) {
+        if (properties.getStore() == RateLimitProperties.Store.LOCAL) {
+            return new LocalRateLimitStore();
+        }
+        return new RedisRateLimitStore(redisTemplate);
+    }
+
+    /**
+     * Token-bucket rate limiter, referenced from routes as {@code #{@tokenBucketRateLimiter}}.
+     * @param properties rate limit settings
+     * @param store consumption counters
+     * @param configurationService gateway configuration binder
+     * @return rate limiter
+     */
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(final RateLimitProperties properties,
+                                                         final RateLimitStore store,
+                                                         final ConfigurationService configurationService) {
+        return new TokenBucketRateLimiter(properties, store, configurationService);
+    }
+
+    /**
+     * Per-user / per-IP key resolver, referenced from routes as {@code #{@userOrIpKeyResolver}}.
+     * @return key resolver
+     */
+    @Bean
+    public UserOrIpKeyResolver userOrIpKeyResolver() {
+        return new UserOrIpKeyResolver();
+    }
+}
@@ -0,0 +1,85 @@
+package com.seminote.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting settings for the gateway.
+ *
+ * Limits apply per user (or per client IP for anonymous traffic) and per
+ * route; routes without an entry in {@code routes} use the defaults.
+ */
+@ConfigurationProperties("seminote.gateway.rate-limit")
+public class RateLimitProperties {
+
+    /** Where cluster-wide consumption is reconciled. */
+    public enum Store {
+        /** Shared Redis counters, for multi-node deployments. */
+        REDIS,
+        /** In-process counters only, for single-node and test setups. */
+        LOCAL
+    }
+
+    private static final int DEFAULT_REPLENISH_RATE = 50;
+    private static final int DEFAULT_BURST_CAPACITY = 100;
+    private static final long DEFAULT_SYNC_MILLIS = 100;
+    private static final int DEFAULT_SYNC_BATCH_SIZE = 500;
+
+    private int replenishRate = DEFAULT_REPLENISH_RATE;
+    private int burstCapacity = DEFAULT_BURST_CAPACITY;
+    private Duration syncInterval = Duration.ofMillis(DEFAULT_SYNC_MILLIS);
+    private int syncBatchSize = DEFAULT_SYNC_BATCH_SIZE;
+    private Store store = Store.REDIS;
+    private Map<String, TokenBucketRateLimiter.Config> routes = new HashMap<>();
+
+    public int getReplenishRate() {
+        return replenishRate;
+    }
+
+    public void setReplenishRate(final int replenishRate) {
+        this.replenishRate = replenishRate;
+    }
+
+    public int getBurstCapacity() {
+        return burstCapacity;
+    }
+
+    public void setBurstCapacity(final int burstCapacity) {
+        this.burstCapacity = burstCapacity;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(final Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    public void setSyncBatchSize(final int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(final Store store) {
+        this.store = store;
+    }
+
+    public Map<String, TokenBucketRateLimiter.Config> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(final Map<String, TokenBucketRateLimiter.Config> routes) {
+        this.routes = routes;
+    }
+}
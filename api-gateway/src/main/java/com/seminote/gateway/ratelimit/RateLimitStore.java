@@ -0,0 +1,26 @@
+package com.seminote.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cluster-wide token consumption counters.
+ *
+ * The gateway only calls the store from its background reconciler, never on
+ * the request path, and always with a batch of keys.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Add each delta to its counter and refresh the counter's expiry.
+     *
+     * Counters are updated independently; a key missing from the result was not
+     * updated and the caller publishes its delta again later.
+     * @param deltas tokens consumed per counter key since the last call
+     * @param ttl how long an untouched counter is kept
+     * @return updated cluster-wide totals per counter key
+     */
+    Mono<Map<String, Long>> addAndGet(Map<String, Long> deltas, Duration ttl);
+}
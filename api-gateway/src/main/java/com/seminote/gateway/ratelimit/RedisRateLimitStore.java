@@ -0,0 +1,58 @@
+package com.seminote.gateway.ratelimit;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Redis-backed consumption counters.
+ *
+ * Each counter is updated with its own script call so that every call touches
+ * a single hash slot, as Redis Cluster requires. The calls of a batch are
+ * issued together and pipelined on the shared connection, so a batch still
+ * costs about one round trip.
+ */
+public final class RedisRateLimitStore implements RateLimitStore {
+
+    private static final RedisScript<Long> ADD_AND_GET = RedisScript.of("""
+            local total = redis.call('INCRBY', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return total
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    /**
+     * Create a store on top of the gateway's reactive Redis connection.
+     * @param redisTemplate reactive Redis template
+     */
+    public RedisRateLimitStore(final ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Map<String, Long>> addAndGet(final Map<String, Long> deltas, final Duration ttl) {
+        String ttlMillis = Long.toString(ttl.toMillis());
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        return Flux.fromIterable(deltas.entrySet())
+                .flatMap(entry -> redisTemplate.execute(ADD_AND_GET, List.of(entry.getKey()),
+                                List.of(Long.toString(entry.getValue()), ttlMillis))
+                        .next()
+                        .map(total -> Map.entry(entry.getKey(), total))
+                        .onErrorResume(e -> {
+                            failures.add(e);
+                            return Mono.empty();
+                        }), Math.max(1, deltas.size()))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // Partial failures are reported by omission; only a batch with nothing applied is an error
+                .flatMap(totals -> totals.isEmpty() && !failures.isEmpty()
+                        ? Mono.error(failures.get(0))
+                        : Mono.just(totals));
+    }
+}
@@ -0,0 +1,124 @@
+package com.seminote.gateway.ratelimit;
+
+/**
+ * Node-local token bucket for one (route, client) pair.
+ *
+ * Decisions are made entirely in memory. Tokens consumed here are counted as
+ * pending until the reconciler publishes them, and tokens consumed on other
+ * gateway nodes are debited from this bucket when the reconciler learns of
+ * them, so every node converges on the cluster-wide budget.
+ */
+final class TokenBucket {
+
+    /** Returned by {@link #tryConsume} once the reconciler has evicted the bucket. */
+    static final long RETIRED = Long.MIN_VALUE;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long refillSeconds;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pendingConsumed;
+    private long lastGlobalTotal = -1;
+    private boolean retired;
+
+    TokenBucket(final int burstCapacity, final int replenishRate, final long nowNanos) {
+        this.capacity = burstCapacity;
+        this.tokensPerNano = replenishRate / NANOS_PER_SECOND;
+        this.refillSeconds = (long) Math.ceil((double) burstCapacity / Math.max(1, replenishRate));
+        this.tokens = burstCapacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Try to take tokens from the bucket.
+     * @param requested tokens needed for the request
+     * @param nowNanos current monotonic time
+     * @return remaining whole tokens, -1 when the request is denied, or {@link #RETIRED}
+     *         when the bucket was evicted and the caller must use a fresh one
+     */
+    synchronized long tryConsume(final int requested, final long nowNanos) {
+        if (retired) {
+            return RETIRED;
+        }
+        refill(nowNanos);
+        if (tokens < requested) {
+            return -1;
+        }
+        tokens -= requested;
+        pendingConsumed += requested;
+        return (long) tokens;
+    }
+
+    /**
+     * Time an empty bucket takes to fill up again.
+     * @return refill time in whole seconds, rounded up
+     */
+    long refillSeconds() {
+        return refillSeconds;
+    }
+
+    /**
+     * Hand the locally consumed tokens to the reconciler.
+     * @return tokens consumed since the previous call
+     */
+    synchronized long drainPending() {
+        long pending = pendingConsumed;
+        pendingConsumed = 0;
+        return pending;
+    }
+
+    /**
+     * Return tokens the reconciler failed to publish so the next sync retries them.
+     * @param pending tokens previously drained
+     */
+    synchronized void restorePending(final long pending) {
+        pendingConsumed += pending;
+    }
+
+    /**
+     * Apply the cluster-wide total after publishing {@code published} local tokens.
+     * @param globalTotal counter value returned by the store
+     * @param published tokens this node added in the same batch
+     */
+    synchronized void applyGlobalTotal(final long globalTotal, final long published) {
+        if (lastGlobalTotal >= 0) {
+            long remote = globalTotal - lastGlobalTotal - published;
+            if (remote > 0) {
+                tokens = Math.max(tokens - remote, -capacity);
+            }
+        }
+        lastGlobalTotal = globalTotal;
+    }
+
+    /**
+     * Whether the bucket can be dropped without losing any state.
+     * @param nowNanos current monotonic time
+     * @return true when full, fully published and not recently used
+     */
+    synchronized boolean isIdle(final long nowNanos) {
+        refill(nowNanos);
+        return pendingConsumed == 0 && tokens >= capacity;
+    }
+
+    /**
+     * Retire the bucket if it is idle, so no consumption can land on it after eviction.
+     * @param nowNanos current monotonic time
+     * @return true when the bucket was retired and may be removed from the map
+     */
+    synchronized boolean retireIfIdle(final long nowNanos) {
+        retired = isIdle(nowNanos);
+        return retired;
+    }
+
+    private void refill(final long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.seminote.gateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter with a node-local fast path.
+ *
+ * Every decision is made against an in-memory bucket map, so the request path
+ * never waits on Redis. A background reconciler publishes the tokens consumed
+ * on this node to the {@link RateLimitStore} in batches and debits tokens that
+ * other nodes consumed, keeping the cluster within the configured budget with
+ * at most one sync interval of drift.
+ *
+ * Used through the standard {@code RequestRateLimiter} gateway filter.
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config>
+        implements SmartLifecycle {
+
+    /** Prefix for per-route limits passed as {@code RequestRateLimiter} filter args. */
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+    private static final String KEY_PREFIX = "seminote:rl:";
+    private static final Duration MIN_COUNTER_TTL = Duration.ofMinutes(1);
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore store;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Config defaultConfig;
+
+    private volatile Disposable reconciler;
+
+    /**
+     * Create a rate limiter.
+     * @param properties rate limit settings
+     * @param store cluster-wide consumption counters
+     * @param configurationService gateway service used to bind per-route filter args
+     */
+    public TokenBucketRateLimiter(final RateLimitProperties properties, final RateLimitStore store,
+                                  final ConfigurationService configurationService) {
+        this(properties, store, configurationService, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(final RateLimitProperties properties, final RateLimitStore store,
+                           final ConfigurationService configurationService, final LongSupplier nanoClock) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        this.store = store;
+        this.nanoClock = nanoClock;
+        this.defaultConfig = new Config(properties.getReplenishRate(), properties.getBurstCapacity());
+    }
+
+    @Override
+    public Mono<Response> isAllowed(final String routeId, final String id) {
+        Config config = resolveConfig(routeId);
+        long now = nanoClock.getAsLong();
+        String key = bucketKey(routeId, id);
+        for (;;) {
+            TokenBucket bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate(), now));
+            long remaining = bucket.tryConsume(config.getRequestedTokens(), now);
+            if (remaining != TokenBucket.RETIRED) {
+                return Mono.just(new Response(remaining >= 0, headers(config, Math.max(remaining, 0))));
+            }
+            // Evicted between lookup and consume: start over on a fresh bucket
+            buckets.remove(key, bucket);
+        }
+    }
+
+    /**
+     * Publish local consumption and pull remote consumption for every active bucket.
+     * @return completes when all batches have been applied
+     */
+    public Mono<Void> reconcile() {
+        long now = nanoClock.getAsLong();
+        // Counters of routes with different limits expire at different times, so batch them apart
+        Map<Duration, Map<String, Long>> published = new HashMap<>();
+        Iterator<Map.Entry<String, TokenBucket>> it = buckets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, TokenBucket> entry = it.next();
+            TokenBucket bucket = entry.getValue();
+            if (bucket.retireIfIdle(now)) {
+                it.remove();
+                continue;
+            }
+            published.computeIfAbsent(counterTtl(bucket), ttl -> new HashMap<>())
+                    .put(KEY_PREFIX + entry.getKey(), bucket.drainPending());
+        }
+        if (published.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        published.forEach((ttl, deltas) -> {
+            Map<String, Long> batch = new HashMap<>();
+            for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= properties.getSyncBatchSize()) {
+                    batches.add(new Batch(batch, ttl));
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(new Batch(batch, ttl));
+            }
+        });
+
+        return Flux.fromIterable(batches)
+                .concatMap(batch -> store.addAndGet(batch.deltas(), batch.ttl())
+                        .doOnNext(totals -> applyTotals(batch.deltas(), totals))
+                        .onErrorResume(e -> {
+                            LOGGER.warn("Rate limit sync failed, keeping local decisions: {}", e.toString());
+                            restore(batch.deltas());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * Number of buckets currently held in memory.
+     * @return bucket count
+     */
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public void start() {
+        reconciler = Flux.interval(properties.getSyncInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcile(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = reconciler;
+        if (current != null) {
+            current.dispose();
+            reconciler = null;
+            reconcile().block(properties.getSyncInterval().multipliedBy(10));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return reconciler != null;
+    }
+
+    private void applyTotals(final Map<String, Long> deltas, final Map<String, Long> totals) {
+        deltas.forEach((redisKey, delta) -> {
+            TokenBucket bucket = buckets.get(redisKey.substring(KEY_PREFIX.length()));
+            Long total = totals.get(redisKey);
+            if (bucket == null) {
+                return;
+            }
+            if (total != null) {
+                bucket.applyGlobalTotal(total, delta);
+            } else if (delta > 0) {
+                // This counter's update failed; publish it again on the next sync
+                bucket.restorePending(delta);
+            }
+        });
+    }
+
+    private void restore(final Map<String, Long> deltas) {
+        deltas.forEach((redisKey, delta) -> {
+            TokenBucket bucket = buckets.get(redisKey.substring(KEY_PREFIX.length()));
+            if (bucket != null && delta > 0) {
+                bucket.restorePending(delta);
+            }
+        });
+    }
+
+    private Config resolveConfig(final String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = properties.getRoutes().get(routeId);
+        }
+        return config != null ? config : defaultConfig;
+    }
+
+    /**
+     * Keep a counter for two refills of its own bucket, so a client idle for less
+     * than that still sees what other nodes spent.
+     */
+    private static Duration counterTtl(final TokenBucket bucket) {
+        Duration ttl = Duration.ofSeconds(bucket.refillSeconds() * 2);
+        return ttl.compareTo(MIN_COUNTER_TTL) > 0 ? ttl : MIN_COUNTER_TTL;
+    }
+
+    private static String bucketKey(final String routeId, final String id) {
+        return routeId + ':' + id;
+    }
+
+    private static Map<String, String> headers(final Config config, final long remaining) {
+        return Map.of(
+                "X-RateLimit-Remaining", Long.toString(remaining),
+                "X-RateLimit-Replenish-Rate", Integer.toString(config.getReplenishRate()),
+                "X-RateLimit-Burst-Capacity", Integer.toString(config.getBurstCapacity()));
+    }
+
+    private record Batch(Map<String, Long> deltas, Duration ttl) {
+    }
+
+    /**
+     * Per-route token bucket limits.
+     */
+    public static class Config {
+
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        /**
+         * Create an empty config for property binding.
+         */
+        public Config() {
+        }
+
+        /**
+         * Create a config with explicit limits.
+         * @param replenishRate tokens added per second
+         * @param burstCapacity maximum tokens held
+         */
+        public Config(final int replenishRate, final int burstCapacity) {
+            this.replenishRate = replenishRate;
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(final int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(final int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(final int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
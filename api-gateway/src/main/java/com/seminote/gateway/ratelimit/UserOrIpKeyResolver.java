@@ -0,0 +1,31 @@
+package com.seminote.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate limit key: the authenticated user when known, otherwise the client IP.
+ */
+public class UserOrIpKeyResolver implements KeyResolver {
+
+    /** Exchange attribute holding the authenticated user id, set by authentication filters. */
+    public static final String USER_ID_ATTRIBUTE = "seminote.userId";
+
+    private static final String ANONYMOUS = "ip:unknown";
+
+    @Override
+    public Mono<String> resolve(final ServerWebExchange exchange) {
+        Object userId = exchange.getAttribute(USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return Mono.just("user:" + userId);
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null || remote.getAddress() == null) {
+            return Mono.just(ANONYMOUS);
+        }
+        return Mono.just("ip:" + remote.getAddress().getHostAddress());
+    }
+}
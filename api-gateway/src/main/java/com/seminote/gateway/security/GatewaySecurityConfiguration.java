@@ -0,0 +1,61 @@
+package com.seminote.gateway.security;
+
+import com.seminote.security.JwtVerifier;
+import com.seminote.security.SeminoteSecurityConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * JWT verification for routed traffic.
+ */
+@Configuration
+public class GatewaySecurityConfiguration {
+
+    /**
+     * Cached verifier shared by all gateway filters. Startup fails unless
+     * {@code seminote.security.jwt.secret} is set to a private value.
+     * @param secret HMAC secret
+     * @param cacheCapacity maximum cached tokens
+     * @param maxCacheTtl upper bound for how long a verified token stays cached
+     * @return verifier
+     */
+    @Bean
+    public JwtVerifier jwtVerifier(
+            @Value("${seminote.security.jwt.secret:}") final String secret,
+            @Value("${seminote.security.jwt.cache-capacity:100000}") final int cacheCapacity,
+            @Value("${seminote.security.jwt.max-cache-ttl:15m}") final Duration maxCacheTtl) {
+        return new JwtVerifier(SeminoteSecurityConfig.requireJwtSecret(secret), cacheCapacity, maxCacheTtl,
+                Clock.systemUTC());
+    }
+
+    /**
+     * Periodically forgets revocations of tokens that have expired anyway.
+     * @param jwtVerifier cached verifier
+     * @param interval time between purges
+     * @return subscription, disposed with the context
+     */
+    @Bean(destroyMethod = "dispose")
+    public Disposable jwtRevocationPurger(
+            final JwtVerifier jwtVerifier,
+            @Value("${seminote.security.jwt.revocation-purge-interval:5m}") final Duration interval) {
+        return Flux.interval(interval)
+                .onBackpressureDrop()
+                .subscribe(tick -> jwtVerifier.purgeExpiredRevocations());
+    }
+
+    /**
+     * Bearer token filter applied to every route.
+     * @param jwtVerifier cached verifier
+     * @return global filter
+     */
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter(final JwtVerifier jwtVerifier) {
+        return new JwtAuthenticationFilter(jwtVerifier);
+    }
+}
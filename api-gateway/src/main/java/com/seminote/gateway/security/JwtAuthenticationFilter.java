@@ -0,0 +1,70 @@
+package com.seminote.gateway.security;
+
+import com.seminote.common.users.GatewayUser;
+import com.seminote.gateway.ratelimit.UserOrIpKeyResolver;
+import com.seminote.security.InvalidTokenException;
+import com.seminote.security.JwtClaims;
+import com.seminote.security.JwtVerifier;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies bearer tokens on routed requests.
+ *
+ * Valid tokens are resolved through the cached {@link JwtVerifier}; the user
+ * id is forwarded to services as {@code X-User-Id} and used as the rate limit
+ * key. Requests without a token pass through anonymously, requests with an
+ * invalid token are rejected with 401.
+ */
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    /** Header carrying the verified user id to downstream services. */
+    public static final String USER_ID_HEADER = GatewayUser.USER_ID_HEADER;
+
+    private static final String BEARER = "Bearer ";
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final JwtVerifier verifier;
+
+    /**
+     * Create the filter.
+     * @param verifier shared cached verifier
+     */
+    public JwtAuthenticationFilter(final JwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(USER_ID_HEADER));
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return chain.filter(exchange.mutate().request(request.build()).build());
+        }
+
+        JwtClaims claims;
+        try {
+            claims = verifier.verify(authorization.substring(BEARER.length()).trim());
+        } catch (InvalidTokenException e) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            return exchange.getResponse().setComplete();
+        }
+
+        exchange.getAttributes().put(UserOrIpKeyResolver.USER_ID_ATTRIBUTE, claims.getSubject());
+        request.header(USER_ID_HEADER, claims.getSubject());
+        return chain.filter(exchange.mutate().request(request.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,28 @@
+package com.seminote.gateway.signaling;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Slots for a single gateway node: every reservation succeeds and the hub's
+ * own per-node room limit is the only one applied.
+ */
+public final class LocalRoomSlots implements RoomSlots {
+
+    @Override
+    public Mono<Boolean> reserve(final String room, final String peerId, final int maxPeers, final Duration lease) {
+        return Mono.just(true);
+    }
+
+    @Override
+    public Mono<Void> renew(final String room, final Collection<String> peerIds, final Duration lease) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> release(final String room, final String peerId) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.seminote.gateway.signaling;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bus for a single gateway node: nothing is published and nothing arrives.
+ */
+public final class LocalSignalingBus implements SignalingBus {
+
+    @Override
+    public Mono<Void> publish(final String message) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<String> messages() {
+        return Flux.never();
+    }
+}
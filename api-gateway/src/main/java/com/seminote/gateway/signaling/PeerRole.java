@@ -0,0 +1,41 @@
+package com.seminote.gateway.signaling;
+
+/**
+ * Role a peer declares when joining a room.
+ */
+public enum PeerRole {
+
+    /** Learner sharing piano audio. */
+    STUDENT("student"),
+
+    /** Teacher giving feedback. */
+    TEACHER("teacher");
+
+    private final String wireName;
+
+    PeerRole(final String wireName) {
+        this.wireName = wireName;
+    }
+
+    /**
+     * Name used in signaling messages.
+     * @return wire name
+     */
+    public String getWireName() {
+        return wireName;
+    }
+
+    /**
+     * Resolve a wire name.
+     * @param wireName name from a message, may be null
+     * @return the role, or null if unknown
+     */
+    public static PeerRole parse(final String wireName) {
+        for (PeerRole role : values()) {
+            if (role.wireName.equals(wireName)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
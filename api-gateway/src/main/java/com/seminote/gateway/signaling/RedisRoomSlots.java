@@ -0,0 +1,84 @@
+package com.seminote.gateway.signaling;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Room slots in Redis, one sorted set per room.
+ *
+ * Members are peer ids scored with their lease deadline in Redis server
+ * time, so node clocks never disagree about expiry. Reserving drops expired
+ * leases and checks the size in one script, which makes the limit hold
+ * across nodes joining the same room at once.
+ */
+public final class RedisRoomSlots implements RoomSlots {
+
+    private static final RedisScript<Long> RESERVE = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local lease = tonumber(ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            if redis.call('ZSCORE', KEYS[1], ARGV[1]) or redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[2]) then
+              redis.call('ZADD', KEYS[1], now + lease, ARGV[1])
+              redis.call('PEXPIRE', KEYS[1], lease)
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RENEW = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local lease = tonumber(ARGV[1])
+            for i = 2, #ARGV do
+              redis.call('ZADD', KEYS[1], 'XX', now + lease, ARGV[i])
+            end
+            redis.call('PEXPIRE', KEYS[1], lease)
+            return 1
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+
+    /**
+     * Create slots on top of the gateway's reactive Redis connection.
+     * @param redisTemplate reactive Redis template
+     * @param keyPrefix prefix of the per-room keys
+     */
+    public RedisRoomSlots(final ReactiveStringRedisTemplate redisTemplate, final String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Mono<Boolean> reserve(final String room, final String peerId, final int maxPeers, final Duration lease) {
+        return redisTemplate.execute(RESERVE, List.of(key(room)),
+                        List.of(peerId, Integer.toString(maxPeers), Long.toString(lease.toMillis())))
+                .next()
+                .map(reserved -> reserved == 1L)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<Void> renew(final String room, final Collection<String> peerIds, final Duration lease) {
+        List<String> args = new ArrayList<>(peerIds.size() + 1);
+        args.add(Long.toString(lease.toMillis()));
+        args.addAll(peerIds);
+        return redisTemplate.execute(RENEW, List.of(key(room)), args).then();
+    }
+
+    @Override
+    public Mono<Void> release(final String room, final String peerId) {
+        return redisTemplate.opsForZSet().remove(key(room), peerId).then();
+    }
+
+    private String key(final String room) {
+        return keyPrefix + room;
+    }
+}
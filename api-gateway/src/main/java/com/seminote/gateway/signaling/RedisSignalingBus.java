@@ -0,0 +1,39 @@
+package com.seminote.gateway.signaling;
+
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Redis pub/sub channel shared by all gateway nodes.
+ *
+ * Every node subscribes to the one channel and ignores signals for rooms it
+ * has no peers in. Signaling traffic is a few frames per call setup, so a
+ * single channel keeps subscriptions static instead of subscribing per room.
+ */
+public final class RedisSignalingBus implements SignalingBus {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+
+    /**
+     * Create a bus on top of the gateway's reactive Redis connection.
+     * @param redisTemplate reactive Redis template
+     * @param channel pub/sub channel name
+     */
+    public RedisSignalingBus(final ReactiveStringRedisTemplate redisTemplate, final String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    @Override
+    public Mono<Void> publish(final String message) {
+        return redisTemplate.convertAndSend(channel, message).then();
+    }
+
+    @Override
+    public Flux<String> messages() {
+        return redisTemplate.listenToChannel(channel).map(ReactiveSubscription.Message::getMessage);
+    }
+}
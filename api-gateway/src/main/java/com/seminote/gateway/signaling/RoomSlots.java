@@ -0,0 +1,43 @@
+package com.seminote.gateway.signaling;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Room capacity shared by all gateway nodes.
+ *
+ * A peer holds a slot in its room for as long as it stays joined; slots are
+ * leased, so those of a node that disappears without releasing them expire
+ * after the lease unless the node renews them.
+ */
+public interface RoomSlots {
+
+    /**
+     * Take a slot in a room if it has one free.
+     * @param room room id
+     * @param peerId joining peer
+     * @param maxPeers peers the room may hold across all nodes
+     * @param lease how long the slot is held unless renewed
+     * @return true if the peer now holds a slot
+     */
+    Mono<Boolean> reserve(String room, String peerId, int maxPeers, Duration lease);
+
+    /**
+     * Extend the leases of peers still in a room.
+     * @param room room id
+     * @param peerIds peers on this node that are still joined
+     * @param lease new lease from now
+     * @return completes when the leases are extended
+     */
+    Mono<Void> renew(String room, Collection<String> peerIds, Duration lease);
+
+    /**
+     * Give a slot back.
+     * @param room room id
+     * @param peerId leaving peer
+     * @return completes when the slot is free
+     */
+    Mono<Void> release(String room, String peerId);
+}
@@ -0,0 +1,23 @@
+package com.seminote.gateway.signaling;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Channel shared by all gateway nodes for signals addressed to peers on other nodes.
+ */
+public interface SignalingBus {
+
+    /**
+     * Send a message to every node, including this one.
+     * @param message serialized signal
+     * @return completes when the message has been handed to the bus
+     */
+    Mono<Void> publish(String message);
+
+    /**
+     * Messages published by any node.
+     * @return hot stream of serialized signals
+     */
+    Flux<String> messages();
+}
@@ -0,0 +1,108 @@
+package com.seminote.gateway.signaling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.security.JwtVerifier;
+import com.seminote.security.RoomTicket;
+import com.seminote.security.SeminoteSecurityConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * WebRTC signaling over WebSocket, served by the gateway itself rather than routed.
+ */
+@Configuration
+@EnableConfigurationProperties(SignalingProperties.class)
+public class SignalingConfiguration {
+
+    /** Ahead of the gateway's route mapping so the signaling path is never proxied. */
+    private static final int HANDLER_MAPPING_ORDER = -1;
+
+    /**
+     * Fan-out to the other gateway nodes.
+     * @param properties signaling settings
+     * @param redisTemplate reactive Redis template
+     * @return Redis or single-node bus depending on {@code seminote.gateway.signaling.fanout}
+     */
+    @Bean
+    public SignalingBus signalingBus(final SignalingProperties properties,
+                                     final ReactiveStringRedisTemplate redisTemplate) {
+        if (properties.getFanout() == SignalingProperties.Fanout.LOCAL) {
+            return new LocalSignalingBus();
+        }
+        return new RedisSignalingBus(redisTemplate, properties.getChannel());
+    }
+
+    /**
+     * Room capacity across gateway nodes.
+     * @param properties signaling settings
+     * @param redisTemplate reactive Redis template
+     * @return Redis or single-node slots depending on {@code seminote.gateway.signaling.fanout}
+     */
+    @Bean
+    public RoomSlots roomSlots(final SignalingProperties properties, final ReactiveStringRedisTemplate redisTemplate) {
+        if (properties.getFanout() == SignalingProperties.Fanout.LOCAL) {
+            return new LocalRoomSlots();
+        }
+        return new RedisRoomSlots(redisTemplate, properties.getChannel() + ":room:");
+    }
+
+    /**
+     * Verifier of room tickets, keyed with the JWT secret the ticket issuers share.
+     * @param secret HMAC secret
+     * @return room tickets
+     */
+    @Bean
+    public RoomTicket roomTicket(@Value("${seminote.security.jwt.secret:}") final String secret) {
+        return new RoomTicket(SeminoteSecurityConfig.requireJwtSecret(secret), Clock.systemUTC());
+    }
+
+    /**
+     * Room state and relaying.
+     * @param properties signaling settings
+     * @param signalingBus fan-out bus
+     * @param roomSlots shared room capacity
+     * @param roomTicket verifier of room tickets
+     * @param objectMapper JSON mapper
+     * @param meterRegistry meter registry
+     * @return hub
+     */
+    @Bean
+    public SignalingHub signalingHub(final SignalingProperties properties, final SignalingBus signalingBus,
+                                     final RoomSlots roomSlots, final RoomTicket roomTicket,
+                                     final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        return new SignalingHub(properties, signalingBus, roomSlots, roomTicket, objectMapper, meterRegistry);
+    }
+
+    /**
+     * Socket endpoint in front of the hub.
+     * @param signalingHub hub
+     * @param jwtVerifier cached verifier shared with the routing filters
+     * @return WebSocket handler
+     */
+    @Bean
+    public SignalingWebSocketHandler signalingWebSocketHandler(final SignalingHub signalingHub,
+                                                               final JwtVerifier jwtVerifier) {
+        return new SignalingWebSocketHandler(signalingHub, jwtVerifier);
+    }
+
+    /**
+     * Maps {@code seminote.gateway.signaling.path} to the signaling handler.
+     * @param properties signaling settings
+     * @param handler WebSocket handler
+     * @return handler mapping
+     */
+    @Bean
+    public HandlerMapping signalingHandlerMapping(final SignalingProperties properties,
+                                                 final SignalingWebSocketHandler handler) {
+        return new SimpleUrlHandlerMapping(Map.of(properties.getPath(), handler), HANDLER_MAPPING_ORDER);
+    }
+}
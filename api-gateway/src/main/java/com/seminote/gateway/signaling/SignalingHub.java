@@ -0,0 +1,432 @@
+package com.seminote.gateway.signaling;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seminote.security.RoomTicket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relays WebRTC signaling between the peers of a room.
+ *
+ * Clients join a room as student or teacher and exchange SDP offers and
+ * answers and ICE candidates through it; the hub never looks inside the
+ * payload. Joining takes a {@link RoomTicket} issued for the room, the
+ * authenticated user and the role. Messages are JSON text frames:
+ * <pre>
+ * {"type":"join","room":"lesson-42","role":"student","ticket":"&lt;room ticket&gt;"}
+ * {"type":"offer","to":"&lt;peer id&gt;","payload":{...}}   (also answer, candidate; without "to" for all peers)
+ * {"type":"leave"}
+ * </pre>
+ * and peers receive {@code joined}, {@code peer-joined}, {@code peer-left},
+ * relayed signals with a {@code from} peer id, and {@code error} frames.
+ *
+ * Room membership lives in concurrent maps read without locks on every relay.
+ * Relays run on the calling socket's event loop and only enqueue frames on the
+ * recipients' bounded queues, so a slow socket never stalls its room. Signals
+ * whose recipients may be connected to other nodes are also published on the
+ * {@link SignalingBus}; each node delivers them to its own peers of the room.
+ * The room size limit is kept in {@link RoomSlots} shared by all nodes; if
+ * they cannot be reached the node keeps its own limit.
+ */
+public class SignalingHub implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SignalingHub.class);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final Duration RESUBSCRIBE_DELAY = Duration.ofSeconds(1);
+    private static final int MAX_ROOM_ID_LENGTH = 128;
+    private static final String TYPE = "type";
+    private static final String ROOM = "room";
+    private static final String PEER_ID = "peerId";
+    private static final int LEASE_RENEWALS = 3;
+
+    private final SignalingProperties properties;
+    private final SignalingBus bus;
+    private final RoomSlots slots;
+    private final RoomTicket tickets;
+    private final ObjectMapper mapper;
+    private final String nodeId = HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+    private final Map<String, SignalingPeer> peers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, SignalingPeer>> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter localRelays;
+    private final Counter remoteRelays;
+    private final Counter dropped;
+    private final Counter slowConsumers;
+    private final Counter unauthorized;
+
+    private volatile Disposable subscription;
+    private volatile Disposable renewal;
+
+    /**
+     * Create a hub.
+     * @param properties signaling settings
+     * @param bus channel to the other gateway nodes
+     * @param slots room capacity shared with the other gateway nodes
+     * @param tickets verifier of room tickets
+     * @param mapper JSON mapper
+     * @param registry meter registry
+     */
+    public SignalingHub(final SignalingProperties properties, final SignalingBus bus, final RoomSlots slots,
+                        final RoomTicket tickets, final ObjectMapper mapper, final MeterRegistry registry) {
+        this.properties = properties;
+        this.bus = bus;
+        this.slots = slots;
+        this.tickets = tickets;
+        this.mapper = mapper;
+        this.localRelays = relays(registry, "local");
+        this.remoteRelays = relays(registry, "remote");
+        this.dropped = Counter.builder("seminote.gateway.signaling.dropped")
+                .description("Frames dropped because the recipient's outbound queue was full")
+                .register(registry);
+        this.slowConsumers = Counter.builder("seminote.gateway.signaling.slow.consumers")
+                .description("Sockets closed because they did not read their frames")
+                .register(registry);
+        this.unauthorized = Counter.builder("seminote.gateway.signaling.joins.unauthorized")
+                .description("Joins refused for a missing, expired or mismatched room ticket")
+                .register(registry);
+        Gauge.builder("seminote.gateway.signaling.connections", connections, AtomicInteger::get)
+                .register(registry);
+        Gauge.builder("seminote.gateway.signaling.rooms", rooms, Map::size)
+                .register(registry);
+    }
+
+    /**
+     * Register a new socket.
+     * @param userId authenticated user
+     * @return the peer, or null when this node is at its connection limit
+     */
+    public SignalingPeer connect(final String userId) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            return null;
+        }
+        SignalingPeer peer = new SignalingPeer(HEX.toHexDigits(ThreadLocalRandom.current().nextLong()), userId,
+                properties.getOutboundQueueCapacity());
+        peers.put(peer.id(), peer);
+        return peer;
+    }
+
+    /**
+     * Handle a text frame from a peer.
+     * @param peer sender
+     * @param text frame payload
+     */
+    public void receive(final SignalingPeer peer, final String text) {
+        if (text.length() > properties.getMaxMessageSize()) {
+            error(peer, "message too large");
+            return;
+        }
+        JsonNode message;
+        try {
+            message = mapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            message = null;
+        }
+        if (message == null || !message.isObject()) {
+            error(peer, "malformed message");
+            return;
+        }
+        String type = text(message, TYPE);
+        switch (type == null ? "" : type) {
+            case "join" -> join(peer, text(message, ROOM), PeerRole.parse(text(message, "role")),
+                    text(message, "ticket"));
+            case "leave" -> leave(peer);
+            case "offer", "answer", "candidate" -> relay(peer, type, text(message, "to"), message.get("payload"));
+            default -> error(peer, "unknown type");
+        }
+    }
+
+    /**
+     * Remove a socket that closed, leaving its room.
+     * @param peer peer to remove
+     */
+    public void disconnect(final SignalingPeer peer) {
+        peer.close(SignalingPeer.CloseReason.DISCONNECTED);
+        if (peer.release()) {
+            leave(peer);
+            peers.remove(peer.id());
+            connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Open sockets on this node.
+     * @return connection count
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Rooms with at least one peer on this node.
+     * @return room count
+     */
+    public int rooms() {
+        return rooms.size();
+    }
+
+    @Override
+    public void start() {
+        subscription = bus.messages()
+                .doOnError(e -> LOGGER.warn("Signaling fan-out subscription failed, resubscribing: {}", e.toString()))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, RESUBSCRIBE_DELAY))
+                .subscribe(this::onRemote);
+        Duration interval = properties.getRoomLease().dividedBy(LEASE_RENEWALS);
+        renewal = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> renewSlots())
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+        Disposable renewing = renewal;
+        if (renewing != null) {
+            renewing.dispose();
+            renewal = null;
+        }
+        peers.values().forEach(peer -> peer.close(SignalingPeer.CloseReason.SHUTDOWN));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    /**
+     * Deliver a signal published by any node to this node's peers.
+     * @param message serialized {@link RemoteSignal}
+     */
+    void onRemote(final String message) {
+        RemoteSignal signal;
+        try {
+            signal = mapper.readValue(message, RemoteSignal.class);
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Ignoring malformed signaling fan-out message: {}", e.getOriginalMessage());
+            return;
+        }
+        if (!nodeId.equals(signal.node())) {
+            route(signal.room(), signal.from(), signal.to(), signal.frame(), remoteRelays);
+        }
+    }
+
+    private void join(final SignalingPeer peer, final String room, final PeerRole role, final String ticket) {
+        if (room == null || room.isEmpty() || room.length() > MAX_ROOM_ID_LENGTH) {
+            error(peer, "room is required");
+            return;
+        }
+        if (role == null) {
+            error(peer, "role must be student or teacher");
+            return;
+        }
+        if (!tickets.verify(ticket, room, peer.userId(), role.getWireName())) {
+            unauthorized.increment();
+            error(peer, "not allowed to join this room");
+            return;
+        }
+        if (!peer.startJoin()) {
+            error(peer, "already in a room");
+            return;
+        }
+        slots.reserve(room, peer.id(), properties.getMaxPeersPerRoom(), properties.getRoomLease())
+                .onErrorResume(e -> {
+                    LOGGER.warn("Room slot reservation failed, keeping the node limit: {}", e.toString());
+                    return Mono.just(true);
+                })
+                .defaultIfEmpty(false)
+                .subscribe(reserved -> admit(peer, room, role, reserved));
+    }
+
+    /**
+     * Add a peer to its room once it holds a slot; a peer that disconnected
+     * while the slot was reserved leaves again at once.
+     */
+    private void admit(final SignalingPeer peer, final String room, final PeerRole role, final boolean reserved) {
+        if (!reserved) {
+            peer.joinFailed();
+            error(peer, "room is full");
+            return;
+        }
+        AtomicBoolean added = new AtomicBoolean();
+        rooms.compute(room, (id, members) -> {
+            Map<String, SignalingPeer> current = members == null ? new ConcurrentHashMap<>() : members;
+            if (current.size() < properties.getMaxPeersPerRoom()) {
+                current.put(peer.id(), peer);
+                added.set(true);
+            }
+            return current.isEmpty() ? null : current;
+        });
+        if (!added.get()) {
+            peer.joinFailed();
+            release(room, peer.id());
+            error(peer, "room is full");
+            return;
+        }
+        peer.joined(room, role);
+        if (peer.isClosed()) {
+            leave(peer);
+            return;
+        }
+        deliver(peer, write(mapper.createObjectNode().put(TYPE, "joined").put(ROOM, room).put(PEER_ID, peer.id())));
+        broadcast(room, peer.id(), write(mapper.createObjectNode().put(TYPE, "peer-joined").put(PEER_ID, peer.id())
+                .put("userId", peer.userId()).put("role", role.getWireName())));
+    }
+
+    private void leave(final SignalingPeer peer) {
+        String room = peer.left();
+        if (room == null) {
+            return;
+        }
+        rooms.computeIfPresent(room, (id, members) -> {
+            members.remove(peer.id());
+            return members.isEmpty() ? null : members;
+        });
+        release(room, peer.id());
+        broadcast(room, peer.id(), write(mapper.createObjectNode().put(TYPE, "peer-left").put(PEER_ID, peer.id())));
+    }
+
+    private void release(final String room, final String peerId) {
+        slots.release(room, peerId)
+                .subscribe(null, e -> LOGGER.warn("Room slot release failed, it expires with its lease: {}",
+                        e.toString()));
+    }
+
+    private Mono<Void> renewSlots() {
+        return Flux.fromIterable(rooms.entrySet())
+                .concatMap(room -> slots.renew(room.getKey(), List.copyOf(room.getValue().keySet()),
+                                properties.getRoomLease())
+                        .onErrorResume(e -> {
+                            LOGGER.warn("Room slot renewal failed for {}: {}", room.getKey(), e.toString());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    private void relay(final SignalingPeer peer, final String type, final String to, final JsonNode payload) {
+        String room = peer.room();
+        if (room == null) {
+            error(peer, "join a room first");
+            return;
+        }
+        if (payload == null || !payload.isObject()) {
+            error(peer, "payload is required");
+            return;
+        }
+        ObjectNode frame = mapper.createObjectNode().put(TYPE, type).put("from", peer.id());
+        frame.set("payload", payload);
+        String serialized = write(frame);
+        boolean deliveredLocally = route(room, peer.id(), to, serialized, localRelays);
+        if (to == null || !deliveredLocally) {
+            publish(room, peer.id(), to, serialized);
+        }
+    }
+
+    private void broadcast(final String room, final String from, final String frame) {
+        route(room, from, null, frame, localRelays);
+        publish(room, from, null, frame);
+    }
+
+    /**
+     * Deliver a frame to one peer of a room, or to all but the sender.
+     * @return true if the addressed peer is connected to this node
+     */
+    private boolean route(final String room, final String from, final String to, final String frame,
+                          final Counter relays) {
+        Map<String, SignalingPeer> members = rooms.get(room);
+        if (members == null) {
+            return false;
+        }
+        if (to != null) {
+            SignalingPeer target = members.get(to);
+            if (target == null) {
+                return false;
+            }
+            deliver(target, frame);
+            relays.increment();
+            return true;
+        }
+        for (SignalingPeer member : members.values()) {
+            if (!member.id().equals(from)) {
+                deliver(member, frame);
+                relays.increment();
+            }
+        }
+        return false;
+    }
+
+    private void publish(final String room, final String from, final String to, final String frame) {
+        bus.publish(write(new RemoteSignal(nodeId, room, from, to, frame)))
+                .subscribe(null, e -> LOGGER.warn("Signaling fan-out publish failed: {}", e.toString()));
+    }
+
+    private void deliver(final SignalingPeer peer, final String frame) {
+        if (peer.offer(frame) || peer.isClosed()) {
+            return;
+        }
+        if (properties.getSlowConsumerPolicy() == SignalingProperties.SlowConsumerPolicy.DROP) {
+            dropped.increment();
+        } else if (peer.close(SignalingPeer.CloseReason.SLOW_CONSUMER)) {
+            slowConsumers.increment();
+        }
+    }
+
+    private void error(final SignalingPeer peer, final String reason) {
+        deliver(peer, write(mapper.createObjectNode().put(TYPE, "error").put("reason", reason)));
+    }
+
+    private String write(final Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize signal", e);
+        }
+    }
+
+    private static String text(final JsonNode message, final String field) {
+        JsonNode value = message.get(field);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    private static Counter relays(final MeterRegistry registry, final String scope) {
+        return Counter.builder("seminote.gateway.signaling.relayed")
+                .tag("scope", scope)
+                .description("Frames delivered to peers on this node")
+                .register(registry);
+    }
+
+    /**
+     * Signal passed between gateway nodes.
+     * @param node publishing node, which ignores its own messages
+     * @param room room id
+     * @param from sending peer id
+     * @param to addressed peer id, or null for every peer but the sender
+     * @param frame serialized frame delivered as is
+     */
+    record RemoteSignal(String node, String room, String from, String to, String frame) {
+    }
+}
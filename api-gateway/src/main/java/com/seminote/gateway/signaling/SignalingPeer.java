@@ -0,0 +1,232 @@
+package com.seminote.gateway.signaling;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One connected socket and its bounded outbound queue.
+ *
+ * Any thread may {@link #offer(String)} frames: relays from other sockets'
+ * event loops and from the Redis subscription all land here. The queue is a
+ * lock-free linked queue bounded by a counter; frames leave it only as fast
+ * as the transport requests them, so a socket that stops reading fills its
+ * queue instead of growing buffers, and the hub then drops frames or closes
+ * it. Draining uses the usual work-in-progress counter, so concurrent offers
+ * never run the transport from two threads at once.
+ */
+public final class SignalingPeer {
+
+    /**
+     * The socket side of a peer.
+     */
+    public interface Transport {
+
+        /**
+         * Frames the socket is ready to accept.
+         * @return outstanding demand
+         */
+        long demand();
+
+        /**
+         * Write a frame; only called while {@link #demand()} is positive.
+         * @param frame serialized signal
+         */
+        void send(String frame);
+
+        /**
+         * Stop sending and close the socket; may be called more than once.
+         * @param reason why the peer was closed
+         */
+        void close(CloseReason reason);
+    }
+
+    /** Why a peer was closed. */
+    public enum CloseReason {
+        /** The client went away. */
+        DISCONNECTED,
+        /** The client did not read its frames fast enough. */
+        SLOW_CONSUMER,
+        /** The gateway is shutting down. */
+        SHUTDOWN
+    }
+
+    private final String id;
+    private final String userId;
+    private final int capacity;
+    private final Queue<String> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final AtomicReference<CloseReason> closeReason = new AtomicReference<>();
+
+    private volatile Transport transport;
+    private volatile String room;
+    private volatile PeerRole role;
+    private boolean joining;
+
+    SignalingPeer(final String id, final String userId, final int capacity) {
+        this.id = id;
+        this.userId = userId;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Connect the socket; frames queued so far are sent as demand allows.
+     * @param socket transport of this peer
+     */
+    public void attach(final Transport socket) {
+        transport = socket;
+        CloseReason reason = closeReason.get();
+        if (reason != null) {
+            socket.close(reason);
+        } else {
+            drain();
+        }
+    }
+
+    /**
+     * Send as many queued frames as the transport currently accepts.
+     */
+    public void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Transport socket = transport;
+            if (socket != null) {
+                String frame;
+                while (socket.demand() > 0 && (frame = outbound.poll()) != null) {
+                    pending.decrementAndGet();
+                    socket.send(frame);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Queue a frame.
+     * @param frame serialized signal
+     * @return false if the peer is closed or its queue is full
+     */
+    boolean offer(final String frame) {
+        if (closeReason.get() != null) {
+            return false;
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            return false;
+        }
+        outbound.offer(frame);
+        drain();
+        return true;
+    }
+
+    /**
+     * Close the peer once; later calls have no effect.
+     * @param reason why the peer is closed
+     * @return true if this call closed it
+     */
+    boolean close(final CloseReason reason) {
+        if (!closeReason.compareAndSet(null, reason)) {
+            return false;
+        }
+        outbound.clear();
+        Transport socket = transport;
+        if (socket != null) {
+            socket.close(reason);
+        }
+        return true;
+    }
+
+    /**
+     * Mark the peer as removed from the hub.
+     * @return true for the first call only
+     */
+    boolean release() {
+        return released.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closeReason.get() != null;
+    }
+
+    /**
+     * Claim the peer for a join; a peer joins one room at a time.
+     * @return false if the peer is in a room or already joining one
+     */
+    synchronized boolean startJoin() {
+        if (joining) {
+            return false;
+        }
+        joining = true;
+        return true;
+    }
+
+    synchronized void joinFailed() {
+        joining = false;
+    }
+
+    synchronized void joined(final String joinedRoom, final PeerRole joinedRole) {
+        room = joinedRoom;
+        role = joinedRole;
+    }
+
+    /**
+     * Leave the current room; only one caller gets it back.
+     * @return the room left, or null if the peer was in none
+     */
+    synchronized String left() {
+        String previous = room;
+        if (previous != null) {
+            room = null;
+            role = null;
+            joining = false;
+        }
+        return previous;
+    }
+
+    /**
+     * Id other peers address this peer by.
+     * @return peer id
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Authenticated user behind the socket.
+     * @return user id
+     */
+    public String userId() {
+        return userId;
+    }
+
+    /**
+     * Room the peer is in.
+     * @return room id, or null before joining
+     */
+    public String room() {
+        return room;
+    }
+
+    /**
+     * Role declared on joining.
+     * @return role, or null before joining
+     */
+    public PeerRole role() {
+        return role;
+    }
+
+    /**
+     * Frames waiting for the socket.
+     * @return queued frame count
+     */
+    public int pending() {
+        return pending.get();
+    }
+}
@@ -0,0 +1,122 @@
+package com.seminote.gateway.signaling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * WebRTC signaling settings for the gateway.
+ *
+ * {@code maxConnections} caps open sockets per gateway node and
+ * {@code outboundQueueCapacity} caps the frames waiting for a slow socket
+ * before {@code slowConsumerPolicy} applies. {@code maxPeersPerRoom} holds
+ * across all nodes with Redis fan-out, through slots leased for
+ * {@code roomLease} and renewed while peers stay, and per node otherwise.
+ */
+@ConfigurationProperties("seminote.gateway.signaling")
+public class SignalingProperties {
+
+    /** How signals reach peers connected to other gateway nodes. */
+    public enum Fanout {
+        /** Redis pub/sub, for multi-node deployments. */
+        REDIS,
+        /** No fan-out, for single-node and test setups. */
+        LOCAL
+    }
+
+    /** What happens when a peer's outbound queue is full. */
+    public enum SlowConsumerPolicy {
+        /** Close the socket; the client reconnects and renegotiates. */
+        CLOSE,
+        /** Drop the frame and keep the socket. */
+        DROP
+    }
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 50_000;
+    private static final int DEFAULT_MAX_PEERS_PER_ROOM = 2;
+    private static final int DEFAULT_OUTBOUND_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_MAX_MESSAGE_SIZE = 16_384;
+    private static final long DEFAULT_ROOM_LEASE_SECONDS = 30;
+
+    private String path = "/ws/signaling";
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int maxPeersPerRoom = DEFAULT_MAX_PEERS_PER_ROOM;
+    private int outboundQueueCapacity = DEFAULT_OUTBOUND_QUEUE_CAPACITY;
+    private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.CLOSE;
+    private Fanout fanout = Fanout.REDIS;
+    private String channel = "seminote:signaling";
+    private Duration roomLease = Duration.ofSeconds(DEFAULT_ROOM_LEASE_SECONDS);
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxPeersPerRoom() {
+        return maxPeersPerRoom;
+    }
+
+    public void setMaxPeersPerRoom(final int maxPeersPerRoom) {
+        this.maxPeersPerRoom = maxPeersPerRoom;
+    }
+
+    public int getOutboundQueueCapacity() {
+        return outboundQueueCapacity;
+    }
+
+    public void setOutboundQueueCapacity(final int outboundQueueCapacity) {
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    public void setMaxMessageSize(final int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public void setSlowConsumerPolicy(final SlowConsumerPolicy slowConsumerPolicy) {
+        this.slowConsumerPolicy = slowConsumerPolicy;
+    }
+
+    public Fanout getFanout() {
+        return fanout;
+    }
+
+    public void setFanout(final Fanout fanout) {
+        this.fanout = fanout;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(final String channel) {
+        this.channel = channel;
+    }
+
+    public Duration getRoomLease() {
+        return roomLease;
+    }
+
+    public void setRoomLease(final Duration roomLease) {
+        this.roomLease = roomLease;
+    }
+}
@@ -0,0 +1,119 @@
+package com.seminote.gateway.signaling;
+
+import com.seminote.security.InvalidTokenException;
+import com.seminote.security.JwtVerifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebSocket endpoint connecting clients to the {@link SignalingHub}.
+ *
+ * Browsers cannot set headers on a WebSocket handshake, so the bearer token
+ * is accepted from the {@code access_token} query parameter as well as the
+ * {@code Authorization} header. Outbound frames are pulled from the peer's
+ * queue only as Netty requests them, which is what lets a socket that stops
+ * reading fill its bounded queue rather than the gateway's memory.
+ */
+public class SignalingWebSocketHandler implements WebSocketHandler {
+
+    private static final String BEARER = "Bearer ";
+    private static final String TOKEN_PARAMETER = "access_token";
+    private static final CloseStatus INVALID_TOKEN = CloseStatus.POLICY_VIOLATION.withReason("Invalid token");
+    private static final CloseStatus SLOW_CONSUMER = CloseStatus.POLICY_VIOLATION.withReason("Slow consumer");
+
+    private final SignalingHub hub;
+    private final JwtVerifier verifier;
+
+    /**
+     * Create the handler.
+     * @param hub signaling hub
+     * @param verifier shared cached verifier
+     */
+    public SignalingWebSocketHandler(final SignalingHub hub, final JwtVerifier verifier) {
+        this.hub = hub;
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Mono<Void> handle(final WebSocketSession session) {
+        String userId = authenticate(session.getHandshakeInfo());
+        if (userId == null) {
+            return session.close(INVALID_TOKEN);
+        }
+        SignalingPeer peer = hub.connect(userId);
+        if (peer == null) {
+            return session.close(CloseStatus.SERVICE_OVERLOAD);
+        }
+
+        Flux<WebSocketMessage> outbound = Flux.<String>create(sink -> {
+                    sink.onRequest(n -> peer.drain());
+                    peer.attach(new SessionTransport(session, sink));
+                }, FluxSink.OverflowStrategy.ERROR)
+                .map(session::textMessage);
+        Mono<Void> inbound = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .doOnNext(message -> hub.receive(peer, message.getPayloadAsText()))
+                .doFinally(signal -> hub.disconnect(peer))
+                .then();
+        return Mono.zip(inbound, session.send(outbound)).then();
+    }
+
+    private String authenticate(final HandshakeInfo handshake) {
+        String authorization = handshake.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String token = authorization != null && authorization.startsWith(BEARER)
+                ? authorization.substring(BEARER.length()).trim()
+                : UriComponentsBuilder.fromUri(handshake.getUri()).build().getQueryParams().getFirst(TOKEN_PARAMETER);
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return verifier.verify(token).getSubject();
+        } catch (InvalidTokenException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adapts a session's outbound flux to the peer's transport.
+     */
+    private static final class SessionTransport implements SignalingPeer.Transport {
+
+        private final WebSocketSession session;
+        private final FluxSink<String> sink;
+
+        SessionTransport(final WebSocketSession session, final FluxSink<String> sink) {
+            this.session = session;
+            this.sink = sink;
+        }
+
+        @Override
+        public long demand() {
+            return sink.requestedFromDownstream();
+        }
+
+        @Override
+        public void send(final String frame) {
+            sink.next(frame);
+        }
+
+        @Override
+        public void close(final SignalingPeer.CloseReason reason) {
+            sink.complete();
+            switch (reason) {
+                case SLOW_CONSUMER -> session.close(SLOW_CONSUMER).subscribe();
+                case SHUTDOWN -> session.close(CloseStatus.GOING_AWAY).subscribe();
+                case DISCONNECTED -> {
+                    // The client closed the socket itself
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.seminote.gateway.trace;
+
+import com.seminote.monitoring.trace.LatencyBudgetTracer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency budget tracing for routed traffic.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "seminote.monitoring.tracing", name = "enabled", matchIfMissing = true)
+public class GatewayTracingConfiguration {
+
+    /**
+     * Filter starting the trace of every routed request.
+     * @param tracer tracer from the shared monitoring auto-configuration
+     * @return global filter
+     */
+    @Bean
+    public LatencyTraceFilter latencyTraceFilter(final LatencyBudgetTracer tracer) {
+        return new LatencyTraceFilter(tracer);
+    }
+}
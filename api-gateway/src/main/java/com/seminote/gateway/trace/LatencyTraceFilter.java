@@ -0,0 +1,57 @@
+package com.seminote.gateway.trace;
+
+import com.seminote.monitoring.trace.LatencyBudgetTracer;
+import com.seminote.monitoring.trace.RequestTrace;
+import com.seminote.monitoring.trace.ServerTiming;
+import com.seminote.monitoring.trace.SpanKind;
+import com.seminote.monitoring.trace.TraceContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the trace of every routed request.
+ *
+ * Runs ahead of authentication and rate limiting so their time counts as
+ * gateway time, forwards the trace to the service in {@code traceparent}, and
+ * when the exchange completes splits the total into gateway, service and
+ * database time using the service's {@code Server-Timing} header. Network time
+ * between gateway and service counts as gateway time.
+ */
+public class LatencyTraceFilter implements GlobalFilter, Ordered {
+
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final LatencyBudgetTracer tracer;
+
+    /**
+     * Create the filter.
+     * @param tracer shared tracer
+     */
+    public LatencyTraceFilter(final LatencyBudgetTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+        ServerHttpRequest incoming = exchange.getRequest();
+        RequestTrace trace = tracer.start(incoming.getHeaders().getFirst(TraceContext.HEADER), SpanKind.GATEWAY,
+                incoming.getMethod().name(), incoming.getPath().value());
+        ServerHttpRequest request = incoming.mutate()
+                .headers(headers -> headers.set(TraceContext.HEADER, trace.context().toHeader()))
+                .build();
+        return chain.filter(exchange.mutate().request(request).build())
+                .doFinally(signal -> {
+                    ServerTiming.addTo(exchange.getResponse().getHeaders().getFirst(ServerTiming.HEADER), trace);
+                    tracer.finish(trace);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,88 @@
+package com.seminote.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the route table declared in application.properties.
+ */
+class GatewayRoutesTest {
+
+    private static final String[] PREFIXES = {
+        "/api/v1/users/**", "/api/v1/content/**", "/api/v1/analytics/**", "/api/v1/progress/**"
+    };
+
+    // server.port of each service module; keep in step with its application.properties
+    private static final Map<String, Integer> SERVICE_PORTS = Map.of(
+            "user-service", 8081,
+            "content-service", 8082,
+            "analytics-service", 8083,
+            "progress-service", 8084,
+            "notification-service", 8085,
+            "payment-service", 8086);
+
+    @Test
+    void everyServicePrefixIsRoutedWithTimeouts() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            assertNotNull(in);
+            properties.load(in);
+        }
+
+        for (String prefix : PREFIXES) {
+            int route = findRoute(properties, "Path=" + prefix);
+            assertTrue(route >= 0, "Missing route for " + prefix);
+            String base = "spring.cloud.gateway.routes[" + route + "].";
+            assertTrue(properties.getProperty(base + "uri").startsWith("${"), "Upstream must be overridable");
+            assertNotNull(properties.getProperty(base + "metadata.response-timeout"));
+            assertNotNull(properties.getProperty(base + "metadata.connect-timeout"));
+        }
+        assertEquals("reactive", properties.getProperty("spring.main.web-application-type"));
+        assertNotNull(properties.getProperty("spring.cloud.gateway.httpclient.pool.max-connections"));
+    }
+
+    @Test
+    void routeDefaultsPointAtEachServicePort() throws IOException {
+        Properties properties = load(getClass().getResourceAsStream("/application.properties"));
+        Pattern fallback = Pattern.compile("\\$\\{[A-Z_]+:(.+)}");
+        Map<String, Integer> routed = new HashMap<>();
+
+        for (int i = 0; properties.containsKey("spring.cloud.gateway.routes[" + i + "].id"); i++) {
+            String service = properties.getProperty("spring.cloud.gateway.routes[" + i + "].id");
+            Matcher uri = fallback.matcher(properties.getProperty("spring.cloud.gateway.routes[" + i + "].uri"));
+            assertTrue(uri.matches(), "Route " + service + " needs a default upstream");
+
+            assertTrue(SERVICE_PORTS.containsKey(service), "No service for route " + service);
+            routed.put(service, URI.create(uri.group(1)).getPort());
+        }
+        assertEquals(SERVICE_PORTS, routed, "Route defaults do not match the services' server.port");
+    }
+
+    private static Properties load(final InputStream source) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = source) {
+            assertNotNull(in);
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static int findRoute(final Properties properties, final String predicate) {
+        for (int i = 0; properties.containsKey("spring.cloud.gateway.routes[" + i + "].id"); i++) {
+            if (predicate.equals(properties.getProperty("spring.cloud.gateway.routes[" + i + "].predicates[0]"))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
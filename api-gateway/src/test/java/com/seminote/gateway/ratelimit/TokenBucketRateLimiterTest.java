@@ -0,0 +1,194 @@
+package com.seminote.gateway.ratelimit;
+
+import com.seminote.monitoring.LatencyHistogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the token-bucket rate limiter, using the in-process store
+ * as a stand-in for Redis.
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final String ROUTE = "user-service";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+
+    private TokenBucketRateLimiter limiter(final RateLimitStore store, final int rate, final int burst) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setReplenishRate(rate);
+        properties.setBurstCapacity(burst);
+        return new TokenBucketRateLimiter(properties, store, null, clock::get);
+    }
+
+    private static boolean allowed(final TokenBucketRateLimiter limiter, final String id) {
+        RateLimiter.Response response = limiter.isAllowed(ROUTE, id).block();
+        assertNotNull(response);
+        return response.isAllowed();
+    }
+
+    @Test
+    void burstIsAllowedThenDeniedUntilRefill() {
+        TokenBucketRateLimiter limiter = limiter(new LocalRateLimitStore(), 10, 5);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(allowed(limiter, "user:1"));
+        }
+        assertFalse(allowed(limiter, "user:1"));
+        assertTrue(allowed(limiter, "user:2"), "Clients have independent buckets");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(allowed(limiter, "user:1"));
+        assertFalse(allowed(limiter, "user:1"));
+    }
+
+    @Test
+    void perRouteLimitsOverrideDefaults() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setReplenishRate(100);
+        properties.setBurstCapacity(100);
+        properties.getRoutes().put("payment-service", new TokenBucketRateLimiter.Config(1, 2));
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, new LocalRateLimitStore(), null,
+                clock::get);
+
+        assertTrue(limiter.isAllowed("payment-service", "ip:10.0.0.1").block().isAllowed());
+        assertTrue(limiter.isAllowed("payment-service", "ip:10.0.0.1").block().isAllowed());
+        assertFalse(limiter.isAllowed("payment-service", "ip:10.0.0.1").block().isAllowed());
+        assertEquals("2", limiter.isAllowed("payment-service", "ip:10.0.0.1").block()
+                .getHeaders().get("X-RateLimit-Burst-Capacity"));
+    }
+
+    @Test
+    void reconciliationDebitsTokensConsumedOnOtherNodes() {
+        RateLimitStore sharedRedis = new LocalRateLimitStore();
+        TokenBucketRateLimiter nodeA = limiter(sharedRedis, 1, 10);
+        TokenBucketRateLimiter nodeB = limiter(sharedRedis, 1, 10);
+
+        assertTrue(allowed(nodeB, "user:7"));
+        nodeA.reconcile().block();
+        nodeB.reconcile().block();
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(allowed(nodeA, "user:7"));
+        }
+        nodeA.reconcile().block();
+        nodeB.reconcile().block();
+
+        // Node B spent 1 token itself and learned about 6 spent on node A.
+        int allowedOnB = 0;
+        while (allowed(nodeB, "user:7")) {
+            allowedOnB++;
+        }
+        assertEquals(3, allowedOnB);
+    }
+
+    @Test
+    void countersExpireAfterTheirOwnRoutesRefillTime() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setReplenishRate(1);
+        properties.setBurstCapacity(600);
+        properties.getRoutes().put("payment-service", new TokenBucketRateLimiter.Config(1, 120));
+        Map<String, Duration> ttls = new HashMap<>();
+        RateLimitStore recording = (deltas, ttl) -> {
+            deltas.keySet().forEach(key -> ttls.put(key, ttl));
+            return new LocalRateLimitStore().addAndGet(deltas, ttl);
+        };
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, recording, null, clock::get);
+
+        limiter.isAllowed("payment-service", "ip:10.0.0.1").block();
+        limiter.isAllowed(ROUTE, "ip:10.0.0.1").block();
+        limiter.reconcile().block();
+
+        assertEquals(Duration.ofMinutes(4), ttls.get("seminote:rl:payment-service:ip:10.0.0.1"));
+        assertEquals(Duration.ofMinutes(20), ttls.get("seminote:rl:" + ROUTE + ":ip:10.0.0.1"));
+    }
+
+    @Test
+    void countersMissingFromTheStoreReplyArePublishedAgain() {
+        RateLimitStore sharedRedis = new LocalRateLimitStore();
+        List<Map<String, Long>> calls = new ArrayList<>();
+        RateLimitStore dropsUser1Once = (deltas, ttl) -> {
+            calls.add(Map.copyOf(deltas));
+            Map<String, Long> applied = new HashMap<>(deltas);
+            if (calls.size() == 1) {
+                applied.remove("seminote:rl:" + ROUTE + ":user:1");
+            }
+            return applied.isEmpty() ? Mono.just(Map.of()) : sharedRedis.addAndGet(applied, ttl);
+        };
+        TokenBucketRateLimiter limiter = limiter(dropsUser1Once, 10, 5);
+
+        allowed(limiter, "user:1");
+        allowed(limiter, "user:2");
+        limiter.reconcile().block();
+        limiter.reconcile().block();
+
+        assertEquals(1L, calls.get(1).get("seminote:rl:" + ROUTE + ":user:1"));
+        assertEquals(0L, calls.get(1).get("seminote:rl:" + ROUTE + ":user:2"));
+    }
+
+    @Test
+    void idleBucketsAreEvictedAfterSync() {
+        TokenBucketRateLimiter limiter = limiter(new LocalRateLimitStore(), 10, 5);
+        allowed(limiter, "ip:192.168.0.10");
+        limiter.reconcile().block();
+        assertEquals(1, limiter.bucketCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.reconcile().block();
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    @Test
+    void consumptionOnAnEvictedBucketMovesToAFreshOne() {
+        TokenBucket bucket = new TokenBucket(5, 10, clock.get());
+        assertTrue(bucket.retireIfIdle(clock.get()));
+        assertEquals(TokenBucket.RETIRED, bucket.tryConsume(1, clock.get()));
+        assertEquals(0, bucket.drainPending(), "A retired bucket must not hold unpublished tokens");
+
+        TokenBucketRateLimiter limiter = limiter(new LocalRateLimitStore(), 10, 5);
+        allowed(limiter, "user:3");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.reconcile().block();
+        assertEquals(0, limiter.bucketCount());
+        assertTrue(allowed(limiter, "user:3"));
+        assertEquals(1, limiter.bucketCount());
+    }
+
+    @Test
+    @Tag("load")
+    void localDecisionLatencyStaysFlatUnderBurst() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new RateLimitProperties(),
+                new LocalRateLimitStore(), null);
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 20_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    long start = System.nanoTime();
+                    limiter.isAllowed(ROUTE, "ip:10.0." + offset + "." + (i % 1_000)).block();
+                    histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * perThread, histogram.snapshot().getCount());
+        assertTrue(histogram.snapshot().getP99() < 1.0, "p99 decision latency should stay below 1ms");
+    }
+}
@@ -0,0 +1,401 @@
+package com.seminote.gateway.signaling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.monitoring.LatencyHistogram;
+import com.seminote.security.RoomTicket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the signaling hub, with sockets replaced by in-memory
+ * transports and Redis by a bus whose messages are handed to other hubs.
+ */
+class SignalingHubTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String OFFER = "{\"type\":\"offer\",\"to\":\"%s\",\"payload\":{\"sdp\":\"v=0\"}}";
+    private static final String CANDIDATE = "{\"type\":\"candidate\",\"payload\":{\"candidate\":\"udp 1\"}}";
+    private static final String JOIN = "{\"type\":\"join\",\"room\":\"%s\",\"role\":\"%s\",\"ticket\":\"%s\"}";
+    private static final RoomTicket TICKETS = new RoomTicket(
+            "signaling-test-secret-of-at-least-32-bytes".getBytes(StandardCharsets.UTF_8), Clock.systemUTC());
+
+    private final CapturingBus bus = new CapturingBus();
+    private final SharedSlots slots = new SharedSlots();
+
+    private SignalingHub hub(final SignalingProperties properties) {
+        return new SignalingHub(properties, bus, slots, TICKETS, MAPPER, new SimpleMeterRegistry());
+    }
+
+    private static SignalingProperties properties() {
+        SignalingProperties properties = new SignalingProperties();
+        properties.setFanout(SignalingProperties.Fanout.LOCAL);
+        return properties;
+    }
+
+    private static Socket connect(final SignalingHub hub, final String userId) {
+        SignalingPeer peer = hub.connect(userId);
+        assertNotNull(peer);
+        Socket socket = new Socket(peer);
+        peer.attach(socket);
+        return socket;
+    }
+
+    private static void join(final SignalingHub hub, final Socket socket, final String room, final String role) {
+        hub.receive(socket.peer, JOIN.formatted(room, role, ticket(room, socket.peer.userId(), role)));
+    }
+
+    private static String ticket(final String room, final String userId, final String role) {
+        return TICKETS.issue(room, userId, role, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void offersAndCandidatesAreRelayedWithinTheRoom() throws Exception {
+        SignalingHub hub = hub(properties());
+        Socket student = connect(hub, "1");
+        Socket teacher = connect(hub, "2");
+        join(hub, student, "lesson-1", "student");
+        join(hub, teacher, "lesson-1", "teacher");
+
+        assertEquals("joined", student.frame(0).get("type").asText());
+        JsonNode peerJoined = student.frame(1);
+        assertEquals("peer-joined", peerJoined.get("type").asText());
+        assertEquals(teacher.peer.id(), peerJoined.get("peerId").asText());
+        assertEquals("teacher", peerJoined.get("role").asText());
+
+        hub.receive(teacher.peer, OFFER.formatted(student.peer.id()));
+        JsonNode offer = student.frame(2);
+        assertEquals("offer", offer.get("type").asText());
+        assertEquals(teacher.peer.id(), offer.get("from").asText());
+        assertEquals("v=0", offer.get("payload").get("sdp").asText());
+
+        hub.receive(student.peer, CANDIDATE);
+        assertEquals("candidate", teacher.frame(1).get("type").asText());
+        assertEquals(2, teacher.frames.size(), "The sender does not get its own signal");
+        assertEquals(1, hub.rooms());
+    }
+
+    @Test
+    void invalidMessagesAreAnsweredWithErrors() throws Exception {
+        SignalingProperties properties = properties();
+        properties.setMaxPeersPerRoom(1);
+        SignalingHub hub = hub(properties);
+        Socket first = connect(hub, "1");
+        Socket second = connect(hub, "2");
+
+        hub.receive(first.peer, CANDIDATE);
+        hub.receive(first.peer, "not json");
+        hub.receive(first.peer, "{\"type\":\"join\",\"room\":\"r\",\"role\":\"parent\"}");
+        join(hub, first, "r", "student");
+        join(hub, second, "r", "teacher");
+
+        assertEquals("join a room first", first.frame(0).get("reason").asText());
+        assertEquals("malformed message", first.frame(1).get("reason").asText());
+        assertEquals("role must be student or teacher", first.frame(2).get("reason").asText());
+        assertEquals("joined", first.frame(3).get("type").asText());
+        assertEquals("room is full", second.frame(0).get("reason").asText());
+    }
+
+    @Test
+    void joiningTakesATicketForTheRoomUserAndRole() throws Exception {
+        SignalingHub hub = hub(properties());
+        Socket student = connect(hub, "1");
+
+        hub.receive(student.peer, "{\"type\":\"join\",\"room\":\"lesson-1\",\"role\":\"student\"}");
+        hub.receive(student.peer, JOIN.formatted("lesson-1", "student", ticket("lesson-1", "2", "student")));
+        hub.receive(student.peer, JOIN.formatted("lesson-1", "teacher", ticket("lesson-1", "1", "student")));
+        hub.receive(student.peer, JOIN.formatted("lesson-1", "student", ticket("lesson-2", "1", "student")));
+        join(hub, student, "lesson-1", "student");
+        join(hub, student, "lesson-1", "student");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("not allowed to join this room", student.frame(i).get("reason").asText());
+        }
+        assertEquals("joined", student.frame(4).get("type").asText());
+        assertEquals("already in a room", student.frame(5).get("reason").asText());
+        assertEquals(Set.of(student.peer.id()), slots.members("lesson-1"));
+    }
+
+    @Test
+    void roomLimitHoldsAcrossNodes() throws Exception {
+        SignalingHub nodeA = hub(properties());
+        SignalingHub nodeB = hub(properties());
+        Socket student = connect(nodeA, "1");
+        Socket teacher = connect(nodeB, "2");
+        Socket intruder = connect(nodeB, "3");
+
+        join(nodeA, student, "lesson-1", "student");
+        join(nodeB, teacher, "lesson-1", "teacher");
+        join(nodeB, intruder, "lesson-1", "student");
+        assertEquals("room is full", intruder.frame(0).get("reason").asText());
+
+        nodeA.disconnect(student.peer);
+        assertEquals(Set.of(teacher.peer.id()), slots.members("lesson-1"));
+        join(nodeB, intruder, "lesson-1", "student");
+        assertEquals("joined", intruder.frame(1).get("type").asText());
+    }
+
+    @Test
+    void leavingAnnouncesThePeerAndEmptyRoomsAreRemoved() throws Exception {
+        SignalingHub hub = hub(properties());
+        Socket student = connect(hub, "1");
+        Socket teacher = connect(hub, "2");
+        join(hub, student, "lesson-1", "student");
+        join(hub, teacher, "lesson-1", "teacher");
+
+        hub.disconnect(teacher.peer);
+        assertEquals("peer-left", student.frame(2).get("type").asText());
+        assertEquals(SignalingPeer.CloseReason.DISCONNECTED, teacher.closed);
+        assertEquals(1, hub.connections());
+
+        hub.receive(student.peer, "{\"type\":\"leave\"}");
+        assertEquals(0, hub.rooms());
+        hub.disconnect(student.peer);
+        hub.disconnect(student.peer);
+        assertEquals(0, hub.connections());
+    }
+
+    @Test
+    void connectionsBeyondTheLimitAreRefused() {
+        SignalingProperties properties = properties();
+        properties.setMaxConnections(2);
+        SignalingHub hub = hub(properties);
+        SignalingPeer first = hub.connect("1");
+        assertNotNull(hub.connect("2"));
+        assertNull(hub.connect("3"));
+
+        hub.disconnect(first);
+        assertNotNull(hub.connect("3"));
+    }
+
+    @Test
+    void slowConsumersAreClosedOrDropped() {
+        for (SignalingProperties.SlowConsumerPolicy policy : SignalingProperties.SlowConsumerPolicy.values()) {
+            SignalingProperties properties = properties();
+            properties.setOutboundQueueCapacity(4);
+            properties.setSlowConsumerPolicy(policy);
+            SignalingHub hub = hub(properties);
+            Socket student = connect(hub, "1");
+            Socket teacher = connect(hub, "2");
+            String room = "lesson-" + policy;
+            join(hub, student, room, "student");
+            teacher.demand = 0;
+            join(hub, teacher, room, "teacher");
+
+            for (int i = 0; i < 10; i++) {
+                hub.receive(student.peer, CANDIDATE);
+            }
+
+            if (policy == SignalingProperties.SlowConsumerPolicy.CLOSE) {
+                assertEquals(SignalingPeer.CloseReason.SLOW_CONSUMER, teacher.closed);
+            } else {
+                assertNull(teacher.closed);
+                assertEquals(4, teacher.peer.pending());
+                teacher.demand = Long.MAX_VALUE;
+                teacher.peer.drain();
+                assertEquals(4, teacher.frames.size());
+            }
+        }
+    }
+
+    @Test
+    void signalsReachPeersOnOtherNodes() throws Exception {
+        SignalingProperties properties = properties();
+        SignalingHub nodeA = hub(properties);
+        SignalingHub nodeB = hub(properties);
+        Socket student = connect(nodeA, "1");
+        Socket teacher = connect(nodeB, "2");
+
+        join(nodeA, student, "lesson-1", "student");
+        bus.forwardTo(nodeA, nodeB);
+        join(nodeB, teacher, "lesson-1", "teacher");
+        bus.forwardTo(nodeA, nodeB);
+        assertEquals("peer-joined", student.frame(1).get("type").asText());
+
+        nodeA.receive(student.peer, OFFER.formatted(teacher.peer.id()));
+        bus.forwardTo(nodeA, nodeB);
+        JsonNode offer = teacher.frame(1);
+        assertEquals("offer", offer.get("type").asText());
+        assertEquals(student.peer.id(), offer.get("from").asText());
+        assertEquals(1, student.frames.stream().filter(f -> f.contains("peer-joined")).count(),
+                "A node ignores its own fan-out");
+    }
+
+    @Test
+    @Tag("load")
+    void fiftyThousandPeersRelayBelowOneMillisecond() throws InterruptedException {
+        int rooms = 25_000;
+        SignalingProperties properties = properties();
+        properties.setMaxConnections(rooms * 2);
+        SignalingHub hub = new SignalingHub(properties, new LocalSignalingBus(), new LocalRoomSlots(), TICKETS, MAPPER,
+                new SimpleMeterRegistry());
+        Socket[] students = new Socket[rooms];
+        Socket[] teachers = new Socket[rooms];
+        for (int i = 0; i < rooms; i++) {
+            students[i] = connect(hub, "s" + i);
+            teachers[i] = connect(hub, "t" + i);
+            students[i].recording = false;
+            teachers[i].recording = false;
+            join(hub, students[i], "lesson-" + i, "student");
+            join(hub, teachers[i], "lesson-" + i, "teacher");
+        }
+        assertEquals(rooms * 2, hub.connections());
+        assertEquals(rooms, hub.rooms());
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = offset; i < rooms; i += threads) {
+                    relay(hub, students[i], teachers[i], OFFER.formatted(teachers[i].peer.id()), histogram);
+                    relay(hub, teachers[i], students[i], OFFER.formatted(students[i].peer.id())
+                            .replace("offer", "answer"), histogram);
+                    for (int c = 0; c < 4; c++) {
+                        relay(hub, students[i], teachers[i], CANDIDATE, histogram);
+                        relay(hub, teachers[i], students[i], CANDIDATE, histogram);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(rooms * 10L, histogram.snapshot().getCount());
+        for (int i = 0; i < rooms; i++) {
+            assertEquals(6, teachers[i].received, "Every relayed frame arrives exactly once");
+        }
+        assertTrue(histogram.snapshot().getP99() < 1.0,
+                "p99 relay latency should stay below 1ms, was " + histogram.snapshot().getP99() + "ms");
+    }
+
+    private static void relay(final SignalingHub hub, final Socket from, final Socket to, final String message,
+                              final LatencyHistogram histogram) {
+        long start = System.nanoTime();
+        hub.receive(from.peer, message);
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(to.lastSendNanos - start));
+    }
+
+    /**
+     * In-memory socket that reads as fast as it is allowed to.
+     */
+    private static final class Socket implements SignalingPeer.Transport {
+
+        private final SignalingPeer peer;
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private volatile long demand = Long.MAX_VALUE;
+        private volatile boolean recording = true;
+        private volatile long lastSendNanos;
+        private volatile int received;
+        private volatile SignalingPeer.CloseReason closed;
+
+        Socket(final SignalingPeer peer) {
+            this.peer = peer;
+        }
+
+        JsonNode frame(final int index) throws Exception {
+            return MAPPER.readTree(frames.get(index));
+        }
+
+        @Override
+        public long demand() {
+            return demand;
+        }
+
+        @Override
+        public void send(final String frame) {
+            lastSendNanos = System.nanoTime();
+            received++;
+            if (recording) {
+                frames.add(frame);
+            }
+        }
+
+        @Override
+        public void close(final SignalingPeer.CloseReason reason) {
+            closed = reason;
+        }
+    }
+
+    /**
+     * Stand-in for the Redis room slots, shared by every hub of a test.
+     */
+    private static final class SharedSlots implements RoomSlots {
+
+        private final Map<String, Set<String>> rooms = new HashMap<>();
+
+        synchronized Set<String> members(final String room) {
+            return Set.copyOf(rooms.getOrDefault(room, Set.of()));
+        }
+
+        @Override
+        public synchronized Mono<Boolean> reserve(final String room, final String peerId, final int maxPeers,
+                                                  final Duration lease) {
+            Set<String> members = rooms.computeIfAbsent(room, id -> new HashSet<>());
+            return Mono.just(members.contains(peerId) || members.size() < maxPeers && members.add(peerId));
+        }
+
+        @Override
+        public Mono<Void> renew(final String room, final Collection<String> peerIds, final Duration lease) {
+            return Mono.empty();
+        }
+
+        @Override
+        public synchronized Mono<Void> release(final String room, final String peerId) {
+            Set<String> members = rooms.get(room);
+            if (members != null) {
+                members.remove(peerId);
+            }
+            return Mono.empty();
+        }
+    }
+
+    /**
+     * Stand-in for Redis that keeps published messages until a test forwards them.
+     */
+    private static final class CapturingBus implements SignalingBus {
+
+        private final List<String> published = new CopyOnWriteArrayList<>();
+
+        void forwardTo(final SignalingHub... hubs) {
+            List<String> messages = new ArrayList<>(published);
+            published.clear();
+            for (String message : messages) {
+                for (SignalingHub hub : hubs) {
+                    hub.onRemote(message);
+                }
+            }
+        }
+
+        @Override
+        public Mono<Void> publish(final String message) {
+            published.add(message);
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<String> messages() {
+            return Flux.never();
+        }
+    }
+}
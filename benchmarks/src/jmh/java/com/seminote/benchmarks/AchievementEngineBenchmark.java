@@ -0,0 +1,133 @@
+package com.seminote.benchmarks;
+
+import com.seminote.progress.achievement.AchievementEngine;
+import com.seminote.progress.achievement.AchievementProperties;
+import com.seminote.progress.achievement.AchievementStateStore;
+import com.seminote.progress.achievement.AchievementUnlocked;
+import com.seminote.progress.achievement.LearnerSnapshot;
+import com.seminote.progress.achievement.MilestoneRules;
+import com.seminote.progress.tracking.ProgressState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Achievement evaluation throughput in progress updates per minute.
+ *
+ * Every heartbeat the progress service accepts goes through the engine on
+ * the request thread, so its cost adds to every update. Updates spread over
+ * a month of practice days with one in ten completing an item, against the
+ * built-in milestone set and a store that never blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+public class AchievementEngineBenchmark {
+
+    private static final int CATALOG_SIZE = 5_000;
+    private static final int EVENTS = 1 << 20;
+    private static final int DAYS = 30;
+    private static final long START_MILLIS = 1_767_225_600_000L;
+    private static final String[] LEVELS = {"beginner", "intermediate", "advanced"};
+
+    @Param({"10000", "1000000"})
+    private int students;
+
+    private AchievementEngine engine;
+    private ProgressState[] events;
+
+    /**
+     * Generate updates and an engine over an in-memory store.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Integer, String> difficulties = new HashMap<>();
+        for (int contentId = 1; contentId <= CATALOG_SIZE; contentId++) {
+            difficulties.put(contentId, LEVELS[contentId % LEVELS.length]);
+        }
+        AchievementProperties properties = new AchievementProperties();
+        engine = new AchievementEngine(MilestoneRules.compile(properties.getMilestones()),
+                new NullStore(difficulties), properties, new SimpleMeterRegistry(), Clock.systemUTC());
+        engine.refreshDifficulties();
+
+        Random random = new Random(42);
+        events = new ProgressState[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            long day = (long) i * DAYS / EVENTS;
+            events[i] = new ProgressState(random.nextInt(students), 1 + random.nextInt(CATALOG_SIZE),
+                    random.nextInt(10) == 0 ? ProgressState.FULL_COMPLETION : ProgressState.NO_COMPLETION,
+                    1 + random.nextInt(5), START_MILLIS + TimeUnit.DAYS.toMillis(day));
+        }
+        // Load every student once so the measurement covers steady state, not first-touch loads
+        for (ProgressState event : events) {
+            engine.onProgress(event);
+        }
+    }
+
+    /**
+     * One update on a single thread.
+     * @param cursor per-thread position in the update stream
+     * @return unlocks
+     */
+    @Benchmark
+    public List<AchievementUnlocked> singleThread(final Cursor cursor) {
+        return engine.onProgress(events[cursor.next()]);
+    }
+
+    /**
+     * One update with eight threads sharing the engine.
+     * @param cursor per-thread position in the update stream
+     * @return unlocks
+     */
+    @Benchmark
+    @Threads(8)
+    public List<AchievementUnlocked> eightThreads(final Cursor cursor) {
+        return engine.onProgress(events[cursor.next()]);
+    }
+
+    /**
+     * Per-thread position in the update stream, starting at a random offset.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position = new Random().nextInt(EVENTS);
+
+        int next() {
+            position = (position + 1) & (EVENTS - 1);
+            return position;
+        }
+    }
+
+    private record NullStore(Map<Integer, String> difficulties) implements AchievementStateStore {
+
+        @Override
+        public LearnerSnapshot load(final long userId) {
+            return null;
+        }
+
+        @Override
+        public void save(final List<LearnerSnapshot> learners, final List<AchievementUnlocked> unlocks) {
+        }
+
+        @Override
+        public Map<Integer, String> contentDifficulties() {
+            return difficulties;
+        }
+    }
+}
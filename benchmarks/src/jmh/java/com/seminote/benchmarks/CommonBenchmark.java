@@ -0,0 +1,32 @@
+package com.seminote.benchmarks;
+
+import com.seminote.common.SeminoteCommon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for validation helpers in {@code shared:common}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommonBenchmark {
+
+    private int latencyMs = 3;
+
+    /**
+     * WebRTC latency budget check.
+     * @return whether the latency is acceptable
+     */
+    @Benchmark
+    public boolean webrtcLatencyValidation() {
+        latencyMs = (latencyMs + 1) & 7;
+        return SeminoteCommon.isWebRTCLatencyAcceptable(latencyMs);
+    }
+}
@@ -0,0 +1,91 @@
+package com.seminote.benchmarks;
+
+import com.seminote.content.search.ContentSearchIndex;
+import com.seminote.content.search.SearchDocument;
+import com.seminote.content.search.SearchQuery;
+import com.seminote.content.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lesson search against the in-memory content index.
+ *
+ * Each keystroke in the catalog search box is one query, so prefix, typo and
+ * browse-by-facet latency has to stay in single-digit milliseconds at full
+ * catalog size without touching the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentSearchBenchmark {
+
+    private static final String[] WORDS = {"sonata", "etude", "prelude", "nocturne", "waltz", "minuet", "scales",
+        "arpeggios", "chords", "rhythm", "canon", "fugue", "invention", "march", "ballad", "blues", "jazz",
+        "theme", "variations", "sight", "reading", "pedal", "legato", "staccato"};
+    private static final String[] INSTRUMENTS = {"piano", "violin", "guitar", "cello"};
+    private static final String[] LEVELS = {"beginner", "intermediate", "advanced"};
+    private static final String[] TYPES = {"lesson", "exercise", "sheet_music"};
+    private static final int COMPOSERS = 500;
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ContentSearchIndex index;
+
+    /**
+     * Index a synthetic catalog.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SearchDocument> documents = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " no. " + i;
+            documents.add(new SearchDocument(i, title, TYPES[i % TYPES.length],
+                    INSTRUMENTS[random.nextInt(INSTRUMENTS.length)], LEVELS[random.nextInt(LEVELS.length)],
+                    List.of("composer" + random.nextInt(COMPOSERS)), i));
+        }
+        index = new ContentSearchIndex();
+        index.upsertAll(documents);
+    }
+
+    /**
+     * Partially typed title word.
+     * @return search result
+     */
+    @Benchmark
+    public SearchResult prefix() {
+        return index.search(new SearchQuery("noct", null, null, null, LIMIT));
+    }
+
+    /**
+     * Title words with a typo, filtered by instrument.
+     * @return search result
+     */
+    @Benchmark
+    public SearchResult typoWithFilter() {
+        return index.search(new SearchQuery("sonata etdue", "piano", null, null, LIMIT));
+    }
+
+    /**
+     * Browse by facets only, with counts.
+     * @return search result
+     */
+    @Benchmark
+    public SearchResult browseFacets() {
+        return index.search(new SearchQuery("", "piano", "beginner", null, LIMIT));
+    }
+}
@@ -0,0 +1,126 @@
+package com.seminote.benchmarks;
+
+import com.seminote.analytics.AnalyticsServiceApplication;
+import com.seminote.common.users.UserSummary;
+import com.seminote.content.ContentServiceApplication;
+import com.seminote.gateway.ApiGatewayApplication;
+import com.seminote.notification.NotificationServiceApplication;
+import com.seminote.payment.PaymentServiceApplication;
+import com.seminote.progress.ProgressServiceApplication;
+import com.seminote.user.UserServiceApplication;
+import com.seminote.user.profile.UserProfileProperties;
+import com.seminote.user.profile.UserProfileService;
+import com.seminote.user.profile.UserProfileStore;
+import com.seminote.user.profile.UserStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * In-process throughput of each service's REST controller.
+ *
+ * Servlet services go through MockMvc and the reactive gateway through a
+ * controller-bound WebTestClient, covering the dispatch path without network
+ * or server overhead, so regressions point at controller or filter changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ControllerThroughputBenchmark {
+
+    @Param({"gateway", "user", "content", "analytics", "progress", "notification", "payment"})
+    private String service;
+
+    private MockMvc mockMvc;
+    private WebTestClient webTestClient;
+    private String path;
+
+    /**
+     * Build a standalone MockMvc or WebTestClient for the selected service controller.
+     */
+    @Setup
+    public void setUp() {
+        Object controller;
+        switch (service) {
+            case "gateway" -> {
+                controller = new ApiGatewayApplication.GatewayController();
+                path = "/gateway/status";
+            }
+            case "user" -> {
+                controller = new UserServiceApplication.UserController(new UserProfileService(
+                        new EmptyUserProfileStore(), new UserProfileProperties(), new SimpleMeterRegistry()));
+                path = "/users/status";
+            }
+            case "content" -> {
+                controller = new ContentServiceApplication.ContentController();
+                path = "/content/status";
+            }
+            case "analytics" -> {
+                controller = new AnalyticsServiceApplication.HealthController();
+                path = "/health";
+            }
+            case "progress" -> {
+                controller = new ProgressServiceApplication.ProgressController();
+                path = "/health";
+            }
+            case "notification" -> {
+                controller = new NotificationServiceApplication.HealthController();
+                path = "/health";
+            }
+            case "payment" -> {
+                controller = new PaymentServiceApplication.PaymentController();
+                path = "/health";
+            }
+            default -> throw new IllegalArgumentException("Unknown service: " + service);
+        }
+        if ("gateway".equals(service)) {
+            webTestClient = WebTestClient.bindToController(controller).build();
+        } else {
+            mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        }
+    }
+
+    /**
+     * Dispatch one GET request through the controller.
+     * @return completed MockMvc result or response body
+     * @throws Exception if dispatch fails
+     */
+    @Benchmark
+    public Object dispatch() throws Exception {
+        if (webTestClient != null) {
+            return webTestClient.get().uri(path).exchange().expectBody(String.class).returnResult();
+        }
+        return mockMvc.perform(get(path)).andReturn();
+    }
+
+    /**
+     * Store without users, the status endpoint never reads profiles.
+     */
+    private static final class EmptyUserProfileStore implements UserProfileStore {
+
+        @Override
+        public Map<Long, UserSummary> findAll(final Collection<Long> userIds) {
+            return Map.of();
+        }
+
+        @Override
+        public UserStats stats() {
+            return UserStats.empty();
+        }
+    }
+}
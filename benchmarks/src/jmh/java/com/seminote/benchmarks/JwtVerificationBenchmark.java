@@ -0,0 +1,100 @@
+package com.seminote.benchmarks;
+
+import com.seminote.security.JwtClaims;
+import com.seminote.security.JwtIssuer;
+import com.seminote.security.JwtVerifier;
+import com.seminote.security.SeminoteSecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for HS256 JWT handling with the {@code shared:security} secret.
+ *
+ * {@code parseAndVerify} is the raw per-request cost of decoding a token and
+ * recomputing its signature; the {@link JwtVerifier} variants show the same
+ * work with and without the verified-claims cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private Mac mac;
+    private String token;
+    private String issuedToken;
+    private JwtVerifier cachedVerifier;
+    private JwtVerifier uncachedVerifier;
+
+    /**
+     * Build a signed practice-session token.
+     * @throws GeneralSecurityException if HmacSHA256 is unavailable
+     */
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(SeminoteSecurityConfig.JWT_SECRET_KEY.getBytes(StandardCharsets.UTF_8),
+                HMAC_SHA256));
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":\"42\",\"skill\":\"beginner\",\"exp\":"
+                + (System.currentTimeMillis() / 1000 + 3600) + "}").getBytes(StandardCharsets.UTF_8));
+        String signingInput = header + "." + payload;
+        token = signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] secret = SeminoteSecurityConfig.JWT_SECRET_KEY.getBytes(StandardCharsets.UTF_8);
+        issuedToken = new JwtIssuer(secret, Clock.systemUTC()).issue("42", Duration.ofHours(1));
+        cachedVerifier = new JwtVerifier(secret, JwtVerifier.DEFAULT_CACHE_CAPACITY,
+                JwtVerifier.DEFAULT_MAX_CACHE_TTL, Clock.systemUTC());
+        uncachedVerifier = new JwtVerifier(secret, 0, JwtVerifier.DEFAULT_MAX_CACHE_TTL, Clock.systemUTC());
+    }
+
+    /**
+     * Verification of a hot token served from the claims cache.
+     * @return verified claims
+     */
+    @Benchmark
+    public JwtClaims cachedVerify() {
+        return cachedVerifier.verify(issuedToken);
+    }
+
+    /**
+     * Full verification including JSON decoding of header and claims.
+     * @return verified claims
+     */
+    @Benchmark
+    public JwtClaims uncachedVerify() {
+        return uncachedVerifier.verify(issuedToken);
+    }
+
+    /**
+     * Split, decode and verify the token signature on every call.
+     * @return decoded payload bytes
+     */
+    @Benchmark
+    public byte[] parseAndVerify() {
+        int lastDot = token.lastIndexOf('.');
+        byte[] expected = mac.doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.UTF_8));
+        byte[] actual = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new IllegalStateException("Signature mismatch");
+        }
+        return Base64.getUrlDecoder().decode(token.substring(token.indexOf('.') + 1, lastDot));
+    }
+}
@@ -0,0 +1,139 @@
+package com.seminote.benchmarks;
+
+import com.seminote.progress.path.LearningGraph;
+import com.seminote.progress.path.LearningPathPlanner;
+import com.seminote.progress.path.NextLessonsView;
+import com.seminote.progress.path.PathView;
+import com.seminote.progress.path.SkillLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Learning path queries over a synthetic catalog, computed from the graph
+ * and served from the planner's memo.
+ *
+ * Lessons take up to three prerequisites from the 2,000 lessons before them,
+ * difficulty rises with position and a third of them carry one of 500 skill
+ * tags. Students sit at one of 64 stages, each having completed a prefix of
+ * up to 2,000 lessons, so the memo sees the repeated completed sets it is
+ * built for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LearningPathBenchmark {
+
+    private static final int STAGES = 64;
+    private static final int ROOT_LESSONS = 1_000;
+    private static final int PREREQUISITE_WINDOW = 2_000;
+    private static final int MAX_PREREQUISITES = 3;
+    private static final int SKILLS = 500;
+    private static final int LESSONS_PER_STAGE = 32;
+    private static final int LIMIT = 10;
+    private static final String[] LEVELS = {"beginner", "intermediate", "advanced"};
+
+    @Param({"100000"})
+    private int lessons;
+
+    private LearningGraph.Builder builder;
+    private LearningGraph graph;
+    private LearningPathPlanner planner;
+    private long[][] completedIds;
+    private int[][] completedIndices;
+    private int[] advancedTargets;
+    private int stage;
+
+    /**
+     * Generate the catalog and the student stages.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        builder = LearningGraph.builder();
+        for (int i = 0; i < lessons; i++) {
+            long contentId = i + 1;
+            builder.lesson(contentId, LEVELS[(int) ((long) i * LEVELS.length / lessons)]);
+            if (i >= ROOT_LESSONS) {
+                for (int p = random.nextInt(MAX_PREREQUISITES + 1); p > 0; p--) {
+                    builder.prerequisite(contentId, 1 + i - 1 - random.nextInt(Math.min(i, PREREQUISITE_WINDOW)));
+                }
+            }
+            if (random.nextInt(3) == 0) {
+                builder.skill(contentId, "skill-" + random.nextInt(SKILLS));
+            }
+        }
+        graph = builder.build();
+        planner = new LearningPathPlanner(graph, 10_000, 50);
+        completedIds = new long[STAGES][];
+        completedIndices = new int[STAGES][];
+        for (int s = 0; s < STAGES; s++) {
+            // Prefixes are closed under prerequisites, which only point backwards
+            int done = s * LESSONS_PER_STAGE;
+            completedIds[s] = LongStream.rangeClosed(1, done).toArray();
+            completedIndices[s] = graph.indicesOf(completedIds[s]);
+        }
+        advancedTargets = graph.lessonsFor("advanced");
+    }
+
+    private int nextStage() {
+        stage = (stage + 1) & (STAGES - 1);
+        return stage;
+    }
+
+    /**
+     * Build the graph from collected lessons and edges.
+     * @return graph
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LearningGraph build() {
+        return builder.build();
+    }
+
+    /**
+     * Next lessons computed from the graph.
+     * @return lesson indices
+     */
+    @Benchmark
+    public int[] nextComputed() {
+        return graph.next(completedIndices[nextStage()], SkillLevel.INTERMEDIATE, LIMIT);
+    }
+
+    /**
+     * Next lessons through the planner, including the content id to index mapping.
+     * @return recommendation
+     */
+    @Benchmark
+    public NextLessonsView nextMemoized() {
+        return planner.next(completedIds[nextStage()], SkillLevel.INTERMEDIATE, LIMIT);
+    }
+
+    /**
+     * Path to the advanced level computed from the graph.
+     * @return lesson indices
+     */
+    @Benchmark
+    public int[] pathComputed() {
+        return graph.pathTo(completedIndices[nextStage()], advancedTargets);
+    }
+
+    /**
+     * Path to the advanced level through the planner.
+     * @return path
+     */
+    @Benchmark
+    public PathView pathMemoized() {
+        return planner.pathTo(completedIds[nextStage()], "advanced");
+    }
+}
@@ -0,0 +1,57 @@
+package com.seminote.benchmarks;
+
+import com.seminote.monitoring.LatencyMetric;
+import com.seminote.monitoring.LatencySnapshot;
+import com.seminote.monitoring.SeminoteMonitoring;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for latency recording in {@code shared:monitoring}.
+ *
+ * Recording sits on the audio feedback path for every note event, so it must
+ * stay in the tens of nanoseconds even when many threads record at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MonitoringBenchmark {
+
+    private static final int MAX_SAMPLE_MICROS = 20_000;
+
+    /**
+     * Single-threaded WebRTC latency recording.
+     */
+    @Benchmark
+    public void recordWebRTCLatency() {
+        SeminoteMonitoring.recordWebRTCLatency(ThreadLocalRandom.current().nextInt(1, 10));
+    }
+
+    /**
+     * Microsecond-precision recording from four threads hitting the same metric.
+     */
+    @Benchmark
+    @Threads(4)
+    public void recordNoteDetectionContended() {
+        SeminoteMonitoring.recordLatencyMicros(LatencyMetric.NOTE_DETECTION,
+                ThreadLocalRandom.current().nextLong(MAX_SAMPLE_MICROS));
+    }
+
+    /**
+     * Cost of a metrics scrape merging all histogram stripes.
+     * @return merged snapshot
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public LatencySnapshot snapshot() {
+        return SeminoteMonitoring.snapshot(LatencyMetric.FEEDBACK);
+    }
+}
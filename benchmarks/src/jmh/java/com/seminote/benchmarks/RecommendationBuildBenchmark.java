@@ -0,0 +1,104 @@
+package com.seminote.benchmarks;
+
+import com.seminote.content.recommend.CooccurrenceMatrix;
+import com.seminote.content.recommend.Recommendation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Co-occurrence model build time against catalog size, serial and on a
+ * fork-join pool across every core, plus the per-request serving cost.
+ *
+ * Practice is skewed towards a popular head of the catalog, with four
+ * students per catalog item and up to 30 items each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecommendationBuildBenchmark {
+
+    private static final int TOP_K = 50;
+    private static final int MAX_HISTORY = 100;
+    private static final int STUDENTS_PER_ITEM = 4;
+    private static final int MAX_ITEMS_PER_STUDENT = 30;
+    private static final double HEAD_FRACTION = 0.25;
+
+    @Param({"1000", "10000", "50000"})
+    private int catalogSize;
+
+    private Map<Long, int[]> histories;
+    private ForkJoinPool pool;
+    private CooccurrenceMatrix matrix;
+    private long userId;
+
+    /**
+     * Generate practice histories and a model to serve from.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        histories = new HashMap<>();
+        for (long user = 0; user < (long) catalogSize * STUDENTS_PER_ITEM; user++) {
+            int[] history = new int[1 + random.nextInt(MAX_ITEMS_PER_STUDENT)];
+            for (int i = 0; i < history.length; i++) {
+                history[i] = (int) Math.min(catalogSize - 1,
+                        Math.abs(random.nextGaussian()) * catalogSize * HEAD_FRACTION);
+            }
+            histories.put(user, history);
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        matrix = CooccurrenceMatrix.build(histories, TOP_K, MAX_HISTORY, pool);
+    }
+
+    /**
+     * Release the build pool.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Full rebuild on the calling thread.
+     * @return model
+     */
+    @Benchmark
+    public CooccurrenceMatrix buildSerial() {
+        return CooccurrenceMatrix.build(histories, TOP_K, MAX_HISTORY, null);
+    }
+
+    /**
+     * Full rebuild on a fork-join pool.
+     * @return model
+     */
+    @Benchmark
+    public CooccurrenceMatrix buildForkJoin() {
+        return CooccurrenceMatrix.build(histories, TOP_K, MAX_HISTORY, pool);
+    }
+
+    /**
+     * Top-10 recommendations for one student.
+     * @return recommendations
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Recommendation> recommend() {
+        userId = (userId + 1) % histories.size();
+        return matrix.recommend(userId, 10);
+    }
+}
@@ -0,0 +1,23 @@
+package com.seminote.content.asset;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires asset delivery.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AssetProperties.class)
+public class AssetConfiguration {
+
+    /**
+     * Resolver for files under the asset root.
+     * @param properties asset settings
+     * @return resolver
+     */
+    @Bean
+    public AssetResolver assetResolver(final AssetProperties properties) {
+        return new AssetResolver(properties.getRoot());
+    }
+}
@@ -0,0 +1,186 @@
+package com.seminote.content.asset;
+
+import com.seminote.content.cache.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves sheet music, backing tracks and other content assets.
+ *
+ * A content row's {@code file_path} is appended to this controller's base
+ * path, e.g. {@code /api/v1/content/assets/content/piano/basic-scales.json}.
+ * Responses support single byte ranges, {@code If-None-Match},
+ * {@code If-Modified-Since} and {@code If-Range}, and prefer precompressed
+ * {@code .br}/{@code .gz} siblings when the client accepts them.
+ *
+ * File bytes never pass through the heap on Tomcat: the response is handed
+ * to the connector's sendfile support once headers are set. Elsewhere, and
+ * for small files, the file channel is transferred straight into the
+ * response stream.
+ */
+@RestController
+@RequestMapping("/api/v1/content/assets")
+public class AssetController {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private final AssetResolver resolver;
+    private final AssetProperties properties;
+    private final Counter sendfileBytes;
+    private final Counter channelBytes;
+
+    /**
+     * Create the controller.
+     * @param resolver asset resolver
+     * @param properties asset settings
+     * @param registry registry for bytes-served metrics
+     */
+    public AssetController(final AssetResolver resolver, final AssetProperties properties,
+                           final MeterRegistry registry) {
+        this.resolver = resolver;
+        this.properties = properties;
+        this.sendfileBytes = bytesCounter(registry, "sendfile");
+        this.channelBytes = bytesCounter(registry, "channel");
+    }
+
+    /**
+     * Serve an asset.
+     * @param path asset path below the asset root
+     * @param request servlet request
+     * @param response servlet response
+     * @throws IOException if the file cannot be read or the client disconnects
+     */
+    @GetMapping("/{*path}")
+    public void serve(@PathVariable final String path, final HttpServletRequest request,
+                      final HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ResolvedAsset asset = resolver.resolve(path, request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, asset.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, asset.lastModified());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "max-age=" + properties.getMaxAge().toSeconds());
+        if (notModified(request, asset)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), asset.length());
+        if (range != null && !ifRangeMatches(request, asset)) {
+            range = null;
+        }
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + asset.length());
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        response.setContentType(asset.contentType().toString());
+        if (asset.contentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, asset.contentEncoding());
+        }
+        long start = 0;
+        long count = asset.length();
+        if (range != null) {
+            start = range.start();
+            count = range.length();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + '-' + range.end() + '/' + asset.length());
+        }
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= properties.getSendfileThreshold().toBytes()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, asset.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            sendfileBytes.increment(count);
+            return;
+        }
+        transfer(asset, start, count, response);
+        channelBytes.increment(count);
+    }
+
+    private static void transfer(final ResolvedAsset asset, final long start, final long count,
+                                 final HttpServletResponse response) throws IOException {
+        try (FileChannel file = FileChannel.open(asset.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new IOException("Asset " + asset.file() + " shrank while being served");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean notModified(final HttpServletRequest request, final ResolvedAsset asset) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return ETags.matches(ifNoneMatch, asset.etag());
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && asset.lastModified() / MILLIS_PER_SECOND * MILLIS_PER_SECOND
+                <= ifModifiedSince;
+    }
+
+    private static boolean ifRangeMatches(final HttpServletRequest request, final ResolvedAsset asset) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(asset.etag());
+        }
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && asset.lastModified() / MILLIS_PER_SECOND * MILLIS_PER_SECOND == date;
+    }
+
+    private static long dateHeader(final HttpServletRequest request, final String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static Counter bytesCounter(final MeterRegistry registry, final String mode) {
+        return Counter.builder("seminote.content.assets.bytes")
+                .description("Asset bytes served")
+                .baseUnit("bytes")
+                .tag("mode", mode)
+                .register(registry);
+    }
+}
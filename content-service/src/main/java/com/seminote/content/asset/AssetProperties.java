@@ -0,0 +1,44 @@
+package com.seminote.content.asset;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for asset delivery.
+ */
+@ConfigurationProperties(prefix = "seminote.content.assets")
+public class AssetProperties {
+
+    private static final long DEFAULT_SENDFILE_THRESHOLD_KB = 48;
+
+    private Path root = Path.of("assets");
+    private DataSize sendfileThreshold = DataSize.ofKilobytes(DEFAULT_SENDFILE_THRESHOLD_KB);
+    private Duration maxAge = Duration.ofHours(1);
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public void setRoot(final Path root) {
+        this.root = root;
+    }
+
+    public DataSize getSendfileThreshold() {
+        return sendfileThreshold;
+    }
+
+    public void setSendfileThreshold(final DataSize sendfileThreshold) {
+        this.sendfileThreshold = sendfileThreshold;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(final Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,124 @@
+package com.seminote.content.asset;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps request paths to files under the asset root and picks a precompressed
+ * sibling ({@code .br}, then {@code .gz}) when the client accepts it.
+ */
+public class AssetResolver {
+
+    private static final Map<String, MediaType> EXTRA_TYPES = Map.of(
+            "musicxml", MediaType.parseMediaType("application/vnd.recordare.musicxml+xml"),
+            "mxl", MediaType.parseMediaType("application/vnd.recordare.musicxml"),
+            "mid", MediaType.parseMediaType("audio/midi"),
+            "wav", MediaType.parseMediaType("audio/wav"));
+
+    private final Path root;
+
+    /**
+     * Create a resolver.
+     * @param root directory assets are served from
+     */
+    public AssetResolver(final Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolve a request path.
+     * @param requestPath path below the asset root, e.g. {@code /content/piano/basic-scales.json}
+     * @param acceptEncoding the request's {@code Accept-Encoding} header, may be null
+     * @return the asset, or null if it does not exist or lies outside the root
+     */
+    public ResolvedAsset resolve(final String requestPath, final String acceptEncoding) {
+        String relative = requestPath.startsWith("/") ? requestPath.substring(1) : requestPath;
+        if (relative.isEmpty()) {
+            return null;
+        }
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root)) {
+            return null;
+        }
+        BasicFileAttributes original = attributes(file);
+        if (original == null || !original.isRegularFile()) {
+            return null;
+        }
+        MediaType contentType = mediaType(file.getFileName().toString());
+        if (accepts(acceptEncoding, "br")) {
+            ResolvedAsset brotli = sibling(file, ".br", "br", contentType);
+            if (brotli != null) {
+                return brotli;
+            }
+        }
+        if (accepts(acceptEncoding, "gzip")) {
+            ResolvedAsset gzip = sibling(file, ".gz", "gzip", contentType);
+            if (gzip != null) {
+                return gzip;
+            }
+        }
+        return asset(file, original, contentType, null);
+    }
+
+    private static ResolvedAsset sibling(final Path file, final String suffix, final String encoding,
+                                         final MediaType contentType) {
+        Path compressed = file.resolveSibling(file.getFileName() + suffix);
+        BasicFileAttributes attributes = attributes(compressed);
+        return attributes != null && attributes.isRegularFile()
+                ? asset(compressed, attributes, contentType, encoding) : null;
+    }
+
+    private static ResolvedAsset asset(final Path file, final BasicFileAttributes attributes,
+                                       final MediaType contentType, final String encoding) {
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = '"' + Long.toHexString(attributes.size()) + '-' + Long.toHexString(lastModified)
+                + (encoding != null ? '-' + encoding : "") + '"';
+        return new ResolvedAsset(file, attributes.size(), lastModified, contentType, encoding, etag);
+    }
+
+    private static BasicFileAttributes attributes(final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static boolean accepts(final String acceptEncoding, final String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.trim().split(";");
+            if (pieces[0].trim().equalsIgnoreCase(coding)) {
+                for (int i = 1; i < pieces.length; i++) {
+                    String param = pieces[i].trim().replace(" ", "");
+                    if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MediaType mediaType(final String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot >= 0) {
+            MediaType extra = EXTRA_TYPES.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+            if (extra != null) {
+                return extra;
+            }
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
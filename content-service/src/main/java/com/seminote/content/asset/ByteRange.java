@@ -0,0 +1,62 @@
+package com.seminote.content.asset;
+
+/**
+ * A single satisfiable byte range of a representation.
+ *
+ * Only single ranges are honoured; multi-range requests are answered with the
+ * full representation, which RFC 9110 allows and which keeps every response a
+ * single contiguous region that can be sent with sendfile.
+ *
+ * @param start first byte, inclusive
+ * @param end last byte, inclusive
+ */
+public record ByteRange(long start, long end) {
+
+    /** Marker for a syntactically valid range that does not overlap the representation. */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT = "bytes=";
+
+    /**
+     * Parse a {@code Range} header.
+     * @param header header value, may be null
+     * @param length representation length
+     * @return the range, null to send the full representation, or {@link #UNSATISFIABLE}
+     */
+    public static ByteRange parse(final String header, final long length) {
+        if (header == null || !header.startsWith(UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            String last = spec.substring(dash + 1);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Number of bytes in the range.
+     * @return range length
+     */
+    public long length() {
+        return end - start + 1;
+    }
+}
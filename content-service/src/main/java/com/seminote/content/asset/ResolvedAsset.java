@@ -0,0 +1,19 @@
+package com.seminote.content.asset;
+
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+/**
+ * The file chosen to answer an asset request.
+ *
+ * @param file file to send, possibly a precompressed sibling
+ * @param length file length in bytes
+ * @param lastModified last modification time in epoch milliseconds
+ * @param contentType media type of the original asset
+ * @param contentEncoding {@code br}, {@code gzip} or null for the identity encoding
+ * @param etag strong ETag, distinct per encoding
+ */
+public record ResolvedAsset(Path file, long length, long lastModified, MediaType contentType,
+                            String contentEncoding, String etag) {
+}
@@ -0,0 +1,53 @@
+package com.seminote.content.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serialized content representation together with its ETag, as held in
+ * both cache levels. Responses write {@link #body()} directly, so a cache hit
+ * never serializes.
+ *
+ * @param body JSON bytes
+ * @param etag quoted strong ETag of {@code body}
+ */
+public record CachedContent(byte[] body, String etag) {
+
+    private static final byte SEPARATOR = '\n';
+
+    /**
+     * Wrap a freshly serialized representation.
+     * @param body JSON bytes
+     * @return cache entry
+     */
+    public static CachedContent of(final byte[] body) {
+        return new CachedContent(body, ETags.strong(body));
+    }
+
+    /**
+     * Encode for Redis as the ETag, a newline and the body.
+     * @return encoded bytes
+     */
+    public byte[] encode() {
+        byte[] tag = etag.getBytes(StandardCharsets.US_ASCII);
+        byte[] encoded = Arrays.copyOf(tag, tag.length + 1 + body.length);
+        encoded[tag.length] = SEPARATOR;
+        System.arraycopy(body, 0, encoded, tag.length + 1, body.length);
+        return encoded;
+    }
+
+    /**
+     * Decode a value written by {@link #encode()}.
+     * @param encoded encoded bytes
+     * @return cache entry, or null if the value is malformed
+     */
+    public static CachedContent decode(final byte[] encoded) {
+        for (int i = 0; i < encoded.length; i++) {
+            if (encoded[i] == SEPARATOR) {
+                return new CachedContent(Arrays.copyOfRange(encoded, i + 1, encoded.length),
+                        new String(encoded, 0, i, StandardCharsets.US_ASCII));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.seminote.content.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.seminote.content.catalog.Content;
+import com.seminote.content.catalog.ContentChangedEvent;
+import com.seminote.content.catalog.ContentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-level read-through cache for serialized content.
+ *
+ * L1 is a size-bounded Caffeine cache per instance, L2 is shared (Redis), and
+ * Postgres is only read when both miss. Concurrent misses for the same id are
+ * coalesced by Caffeine into a single load, so a burst of students opening
+ * the same lesson costs one query. L2 failures degrade to a miss rather than
+ * failing the request. Loaded rows are written back to L2 only if no
+ * instance evicted the entry while the row was being read, see
+ * {@link ContentL2Cache#generation}.
+ *
+ * Entries are dropped on {@link ContentChangedEvent}: locally, in L2, and on
+ * every other instance through {@link ContentL2Cache#publishInvalidation}.
+ */
+public class ContentCache {
+
+    /** Cache name used for the Caffeine metrics. */
+    public static final String L1_NAME = "content.l1";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCache.class);
+    private static final long UNKNOWN_GENERATION = -1;
+
+    private final LoadingCache<Long, CachedContent> l1;
+    private final ContentL2Cache l2;
+    private final ContentRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Errors;
+    private final Timer l2LoadTimer;
+    private final Timer dbLoadTimer;
+
+    /**
+     * Create the cache.
+     * @param properties cache settings
+     * @param l2 shared second level
+     * @param repository source of truth
+     * @param objectMapper serializer for cached representations
+     * @param registry registry for hit ratio and load latency metrics
+     */
+    public ContentCache(final ContentCacheProperties properties, final ContentL2Cache l2,
+                        final ContentRepository repository, final ObjectMapper objectMapper,
+                        final MeterRegistry registry) {
+        this.l2 = l2;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(properties.getL1MaximumSize())
+                .expireAfterWrite(properties.getL1ExpireAfterWrite())
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(registry, l1, L1_NAME);
+        this.l2Hits = l2Counter(registry, "hit");
+        this.l2Misses = l2Counter(registry, "miss");
+        this.l2Errors = l2Counter(registry, "error");
+        this.l2LoadTimer = loadTimer(registry, "l2");
+        this.dbLoadTimer = loadTimer(registry, "db");
+    }
+
+    /**
+     * Serialized content by id.
+     * @param contentId content id
+     * @return cached representation, or null if the content does not exist
+     */
+    public CachedContent get(final long contentId) {
+        return l1.get(contentId);
+    }
+
+    /**
+     * Drop the local entry only, used when another instance announced a change.
+     * @param contentId content id
+     */
+    public void invalidateLocal(final long contentId) {
+        l1.invalidate(contentId);
+    }
+
+    /**
+     * Drop every level and notify other instances.
+     * @param event change event
+     */
+    @EventListener
+    public void onContentChanged(final ContentChangedEvent event) {
+        long contentId = event.contentId();
+        l1.invalidate(contentId);
+        try {
+            l2.evict(contentId);
+            l2.publishInvalidation(contentId);
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            LOGGER.warn("Could not invalidate content {} in L2: {}", contentId, e.toString());
+        }
+    }
+
+    private CachedContent load(final Long contentId) {
+        CachedContent shared = l2Get(contentId);
+        if (shared != null) {
+            return shared;
+        }
+        long generation = l2Generation(contentId);
+        long start = System.nanoTime();
+        Content content = repository.findById(contentId);
+        if (content == null) {
+            return null;
+        }
+        CachedContent loaded = CachedContent.of(serialize(content));
+        dbLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (generation == UNKNOWN_GENERATION) {
+            return loaded;
+        }
+        try {
+            l2.put(contentId, loaded, generation);
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            LOGGER.debug("Could not store content {} in L2: {}", contentId, e.toString());
+        }
+        return loaded;
+    }
+
+    private long l2Generation(final long contentId) {
+        try {
+            return l2.generation(contentId);
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            LOGGER.debug("Content L2 generation for {} unavailable: {}", contentId, e.toString());
+            return UNKNOWN_GENERATION;
+        }
+    }
+
+    private CachedContent l2Get(final long contentId) {
+        long start = System.nanoTime();
+        try {
+            CachedContent shared = l2.get(contentId);
+            l2LoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (shared != null ? l2Hits : l2Misses).increment();
+            return shared;
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            LOGGER.debug("Content L2 lookup for {} failed: {}", contentId, e.toString());
+            return null;
+        }
+    }
+
+    private byte[] serialize(final Content content) {
+        try {
+            return objectMapper.writeValueAsBytes(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize content " + content.id(), e);
+        }
+    }
+
+    private static Counter l2Counter(final MeterRegistry registry, final String result) {
+        return Counter.builder("seminote.content.cache.l2")
+                .description("Shared content cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Timer loadTimer(final MeterRegistry registry, final String source) {
+        return Timer.builder("seminote.content.cache.load")
+                .description("Time to load content on an L1 miss")
+                .tag("source", source)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.seminote.content.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.content.catalog.ContentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wires the two-level content cache and its Redis invalidation listener.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ContentCacheProperties.class)
+public class ContentCacheConfiguration {
+
+    private static final String L2_ENABLED = "seminote.content.cache.l2-enabled";
+
+    /**
+     * Redis template storing raw serialized content.
+     * @param connectionFactory Redis connection factory
+     * @return template with string keys and byte array values
+     */
+    @Bean
+    @ConditionalOnProperty(name = L2_ENABLED, havingValue = "true", matchIfMissing = true)
+    public RedisTemplate<String, byte[]> contentRedisTemplate(final RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /**
+     * Shared second level.
+     * @param properties cache settings
+     * @param contentRedisTemplate Redis template, absent when L2 is disabled
+     * @return Redis L2, or {@link ContentL2Cache#NONE}
+     */
+    @Bean
+    public ContentL2Cache contentL2Cache(final ContentCacheProperties properties,
+                                         final ObjectProvider<RedisTemplate<String, byte[]>> contentRedisTemplate) {
+        RedisTemplate<String, byte[]> template = contentRedisTemplate.getIfAvailable();
+        if (!properties.isL2Enabled() || template == null) {
+            return ContentL2Cache.NONE;
+        }
+        return new RedisContentL2Cache(template, properties.getInvalidationChannel(), properties.getL2Ttl());
+    }
+
+    /**
+     * Two-level content cache.
+     * @param properties cache settings
+     * @param l2 shared second level
+     * @param repository content repository
+     * @param objectMapper JSON mapper
+     * @param registry metrics registry
+     * @return cache
+     */
+    @Bean
+    public ContentCache contentCache(final ContentCacheProperties properties, final ContentL2Cache l2,
+                                     final ContentRepository repository, final ObjectMapper objectMapper,
+                                     final MeterRegistry registry) {
+        return new ContentCache(properties, l2, repository, objectMapper, registry);
+    }
+
+    /**
+     * Drops L1 entries when any instance announces a content change.
+     * @param connectionFactory Redis connection factory
+     * @param properties cache settings
+     * @param cache content cache
+     * @return listener container
+     */
+    @Bean
+    @ConditionalOnProperty(name = L2_ENABLED, havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer contentInvalidationListener(final RedisConnectionFactory connectionFactory,
+                                                                     final ContentCacheProperties properties,
+                                                                     final ContentCache cache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.US_ASCII);
+            try {
+                cache.invalidateLocal(Long.parseLong(body));
+            } catch (NumberFormatException e) {
+                // Not ours; ignore
+            }
+        }, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,61 @@
+package com.seminote.content.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the two-level content cache.
+ */
+@ConfigurationProperties(prefix = "seminote.content.cache")
+public class ContentCacheProperties {
+
+    private static final long DEFAULT_L1_MAXIMUM_SIZE = 10_000;
+    private static final long DEFAULT_L1_EXPIRE_MINUTES = 10;
+
+    private long l1MaximumSize = DEFAULT_L1_MAXIMUM_SIZE;
+    private Duration l1ExpireAfterWrite = Duration.ofMinutes(DEFAULT_L1_EXPIRE_MINUTES);
+    private boolean l2Enabled = true;
+    private Duration l2Ttl = Duration.ofHours(1);
+    private String invalidationChannel = "seminote:content:changed";
+
+    public long getL1MaximumSize() {
+        return l1MaximumSize;
+    }
+
+    public void setL1MaximumSize(final long l1MaximumSize) {
+        this.l1MaximumSize = l1MaximumSize;
+    }
+
+    public Duration getL1ExpireAfterWrite() {
+        return l1ExpireAfterWrite;
+    }
+
+    public void setL1ExpireAfterWrite(final Duration l1ExpireAfterWrite) {
+        this.l1ExpireAfterWrite = l1ExpireAfterWrite;
+    }
+
+    public boolean isL2Enabled() {
+        return l2Enabled;
+    }
+
+    public void setL2Enabled(final boolean l2Enabled) {
+        this.l2Enabled = l2Enabled;
+    }
+
+    public Duration getL2Ttl() {
+        return l2Ttl;
+    }
+
+    public void setL2Ttl(final Duration l2Ttl) {
+        this.l2Ttl = l2Ttl;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    public void setInvalidationChannel(final String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+}
@@ -0,0 +1,75 @@
+package com.seminote.content.cache;
+
+/**
+ * Shared second-level cache for serialized content, plus the channel used to
+ * tell other instances to drop their first-level entries.
+ *
+ * Every entry has a generation that {@link #evict} advances. A loader reads
+ * the generation before going to the database and stores its result only if
+ * the generation is unchanged, so a load that raced with an update on another
+ * instance cannot put the old row back after the eviction.
+ */
+public interface ContentL2Cache {
+
+    /** L2 that never hits, used when the shared cache is disabled. */
+    ContentL2Cache NONE = new ContentL2Cache() {
+        @Override
+        public CachedContent get(final long contentId) {
+            return null;
+        }
+
+        @Override
+        public long generation(final long contentId) {
+            return 0;
+        }
+
+        @Override
+        public void put(final long contentId, final CachedContent content, final long generation) {
+            // Nothing to store
+        }
+
+        @Override
+        public void evict(final long contentId) {
+            // Nothing to evict
+        }
+
+        @Override
+        public void publishInvalidation(final long contentId) {
+            // Single instance, nobody to notify
+        }
+    };
+
+    /**
+     * Look up an entry.
+     * @param contentId content id
+     * @return cached entry, or null on a miss
+     */
+    CachedContent get(long contentId);
+
+    /**
+     * Current generation of an entry, read before loading it from the database.
+     * @param contentId content id
+     * @return generation to pass to {@link #put}
+     */
+    long generation(long contentId);
+
+    /**
+     * Store an entry unless it was evicted since {@code generation} was read.
+     * @param contentId content id
+     * @param content serialized content
+     * @param generation value of {@link #generation} taken before the content was loaded
+     */
+    void put(long contentId, CachedContent content, long generation);
+
+    /**
+     * Remove an entry and advance its generation.
+     * @param contentId content id
+     */
+    void evict(long contentId);
+
+    /**
+     * Tell every instance, including this one, that a content row changed.
+     * @param contentId content id
+     */
+    void publishInvalidation(long contentId);
+}
@@ -0,0 +1,57 @@
+package com.seminote.content.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags derived from response bytes, and {@code If-None-Match} matching.
+ */
+public final class ETags {
+
+    private static final int ETAG_BYTES = 12;
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Strong ETag for a representation.
+     * @param body response bytes
+     * @return quoted ETag
+     */
+    public static String strong(final byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches an ETag, using the weak
+     * comparison RFC 9110 prescribes for this header.
+     * @param ifNoneMatch header value, may be null
+     * @param etag current quoted ETag
+     * @return true if the client's copy is current
+     */
+    public static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String current = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeak(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(final String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,94 @@
+package com.seminote.content.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis-backed {@link ContentL2Cache}. Entries expire after a TTL as a safety
+ * net; invalidations are published on a pub/sub channel.
+ *
+ * An entry and its generation counter share a hash tag, so the conditional
+ * put and the evict each run as one script on one cluster slot.
+ */
+public class RedisContentL2Cache implements ContentL2Cache {
+
+    static final String KEY_PREFIX = "seminote:content:";
+    private static final String GENERATION_SUFFIX = ":gen";
+
+    private static final RedisScript<Long> PUT_IF_GENERATION = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then
+              return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            local generation = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return generation
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final String channel;
+    private final Duration ttl;
+
+    /**
+     * Create the cache.
+     * @param redisTemplate template with string keys and raw byte values
+     * @param channel invalidation channel
+     * @param ttl entry time to live
+     */
+    public RedisContentL2Cache(final RedisTemplate<String, byte[]> redisTemplate, final String channel,
+                               final Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public CachedContent get(final long contentId) {
+        byte[] value = redisTemplate.opsForValue().get(key(contentId));
+        return value != null ? CachedContent.decode(value) : null;
+    }
+
+    @Override
+    public long generation(final long contentId) {
+        byte[] value = redisTemplate.opsForValue().get(generationKey(contentId));
+        return value != null ? Long.parseLong(new String(value, StandardCharsets.US_ASCII)) : 0;
+    }
+
+    @Override
+    public void put(final long contentId, final CachedContent content, final long generation) {
+        redisTemplate.execute(PUT_IF_GENERATION, List.of(key(contentId), generationKey(contentId)),
+                content.encode(), ascii(generation), ascii(ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(final long contentId) {
+        // The generation outlives the entry it guards, so a slow load still sees the bump
+        redisTemplate.execute(EVICT, List.of(key(contentId), generationKey(contentId)), ascii(ttl.toMillis()));
+    }
+
+    @Override
+    public void publishInvalidation(final long contentId) {
+        redisTemplate.convertAndSend(channel, Long.toString(contentId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String key(final long contentId) {
+        return KEY_PREFIX + '{' + contentId + '}';
+    }
+
+    private static String generationKey(final long contentId) {
+        return key(contentId) + GENERATION_SUFFIX;
+    }
+
+    private static byte[] ascii(final long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
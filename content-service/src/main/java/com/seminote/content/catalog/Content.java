@@ -0,0 +1,21 @@
+package com.seminote.content.catalog;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * A lesson, exercise or piece of sheet music from the {@code content} table.
+ *
+ * @param id content id
+ * @param title display title
+ * @param contentType lesson, exercise, sheet_music, ...
+ * @param instrument instrument the content is for
+ * @param difficultyLevel beginner, intermediate or advanced
+ * @param filePath path of the backing asset, may be null
+ * @param metadata JSONB metadata, passed through unparsed
+ * @param updatedAt last modification time
+ */
+public record Content(long id, String title, String contentType, String instrument, String difficultyLevel,
+                      String filePath, @JsonRawValue String metadata, Instant updatedAt) {
+}
@@ -0,0 +1,37 @@
+package com.seminote.content.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Wires the content catalog.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ContentCatalogConfiguration {
+
+    /**
+     * Content repository.
+     * @param jdbcTemplate template over the service datasource
+     * @return repository
+     */
+    @Bean
+    public ContentRepository contentRepository(final JdbcTemplate jdbcTemplate) {
+        return new ContentRepository(jdbcTemplate);
+    }
+
+    /**
+     * Content write path.
+     * @param repository content repository
+     * @param events application event publisher
+     * @param objectMapper JSON mapper
+     * @return service
+     */
+    @Bean
+    public ContentService contentService(final ContentRepository repository, final ApplicationEventPublisher events,
+                                         final ObjectMapper objectMapper) {
+        return new ContentService(repository, events, objectMapper);
+    }
+}
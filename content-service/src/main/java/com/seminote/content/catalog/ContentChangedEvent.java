@@ -0,0 +1,9 @@
+package com.seminote.content.catalog;
+
+/**
+ * Published after a content row has been created, updated or deleted.
+ *
+ * @param contentId id of the changed row
+ */
+public record ContentChangedEvent(long contentId) {
+}
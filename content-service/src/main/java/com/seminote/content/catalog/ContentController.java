@@ -0,0 +1,90 @@
+package com.seminote.content.catalog;
+
+import com.seminote.content.cache.CachedContent;
+import com.seminote.content.cache.ContentCache;
+import com.seminote.content.cache.ETags;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Content read and update API.
+ *
+ * Reads are served from {@link ContentCache} with a strong ETag; a matching
+ * {@code If-None-Match} gets 304 without touching the database. Clients are
+ * told to revalidate on every use, which stays cheap because of the 304 path.
+ */
+@RestController
+@RequestMapping("/api/v1/content")
+public class ContentController {
+
+    private final ContentCache cache;
+    private final ContentService service;
+
+    /**
+     * Create the controller.
+     * @param cache content cache
+     * @param service content write path
+     */
+    public ContentController(final ContentCache cache, final ContentService service) {
+        this.cache = cache;
+        this.service = service;
+    }
+
+    /**
+     * Read one content item.
+     * @param contentId content id
+     * @param ifNoneMatch ETags the client already has
+     * @return the content, or 304 if the client's copy is current
+     */
+    @GetMapping("/{contentId}")
+    public ResponseEntity<byte[]> get(@PathVariable final long contentId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                      final String ifNoneMatch) {
+        CachedContent content = cache.get(contentId);
+        if (content == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found");
+        }
+        if (ETags.matches(ifNoneMatch, content.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(content.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(content.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(content.body());
+    }
+
+    /**
+     * Replace one content item.
+     * @param contentId content id
+     * @param update new values
+     * @return 204 when updated
+     */
+    @PutMapping("/{contentId}")
+    public ResponseEntity<Void> update(@PathVariable final long contentId,
+                                       @RequestBody final ContentUpdate update) {
+        if (update.title() == null || update.contentType() == null || update.instrument() == null
+                || update.difficultyLevel() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "title, contentType, instrument and difficultyLevel are required");
+        }
+        if (!service.update(contentId, update)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.seminote.content.catalog;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the {@code content} table.
+ */
+public class ContentRepository {
+
+    static final String COLUMNS = "id, title, content_type, instrument, difficulty_level, file_path, "
+            + "metadata::text AS metadata, updated_at";
+
+    private static final RowMapper<Content> ROW_MAPPER = (rs, rowNum) -> new Content(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("content_type"),
+            rs.getString("instrument"),
+            rs.getString("difficulty_level"),
+            rs.getString("file_path"),
+            rs.getString("metadata"),
+            toInstant(rs.getObject("updated_at", LocalDateTime.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the content datasource
+     */
+    public ContentRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load one content row.
+     * @param id content id
+     * @return the row, or null if it does not exist
+     */
+    public Content findById(final long id) {
+        List<Content> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM content WHERE id = ?", ROW_MAPPER, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Stream every content row, used to build derived indexes.
+     * @param consumer receives each row
+     */
+    public void forEach(final Consumer<Content> consumer) {
+        jdbcTemplate.query("SELECT " + COLUMNS + " FROM content ORDER BY id",
+                rs -> {
+                    consumer.accept(ROW_MAPPER.mapRow(rs, 0));
+                });
+    }
+
+    /**
+     * Ids of every content row, used to drop rows deleted through other instances.
+     * @return content ids
+     */
+    public List<Long> findAllIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM content", Long.class);
+    }
+
+    /**
+     * Rows modified at or after a point in time.
+     * @param since lower bound, inclusive so rows sharing the boundary timestamp are not missed
+     * @return matching rows, oldest change first
+     */
+    public List<Content> findUpdatedSince(final Instant since) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM content WHERE updated_at >= ? ORDER BY updated_at",
+                ROW_MAPPER, LocalDateTime.ofInstant(since, ZoneOffset.UTC));
+    }
+
+    /**
+     * Replace a content row.
+     * @param id content id
+     * @param update new values
+     * @param metadataJson metadata serialized as JSON, may be null
+     * @return true if the row existed
+     */
+    public boolean update(final long id, final ContentUpdate update, final String metadataJson) {
+        return jdbcTemplate.update("UPDATE content SET title = ?, content_type = ?, instrument = ?, "
+                        + "difficulty_level = ?, file_path = ?, metadata = CAST(? AS JSONB), "
+                        + "updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                update.title(), update.contentType(), update.instrument(), update.difficultyLevel(),
+                update.filePath(), metadataJson, id) > 0;
+    }
+
+    private static Instant toInstant(final LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+}
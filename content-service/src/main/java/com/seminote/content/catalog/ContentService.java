@@ -0,0 +1,54 @@
+package com.seminote.content.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Content write path. Every successful change publishes a
+ * {@link ContentChangedEvent} so caches and indexes can react.
+ */
+public class ContentService {
+
+    private final ContentRepository repository;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Create the service.
+     * @param repository content repository
+     * @param events publisher for change events
+     * @param objectMapper serializer for metadata
+     */
+    public ContentService(final ContentRepository repository, final ApplicationEventPublisher events,
+                          final ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.events = events;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replace a content row.
+     * @param contentId content id
+     * @param update new values
+     * @return true if the row existed
+     */
+    public boolean update(final long contentId, final ContentUpdate update) {
+        boolean updated = repository.update(contentId, update, metadataJson(update));
+        if (updated) {
+            events.publishEvent(new ContentChangedEvent(contentId));
+        }
+        return updated;
+    }
+
+    private String metadataJson(final ContentUpdate update) {
+        if (update.metadata() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(update.metadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid metadata", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.seminote.content.catalog;
+
+import java.util.Map;
+
+/**
+ * Replacement values for a content row.
+ *
+ * @param title display title
+ * @param contentType content type
+ * @param instrument instrument
+ * @param difficultyLevel difficulty level
+ * @param filePath backing asset path
+ * @param metadata metadata stored as JSONB
+ */
+public record ContentUpdate(String title, String contentType, String instrument, String difficultyLevel,
+                            String filePath, Map<String, Object> metadata) {
+}
@@ -0,0 +1,447 @@
+package com.seminote.content.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item-to-item co-occurrence model over students' practice histories.
+ *
+ * Content ids are mapped to dense indexes; each item keeps its co-occurrence
+ * counts in a primitive open-addressing row and its top-K cosine neighbours
+ * in parallel arrays. Recommending for a student sums the neighbour lists of
+ * their most recent items, so a request touches a few thousand array slots
+ * and no database.
+ *
+ * A full {@link #build} computes every row in parallel on a fork-join pool;
+ * each task owns a disjoint range of items, so rows need no merging.
+ * {@link #record} then applies single practice events incrementally. Events
+ * update the counts and the neighbour lists of the items involved; the small
+ * drift in other items' normalisation, and the popular-items fallback, are
+ * refreshed by the next full build.
+ */
+public final class CooccurrenceMatrix {
+
+    private static final int RECENT_ITEMS = 20;
+    private static final int POPULAR_ITEMS = 100;
+    private static final int LEAF_ITEMS = 16;
+    private static final float EXCLUDED = Float.NEGATIVE_INFINITY;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int topK;
+    private final int maxHistory;
+    private final Map<Integer, Integer> itemIndex;
+    private final Map<Long, int[]> histories;
+    private final int[] popular;
+
+    private int[] contentIds;
+    private int[] itemCounts;
+    private IntIntCounts[] rows;
+    private Neighbors[] neighbors;
+    private int itemCount;
+
+    private CooccurrenceMatrix(final int topK, final int maxHistory, final Map<Integer, Integer> itemIndex,
+                               final int[] contentIds, final int itemCount, final Map<Long, int[]> histories) {
+        this.topK = topK;
+        this.maxHistory = maxHistory;
+        this.itemIndex = itemIndex;
+        this.contentIds = contentIds;
+        this.itemCount = itemCount;
+        this.histories = histories;
+        this.itemCounts = new int[Math.max(1, contentIds.length)];
+        this.rows = new IntIntCounts[itemCounts.length];
+        this.neighbors = new Neighbors[itemCounts.length];
+        for (int[] history : histories.values()) {
+            for (int item : history) {
+                itemCounts[item]++;
+            }
+        }
+        this.popular = mostPopular(itemCounts, itemCount);
+    }
+
+    /**
+     * An empty model that only learns from {@link #record}.
+     * @param topK neighbours kept per item
+     * @param maxHistory most recent items kept per student
+     * @return empty model
+     */
+    public static CooccurrenceMatrix empty(final int topK, final int maxHistory) {
+        return build(Map.of(), topK, maxHistory, null);
+    }
+
+    /**
+     * Build a model from complete practice histories.
+     * @param histories student id to practiced content ids, oldest first
+     * @param topK neighbours kept per item
+     * @param maxHistory most recent items kept per student
+     * @param pool pool the rows are computed on, null to compute on the caller
+     * @return model
+     */
+    public static CooccurrenceMatrix build(final Map<Long, int[]> histories, final int topK, final int maxHistory,
+                                           final ForkJoinPool pool) {
+        Map<Integer, Integer> itemIndex = new HashMap<>();
+        int[] contentIds = new int[Math.max(1, histories.size())];
+        Map<Long, int[]> dense = new HashMap<>(Math.max(16, histories.size() * 2));
+        for (Map.Entry<Long, int[]> entry : histories.entrySet()) {
+            int[] recent = recentDistinct(entry.getValue(), maxHistory);
+            for (int i = 0; i < recent.length; i++) {
+                Integer item = itemIndex.get(recent[i]);
+                if (item == null) {
+                    item = itemIndex.size();
+                    itemIndex.put(recent[i], item);
+                    if (item == contentIds.length) {
+                        contentIds = Arrays.copyOf(contentIds, contentIds.length * 2);
+                    }
+                    contentIds[item] = recent[i];
+                }
+                recent[i] = item;
+            }
+            if (recent.length > 0) {
+                dense.put(entry.getKey(), recent);
+            }
+        }
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix(topK, maxHistory, itemIndex, contentIds,
+                itemIndex.size(), dense);
+        matrix.computeRows(pool);
+        return matrix;
+    }
+
+    /**
+     * Apply one practice event.
+     * @param userId student id
+     * @param contentId practiced content id
+     * @return true if the item was new to the student's history
+     */
+    public boolean record(final long userId, final int contentId) {
+        lock.writeLock().lock();
+        try {
+            int item = indexOrAdd(contentId);
+            int[] history = histories.getOrDefault(userId, new int[0]);
+            for (int other : history) {
+                if (other == item) {
+                    return false;
+                }
+            }
+            itemCounts[item]++;
+            for (int other : history) {
+                row(item).add(other, 1);
+                row(other).add(item, 1);
+            }
+            int[] updated;
+            if (history.length < maxHistory) {
+                updated = Arrays.copyOf(history, history.length + 1);
+            } else {
+                updated = Arrays.copyOfRange(history, 1, history.length + 1);
+            }
+            updated[updated.length - 1] = item;
+            histories.put(userId, updated);
+
+            neighbors[item] = neighborsOf(item, row(item));
+            for (int other : history) {
+                Neighbors current = neighbors[other] != null ? neighbors[other] : Neighbors.EMPTY;
+                neighbors[other] = current.with(item, similarity(other, item, rows[other].get(item)), topK);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best items for a student that they have not practiced yet, falling back
+     * to popular items when the history gives too few candidates.
+     * @param userId student id
+     * @param limit maximum items
+     * @return recommendations, best first
+     */
+    public List<Recommendation> recommend(final long userId, final int limit) {
+        lock.readLock().lock();
+        try {
+            int[] history = histories.getOrDefault(userId, new int[0]);
+            int recent = Math.min(history.length, RECENT_ITEMS);
+            ScoreTable table = new ScoreTable(history.length + recent * topK);
+            for (int item : history) {
+                table.exclude(item);
+            }
+            for (int i = history.length - recent; i < history.length; i++) {
+                Neighbors list = neighbors[history[i]];
+                if (list == null) {
+                    continue;
+                }
+                for (int n = 0; n < list.size(); n++) {
+                    table.add(list.item(n), list.score(n));
+                }
+            }
+            Neighbors.Selector best = new Neighbors.Selector(limit);
+            table.offerTo(best);
+            List<Recommendation> result = toRecommendations(best);
+            for (int i = 0; i < popular.length && result.size() < limit; i++) {
+                int item = popular[i];
+                if (!table.contains(item)) {
+                    result.add(new Recommendation(contentIds[item], 0.0));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Items most often practiced together with one item.
+     * @param contentId content id
+     * @param limit maximum items
+     * @return similar items, best first
+     */
+    public List<Recommendation> similar(final int contentId, final int limit) {
+        lock.readLock().lock();
+        try {
+            Integer item = itemIndex.get(contentId);
+            if (item == null || neighbors[item] == null) {
+                return List.of();
+            }
+            Neighbors list = neighbors[item];
+            List<Recommendation> result = new ArrayList<>(Math.min(limit, list.size()));
+            for (int n = 0; n < list.size() && n < limit; n++) {
+                result.add(new Recommendation(contentIds[list.item(n)], list.score(n)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct items seen.
+     * @return item count
+     */
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return itemCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of students with a history.
+     * @return student count
+     */
+    public int userCount() {
+        lock.readLock().lock();
+        try {
+            return histories.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void computeRows(final ForkJoinPool pool) {
+        // Inverted lists: item -> histories containing it
+        int[][] userHistories = histories.values().toArray(new int[0][]);
+        int[][] postings = new int[itemCount][];
+        int[] filled = new int[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            postings[item] = new int[itemCounts[item]];
+        }
+        for (int user = 0; user < userHistories.length; user++) {
+            for (int item : userHistories[user]) {
+                postings[item][filled[item]++] = user;
+            }
+        }
+        // One pair of dense scratch arrays per worker thread, reused across its leaf tasks
+        ThreadLocal<int[][]> scratch = ThreadLocal.withInitial(() -> new int[2][itemCount]);
+        RowTask task = new RowTask(userHistories, postings, scratch, 0, itemCount);
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+    }
+
+    /** Computes the rows and neighbour lists of a disjoint item range. */
+    private final class RowTask extends RecursiveAction {
+
+        private final int[][] userHistories;
+        private final int[][] postings;
+        private final ThreadLocal<int[][]> scratch;
+        private final int from;
+        private final int to;
+
+        RowTask(final int[][] userHistories, final int[][] postings, final ThreadLocal<int[][]> scratch,
+                final int from, final int to) {
+            this.userHistories = userHistories;
+            this.postings = postings;
+            this.scratch = scratch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ITEMS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(userHistories, postings, scratch, from, middle),
+                        new RowTask(userHistories, postings, scratch, middle, to));
+                return;
+            }
+            int[][] buffers = scratch.get();
+            int[] counts = buffers[0];
+            int[] touched = buffers[1];
+            for (int item = from; item < to; item++) {
+                int distinct = 0;
+                for (int user : postings[item]) {
+                    for (int other : userHistories[user]) {
+                        if (other != item && counts[other]++ == 0) {
+                            touched[distinct++] = other;
+                        }
+                    }
+                }
+                IntIntCounts row = new IntIntCounts(distinct);
+                Neighbors.Selector best = new Neighbors.Selector(topK);
+                for (int i = 0; i < distinct; i++) {
+                    int other = touched[i];
+                    row.add(other, counts[other]);
+                    best.offer(other, similarity(item, other, counts[other]));
+                    counts[other] = 0;
+                }
+                rows[item] = row;
+                neighbors[item] = best.toNeighbors();
+            }
+        }
+    }
+
+    private Neighbors neighborsOf(final int item, final IntIntCounts row) {
+        Neighbors.Selector best = new Neighbors.Selector(topK);
+        for (int slot = 0; slot < row.capacity(); slot++) {
+            int other = row.keyAt(slot);
+            if (other != IntIntCounts.EMPTY) {
+                best.offer(other, similarity(item, other, row.valueAt(slot)));
+            }
+        }
+        return best.toNeighbors();
+    }
+
+    private float similarity(final int item, final int other, final int together) {
+        return (float) (together / Math.sqrt((double) itemCounts[item] * itemCounts[other]));
+    }
+
+    private IntIntCounts row(final int item) {
+        if (rows[item] == null) {
+            rows[item] = new IntIntCounts(1);
+        }
+        return rows[item];
+    }
+
+    private int indexOrAdd(final int contentId) {
+        Integer existing = itemIndex.get(contentId);
+        if (existing != null) {
+            return existing;
+        }
+        int item = itemCount++;
+        itemIndex.put(contentId, item);
+        if (item == itemCounts.length) {
+            int capacity = itemCounts.length * 2;
+            contentIds = Arrays.copyOf(contentIds, capacity);
+            itemCounts = Arrays.copyOf(itemCounts, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+        }
+        contentIds[item] = contentId;
+        return item;
+    }
+
+    private List<Recommendation> toRecommendations(final Neighbors.Selector best) {
+        List<Recommendation> result = new ArrayList<>(best.size());
+        for (int i = 0; i < best.size(); i++) {
+            result.add(new Recommendation(contentIds[best.item(i)], best.score(i)));
+        }
+        return result;
+    }
+
+    private static int[] recentDistinct(final int[] contentIds, final int maxHistory) {
+        int[] recent = new int[Math.min(contentIds.length, maxHistory)];
+        int size = 0;
+        // Walk newest first so a re-practiced item keeps its latest position
+        for (int i = contentIds.length - 1; i >= 0 && size < recent.length; i--) {
+            boolean seen = false;
+            for (int j = 0; j < size && !seen; j++) {
+                seen = recent[j] == contentIds[i];
+            }
+            if (!seen) {
+                recent[size++] = contentIds[i];
+            }
+        }
+        int[] oldestFirst = new int[size];
+        for (int i = 0; i < size; i++) {
+            oldestFirst[i] = recent[size - 1 - i];
+        }
+        return oldestFirst;
+    }
+
+    private static int[] mostPopular(final int[] itemCounts, final int itemCount) {
+        Neighbors.Selector best = new Neighbors.Selector(Math.min(POPULAR_ITEMS, itemCount));
+        for (int item = 0; item < itemCount; item++) {
+            best.offer(item, itemCounts[item]);
+        }
+        int[] popular = new int[best.size()];
+        for (int i = 0; i < popular.length; i++) {
+            popular[i] = best.item(i);
+        }
+        return popular;
+    }
+
+    /** Per-request candidate scores keyed by item, with excluded items marked. */
+    private static final class ScoreTable {
+
+        private final int[] items;
+        private final float[] scores;
+
+        ScoreTable(final int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected * 2 - 1)) << 1;
+            items = new int[capacity];
+            scores = new float[capacity];
+            Arrays.fill(items, IntIntCounts.EMPTY);
+        }
+
+        void exclude(final int item) {
+            int slot = slotOf(item);
+            items[slot] = item;
+            scores[slot] = EXCLUDED;
+        }
+
+        void add(final int item, final float score) {
+            int slot = slotOf(item);
+            items[slot] = item;
+            scores[slot] += score;
+        }
+
+        boolean contains(final int item) {
+            return items[slotOf(item)] == item;
+        }
+
+        void offerTo(final Neighbors.Selector best) {
+            for (int slot = 0; slot < items.length; slot++) {
+                if (items[slot] != IntIntCounts.EMPTY && scores[slot] != EXCLUDED) {
+                    best.offer(items[slot], scores[slot]);
+                }
+            }
+        }
+
+        private int slotOf(final int item) {
+            int mask = items.length - 1;
+            int hash = item * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (items[slot] != IntIntCounts.EMPTY && items[slot] != item) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.seminote.content.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from item index to co-occurrence count.
+ *
+ * Keys are non-negative item indexes; slots are exposed so callers can walk
+ * the entries without boxing or iterator allocation.
+ */
+final class IntIntCounts {
+
+    static final int EMPTY = -1;
+
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntIntCounts(final int expected) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void add(final int key, final int delta) {
+        int slot = slotOf(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                grow();
+                slot = slotOf(keys, key);
+            }
+        }
+        values[slot] += delta;
+    }
+
+    int get(final int key) {
+        int slot = slotOf(keys, key);
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(final int slot) {
+        return keys[slot];
+    }
+
+    int valueAt(final int slot) {
+        return values[slot];
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slotOf(final int[] keys, final int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,104 @@
+package com.seminote.content.recommend;
+
+/**
+ * An item's most similar items, best first, as parallel primitive arrays.
+ * Instances are immutable and replaced whole, so readers need no copy.
+ */
+final class Neighbors {
+
+    static final Neighbors EMPTY = new Neighbors(new int[0], new float[0], 0);
+
+    private final int[] items;
+    private final float[] scores;
+    private final int size;
+
+    private Neighbors(final int[] items, final float[] scores, final int size) {
+        this.items = items;
+        this.scores = scores;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int item(final int i) {
+        return items[i];
+    }
+
+    float score(final int i) {
+        return scores[i];
+    }
+
+    /**
+     * Copy with one item's score set, keeping at most {@code limit} entries.
+     */
+    Neighbors with(final int item, final float score, final int limit) {
+        if (size == limit && score <= scores[size - 1] && indexOf(item) < 0) {
+            return this;
+        }
+        Selector selector = new Selector(limit);
+        for (int i = 0; i < size; i++) {
+            if (items[i] != item) {
+                selector.offer(items[i], scores[i]);
+            }
+        }
+        selector.offer(item, score);
+        return selector.toNeighbors();
+    }
+
+    private int indexOf(final int item) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Keeps the best {@code limit} offers in descending score order by
+     * insertion; limits are small, so this beats a heap.
+     */
+    static final class Selector {
+
+        private final int[] items;
+        private final float[] scores;
+        private int size;
+
+        Selector(final int limit) {
+            items = new int[limit];
+            scores = new float[limit];
+        }
+
+        void offer(final int item, final float score) {
+            if (items.length == 0 || size == items.length && score <= scores[size - 1]) {
+                return;
+            }
+            int position = size < items.length ? size++ : size - 1;
+            while (position > 0 && scores[position - 1] < score) {
+                items[position] = items[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            items[position] = item;
+            scores[position] = score;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int item(final int i) {
+            return items[i];
+        }
+
+        float score(final int i) {
+            return scores[i];
+        }
+
+        Neighbors toNeighbors() {
+            return size == 0 ? EMPTY : new Neighbors(items, scores, size);
+        }
+    }
+}
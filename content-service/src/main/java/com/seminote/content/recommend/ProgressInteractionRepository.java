@@ -0,0 +1,98 @@
+package com.seminote.content.recommend;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads practice interactions from the {@code progress} table.
+ */
+public class ProgressInteractionRepository {
+
+    private static final int INITIAL_HISTORY = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the shared datasource
+     */
+    public ProgressInteractionRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Every student's practiced content, oldest first.
+     * @return histories and the newest modification time read
+     */
+    public Histories loadHistories() {
+        Map<Long, int[]> histories = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        Instant[] newest = {Instant.EPOCH};
+        jdbcTemplate.query("SELECT user_id, content_id, updated_at FROM progress "
+                        + "WHERE user_id IS NOT NULL AND content_id IS NOT NULL ORDER BY user_id, updated_at",
+                rs -> {
+                    long userId = rs.getLong("user_id");
+                    int size = sizes.getOrDefault(userId, 0);
+                    int[] history = histories.computeIfAbsent(userId, id -> new int[INITIAL_HISTORY]);
+                    if (size == history.length) {
+                        history = Arrays.copyOf(history, size * 2);
+                        histories.put(userId, history);
+                    }
+                    history[size] = rs.getInt("content_id");
+                    sizes.put(userId, size + 1);
+                    Instant updatedAt = toInstant(rs.getObject("updated_at", LocalDateTime.class));
+                    if (updatedAt != null && updatedAt.isAfter(newest[0])) {
+                        newest[0] = updatedAt;
+                    }
+                });
+        histories.replaceAll((userId, history) -> Arrays.copyOf(history, sizes.get(userId)));
+        return new Histories(histories, newest[0]);
+    }
+
+    /**
+     * Interactions modified at or after a point in time.
+     * @param since lower bound, inclusive so rows sharing the boundary timestamp are not missed
+     * @return interactions, oldest change first
+     */
+    public List<Interaction> findUpdatedSince(final Instant since) {
+        List<Interaction> interactions = new ArrayList<>();
+        jdbcTemplate.query("SELECT user_id, content_id, updated_at FROM progress WHERE updated_at >= ? "
+                        + "AND user_id IS NOT NULL AND content_id IS NOT NULL ORDER BY updated_at",
+                rs -> {
+                    interactions.add(new Interaction(rs.getLong("user_id"), rs.getInt("content_id"),
+                            toInstant(rs.getObject("updated_at", LocalDateTime.class))));
+                }, LocalDateTime.ofInstant(since, ZoneOffset.UTC));
+        return interactions;
+    }
+
+    private static Instant toInstant(final LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Complete practice histories.
+     *
+     * @param histories student id to content ids, oldest first
+     * @param newestUpdate newest modification time read, where incremental polling resumes
+     */
+    public record Histories(Map<Long, int[]> histories, Instant newestUpdate) {
+    }
+
+    /**
+     * One student practicing one content item.
+     *
+     * @param userId student id
+     * @param contentId content id
+     * @param updatedAt modification time of the progress row
+     */
+    public record Interaction(long userId, int contentId, Instant updatedAt) {
+    }
+}
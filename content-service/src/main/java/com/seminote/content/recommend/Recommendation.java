@@ -0,0 +1,10 @@
+package com.seminote.content.recommend;
+
+/**
+ * A recommended content item.
+ *
+ * @param contentId content id
+ * @param score relative strength, only comparable within one response
+ */
+public record Recommendation(long contentId, double score) {
+}
@@ -0,0 +1,41 @@
+package com.seminote.content.recommend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires the content recommendation engine.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RecommendationProperties.class)
+public class RecommendationConfiguration {
+
+    /**
+     * Progress reader.
+     * @param jdbcTemplate template over the shared datasource
+     * @return repository
+     */
+    @Bean
+    public ProgressInteractionRepository progressInteractionRepository(final JdbcTemplate jdbcTemplate) {
+        return new ProgressInteractionRepository(jdbcTemplate);
+    }
+
+    /**
+     * Recommendation engine.
+     * @param repository progress reader
+     * @param properties recommendation settings
+     * @param registry metrics registry
+     * @return engine
+     */
+    @Bean
+    public RecommendationEngine recommendationEngine(final ProgressInteractionRepository repository,
+                                                     final RecommendationProperties properties,
+                                                     final MeterRegistry registry) {
+        return new RecommendationEngine(repository, properties, registry, Clock.systemUTC());
+    }
+}
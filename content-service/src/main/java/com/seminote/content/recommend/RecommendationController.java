@@ -0,0 +1,65 @@
+package com.seminote.content.recommend;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Recommendation API, answered from the in-memory model.
+ */
+@RestController
+@RequestMapping("/api/v1/content/recommendations")
+public class RecommendationController {
+
+    private final RecommendationEngine engine;
+    private final RecommendationProperties properties;
+
+    /**
+     * Create the controller.
+     * @param engine recommendation engine
+     * @param properties recommendation settings
+     */
+    public RecommendationController(final RecommendationEngine engine, final RecommendationProperties properties) {
+        this.engine = engine;
+        this.properties = properties;
+    }
+
+    /**
+     * Lessons a student is likely to practice next.
+     * @param userId student id
+     * @param limit maximum items
+     * @return recommendations, best first
+     */
+    @GetMapping("/users/{userId}")
+    public List<Recommendation> forUser(@PathVariable final long userId,
+                                        @RequestParam(required = false) final Integer limit) {
+        return engine.recommend(userId, checkLimit(limit));
+    }
+
+    /**
+     * Lessons often practiced together with one lesson.
+     * @param contentId content id
+     * @param limit maximum items
+     * @return similar items, best first
+     */
+    @GetMapping("/similar/{contentId}")
+    public List<Recommendation> similar(@PathVariable final int contentId,
+                                        @RequestParam(required = false) final Integer limit) {
+        return engine.similar(contentId, checkLimit(limit));
+    }
+
+    private int checkLimit(final Integer limit) {
+        int value = limit != null ? limit : properties.getDefaultLimit();
+        if (value < 0 || value > properties.getMaxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 0 and " + properties.getMaxLimit());
+        }
+        return value;
+    }
+}
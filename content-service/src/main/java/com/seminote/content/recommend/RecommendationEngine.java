@@ -0,0 +1,191 @@
+package com.seminote.content.recommend;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the live {@link CooccurrenceMatrix} and keeps it current.
+ *
+ * A full rebuild runs on start and then nightly at the configured UTC time,
+ * on a dedicated fork-join pool so it does not compete with the common pool.
+ * Between rebuilds, progress rows changed since the last read are polled and
+ * applied incrementally. Rebuilds and polls share one thread, so a poll never
+ * races a model swap.
+ */
+public class RecommendationEngine implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecommendationEngine.class);
+
+    private final ProgressInteractionRepository repository;
+    private final RecommendationProperties properties;
+    private final Clock clock;
+    private final Timer buildTimer;
+
+    private volatile CooccurrenceMatrix matrix;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile Instant watermark;
+
+    /**
+     * Create the engine.
+     * @param repository progress reader
+     * @param properties recommendation settings
+     * @param registry registry for build time and model size
+     * @param clock time source for the nightly schedule
+     */
+    public RecommendationEngine(final ProgressInteractionRepository repository,
+                                final RecommendationProperties properties, final MeterRegistry registry,
+                                final Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+        this.matrix = CooccurrenceMatrix.empty(properties.getTopK(), properties.getMaxUserHistory());
+        this.buildTimer = Timer.builder("seminote.content.recommendations.build")
+                .description("Time to rebuild the co-occurrence model")
+                .register(registry);
+        Gauge.builder("seminote.content.recommendations.items", this, engine -> engine.matrix.itemCount())
+                .description("Items in the recommendation model")
+                .register(registry);
+    }
+
+    /**
+     * Recommendations for a student.
+     * @param userId student id
+     * @param limit maximum items
+     * @return recommendations, best first
+     */
+    public List<Recommendation> recommend(final long userId, final int limit) {
+        return matrix.recommend(userId, limit);
+    }
+
+    /**
+     * Items most often practiced together with one item.
+     * @param contentId content id
+     * @param limit maximum items
+     * @return similar items, best first
+     */
+    public List<Recommendation> similar(final int contentId, final int limit) {
+        return matrix.similar(contentId, limit);
+    }
+
+    /**
+     * Rebuild the model from every progress row.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        ProgressInteractionRepository.Histories histories = repository.loadHistories();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            matrix = CooccurrenceMatrix.build(histories.histories(), properties.getTopK(),
+                    properties.getMaxUserHistory(), pool);
+        } finally {
+            pool.shutdown();
+        }
+        watermark = histories.newestUpdate();
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        LOGGER.info("Rebuilt recommendations for {} items and {} students in {} ms", matrix.itemCount(),
+                matrix.userCount(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Apply progress rows changed since the last read.
+     * @return number of interactions new to the model
+     */
+    public int poll() {
+        if (watermark == null) {
+            return 0;
+        }
+        CooccurrenceMatrix current = matrix;
+        int applied = 0;
+        for (ProgressInteractionRepository.Interaction interaction : repository.findUpdatedSince(watermark)) {
+            if (current.record(interaction.userId(), interaction.contentId())) {
+                applied++;
+            }
+            if (interaction.updatedAt() != null && interaction.updatedAt().isAfter(watermark)) {
+                watermark = interaction.updatedAt();
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Delay until the next nightly rebuild.
+     * @return time until the configured UTC rebuild time
+     */
+    Duration untilNextRebuild() {
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+        ZonedDateTime next = now.with(properties.getRebuildAt());
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Recommendation rebuild failed: {}", e.toString());
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            if (watermark == null) {
+                rebuild();
+            } else {
+                poll();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Recommendation update failed: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-recommendations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Build in the background; requests get empty results until the first model lands
+        scheduler.execute(this::rebuildQuietly);
+        long pollMs = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::rebuildQuietly, untilNextRebuild().toMillis(),
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.seminote.content.recommend;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Settings for content recommendations.
+ */
+@ConfigurationProperties(prefix = "seminote.content.recommendations")
+public class RecommendationProperties {
+
+    private static final int DEFAULT_TOP_K = 50;
+    private static final int DEFAULT_MAX_USER_HISTORY = 100;
+    private static final long DEFAULT_POLL_SECONDS = 5;
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int DEFAULT_MAX_LIMIT = 100;
+    private static final int REBUILD_HOUR_UTC = 3;
+
+    private int topK = DEFAULT_TOP_K;
+    private int maxUserHistory = DEFAULT_MAX_USER_HISTORY;
+    private Duration pollInterval = Duration.ofSeconds(DEFAULT_POLL_SECONDS);
+    private LocalTime rebuildAt = LocalTime.of(REBUILD_HOUR_UTC, 0);
+    private int parallelism;
+    private int defaultLimit = DEFAULT_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(final int topK) {
+        this.topK = topK;
+    }
+
+    public int getMaxUserHistory() {
+        return maxUserHistory;
+    }
+
+    public void setMaxUserHistory(final int maxUserHistory) {
+        this.maxUserHistory = maxUserHistory;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(final Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public LocalTime getRebuildAt() {
+        return rebuildAt;
+    }
+
+    public void setRebuildAt(final LocalTime rebuildAt) {
+        this.rebuildAt = rebuildAt;
+    }
+
+    /**
+     * Fork-join parallelism for full rebuilds; zero or less uses every core.
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(final int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
@@ -0,0 +1,46 @@
+package com.seminote.content.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.content.catalog.ContentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the lesson search index and its indexer.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ContentSearchProperties.class)
+public class ContentSearchConfiguration {
+
+    /**
+     * In-memory search index.
+     * @param registry metrics registry
+     * @return empty index, filled by the indexer on start
+     */
+    @Bean
+    public ContentSearchIndex contentSearchIndex(final MeterRegistry registry) {
+        ContentSearchIndex index = new ContentSearchIndex();
+        Gauge.builder("seminote.content.search.documents", index, ContentSearchIndex::size)
+                .description("Documents in the search index")
+                .register(registry);
+        return index;
+    }
+
+    /**
+     * Indexer keeping the search index current.
+     * @param index search index
+     * @param repository content repository
+     * @param properties search settings
+     * @param objectMapper JSON mapper
+     * @return indexer
+     */
+    @Bean
+    public ContentSearchIndexer contentSearchIndexer(final ContentSearchIndex index, final ContentRepository repository,
+                                                     final ContentSearchProperties properties,
+                                                     final ObjectMapper objectMapper) {
+        return new ContentSearchIndexer(index, repository, properties, objectMapper);
+    }
+}
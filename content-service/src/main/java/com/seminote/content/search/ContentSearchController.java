@@ -0,0 +1,65 @@
+package com.seminote.content.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lesson search API, answered entirely from {@link ContentSearchIndex}.
+ */
+@RestController
+@RequestMapping("/api/v1/content/search")
+public class ContentSearchController {
+
+    private final ContentSearchIndex index;
+    private final ContentSearchProperties properties;
+    private final Timer queryTimer;
+
+    /**
+     * Create the controller.
+     * @param index search index
+     * @param properties search settings
+     * @param registry registry for query latency
+     */
+    public ContentSearchController(final ContentSearchIndex index, final ContentSearchProperties properties,
+                                   final MeterRegistry registry) {
+        this.index = index;
+        this.properties = properties;
+        this.queryTimer = Timer.builder("seminote.content.search.query")
+                .description("Time to answer a search from the index")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Search titles and keywords with optional facet filters.
+     * @param q free text, prefix and typo tolerant; empty browses
+     * @param instrument instrument filter
+     * @param difficulty difficulty level filter
+     * @param type content type filter
+     * @param limit maximum hits
+     * @return hits and facet counts
+     */
+    @GetMapping
+    public SearchResult search(@RequestParam(required = false) final String q,
+                               @RequestParam(required = false) final String instrument,
+                               @RequestParam(required = false) final String difficulty,
+                               @RequestParam(required = false) final String type,
+                               @RequestParam(required = false) final Integer limit) {
+        int hits = limit != null ? limit : properties.getDefaultLimit();
+        if (hits < 0 || hits > properties.getMaxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 0 and " + properties.getMaxLimit());
+        }
+        SearchResult result = index.search(new SearchQuery(q, instrument, difficulty, type, hits));
+        queryTimer.record(result.tookMicros(), TimeUnit.MICROSECONDS);
+        return result;
+    }
+}
@@ -0,0 +1,462 @@
+package com.seminote.content.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the content catalog.
+ *
+ * Terms from titles and metadata keywords map to sorted doc id postings held
+ * as primitive arrays in a sorted dictionary, so a prefix is a sub-map scan
+ * and a typo is a bounded edit-distance check over terms of similar length.
+ * Every query token must match, exactly (3 points), as a prefix (2) or
+ * within one edit, two for long tokens (1). Facets are stored as small
+ * ordinals per document so filters and counts are array lookups.
+ *
+ * Documents are append-only: an update marks the old doc id dead and adds a
+ * new one, and the index compacts itself once a quarter of the slots are
+ * dead. Reads share a lock and never touch the database.
+ */
+public class ContentSearchIndex {
+
+    /** Facet name for instruments. */
+    public static final String INSTRUMENT = "instrument";
+    /** Facet name for difficulty levels. */
+    public static final String DIFFICULTY = "difficulty";
+    /** Facet name for content types. */
+    public static final String CONTENT_TYPE = "contentType";
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int LONG_TOKEN_LENGTH = 8;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACT_DIVISOR = 4;
+    private static final int MIN_COMPACT_DEAD = 64;
+    private static final int NO_VALUE = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docByContentId = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final List<List<String>> termsByLength = new ArrayList<>();
+    private final Facet instruments = new Facet();
+    private final Facet difficulties = new Facet();
+    private final Facet contentTypes = new Facet();
+    private final BitSet live = new BitSet();
+
+    private SearchDocument[] docs = new SearchDocument[INITIAL_CAPACITY];
+    private long[] contentIds = new long[INITIAL_CAPACITY];
+    private int[] instrumentOrds = new int[INITIAL_CAPACITY];
+    private int[] difficultyOrds = new int[INITIAL_CAPACITY];
+    private int[] contentTypeOrds = new int[INITIAL_CAPACITY];
+    private int docCount;
+    private long maxUpdatedAtMillis;
+
+    /**
+     * Add a document, replacing any previous version with the same content id.
+     * @param document document to index
+     */
+    public void upsert(final SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.contentId());
+            addLocked(document);
+            maybeCompactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add many documents under one lock acquisition, used for bulk loads.
+     * @param documents documents to index
+     */
+    public void upsertAll(final Collection<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : documents) {
+                removeLocked(document.contentId());
+                addLocked(document);
+            }
+            maybeCompactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document.
+     * @param contentId content id
+     * @return true if it was indexed
+     */
+    public boolean remove(final long contentId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(contentId);
+            maybeCompactLocked();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a search.
+     * @param query text, filters and limit
+     * @return hits and facet counts
+     */
+    public SearchResult search(final SearchQuery query) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int[] scores = new int[docCount];
+            BitSet matches = matchText(Tokenizer.tokenize(query.text()), scores);
+            matches.and(live);
+            filter(matches, instrumentOrds, instruments, query.instrument());
+            filter(matches, difficultyOrds, difficulties, query.difficultyLevel());
+            filter(matches, contentTypeOrds, contentTypes, query.contentType());
+
+            List<SearchResult.Hit> hits = topHits(matches, scores, Math.max(0, query.limit()));
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(INSTRUMENT, instruments.count(matches, instrumentOrds));
+            facets.put(DIFFICULTY, difficulties.count(matches, difficultyOrds));
+            facets.put(CONTENT_TYPE, contentTypes.count(matches, contentTypeOrds));
+            return new SearchResult(matches.cardinality(), hits, facets, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of every live document, used for snapshots.
+     * @return live documents in index order
+     */
+    public List<SearchDocument> documents() {
+        lock.readLock().lock();
+        try {
+            List<SearchDocument> result = new ArrayList<>(live.cardinality());
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                result.add(docs[doc]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live documents.
+     * @return document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Latest modification time seen, the starting point for catching up.
+     * @return epoch millis, zero when empty
+     */
+    public long maxUpdatedAtMillis() {
+        lock.readLock().lock();
+        try {
+            return maxUpdatedAtMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet matchText(final List<String> tokens, final int[] scores) {
+        BitSet matches = new BitSet(docCount);
+        if (tokens.isEmpty()) {
+            matches.set(0, docCount);
+            return matches;
+        }
+        BitSet tokenHits = new BitSet(docCount);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            tokenHits.clear();
+            // Strongest match kind first, so each doc scores its best kind once per token
+            collect(postings.get(token), EXACT_SCORE, tokenHits, scores);
+            for (Postings prefixed : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                collect(prefixed, PREFIX_SCORE, tokenHits, scores);
+            }
+            if (token.length() >= MIN_FUZZY_LENGTH) {
+                collectFuzzy(token, tokenHits, scores);
+            }
+            if (i == 0) {
+                matches.or(tokenHits);
+            } else {
+                matches.and(tokenHits);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void collectFuzzy(final String token, final BitSet tokenHits, final int[] scores) {
+        int maxEdits = token.length() >= LONG_TOKEN_LENGTH ? 2 : 1;
+        int from = Math.max(1, token.length() - maxEdits);
+        int to = Math.min(termsByLength.size() - 1, token.length() + maxEdits);
+        for (int length = from; length <= to; length++) {
+            for (String term : termsByLength.get(length)) {
+                if (!term.equals(token) && Tokenizer.withinEdits(token, term, maxEdits)) {
+                    collect(postings.get(term), FUZZY_SCORE, tokenHits, scores);
+                }
+            }
+        }
+    }
+
+    private static void collect(final Postings list, final int score, final BitSet tokenHits, final int[] scores) {
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.size; i++) {
+            int doc = list.docs[i];
+            if (!tokenHits.get(doc)) {
+                tokenHits.set(doc);
+                scores[doc] += score;
+            }
+        }
+    }
+
+    private static void filter(final BitSet matches, final int[] ords, final Facet facet, final String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        int ord = facet.ordinalOf(value);
+        if (ord == NO_VALUE) {
+            matches.clear();
+            return;
+        }
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            if (ords[doc] != ord) {
+                matches.clear(doc);
+            }
+        }
+    }
+
+    private List<SearchResult.Hit> topHits(final BitSet matches, final int[] scores, final int limit) {
+        if (limit == 0) {
+            return List.of();
+        }
+        // Bounded min-heap of doc ids: the root is the weakest hit so far and is replaced first
+        int[] heap = new int[limit];
+        int size = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            if (size < limit) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores);
+            } else if (ranksAbove(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+        SearchResult.Hit[] hits = new SearchResult.Hit[size];
+        while (size > 0) {
+            int doc = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+            SearchDocument document = docs[doc];
+            hits[size] = new SearchResult.Hit(document.contentId(), document.title(), document.contentType(),
+                    document.instrument(), document.difficultyLevel(), scores[doc]);
+        }
+        return Arrays.asList(hits);
+    }
+
+    /** Higher score first, then lower content id, so ties list in catalog order. */
+    private boolean ranksAbove(final int doc, final int other, final int[] scores) {
+        if (scores[doc] != scores[other]) {
+            return scores[doc] > scores[other];
+        }
+        return contentIds[doc] < contentIds[other];
+    }
+
+    private void siftUp(final int[] heap, final int index, final int[] scores) {
+        int child = index;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!ranksAbove(heap[parent], heap[child], scores)) {
+                return;
+            }
+            swap(heap, parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(final int[] heap, final int size, final int[] scores) {
+        int parent = 0;
+        while (true) {
+            int weakest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < size && ranksAbove(heap[weakest], heap[left], scores)) {
+                weakest = left;
+            }
+            if (right < size && ranksAbove(heap[weakest], heap[right], scores)) {
+                weakest = right;
+            }
+            if (weakest == parent) {
+                return;
+            }
+            swap(heap, parent, weakest);
+            parent = weakest;
+        }
+    }
+
+    private static void swap(final int[] heap, final int i, final int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private void addLocked(final SearchDocument document) {
+        if (docCount == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            contentIds = Arrays.copyOf(contentIds, capacity);
+            instrumentOrds = Arrays.copyOf(instrumentOrds, capacity);
+            difficultyOrds = Arrays.copyOf(difficultyOrds, capacity);
+            contentTypeOrds = Arrays.copyOf(contentTypeOrds, capacity);
+        }
+        int doc = docCount++;
+        docs[doc] = document;
+        contentIds[doc] = document.contentId();
+        instrumentOrds[doc] = instruments.ordinal(document.instrument());
+        difficultyOrds[doc] = difficulties.ordinal(document.difficultyLevel());
+        contentTypeOrds[doc] = contentTypes.ordinal(document.contentType());
+        live.set(doc);
+        docByContentId.put(document.contentId(), doc);
+        maxUpdatedAtMillis = Math.max(maxUpdatedAtMillis, document.updatedAtMillis());
+
+        List<String> terms = new ArrayList<>(Tokenizer.tokenize(document.title()));
+        if (document.keywords() != null) {
+            for (String keyword : document.keywords()) {
+                terms.addAll(Tokenizer.tokenize(keyword));
+            }
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                list = new Postings();
+                postings.put(term, list);
+                while (termsByLength.size() <= term.length()) {
+                    termsByLength.add(new ArrayList<>());
+                }
+                termsByLength.get(term.length()).add(term);
+            }
+            list.add(doc);
+        }
+    }
+
+    private boolean removeLocked(final long contentId) {
+        Integer doc = docByContentId.remove(contentId);
+        if (doc == null) {
+            return false;
+        }
+        live.clear(doc);
+        return true;
+    }
+
+    private void maybeCompactLocked() {
+        int dead = docCount - live.cardinality();
+        if (dead < MIN_COMPACT_DEAD || dead < docCount / COMPACT_DIVISOR) {
+            return;
+        }
+        SearchDocument[] previous = docs;
+        BitSet previousLive = (BitSet) live.clone();
+        int previousCount = docCount;
+        docs = new SearchDocument[Math.max(INITIAL_CAPACITY, previousLive.cardinality() * 2)];
+        contentIds = new long[docs.length];
+        instrumentOrds = new int[docs.length];
+        difficultyOrds = new int[docs.length];
+        contentTypeOrds = new int[docs.length];
+        docCount = 0;
+        live.clear();
+        docByContentId.clear();
+        postings.clear();
+        termsByLength.clear();
+        instruments.clear();
+        difficulties.clear();
+        contentTypes.clear();
+        for (int doc = previousLive.nextSetBit(0); doc >= 0 && doc < previousCount;
+             doc = previousLive.nextSetBit(doc + 1)) {
+            addLocked(previous[doc]);
+        }
+    }
+
+    /** Growable sorted doc id list; doc ids only ever increase, so appends keep it sorted. */
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(final int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    /** Dictionary of one facet's values to dense ordinals. */
+    private static final class Facet {
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ordinal(final String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            return ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int ordinalOf(final String value) {
+            return ordinals.getOrDefault(value, NO_VALUE);
+        }
+
+        Map<String, Integer> count(final BitSet matches, final int[] ords) {
+            int[] counts = new int[values.size()];
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                if (ords[doc] != NO_VALUE) {
+                    counts[ords[doc]]++;
+                }
+            }
+            Map<String, Integer> result = new TreeMap<>();
+            for (int ord = 0; ord < counts.length; ord++) {
+                if (counts[ord] > 0) {
+                    result.put(values.get(ord), counts[ord]);
+                }
+            }
+            return result;
+        }
+
+        void clear() {
+            ordinals.clear();
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.seminote.content.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.content.catalog.Content;
+import com.seminote.content.catalog.ContentChangedEvent;
+import com.seminote.content.catalog.ContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link ContentSearchIndex} in step with the {@code content} table.
+ *
+ * On start the index is loaded from the last snapshot and caught up with rows
+ * changed since, falling back to a full scan when there is no usable snapshot.
+ * Local writes are applied immediately from {@link ContentChangedEvent}; a
+ * periodic catch-up picks up changes made through other instances. It re-reads
+ * a window behind the newest indexed change, because {@code updated_at} is
+ * stamped when a transaction writes the row and the row may become visible
+ * only after a later catch-up, and drops indexed rows that no longer exist.
+ * Snapshots are written periodically and on shutdown.
+ */
+public class ContentSearchIndexer implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentSearchIndexer.class);
+    private static final String[] KEYWORD_FIELDS = {"tags", "keywords", "composer", "artist"};
+
+    private final ContentSearchIndex index;
+    private final ContentRepository repository;
+    private final ContentSearchProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create the indexer.
+     * @param index index to maintain
+     * @param repository content source
+     * @param properties search settings
+     * @param objectMapper parser for metadata keywords
+     */
+    public ContentSearchIndexer(final ContentSearchIndex index, final ContentRepository repository,
+                                final ContentSearchProperties properties, final ObjectMapper objectMapper) {
+        this.index = index;
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reindex a changed content row.
+     * @param event change event
+     */
+    @EventListener
+    public void onContentChanged(final ContentChangedEvent event) {
+        Content content = repository.findById(event.contentId());
+        if (content == null) {
+            index.remove(event.contentId());
+        } else {
+            index.upsert(toDocument(content));
+        }
+    }
+
+    /**
+     * Apply rows changed since shortly before the newest indexed modification
+     * time and remove rows that were deleted.
+     * @return number of documents added, replaced or removed
+     */
+    public int catchUp() {
+        // Taken before the queries, so a row indexed meanwhile is never mistaken for a deleted one
+        Map<Long, SearchDocument> indexed = new HashMap<>();
+        for (SearchDocument document : index.documents()) {
+            indexed.put(document.contentId(), document);
+        }
+        long since = Math.max(0, index.maxUpdatedAtMillis() - properties.getCatchUpOverlap().toMillis());
+        List<SearchDocument> changed = new ArrayList<>();
+        for (Content content : repository.findUpdatedSince(Instant.ofEpochMilli(since))) {
+            SearchDocument document = toDocument(content);
+            // The overlap re-reads rows already indexed; replacing them unchanged would only add dead slots
+            if (!document.equals(indexed.get(document.contentId()))) {
+                changed.add(document);
+            }
+        }
+        index.upsertAll(changed);
+
+        Set<Long> existing = new HashSet<>(repository.findAllIds());
+        int removed = 0;
+        for (Long contentId : indexed.keySet()) {
+            if (!existing.contains(contentId) && index.remove(contentId)) {
+                removed++;
+            }
+        }
+        return changed.size() + removed;
+    }
+
+    /**
+     * Write the current index to the snapshot file.
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        SearchIndexSnapshots.write(properties.getSnapshotPath(), index.documents());
+    }
+
+    /**
+     * Map a content row to its searchable form, lifting keywords from metadata.
+     * @param content content row
+     * @return search document
+     */
+    SearchDocument toDocument(final Content content) {
+        long updatedAt = content.updatedAt() != null ? content.updatedAt().toEpochMilli() : 0L;
+        return new SearchDocument(content.id(), content.title(), content.contentType(), content.instrument(),
+                content.difficultyLevel(), keywords(content), updatedAt);
+    }
+
+    private List<String> keywords(final Content content) {
+        if (content.metadata() == null) {
+            return List.of();
+        }
+        try {
+            JsonNode metadata = objectMapper.readTree(content.metadata());
+            List<String> keywords = new ArrayList<>();
+            for (String field : KEYWORD_FIELDS) {
+                JsonNode value = metadata.path(field);
+                if (value.isArray()) {
+                    value.forEach(item -> {
+                        if (item.isTextual()) {
+                            keywords.add(item.asText());
+                        }
+                    });
+                } else if (value.isTextual()) {
+                    keywords.add(value.asText());
+                }
+            }
+            return keywords;
+        } catch (JsonProcessingException e) {
+            LOGGER.debug("Ignoring unparsable metadata of content {}: {}", content.id(), e.getOriginalMessage());
+            return List.of();
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            index.upsertAll(SearchIndexSnapshots.read(properties.getSnapshotPath()));
+            int caughtUp = catchUp();
+            LOGGER.info("Loaded search index snapshot with {} documents ({} changed since) in {} ms", index.size(),
+                    caughtUp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return;
+        } catch (NoSuchFileException e) {
+            LOGGER.info("No search index snapshot at {}, building from the catalog", properties.getSnapshotPath());
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable search index snapshot: {}", e.toString());
+        }
+        List<SearchDocument> documents = new ArrayList<>();
+        repository.forEach(content -> documents.add(toDocument(content)));
+        index.upsertAll(documents);
+        LOGGER.info("Built search index with {} documents in {} ms", index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        snapshotQuietly();
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Search index catch-up failed: {}", e.toString());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write search index snapshot: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Search index load failed, will retry on the next catch-up: {}", e.toString());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long refreshMs = properties.getRefreshInterval().toMillis();
+        long snapshotMs = properties.getSnapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::catchUpQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotMs, snapshotMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            if (index.size() > 0) {
+                snapshotQuietly();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
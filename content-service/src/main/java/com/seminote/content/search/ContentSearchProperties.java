@@ -0,0 +1,74 @@
+package com.seminote.content.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the lesson search index.
+ */
+@ConfigurationProperties(prefix = "seminote.content.search")
+public class ContentSearchProperties {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int DEFAULT_MAX_LIMIT = 100;
+    private static final long DEFAULT_REFRESH_SECONDS = 30;
+    private static final long DEFAULT_SNAPSHOT_MINUTES = 10;
+    private static final long DEFAULT_CATCH_UP_OVERLAP_MINUTES = 5;
+
+    private Path snapshotPath = Path.of("search-index.bin");
+    private Duration refreshInterval = Duration.ofSeconds(DEFAULT_REFRESH_SECONDS);
+    private Duration snapshotInterval = Duration.ofMinutes(DEFAULT_SNAPSHOT_MINUTES);
+    private Duration catchUpOverlap = Duration.ofMinutes(DEFAULT_CATCH_UP_OVERLAP_MINUTES);
+    private int defaultLimit = DEFAULT_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(final Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(final Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public void setSnapshotInterval(final Duration snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public Duration getCatchUpOverlap() {
+        return catchUpOverlap;
+    }
+
+    public void setCatchUpOverlap(final Duration catchUpOverlap) {
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(final int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
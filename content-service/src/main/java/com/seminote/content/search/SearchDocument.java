@@ -0,0 +1,18 @@
+package com.seminote.content.search;
+
+import java.util.List;
+
+/**
+ * The searchable view of one content row.
+ *
+ * @param contentId content id
+ * @param title display title, the main search field
+ * @param contentType content type facet
+ * @param instrument instrument facet
+ * @param difficultyLevel difficulty facet
+ * @param keywords extra terms from metadata such as tags and composer
+ * @param updatedAtMillis last modification time, used to catch up after a snapshot load
+ */
+public record SearchDocument(long contentId, String title, String contentType, String instrument,
+                             String difficultyLevel, List<String> keywords, long updatedAtMillis) {
+}
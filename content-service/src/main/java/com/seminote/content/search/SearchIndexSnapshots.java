@@ -0,0 +1,111 @@
+package com.seminote.content.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary snapshots of the search index documents.
+ *
+ * Only documents are stored; postings are rebuilt in memory on load, which
+ * takes a fraction of the time of re-reading the catalog and keeps the file
+ * independent of the index layout. Files are written next to the target and
+ * moved into place atomically, so a crash never leaves a torn snapshot.
+ */
+public final class SearchIndexSnapshots {
+
+    private static final int MAGIC = 0x534e5358;
+    private static final int VERSION = 1;
+
+    private SearchIndexSnapshots() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Write documents to a snapshot file.
+     * @param path target file
+     * @param documents documents to store
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Path path, final List<SearchDocument> documents) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(documents.size());
+                for (SearchDocument document : documents) {
+                    out.writeLong(document.contentId());
+                    writeString(out, document.title());
+                    writeString(out, document.contentType());
+                    writeString(out, document.instrument());
+                    writeString(out, document.difficultyLevel());
+                    List<String> keywords = document.keywords() != null ? document.keywords() : List.of();
+                    out.writeInt(keywords.size());
+                    for (String keyword : keywords) {
+                        writeString(out, keyword);
+                    }
+                    out.writeLong(document.updatedAtMillis());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read documents from a snapshot file.
+     * @param path snapshot file
+     * @return stored documents
+     * @throws IOException if the file is missing, truncated or of another format
+     */
+    public static List<SearchDocument> read(final Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a search index snapshot: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported search index snapshot version " + version);
+            }
+            int count = in.readInt();
+            List<SearchDocument> documents = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long contentId = in.readLong();
+                String title = readString(in);
+                String contentType = readString(in);
+                String instrument = readString(in);
+                String difficultyLevel = readString(in);
+                int keywordCount = in.readInt();
+                List<String> keywords = new ArrayList<>(keywordCount);
+                for (int k = 0; k < keywordCount; k++) {
+                    keywords.add(readString(in));
+                }
+                documents.add(new SearchDocument(contentId, title, contentType, instrument, difficultyLevel,
+                        keywords, in.readLong()));
+            }
+            return documents;
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
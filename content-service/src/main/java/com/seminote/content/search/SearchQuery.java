@@ -0,0 +1,13 @@
+package com.seminote.content.search;
+
+/**
+ * A lesson search.
+ *
+ * @param text free text, matched against titles and keywords; empty browses everything
+ * @param instrument optional instrument filter
+ * @param difficultyLevel optional difficulty filter
+ * @param contentType optional content type filter
+ * @param limit maximum hits returned
+ */
+public record SearchQuery(String text, String instrument, String difficultyLevel, String contentType, int limit) {
+}
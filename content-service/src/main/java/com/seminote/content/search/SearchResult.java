@@ -0,0 +1,29 @@
+package com.seminote.content.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search hits with facet counts over all matches.
+ *
+ * @param total number of matching documents
+ * @param hits best hits, highest score first
+ * @param facets facet name to value counts, over all matches after filters
+ * @param tookMicros time spent in the index
+ */
+public record SearchResult(int total, List<Hit> hits, Map<String, Map<String, Integer>> facets, long tookMicros) {
+
+    /**
+     * One search hit.
+     *
+     * @param contentId content id
+     * @param title display title
+     * @param contentType content type
+     * @param instrument instrument
+     * @param difficultyLevel difficulty level
+     * @param score relevance, higher is better
+     */
+    public record Hit(long contentId, String title, String contentType, String instrument, String difficultyLevel,
+                      int score) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.seminote.content.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lowercase, accent-free alphanumeric terms.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {
+        // Private constructor to prevent instantiation
+    }
+
+    static List<String> tokenize(final String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    /**
+     * Whether two terms are within {@code max} insertions, deletions or substitutions.
+     */
+    static boolean withinEdits(final String a, final String b, final int max) {
+        return max == 1 ? withinOneEdit(a, b) : boundedEditDistance(a, b, max) <= max;
+    }
+
+    /** Linear check for the common single-typo case. */
+    private static boolean withinOneEdit(final String a, final String b) {
+        String shorter = a.length() <= b.length() ? a : b;
+        String longer = shorter == a ? b : a;
+        if (longer.length() - shorter.length() > 1) {
+            return false;
+        }
+        int prefix = 0;
+        while (prefix < shorter.length() && shorter.charAt(prefix) == longer.charAt(prefix)) {
+            prefix++;
+        }
+        // Skip one char of the longer term (insertion) or of both (substitution), the rest must match
+        int offset = longer.length() == shorter.length() ? 1 : 0;
+        return shorter.regionMatches(prefix + offset, longer, prefix + 1, shorter.length() - prefix - offset);
+    }
+
+    /**
+     * Levenshtein distance if it is at most {@code max}, otherwise {@code max + 1}.
+     */
+    static int boundedEditDistance(final String a, final String b, final int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.seminote.content.asset;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetControllerTest {
+
+    private static final String PATH = "/content/piano/basic-scales.json";
+    private static final String BODY = "{\"scale\":\"C major\",\"notes\":[60,62,64,65,67,69,71,72]}";
+
+    @TempDir
+    private Path root;
+
+    private AssetController controller;
+
+    @BeforeEach
+    void createAssets() throws IOException {
+        Path assets = root.resolve("assets");
+        Path dir = Files.createDirectories(assets.resolve("content/piano"));
+        Files.writeString(dir.resolve("basic-scales.json"), BODY);
+        Files.write(dir.resolve("basic-scales.json.gz"), new byte[] {31, -117, 8, 0});
+        Files.writeString(root.resolve("secret.txt"), "nope");
+        AssetProperties properties = new AssetProperties();
+        properties.setRoot(assets);
+        properties.setSendfileThreshold(DataSize.ofBytes(16));
+        controller = new AssetController(new AssetResolver(properties.getRoot()), properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesWholeFileWithValidators() throws IOException {
+        MockHttpServletResponse response = serve(request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(BODY, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("application/json", response.getContentType());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+    }
+
+    @Test
+    void servesSingleRange() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=2-6");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(BODY.substring(2, 7), response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("bytes 2-6/" + BODY.length(), response.getHeader("Content-Range"));
+        assertEquals(5, response.getContentLengthLong());
+    }
+
+    @Test
+    void servesSuffixRangeAndRejectsUnsatisfiable() throws IOException {
+        MockHttpServletRequest suffix = request();
+        suffix.addHeader("Range", "bytes=-4");
+        assertEquals(BODY.substring(BODY.length() - 4), serve(suffix).getContentAsString(StandardCharsets.UTF_8));
+
+        MockHttpServletRequest beyond = request();
+        beyond.addHeader("Range", "bytes=9999-");
+        MockHttpServletResponse response = serve(beyond);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + BODY.length(), response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeIsStale() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=0-1");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(BODY, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void answersConditionalRequestsWith304() throws IOException {
+        String etag = serve(request()).getHeader("ETag");
+        MockHttpServletRequest request = request();
+        request.addHeader("If-None-Match", etag);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void prefersPrecompressedSibling() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Accept-Encoding", "br;q=0, gzip");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("application/json", response.getContentType());
+        assertEquals(4, response.getContentAsByteArray().length);
+        assertTrue(response.getHeader("ETag").endsWith("-gzip\""));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    void handsLargeResponsesToSendfile() throws IOException {
+        MockHttpServletRequest request = request();
+        request.setAttribute(AssetController.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader("Range", "bytes=10-");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(10L, request.getAttribute(AssetController.SENDFILE_START));
+        assertEquals((long) BODY.length(), request.getAttribute(AssetController.SENDFILE_END));
+        assertTrue(((String) request.getAttribute(AssetController.SENDFILE_FILENAME)).endsWith("basic-scales.json"));
+    }
+
+    @Test
+    void rejectsPathsOutsideTheRootAndMissingFiles() throws IOException {
+        MockHttpServletResponse escaped = new MockHttpServletResponse();
+        controller.serve("/content/../../secret.txt", request(), escaped);
+        assertEquals(404, escaped.getStatus());
+
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        controller.serve("/content/piano/missing.json", request(), missing);
+        assertEquals(404, missing.getStatus());
+    }
+
+    private MockHttpServletResponse serve(final MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(PATH, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/v1/content/assets" + PATH);
+    }
+}
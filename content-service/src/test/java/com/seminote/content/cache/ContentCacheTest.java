@@ -0,0 +1,222 @@
+package com.seminote.content.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.seminote.content.catalog.Content;
+import com.seminote.content.catalog.ContentChangedEvent;
+import com.seminote.content.catalog.ContentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCacheTest {
+
+    private final CountingRepository repository = new CountingRepository();
+    private final MapL2Cache l2 = new MapL2Cache();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ContentCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new ContentCache(new ContentCacheProperties(), l2, repository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), registry);
+    }
+
+    @Test
+    void servesRepeatedReadsFromL1() {
+        CachedContent first = cache.get(1L);
+        CachedContent second = cache.get(1L);
+
+        assertSame(first, second);
+        assertEquals(1, repository.loads.get());
+        String json = new String(first.body(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"title\":\"Basic Piano Scales\""));
+        assertTrue(json.contains("\"metadata\":{\"bpm\":60}"));
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+        repository.delayMillis = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<CachedContent>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> cache.get(1L)));
+            }
+            for (Future<CachedContent> result : results) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, repository.loads.get());
+    }
+
+    @Test
+    void fallsBackToL2BeforeDatabase() {
+        CachedContent loaded = cache.get(1L);
+        cache.invalidateLocal(1L);
+
+        CachedContent shared = cache.get(1L);
+
+        assertEquals(1, repository.loads.get());
+        assertEquals(loaded.etag(), shared.etag());
+        assertEquals(1.0, registry.counter("seminote.content.cache.l2", "result", "hit").count());
+    }
+
+    @Test
+    void changeEventInvalidatesEveryLevel() {
+        CachedContent before = cache.get(1L);
+        repository.title = "Basic Piano Scales (revised)";
+
+        cache.onContentChanged(new ContentChangedEvent(1L));
+        CachedContent after = cache.get(1L);
+
+        assertEquals(2, repository.loads.get());
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(List.of(1L), l2.published);
+    }
+
+    @Test
+    void loadRacingAnEvictionDoesNotRefillL2() {
+        // Another instance updates the row and evicts it while this one is still reading the old version
+        repository.duringLoad = () -> l2.evict(1L);
+
+        assertNotNull(cache.get(1L));
+        assertNull(l2.entries.get(1L));
+
+        repository.duringLoad = null;
+        cache.invalidateLocal(1L);
+        cache.get(1L);
+        assertNotNull(l2.entries.get(1L), "A load with no eviction in flight fills L2");
+    }
+
+    @Test
+    void l2FailuresDegradeToMisses() {
+        l2.failing = true;
+
+        assertNotNull(cache.get(1L));
+        assertEquals(1, repository.loads.get());
+    }
+
+    @Test
+    void missingContentIsNotCached() {
+        assertNull(cache.get(404L));
+        assertNull(cache.get(404L));
+        assertEquals(2, repository.loads.get());
+    }
+
+    @Test
+    void matchesIfNoneMatchLists() {
+        String etag = ETags.strong("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("\"other\", W/" + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches("\"other\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    @Test
+    void roundTripsRedisEncoding() {
+        CachedContent content = CachedContent.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        CachedContent decoded = CachedContent.decode(content.encode());
+
+        assertEquals(content.etag(), decoded.etag());
+        assertArrayEquals(content.body(), decoded.body());
+    }
+
+    private static final class CountingRepository extends ContentRepository {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private volatile String title = "Basic Piano Scales";
+        private volatile long delayMillis;
+        private volatile Runnable duringLoad;
+
+        CountingRepository() {
+            super(null);
+        }
+
+        @Override
+        public Content findById(final long id) {
+            loads.incrementAndGet();
+            Runnable hook = duringLoad;
+            if (hook != null) {
+                hook.run();
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (id != 1L) {
+                return null;
+            }
+            return new Content(id, title, "lesson", "piano", "beginner", "/content/piano/basic-scales.json",
+                    "{\"bpm\":60}", Instant.parse("2026-01-01T00:00:00Z"));
+        }
+    }
+
+    private static final class MapL2Cache implements ContentL2Cache {
+
+        private final Map<Long, CachedContent> entries = new ConcurrentHashMap<>();
+        private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+        private final List<Long> published = new ArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public CachedContent get(final long contentId) {
+            check();
+            return entries.get(contentId);
+        }
+
+        @Override
+        public long generation(final long contentId) {
+            check();
+            return generations.getOrDefault(contentId, 0L);
+        }
+
+        @Override
+        public synchronized void put(final long contentId, final CachedContent content, final long generation) {
+            check();
+            if (generation(contentId) == generation) {
+                entries.put(contentId, content);
+            }
+        }
+
+        @Override
+        public synchronized void evict(final long contentId) {
+            check();
+            entries.remove(contentId);
+            generations.merge(contentId, 1L, Long::sum);
+        }
+
+        @Override
+        public void publishInvalidation(final long contentId) {
+            check();
+            published.add(contentId);
+        }
+
+        private void check() {
+            if (failing) {
+                throw new IllegalStateException("redis down");
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.seminote.content.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooccurrenceMatrixTest {
+
+    private static final int TOP_K = 5;
+    private static final int MAX_HISTORY = 100;
+
+    private static Map<Long, int[]> histories() {
+        Map<Long, int[]> histories = new HashMap<>();
+        histories.put(1L, new int[] {10, 20, 30});
+        histories.put(2L, new int[] {10, 20});
+        histories.put(3L, new int[] {20, 40});
+        histories.put(4L, new int[] {10});
+        return histories;
+    }
+
+    private static List<Long> ids(final List<Recommendation> recommendations) {
+        return recommendations.stream().map(Recommendation::contentId).toList();
+    }
+
+    @Test
+    void ranksNeighboursByCosineSimilarity() {
+        CooccurrenceMatrix matrix = CooccurrenceMatrix.build(histories(), TOP_K, MAX_HISTORY, null);
+
+        List<Recommendation> similar = matrix.similar(10, TOP_K);
+
+        assertEquals(List.of(20L, 30L), ids(similar));
+        assertEquals(2 / Math.sqrt(3 * 3), similar.get(0).score(), 1e-6);
+        assertEquals(1 / Math.sqrt(3 * 1), similar.get(1).score(), 1e-6);
+    }
+
+    @Test
+    void recommendsUnpracticedItemsThenPopularOnes() {
+        CooccurrenceMatrix matrix = CooccurrenceMatrix.build(histories(), TOP_K, MAX_HISTORY, null);
+
+        assertEquals(List.of(20L, 30L, 40L), ids(matrix.recommend(4L, 3)));
+        assertEquals(List.of(30L, 40L), ids(matrix.recommend(2L, 2)));
+        assertEquals(2, matrix.recommend(99L, 2).size());
+    }
+
+    @Test
+    void incrementalUpdatesMatchAFullBuildForTouchedItems() {
+        CooccurrenceMatrix incremental = CooccurrenceMatrix.empty(TOP_K, MAX_HISTORY);
+        for (long userId = 1; userId <= 4; userId++) {
+            for (int contentId : histories().get(userId)) {
+                assertTrue(incremental.record(userId, contentId));
+            }
+        }
+        CooccurrenceMatrix full = CooccurrenceMatrix.build(histories(), TOP_K, MAX_HISTORY, null);
+
+        assertFalse(incremental.record(1L, 10));
+        assertEquals(full.similar(10, TOP_K), incremental.similar(10, TOP_K));
+        assertEquals(ids(full.recommend(2L, 1)), ids(incremental.recommend(2L, 1)));
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentHistory() {
+        Map<Long, int[]> histories = Map.of(1L, new int[] {1, 2, 3, 2});
+        CooccurrenceMatrix matrix = CooccurrenceMatrix.build(histories, TOP_K, 2, null);
+
+        assertEquals(List.of(2L), ids(matrix.similar(3, TOP_K)));
+        assertTrue(matrix.similar(1, TOP_K).isEmpty());
+    }
+
+    @Test
+    void parallelBuildMatchesSerialBuild() {
+        Random random = new Random(7);
+        Map<Long, int[]> histories = new HashMap<>();
+        for (long userId = 0; userId < 2_000; userId++) {
+            int[] history = new int[1 + random.nextInt(20)];
+            for (int i = 0; i < history.length; i++) {
+                history[i] = random.nextInt(300);
+            }
+            histories.put(userId, history);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CooccurrenceMatrix parallel = CooccurrenceMatrix.build(histories, TOP_K, MAX_HISTORY, pool);
+            CooccurrenceMatrix serial = CooccurrenceMatrix.build(histories, TOP_K, MAX_HISTORY, null);
+
+            assertEquals(serial.itemCount(), parallel.itemCount());
+            for (int contentId = 0; contentId < 300; contentId++) {
+                assertEquals(serial.similar(contentId, TOP_K), parallel.similar(contentId, TOP_K));
+            }
+            assertEquals(serial.recommend(42L, 10), parallel.recommend(42L, 10));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.seminote.content.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentSearchIndexTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static SearchDocument doc(final long id, final String title, final String instrument,
+                                      final String difficulty, final String... keywords) {
+        return new SearchDocument(id, title, "lesson", instrument, difficulty, List.of(keywords), id * 1000);
+    }
+
+    private static ContentSearchIndex catalog() {
+        ContentSearchIndex index = new ContentSearchIndex();
+        index.upsertAll(List.of(
+                doc(1, "F\u00fcr Elise", "piano", "intermediate", "beethoven"),
+                doc(2, "Moonlight Sonata", "piano", "advanced", "beethoven"),
+                doc(3, "Minuet in G", "piano", "beginner", "bach"),
+                doc(4, "Canon in D", "violin", "intermediate", "pachelbel"),
+                doc(5, "Scales in G major", "piano", "beginner")));
+        return index;
+    }
+
+    private static List<Long> ids(final SearchResult result) {
+        return result.hits().stream().map(SearchResult.Hit::contentId).toList();
+    }
+
+    @Test
+    void matchesPrefixesAndFoldsAccents() {
+        ContentSearchIndex index = catalog();
+
+        assertEquals(List.of(2L), ids(index.search(new SearchQuery("moonl", null, null, null, 10))));
+        assertEquals(List.of(1L), ids(index.search(new SearchQuery("fur eli", null, null, null, 10))));
+    }
+
+    @Test
+    void toleratesTyposButRanksExactMatchesFirst() {
+        ContentSearchIndex index = catalog();
+
+        assertEquals(List.of(2L), ids(index.search(new SearchQuery("sonsta", null, null, null, 10))));
+        assertEquals(List.of(1L, 2L), ids(index.search(new SearchQuery("beethovn", null, null, null, 10))));
+
+        index.upsert(doc(6, "Sonata practice", "piano", "beginner"));
+        index.upsert(doc(7, "Sonatas for beginners", "piano", "beginner"));
+        List<Long> ranked = ids(index.search(new SearchQuery("sonata", null, null, null, 10)));
+        assertEquals(List.of(2L, 6L, 7L), ranked);
+    }
+
+    @Test
+    void filtersAndCountsFacets() {
+        ContentSearchIndex index = catalog();
+
+        SearchResult result = index.search(new SearchQuery("in", "piano", null, null, 10));
+
+        assertEquals(2, result.total());
+        assertEquals(Map.of("piano", 2), result.facets().get(ContentSearchIndex.INSTRUMENT));
+        assertEquals(Map.of("beginner", 2), result.facets().get(ContentSearchIndex.DIFFICULTY));
+        assertEquals(0, index.search(new SearchQuery("", "cello", null, null, 10)).total());
+    }
+
+    @Test
+    void browsesEverythingWithoutTextAndHonoursLimit() {
+        SearchResult result = catalog().search(new SearchQuery(null, null, "beginner", null, 1));
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(3L), ids(result));
+    }
+
+    @Test
+    void updatesReplaceAndRemovalsHideDocuments() {
+        ContentSearchIndex index = catalog();
+
+        index.upsert(doc(2, "Pathetique Sonata", "piano", "advanced"));
+        index.remove(3);
+
+        assertTrue(ids(index.search(new SearchQuery("moonlight", null, null, null, 10))).isEmpty());
+        assertEquals(List.of(2L), ids(index.search(new SearchQuery("pathetique", null, null, null, 10))));
+        assertTrue(ids(index.search(new SearchQuery("minuet", null, null, null, 10))).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void compactsAfterManyUpdates() {
+        ContentSearchIndex index = catalog();
+
+        for (int i = 0; i < 500; i++) {
+            index.upsert(doc(4, "Canon in D rev " + i, "violin", "intermediate"));
+        }
+
+        assertEquals(5, index.size());
+        assertEquals(List.of(4L), ids(index.search(new SearchQuery("canon rev 499", null, null, null, 10))));
+    }
+
+    @Test
+    void snapshotRoundTripRestoresSearchResults() throws Exception {
+        ContentSearchIndex index = catalog();
+        Path snapshot = tempDir.resolve("index.bin");
+
+        SearchIndexSnapshots.write(snapshot, index.documents());
+        ContentSearchIndex restored = new ContentSearchIndex();
+        restored.upsertAll(SearchIndexSnapshots.read(snapshot));
+
+        assertEquals(index.size(), restored.size());
+        assertEquals(index.maxUpdatedAtMillis(), restored.maxUpdatedAtMillis());
+        assertEquals(List.of(1L), ids(restored.search(new SearchQuery("elise", null, null, null, 10))));
+    }
+}
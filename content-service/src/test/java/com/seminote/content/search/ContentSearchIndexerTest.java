@@ -0,0 +1,88 @@
+package com.seminote.content.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.content.catalog.Content;
+import com.seminote.content.catalog.ContentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContentSearchIndexerTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    private final TableRepository repository = new TableRepository();
+    private final ContentSearchIndex index = new ContentSearchIndex();
+    private final ContentSearchIndexer indexer = new ContentSearchIndexer(index, repository,
+            new ContentSearchProperties(), new ObjectMapper());
+
+    private static Content row(final long id, final String title, final Instant updatedAt) {
+        return new Content(id, title, "lesson", "piano", "beginner", null, null, updatedAt);
+    }
+
+    private List<Long> search(final String text) {
+        return index.search(new SearchQuery(text, null, null, null, 10)).hits().stream()
+                .map(SearchResult.Hit::contentId).toList();
+    }
+
+    @Test
+    void picksUpRowsCommittedAfterANewerRowWasIndexed() {
+        repository.put(row(1, "Minuet in G", T0));
+        repository.put(row(2, "Moonlight Sonata", T0.plusSeconds(60)));
+        indexer.catchUp();
+
+        // Stamped before row 2 but committed by another instance only now
+        repository.put(row(3, "Canon in D", T0.plusSeconds(30)));
+
+        assertEquals(1, indexer.catchUp());
+        assertEquals(List.of(3L), search("canon"));
+        assertEquals(0, indexer.catchUp(), "Rows re-read in the overlap are not re-indexed when unchanged");
+    }
+
+    @Test
+    void removesRowsDeletedThroughOtherInstances() {
+        repository.put(row(1, "Minuet in G", T0));
+        repository.put(row(2, "Moonlight Sonata", T0));
+        indexer.catchUp();
+
+        repository.rows.remove(2L);
+
+        assertEquals(1, indexer.catchUp());
+        assertEquals(List.of(), search("moonlight"));
+        assertEquals(1, index.size());
+    }
+
+    private static final class TableRepository extends ContentRepository {
+
+        private final Map<Long, Content> rows = new ConcurrentHashMap<>();
+
+        TableRepository() {
+            super(null);
+        }
+
+        void put(final Content content) {
+            rows.put(content.id(), content);
+        }
+
+        @Override
+        public Content findById(final long id) {
+            return rows.get(id);
+        }
+
+        @Override
+        public List<Long> findAllIds() {
+            return new ArrayList<>(rows.keySet());
+        }
+
+        @Override
+        public List<Content> findUpdatedSince(final Instant since) {
+            return rows.values().stream().filter(row -> !row.updatedAt().isBefore(since)).toList();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+#!/bin/sh
+# Seminote service image entrypoint
+#
+#   service-entrypoint.sh prepare <true|false>   image build, runtime stage: set up fast startup or not
+#   service-entrypoint.sh run                     container entrypoint
+#
+# Standard images run the fat jar as is. Fast-startup images hold a jar built with
+# -PfastStartup (Spring AOT classes included): it is extracted so classes load from plain
+# jars, and a training run records an AppCDS archive with the same JVM the container uses.
+# The training run exits right after the context refresh, before any lifecycle bean
+# starts, so nothing connects to a database or broker during the image build. It gets
+# throwaway secrets so services that require them can refresh; none end up in the image.
+set -eu
+
+APP_DIR=/app
+EXTRACTED="$APP_DIR/application"
+ARCHIVE="$EXTRACTED/application.jsa"
+
+command="${1:-run}"
+[ $# -gt 0 ] && shift
+
+case "$command" in
+    prepare)
+        if [ "${1:-false}" = "true" ]; then
+            java -Djarmode=tools -jar "$APP_DIR/app.jar" extract --destination "$EXTRACTED"
+            training_secret=$(head -c 48 /dev/urandom | base64 | tr -d '\n')
+            SEMINOTE_SECURITY_JWT_SECRET="$training_secret" SEMINOTE_PAYMENT_WEBHOOK_SECRET="$training_secret" \
+                java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+                -jar "$EXTRACTED/application.jar"
+            rm "$APP_DIR/app.jar"
+        fi
+        ;;
+    run)
+        if [ -f "$ARCHIVE" ]; then
+            # shellcheck disable=SC2086
+            exec java -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true ${JAVA_OPTS:-} \
+                -jar "$EXTRACTED/application.jar" "$@"
+        fi
+        # shellcheck disable=SC2086
+        exec java ${JAVA_OPTS:-} -jar "$APP_DIR/app.jar" "$@"
+        ;;
+    *)
+        echo "Usage: $0 prepare <true|false> | run [args]" >&2
+        exit 2
+        ;;
+esac
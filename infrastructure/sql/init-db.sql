@@ -47,16 +47,82 @@ CREATE TABLE IF NOT EXISTS progress (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- progress-service flushes coalesced updates with ON CONFLICT (user_id, content_id);
+-- segment is the newest local write-ahead log segment each node has flushed
+CREATE UNIQUE INDEX IF NOT EXISTS idx_progress_user_content ON progress(user_id, content_id);
+
+CREATE TABLE IF NOT EXISTS progress_wal_checkpoints (
+    node_id VARCHAR(100) PRIMARY KEY,
+    segment BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Achievement counters, one row per student; metrics are indexed by the engine's metric ordinal
+CREATE TABLE IF NOT EXISTS achievement_counters (
+    user_id INTEGER PRIMARY KEY REFERENCES users(id),
+    metrics BIGINT[] NOT NULL,
+    completed_content INTEGER[] NOT NULL,
+    current_streak INTEGER NOT NULL DEFAULT 0,
+    last_practice_day DATE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS user_achievements (
+    user_id INTEGER NOT NULL REFERENCES users(id),
+    milestone_id VARCHAR(100) NOT NULL,
+    unlocked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, milestone_id)
+);
+
 -- Create analytics table for analytics service
+-- Range-partitioned by timestamp; analytics-service creates upcoming partitions
+-- and drops expired ones. Rows outside every partition land in analytics_default.
 CREATE TABLE IF NOT EXISTS analytics (
-    id SERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id INTEGER REFERENCES users(id),
     event_type VARCHAR(100) NOT NULL,
     event_data JSONB,
     session_id VARCHAR(255),
-    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS analytics_default PARTITION OF analytics DEFAULT;
+
+-- Events the database rejected for good (for example an unknown user_id), set aside
+-- by analytics-service so the rest of the stream keeps flowing; no foreign keys
+CREATE TABLE IF NOT EXISTS analytics_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    event_type TEXT NOT NULL,
+    event_data TEXT,
+    session_id TEXT,
+    timestamp TIMESTAMP NOT NULL,
+    reason TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Per-user daily rollups maintained incrementally by analytics-service
+-- active_minutes has one bit per minute of the UTC day with at least one event;
+-- latency_histogram holds counts for the fixed latency buckets used by the service.
+CREATE TABLE IF NOT EXISTS analytics_daily_rollups (
+    user_id INTEGER NOT NULL REFERENCES users(id),
+    day DATE NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    active_minutes BIT(1440) NOT NULL,
+    latency_histogram BIGINT[] NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, day)
+);
+
+-- Element-wise sum of two equally sized histograms
+CREATE OR REPLACE FUNCTION analytics_merge_histogram(a BIGINT[], b BIGINT[]) RETURNS BIGINT[] AS $$
+    SELECT ARRAY(
+        SELECT COALESCE(x, 0) + COALESCE(y, 0)
+        FROM unnest(a, b) WITH ORDINALITY AS t(x, y, n)
+        ORDER BY n)
+$$ LANGUAGE SQL IMMUTABLE;
+
 -- Create payments table for payment service
 CREATE TABLE IF NOT EXISTS payments (
     id SERIAL PRIMARY KEY,
@@ -70,6 +136,65 @@ CREATE TABLE IF NOT EXISTS payments (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Subscriptions renewed by payment-service's renewal engine. renews_at is the
+-- end of the current period; next_attempt_at is when the engine next charges,
+-- later than renews_at while a declined renewal waits for its retry.
+CREATE TABLE IF NOT EXISTS subscriptions (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id),
+    plan VARCHAR(50) NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    currency VARCHAR(3) NOT NULL DEFAULT 'USD',
+    period_months INTEGER NOT NULL DEFAULT 1,
+    status VARCHAR(20) NOT NULL DEFAULT 'active',
+    renews_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    failed_attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- One invoice per subscription period, pointing at the latest charge attempt
+CREATE TABLE IF NOT EXISTS invoices (
+    id BIGSERIAL PRIMARY KEY,
+    subscription_id BIGINT NOT NULL REFERENCES subscriptions(id),
+    user_id INTEGER NOT NULL REFERENCES users(id),
+    period_start TIMESTAMP NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    transaction_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (subscription_id, period_start)
+);
+
+-- Renewal runs and their user id range partitions. Each partition is claimed
+-- by one node under a lease and checkpoints its keyset cursor with every
+-- committed chunk, so an interrupted run resumes where it stopped.
+CREATE TABLE IF NOT EXISTS renewal_runs (
+    run_id VARCHAR(100) PRIMARY KEY,
+    as_of TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS renewal_partitions (
+    run_id VARCHAR(100) NOT NULL REFERENCES renewal_runs(run_id),
+    partition_index INTEGER NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    last_user_id BIGINT NOT NULL,
+    last_subscription_id BIGINT NOT NULL,
+    processed BIGINT NOT NULL DEFAULT 0,
+    renewed BIGINT NOT NULL DEFAULT 0,
+    declined BIGINT NOT NULL DEFAULT 0,
+    deferred BIGINT NOT NULL DEFAULT 0,
+    claimed_by VARCHAR(100),
+    lease_until TIMESTAMP,
+    completed_at TIMESTAMP,
+    PRIMARY KEY (run_id, partition_index)
+);
+
 -- Create notifications table for notification service
 CREATE TABLE IF NOT EXISTS notifications (
     id SERIAL PRIMARY KEY,
@@ -81,6 +206,17 @@ CREATE TABLE IF NOT EXISTS notifications (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Signaling room members, managed by user-service: the user who opens a room is
+-- its only teacher and adds the students; members are issued room tickets
+CREATE TABLE IF NOT EXISTS room_members (
+    room VARCHAR(128) NOT NULL,
+    user_id INTEGER NOT NULL REFERENCES users(id),
+    role VARCHAR(16) NOT NULL CHECK (role IN ('student', 'teacher')),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (room, user_id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_room_members_teacher ON room_members(room) WHERE role = 'teacher';
+
 -- Insert initial health check data
 INSERT INTO health_check (service_name, status) VALUES 
     ('database', 'healthy'),
@@ -104,8 +240,11 @@ ON CONFLICT DO NOTHING;
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_progress_user_id ON progress(user_id);
-CREATE INDEX IF NOT EXISTS idx_analytics_user_id ON analytics(user_id);
+-- content-service polls recently updated progress rows for incremental recommendations
+CREATE INDEX IF NOT EXISTS idx_progress_updated_at ON progress(updated_at);
+CREATE INDEX IF NOT EXISTS idx_analytics_user_timestamp ON analytics(user_id, timestamp);
 CREATE INDEX IF NOT EXISTS idx_analytics_timestamp ON analytics(timestamp);
 CREATE INDEX IF NOT EXISTS idx_payments_user_id ON payments(user_id);
+CREATE INDEX IF NOT EXISTS idx_subscriptions_active_user ON subscriptions(user_id, id) WHERE status = 'active';
 CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON notifications(user_id);
 CREATE INDEX IF NOT EXISTS idx_health_check_service ON health_check(service_name);
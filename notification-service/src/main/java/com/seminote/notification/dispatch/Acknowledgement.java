@@ -0,0 +1,22 @@
+package com.seminote.notification.dispatch;
+
+/**
+ * Settles one broker delivery.
+ */
+public interface Acknowledgement {
+
+    /**
+     * The notification is stored or handed on; the broker can forget the message.
+     */
+    void ack();
+
+    /**
+     * The notification was not stored; the broker should deliver the message again.
+     */
+    void requeue();
+
+    /**
+     * The message can never be processed; the broker should dead-letter it.
+     */
+    void reject();
+}
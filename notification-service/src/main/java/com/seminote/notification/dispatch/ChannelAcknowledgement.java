@@ -0,0 +1,53 @@
+package com.seminote.notification.dispatch;
+
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Settles a RabbitMQ delivery on the channel it arrived on.
+ *
+ * If the channel has closed in the meantime the broker has already requeued
+ * the message, so a failure here is only logged.
+ */
+final class ChannelAcknowledgement implements Acknowledgement {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelAcknowledgement.class);
+
+    private final Channel channel;
+    private final long deliveryTag;
+
+    ChannelAcknowledgement(final Channel channel, final long deliveryTag) {
+        this.channel = channel;
+        this.deliveryTag = deliveryTag;
+    }
+
+    @Override
+    public void ack() {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not ack notification delivery {}: {}", deliveryTag, e.toString());
+        }
+    }
+
+    @Override
+    public void requeue() {
+        try {
+            channel.basicNack(deliveryTag, false, true);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not requeue notification delivery {}: {}", deliveryTag, e.toString());
+        }
+    }
+
+    @Override
+    public void reject() {
+        try {
+            channel.basicReject(deliveryTag, false);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not reject notification delivery {}: {}", deliveryTag, e.toString());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.seminote.notification.dispatch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes notification batches to the {@code notifications} table.
+ *
+ * The whole batch is sent as column arrays and expanded with {@code unnest},
+ * so a thousand rows are one statement and one round trip, and the batch is
+ * atomic without an explicit transaction. Rows are inserted and returned in
+ * array order. Timestamps are stored as UTC.
+ */
+public class JdbcNotificationWriter implements NotificationWriter {
+
+    static final String INSERT_SQL = "INSERT INTO notifications "
+            + "(user_id, title, message, notification_type, created_at) "
+            + "SELECT * FROM unnest(?::integer[], ?::varchar[], ?::text[], ?::varchar[], ?::timestamp[]) "
+            + "RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a writer.
+     * @param jdbcTemplate template over the notification datasource
+     */
+    public JdbcNotificationWriter(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long[] write(final List<PendingNotification> notifications, final Instant createdAt) {
+        int size = notifications.size();
+        Integer[] userIds = new Integer[size];
+        String[] titles = new String[size];
+        String[] messages = new String[size];
+        String[] types = new String[size];
+        Timestamp[] createdAts = new Timestamp[size];
+        Timestamp created = Timestamp.valueOf(LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC));
+        for (int i = 0; i < size; i++) {
+            PendingNotification notification = notifications.get(i);
+            userIds[i] = Math.toIntExact(notification.userId());
+            titles[i] = notification.title();
+            messages[i] = notification.message();
+            types[i] = notification.type();
+            createdAts[i] = created;
+        }
+        List<Long> ids = jdbcTemplate.query(INSERT_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", userIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", titles));
+            ps.setArray(3, ps.getConnection().createArrayOf("text", messages));
+            ps.setArray(4, ps.getConnection().createArrayOf("varchar", types));
+            ps.setArray(5, ps.getConnection().createArrayOf("timestamp", createdAts));
+        }, (rs, rowNum) -> rs.getLong(1));
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
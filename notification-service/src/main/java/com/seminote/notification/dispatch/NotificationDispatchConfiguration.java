@@ -0,0 +1,134 @@
+package com.seminote.notification.dispatch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the notification queue topology and dispatch pipeline.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NotificationDispatchProperties.class)
+public class NotificationDispatchConfiguration {
+
+    /** Listener container factory used by {@link NotificationListener}. */
+    public static final String CONTAINER_FACTORY = "notificationListenerContainerFactory";
+
+    /**
+     * Notification queue, its dead-letter queue for malformed requests, and one park queue per delay.
+     * @param properties dispatch settings
+     * @return queue declarations
+     */
+    @Bean
+    public Declarables notificationQueues(final NotificationDispatchProperties properties) {
+        String queue = properties.getQueue();
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(QueueBuilder.durable(queue)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(queue + ".dead")
+                .build());
+        declarables.add(QueueBuilder.durable(queue + ".dead").build());
+        for (Duration delay : properties.getParkDelays()) {
+            declarables.add(QueueBuilder.durable(RabbitNotificationParking.parkQueueName(queue, delay))
+                    .ttl(Math.toIntExact(delay.toMillis()))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * JSON message converter for notification requests.
+     * @return converter
+     */
+    @Bean
+    public MessageConverter notificationMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    /**
+     * Listener containers with manual acknowledgement, so deliveries stay unacked until written.
+     * @param connectionFactory broker connection factory
+     * @param messageConverter JSON converter
+     * @param properties dispatch settings
+     * @return container factory
+     */
+    @Bean(CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationListenerContainerFactory(
+            final ConnectionFactory connectionFactory, final MessageConverter messageConverter,
+            final NotificationDispatchProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(properties.getPrefetch());
+        factory.setConcurrentConsumers(properties.getConsumers());
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * Notification row writer.
+     * @param jdbcTemplate template over the notification datasource
+     * @return writer
+     */
+    @Bean
+    public NotificationWriter notificationWriter(final JdbcTemplate jdbcTemplate) {
+        return new JdbcNotificationWriter(jdbcTemplate);
+    }
+
+    /**
+     * Broker parking for requests due beyond the scheduling horizon.
+     * @param rabbitTemplate broker template
+     * @param properties dispatch settings
+     * @return parking target
+     */
+    @Bean
+    public NotificationParking notificationParking(final RabbitTemplate rabbitTemplate,
+                                                   final NotificationDispatchProperties properties) {
+        return new RabbitNotificationParking(rabbitTemplate, properties.getQueue());
+    }
+
+    /**
+     * Notification dispatcher.
+     * @param properties dispatch settings
+     * @param writer row writer
+     * @param parking broker parking
+     * @param registry metrics registry
+     * @return dispatcher
+     */
+    @Bean
+    public NotificationDispatcher notificationDispatcher(final NotificationDispatchProperties properties,
+                                                         final NotificationWriter writer,
+                                                         final NotificationParking parking,
+                                                         final MeterRegistry registry) {
+        return new NotificationDispatcher(properties, writer, parking, Clock.systemUTC(), registry);
+    }
+
+    /**
+     * Broker listener.
+     * @param dispatcher dispatcher receiving requests
+     * @return listener
+     */
+    @Bean
+    public NotificationListener notificationListener(final NotificationDispatcher dispatcher) {
+        return new NotificationListener(dispatcher);
+    }
+}
@@ -0,0 +1,115 @@
+package com.seminote.notification.dispatch;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the notification dispatch pipeline.
+ */
+@ConfigurationProperties(prefix = "seminote.notifications.dispatch")
+public class NotificationDispatchProperties {
+
+    private static final String DEFAULT_QUEUE = "seminote.notifications";
+    private static final int DEFAULT_PREFETCH = 2_500;
+    private static final int DEFAULT_CONSUMERS = 2;
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    private static final int DEFAULT_WHEEL_SLOTS = 1024;
+    private static final int DEFAULT_FLUSH_SIZE = 1_000;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    private String queue = DEFAULT_QUEUE;
+    private int prefetch = DEFAULT_PREFETCH;
+    private int consumers = DEFAULT_CONSUMERS;
+    private Duration tick = Duration.ofMillis(DEFAULT_TICK_MILLIS);
+    private int wheelSlots = DEFAULT_WHEEL_SLOTS;
+    private List<Duration> parkDelays = new ArrayList<>(
+            List.of(Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofHours(1)));
+    private int flushSize = DEFAULT_FLUSH_SIZE;
+    private Duration flushInterval = Duration.ofMillis(DEFAULT_FLUSH_INTERVAL_MILLIS);
+
+    public String getQueue() {
+        return queue;
+    }
+
+    public void setQueue(final String queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Unacknowledged deliveries per consumer. A scheduled notification holds its delivery
+     * until it is written, so this bounds how many wait in memory; keep it well above
+     * the number expected to fall due within one horizon.
+     * @return prefetch count
+     */
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(final int prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public int getConsumers() {
+        return consumers;
+    }
+
+    public void setConsumers(final int consumers) {
+        this.consumers = consumers;
+    }
+
+    /**
+     * Scheduling resolution; deliveries are at most one tick late.
+     * @return tick duration
+     */
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(final Duration tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Timing wheel size; tick times slots is the horizon beyond which notifications are parked in the broker.
+     * @return slot count
+     */
+    public int getWheelSlots() {
+        return wheelSlots;
+    }
+
+    public void setWheelSlots(final int wheelSlots) {
+        this.wheelSlots = wheelSlots;
+    }
+
+    /**
+     * Fixed delays of the broker park queues; a notification due beyond the horizon
+     * waits out the longest delay that does not overshoot it.
+     * @return park delays
+     */
+    public List<Duration> getParkDelays() {
+        return parkDelays;
+    }
+
+    public void setParkDelays(final List<Duration> parkDelays) {
+        this.parkDelays = parkDelays;
+    }
+
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    public void setFlushSize(final int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(final Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,527 @@
+package com.seminote.notification.dispatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Schedules notification requests and writes them in bulk once due.
+ *
+ * Consumer threads only validate a request and append it to a lock-free
+ * inbox. A single dispatcher thread owns all other state: every tick it moves
+ * the inbox onto a {@link TimingWheel}, merging a request that names a
+ * coalescing key into one for the same user and key that has not been written
+ * yet, then collects
+ * due notifications into per-priority ready queues and writes them in batches
+ * of up to the flush size, highest priority first. Requests due beyond the wheel
+ * horizon are parked in the broker instead of held in memory.
+ *
+ * Broker deliveries are acknowledged only after their row is committed, so a
+ * crash redelivers rather than loses them. A failed write is retried with
+ * backoff; on shutdown, whatever could not be written is requeued. A batch the
+ * database rejects outright is split until the offending notifications are
+ * found, and their deliveries are dead-lettered while the rest are written.
+ */
+public class NotificationDispatcher implements SmartLifecycle {
+
+    /** Lifecycle phase: started before and stopped after the listener containers that feed it. */
+    public static final int PHASE = DEFAULT_PHASE - 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final long INITIAL_BACKOFF_MS = 50;
+    private static final long MAX_BACKOFF_MS = 5_000;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+    // Row id placeholders for notifications of a batch that were not written
+    private static final long REJECTED = -1;
+    private static final long UNWRITTEN = -2;
+
+    private final NotificationWriter writer;
+    private final NotificationParking parking;
+    private final Clock clock;
+    private final long tickNanos;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final long[] parkDelaysMillis;
+    private final Queue<Submission> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inboxSize = new AtomicInteger();
+    private final TimingWheel<PendingNotification> wheel;
+    private final Map<CoalesceKey, PendingNotification> pending = new HashMap<>();
+    private final List<ArrayDeque<PendingNotification>> ready = new ArrayList<>(PRIORITIES.length);
+    private final List<PendingNotification> batch;
+    private final List<Consumer<List<StoredNotification>>> listeners = new CopyOnWriteArrayList<>();
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter parked;
+    private final Counter rejected;
+    private final Counter deadLettered;
+    private final Counter written;
+    private final Timer flushLatency;
+    private final Timer deliveryLag;
+
+    private volatile boolean running;
+    private volatile boolean closed;
+    private volatile int readyCount;
+    private volatile int scheduledCount;
+    private long lastFlushMillis;
+    private long uncoalescedSequence;
+    private Thread dispatcher;
+
+    /**
+     * Create a dispatcher.
+     * @param properties scheduling and flush settings
+     * @param writer batch writer for notification rows
+     * @param parking broker-side holding for requests beyond the horizon
+     * @param clock time source for delivery times
+     * @param registry registry for dispatch metrics
+     */
+    public NotificationDispatcher(final NotificationDispatchProperties properties, final NotificationWriter writer,
+                                  final NotificationParking parking, final Clock clock,
+                                  final MeterRegistry registry) {
+        this.writer = writer;
+        this.parking = parking;
+        this.clock = clock;
+        this.tickNanos = properties.getTick().toNanos();
+        this.flushSize = properties.getFlushSize();
+        this.flushIntervalMillis = properties.getFlushInterval().toMillis();
+        this.parkDelaysMillis = properties.getParkDelays().stream().mapToLong(Duration::toMillis).sorted().toArray();
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSlots(), clock.millis());
+        this.batch = new ArrayList<>(flushSize);
+        this.lastFlushMillis = clock.millis();
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            ready.add(new ArrayDeque<>());
+        }
+        this.received = Counter.builder("seminote.notifications.received")
+                .description("Notification requests accepted for scheduling").register(registry);
+        this.coalesced = Counter.builder("seminote.notifications.coalesced")
+                .description("Requests merged into a notification that was already scheduled").register(registry);
+        this.parked = Counter.builder("seminote.notifications.parked")
+                .description("Requests due beyond the scheduling horizon handed back to the broker")
+                .register(registry);
+        this.rejected = Counter.builder("seminote.notifications.rejected")
+                .description("Requests missing a user, type, title or message, or not fitting their columns")
+                .register(registry);
+        this.deadLettered = Counter.builder("seminote.notifications.dead_lettered")
+                .description("Notifications the database rejected, dead-lettered with their requests")
+                .register(registry);
+        this.written = Counter.builder("seminote.notifications.written")
+                .description("Notification rows written").register(registry);
+        this.flushLatency = Timer.builder("seminote.notifications.flush")
+                .description("Time to write one batch of notification rows")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.deliveryLag = Timer.builder("seminote.notifications.delivery.lag")
+                .description("Time between a notification's delivery time and its row being written")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("seminote.notifications.scheduled", this, NotificationDispatcher::scheduledCount)
+                .description("Notifications waiting for their delivery time").register(registry);
+        Gauge.builder("seminote.notifications.ready", this, NotificationDispatcher::readyCount)
+                .description("Due notifications waiting to be written").register(registry);
+    }
+
+    /**
+     * Register a listener called with every batch once its rows are committed.
+     * Listeners run on the dispatcher thread and must be fast.
+     * @param listener batch listener
+     */
+    public void addListener(final Consumer<List<StoredNotification>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Accept one broker delivery. Called from consumer threads; requests arriving
+     * after {@link #stop()} are requeued straight away.
+     * @param request notification request
+     * @param acknowledgement settles the delivery once the notification is written, parked or rejected
+     */
+    public void submit(final NotificationRequest request, final Acknowledgement acknowledgement) {
+        if (request == null || !request.isValid()) {
+            rejected.increment();
+            acknowledgement.reject();
+            return;
+        }
+        if (closed) {
+            acknowledgement.requeue();
+            return;
+        }
+        long now = clock.millis();
+        long deliverAt = request.deliverAt() != null ? request.deliverAt().toEpochMilli() : now;
+        long delay = deliverAt - now;
+        if (delay >= wheel.horizonMillis() && parkDelaysMillis.length > 0) {
+            park(request, delay, acknowledgement);
+            return;
+        }
+        inbox.add(new Submission(request, deliverAt, acknowledgement));
+        inboxSize.incrementAndGet();
+        received.increment();
+    }
+
+    /**
+     * Run one dispatcher step: schedule new requests, collect due notifications and
+     * write them if a batch is full or the flush interval has passed. Only called
+     * from the dispatcher thread, or directly by tests when the dispatcher is not started.
+     * @return number of notifications written
+     */
+    int tick() {
+        long now = clock.millis();
+        drainInbox(now);
+        wheel.advance(now, this::markReady);
+        scheduledCount = pending.size() - readyCount;
+        int count = 0;
+        while (readyCount >= flushSize || (readyCount > 0 && now - lastFlushMillis >= flushIntervalMillis)) {
+            int flushed = flush(now);
+            if (flushed == 0) {
+                break;
+            }
+            count += flushed;
+        }
+        return count;
+    }
+
+    /**
+     * Choose the park queue delay for a request due a while from now.
+     * @param delayMillis time until the request is due
+     * @return the longest configured delay not exceeding it, or the shortest if all do
+     */
+    long parkDelayFor(final long delayMillis) {
+        long chosen = parkDelaysMillis[0];
+        for (long candidate : parkDelaysMillis) {
+            if (candidate <= delayMillis) {
+                chosen = candidate;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Notifications waiting for their delivery time.
+     * @return scheduled count
+     */
+    public int scheduledCount() {
+        return scheduledCount;
+    }
+
+    /**
+     * Due notifications waiting to be written.
+     * @return ready count
+     */
+    public int readyCount() {
+        return readyCount;
+    }
+
+    /**
+     * Requests handed over by consumers but not yet scheduled.
+     * @return inbox size
+     */
+    public int inboxSize() {
+        return inboxSize.get();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        closed = false;
+        dispatcher = new Thread(this::runDispatcher, "notification-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Notification dispatch step failed: {}", e.toString());
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+        drainOnShutdown();
+    }
+
+    private void drainOnShutdown() {
+        long now = clock.millis();
+        drainInbox(now);
+        wheel.advance(now, this::markReady);
+        while (readyCount > 0 && flush(now) > 0) {
+            // Write what is already due before handing the rest back
+        }
+        int requeued = 0;
+        for (PendingNotification notification : pending.values()) {
+            requeued += requeue(notification);
+        }
+        pending.clear();
+        for (ArrayDeque<PendingNotification> queue : ready) {
+            queue.clear();
+        }
+        readyCount = 0;
+        scheduledCount = 0;
+        if (requeued > 0) {
+            LOGGER.info("Requeued {} undelivered notification requests on shutdown", requeued);
+        }
+    }
+
+    private void drainInbox(final long now) {
+        Submission submission;
+        while ((submission = inbox.poll()) != null) {
+            inboxSize.decrementAndGet();
+            schedule(submission, now);
+        }
+    }
+
+    private void schedule(final Submission submission, final long now) {
+        NotificationRequest request = submission.request();
+        // Only producers that name a key opt into merging; anything else is a notification of its own
+        long sequence = request.coalesceKey() != null ? 0 : ++uncoalescedSequence;
+        CoalesceKey key = new CoalesceKey(request.userId(), request.coalesceKey(), sequence);
+        PendingNotification existing = pending.get(key);
+        if (existing != null) {
+            coalesced.increment();
+            boolean earlier = existing.merge(request, submission.deliverAtMillis(), submission.acknowledgement());
+            if (earlier && existing.isScheduled()) {
+                // The entry at the old deadline is skipped when it fires
+                enqueue(existing, now);
+            }
+            return;
+        }
+        PendingNotification notification = new PendingNotification(request, sequence, submission.deliverAtMillis(),
+                submission.acknowledgement());
+        pending.put(key, notification);
+        enqueue(notification, now);
+    }
+
+    private void enqueue(final PendingNotification notification, final long now) {
+        if (notification.deliverAtMillis() <= now) {
+            markReady(notification);
+        } else {
+            wheel.schedule(notification.deliverAtMillis(), notification);
+        }
+    }
+
+    private void markReady(final PendingNotification notification) {
+        if (!notification.isScheduled()) {
+            return;
+        }
+        notification.markReady();
+        ready.get(notification.priority().ordinal()).add(notification);
+        readyCount++;
+    }
+
+    private int flush(final long now) {
+        batch.clear();
+        for (ArrayDeque<PendingNotification> queue : ready) {
+            while (batch.size() < flushSize && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
+        }
+        long[] ids = write(now);
+        if (ids == null) {
+            // Put the batch back at the head of its queues, keeping its order
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                PendingNotification notification = batch.get(i);
+                ready.get(notification.priority().ordinal()).addFirst(notification);
+            }
+            return 0;
+        }
+        readyCount -= batch.size();
+        scheduledCount = pending.size() - batch.size() - readyCount;
+        lastFlushMillis = now;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingNotification notification = batch.get(i);
+            pending.remove(new CoalesceKey(notification.userId(), notification.coalesceKey(),
+                    notification.sequence()));
+            if (ids[i] == REJECTED) {
+                deadLettered.increment();
+                notification.acknowledgements().forEach(Acknowledgement::reject);
+            } else if (ids[i] == UNWRITTEN) {
+                requeue(notification);
+            } else {
+                deliveryLag.record(Math.max(0, now - notification.deliverAtMillis()), TimeUnit.MILLISECONDS);
+                notification.acknowledgements().forEach(Acknowledgement::ack);
+            }
+        }
+        notifyListeners(ids, now);
+        return batch.size();
+    }
+
+    private void notifyListeners(final long[] ids, final long now) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Instant createdAt = Instant.ofEpochMilli(now);
+        List<StoredNotification> stored = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingNotification notification = batch.get(i);
+            if (ids[i] < 0) {
+                continue;
+            }
+            stored.add(new StoredNotification(ids[i], notification.userId(), notification.type(),
+                    notification.title(), notification.message(), createdAt));
+        }
+        List<StoredNotification> view = Collections.unmodifiableList(stored);
+        for (Consumer<List<StoredNotification>> listener : listeners) {
+            try {
+                listener.accept(view);
+            } catch (RuntimeException e) {
+                // The rows are already committed and acknowledged, a failing listener must not retry them
+                LOGGER.warn("Notification listener failed: {}", e.toString());
+            }
+        }
+    }
+
+    private long[] write(final long now) {
+        Instant createdAt = Instant.ofEpochMilli(now);
+        try {
+            return writeRows(batch, createdAt);
+        } catch (DataIntegrityViolationException e) {
+            long[] ids = new long[batch.size()];
+            isolate(batch, createdAt, ids, 0);
+            return ids;
+        }
+    }
+
+    /**
+     * Write halves of a rejected batch on their own until the rejected notifications are single ones.
+     * @param ids row id of each written notification, {@link #REJECTED} or {@link #UNWRITTEN} otherwise
+     */
+    private void isolate(final List<PendingNotification> rows, final Instant createdAt, final long[] ids,
+                         final int offset) {
+        if (rows.size() == 1) {
+            PendingNotification notification = rows.get(0);
+            LOGGER.error("Dead-lettering notification for user {} ({}) rejected by the database",
+                    notification.userId(), notification.type());
+            ids[offset] = REJECTED;
+            return;
+        }
+        int half = rows.size() / 2;
+        for (int from = 0; from < rows.size(); from += half) {
+            List<PendingNotification> part = rows.subList(from, Math.min(rows.size(), from + half));
+            try {
+                long[] written = writeRows(part, createdAt);
+                if (written == null) {
+                    written = new long[part.size()];
+                    Arrays.fill(written, UNWRITTEN);
+                }
+                System.arraycopy(written, 0, ids, offset + from, part.size());
+            } catch (DataIntegrityViolationException e) {
+                isolate(part, createdAt, ids, offset + from);
+            }
+        }
+    }
+
+    /**
+     * Write rows, retrying transient failures with backoff.
+     * @return row ids, or null if the dispatcher gave up on shutdown or was interrupted
+     * @throws DataIntegrityViolationException if the database rejected the rows, which retrying cannot fix
+     */
+    private long[] writeRows(final List<PendingNotification> rows, final Instant createdAt) {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                long[] ids = writer.write(rows, createdAt);
+                flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(rows.size());
+                return ids;
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.warn("Notification write of {} rows rejected: {}", rows.size(),
+                        e.getMostSpecificCause().getMessage());
+                throw e;
+            } catch (RuntimeException e) {
+                if (!running && attempt >= SHUTDOWN_ATTEMPTS) {
+                    LOGGER.error("Giving up on {} notifications on shutdown after {} failed writes",
+                            rows.size(), attempt, e);
+                    return null;
+                }
+                LOGGER.warn("Notification write of {} rows failed (attempt {}), retrying in {} ms: {}",
+                        rows.size(), attempt, backoffMs, e.toString());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void park(final NotificationRequest request, final long delayMillis,
+                      final Acknowledgement acknowledgement) {
+        try {
+            parking.park(request, Duration.ofMillis(parkDelayFor(delayMillis)));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not park notification for user {}: {}", request.userId(), e.toString());
+            acknowledgement.requeue();
+            return;
+        }
+        parked.increment();
+        acknowledgement.ack();
+    }
+
+    private static int requeue(final PendingNotification notification) {
+        for (Acknowledgement acknowledgement : notification.acknowledgements()) {
+            acknowledgement.requeue();
+        }
+        return notification.requestCount();
+    }
+
+    private record Submission(NotificationRequest request, long deliverAtMillis, Acknowledgement acknowledgement) {
+    }
+
+    private record CoalesceKey(long userId, String key, long sequence) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.seminote.notification.dispatch;
+
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+
+/**
+ * Hands notification requests from the broker to the dispatcher.
+ *
+ * Deliveries are acknowledged manually by the dispatcher once they are
+ * written, parked or rejected.
+ */
+public class NotificationListener {
+
+    private final NotificationDispatcher dispatcher;
+
+    /**
+     * Create a listener.
+     * @param dispatcher dispatcher receiving the requests
+     */
+    public NotificationListener(final NotificationDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Receive one delivery.
+     * @param request decoded notification request
+     * @param channel channel the delivery arrived on
+     * @param deliveryTag delivery tag on that channel
+     */
+    @RabbitListener(queues = "${seminote.notifications.dispatch.queue}",
+            containerFactory = NotificationDispatchConfiguration.CONTAINER_FACTORY)
+    public void onMessage(final NotificationRequest request, final Channel channel,
+                          @Header(AmqpHeaders.DELIVERY_TAG) final long deliveryTag) {
+        dispatcher.submit(request, new ChannelAcknowledgement(channel, deliveryTag));
+    }
+}
@@ -0,0 +1,16 @@
+package com.seminote.notification.dispatch;
+
+import java.time.Duration;
+
+/**
+ * Holds notifications due beyond the scheduling horizon outside the process.
+ */
+public interface NotificationParking {
+
+    /**
+     * Hand a request back to the broker to be redelivered after a delay.
+     * @param request notification request
+     * @param delay how long the broker should hold it
+     */
+    void park(NotificationRequest request, Duration delay);
+}
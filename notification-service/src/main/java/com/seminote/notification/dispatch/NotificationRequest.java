@@ -0,0 +1,48 @@
+package com.seminote.notification.dispatch;
+
+import java.time.Instant;
+
+/**
+ * A notification to deliver, as published to the notification queue.
+ *
+ * @param userId recipient
+ * @param type notification type, stored as {@code notification_type}
+ * @param title title
+ * @param message body
+ * @param deliverAt when to deliver; null delivers immediately
+ * @param priority delivery priority; null means {@link Priority#NORMAL}
+ * @param coalesceKey requests for the same user and key merge into one notification until it is
+ *                    written; null keeps the request a notification of its own
+ */
+public record NotificationRequest(Long userId, String type, String title, String message, Instant deliverAt,
+                                  Priority priority, String coalesceKey) {
+
+    /** Length of {@code notifications.title}. */
+    static final int MAX_TITLE_LENGTH = 255;
+    /** Length of {@code notifications.notification_type}. */
+    static final int MAX_TYPE_LENGTH = 50;
+
+    /**
+     * Whether the request has everything a notification row needs and fits its columns;
+     * {@code user_id} is a positive integer.
+     * @return true if valid
+     */
+    public boolean isValid() {
+        return userId != null && userId > 0 && userId <= Integer.MAX_VALUE
+                && isPresent(type) && type.length() <= MAX_TYPE_LENGTH
+                && isPresent(title) && title.length() <= MAX_TITLE_LENGTH
+                && message != null;
+    }
+
+    /**
+     * Priority with the default applied.
+     * @return priority
+     */
+    public Priority effectivePriority() {
+        return priority != null ? priority : Priority.NORMAL;
+    }
+
+    private static boolean isPresent(final String value) {
+        return value != null && !value.isBlank();
+    }
+}
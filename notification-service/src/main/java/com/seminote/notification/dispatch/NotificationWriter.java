@@ -0,0 +1,18 @@
+package com.seminote.notification.dispatch;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stores delivered notifications.
+ */
+public interface NotificationWriter {
+
+    /**
+     * Write a batch of notifications, all or nothing.
+     * @param notifications notifications to store
+     * @param createdAt creation time for every row in the batch
+     * @return generated row ids, in batch order
+     */
+    long[] write(List<PendingNotification> notifications, Instant createdAt);
+}
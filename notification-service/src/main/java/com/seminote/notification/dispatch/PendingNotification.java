@@ -0,0 +1,111 @@
+package com.seminote.notification.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A notification waiting for its delivery time, with every broker delivery
+ * coalesced into it. Only touched by the dispatcher thread.
+ */
+public final class PendingNotification {
+
+    private final long userId;
+    private final String coalesceKey;
+    private final long sequence;
+    private final List<Acknowledgement> acknowledgements = new ArrayList<>(1);
+    private String type;
+    private String title;
+    private String message;
+    private Priority priority;
+    private long deliverAtMillis;
+    private boolean scheduled = true;
+
+    PendingNotification(final NotificationRequest request, final long sequence, final long deliverAtMillis,
+                        final Acknowledgement acknowledgement) {
+        this.userId = request.userId();
+        this.coalesceKey = request.coalesceKey();
+        this.sequence = sequence;
+        this.type = request.type();
+        this.title = request.title();
+        this.message = request.message();
+        this.priority = request.effectivePriority();
+        this.deliverAtMillis = deliverAtMillis;
+        acknowledgements.add(acknowledgement);
+    }
+
+    /**
+     * Fold a later duplicate in: its content wins, the earlier delivery time and higher priority are kept.
+     * @return true if the delivery time moved earlier
+     */
+    boolean merge(final NotificationRequest request, final long requestedAtMillis,
+                  final Acknowledgement acknowledgement) {
+        type = request.type();
+        title = request.title();
+        message = request.message();
+        if (request.effectivePriority().compareTo(priority) < 0) {
+            priority = request.effectivePriority();
+        }
+        acknowledgements.add(acknowledgement);
+        if (requestedAtMillis < deliverAtMillis) {
+            deliverAtMillis = requestedAtMillis;
+            return true;
+        }
+        return false;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public Priority priority() {
+        return priority;
+    }
+
+    public long deliverAtMillis() {
+        return deliverAtMillis;
+    }
+
+    /**
+     * Number of broker deliveries this notification stands for.
+     * @return coalesced request count
+     */
+    public int requestCount() {
+        return acknowledgements.size();
+    }
+
+    String coalesceKey() {
+        return coalesceKey;
+    }
+
+    /**
+     * Dispatcher-assigned number that keeps a request without a coalescing key apart from all others.
+     * @return sequence, zero when the request has a coalescing key
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    boolean isScheduled() {
+        return scheduled;
+    }
+
+    void markReady() {
+        scheduled = false;
+    }
+
+    List<Acknowledgement> acknowledgements() {
+        return acknowledgements;
+    }
+}
@@ -0,0 +1,15 @@
+package com.seminote.notification.dispatch;
+
+/**
+ * Delivery priority; higher priorities are written first when a burst of
+ * notifications is due at once.
+ */
+public enum Priority {
+
+    /** Account and payment notices. */
+    HIGH,
+    /** Lesson and teacher updates. */
+    NORMAL,
+    /** Practice reminders and digests. */
+    LOW
+}
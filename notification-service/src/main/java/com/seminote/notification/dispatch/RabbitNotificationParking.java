@@ -0,0 +1,37 @@
+package com.seminote.notification.dispatch;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+
+/**
+ * Parks requests in per-delay queues whose messages expire back onto the
+ * notification queue.
+ *
+ * Each park queue has a fixed message TTL, so expiry happens in publish order
+ * and RabbitMQ never holds an expired message behind a longer-lived one.
+ */
+public class RabbitNotificationParking implements NotificationParking {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String queue;
+
+    /**
+     * Create a parking target.
+     * @param rabbitTemplate template publishing through the default exchange
+     * @param queue notification queue the park queues dead-letter into
+     */
+    public RabbitNotificationParking(final RabbitTemplate rabbitTemplate, final String queue) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.queue = queue;
+    }
+
+    @Override
+    public void park(final NotificationRequest request, final Duration delay) {
+        rabbitTemplate.convertAndSend("", parkQueueName(queue, delay), request);
+    }
+
+    static String parkQueueName(final String queue, final Duration delay) {
+        return queue + ".park." + delay.toMillis() + "ms";
+    }
+}
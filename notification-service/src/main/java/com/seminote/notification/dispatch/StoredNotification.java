@@ -0,0 +1,17 @@
+package com.seminote.notification.dispatch;
+
+import java.time.Instant;
+
+/**
+ * A notification row as written.
+ *
+ * @param id row id
+ * @param userId recipient
+ * @param type notification type
+ * @param title title
+ * @param message body
+ * @param createdAt creation time stored on the row
+ */
+public record StoredNotification(long id, long userId, String type, String title, String message,
+                                 Instant createdAt) {
+}
@@ -0,0 +1,127 @@
+package com.seminote.notification.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of slots, each holding the entries whose
+ * deadline falls on that tick modulo the ring size.
+ *
+ * Scheduling is a list append and advancing costs one slot visit per elapsed
+ * tick, regardless of how many entries are waiting, so a million pending
+ * reminders need neither a timer each nor an O(log n) heap operation per
+ * insert. Entries further out than one turn stay in their slot until their
+ * round comes up. Deadlines are rounded up to the next tick, so an entry
+ * fires at most one tick late and never early. Not thread-safe.
+ *
+ * @param <T> scheduled item type
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Entry<T>>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Create a wheel.
+     * @param tickMillis duration of one tick
+     * @param slotCount number of slots, rounded up to a power of two
+     * @param startMillis current time; the wheel starts at the tick containing it
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(final long tickMillis, final int slotCount, final long startMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tick and slot count must be positive");
+        }
+        int capacity = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new List[capacity];
+        this.mask = capacity - 1;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule an item; deadlines that already passed fire on the next advance.
+     * @param deadlineMillis when the item is due
+     * @param item item to hand out once due
+     */
+    void schedule(final long deadlineMillis, final T item) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        int index = (int) (tick & mask);
+        List<Entry<T>> slot = slots[index];
+        if (slot == null) {
+            slot = new ArrayList<>();
+            slots[index] = slot;
+        }
+        slot.add(new Entry<>(tick, item));
+        size++;
+    }
+
+    /**
+     * Move the wheel up to a point in time and hand out every item now due.
+     * @param nowMillis current time
+     * @param expired receives due items, in no particular order within a tick
+     * @return number of items handed out
+     */
+    int advance(final long nowMillis, final Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        if (target <= currentTick) {
+            return 0;
+        }
+        int fired = 0;
+        if (target - currentTick >= slots.length) {
+            // A full turn or more has passed: every slot is visited once
+            for (List<Entry<T>> slot : slots) {
+                fired += expire(slot, target, expired);
+            }
+        } else {
+            for (long tick = currentTick + 1; tick <= target; tick++) {
+                fired += expire(slots[(int) (tick & mask)], tick, expired);
+            }
+        }
+        currentTick = target;
+        size -= fired;
+        return fired;
+    }
+
+    /**
+     * Number of items waiting, including ones superseded by a reschedule.
+     * @return scheduled entry count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Span covered by one turn of the wheel.
+     * @return horizon in milliseconds
+     */
+    long horizonMillis() {
+        return tickMillis * slots.length;
+    }
+
+    private static <T> int expire(final List<Entry<T>> slot, final long tick, final Consumer<T> expired) {
+        if (slot == null || slot.isEmpty()) {
+            return 0;
+        }
+        int kept = 0;
+        int fired = 0;
+        for (int i = 0, n = slot.size(); i < n; i++) {
+            Entry<T> entry = slot.get(i);
+            if (entry.deadlineTick() <= tick) {
+                expired.accept(entry.item());
+                fired++;
+            } else {
+                slot.set(kept++, entry);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+        return fired;
+    }
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.seminote.notification.inbox;
+
+/**
+ * Delivers inbox changes to the other notification-service nodes.
+ */
+public interface InboxBroadcast {
+
+    /**
+     * Publish changes already applied on this node.
+     * @param updates changes, tagged with this node as origin
+     */
+    void publish(InboxUpdates updates);
+}
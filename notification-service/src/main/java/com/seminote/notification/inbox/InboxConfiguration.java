@@ -0,0 +1,79 @@
+package com.seminote.notification.inbox;
+
+import com.seminote.notification.dispatch.NotificationDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires cached inboxes, their push streams and cross-node updates.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(InboxProperties.class)
+public class InboxConfiguration {
+
+    /**
+     * Inbox store.
+     * @param jdbcTemplate template over the notification datasource
+     * @return store
+     */
+    @Bean
+    public InboxStore inboxStore(final JdbcTemplate jdbcTemplate) {
+        return new JdbcInboxStore(jdbcTemplate);
+    }
+
+    /**
+     * Push stream registry.
+     * @param properties inbox settings
+     * @return streams
+     */
+    @Bean
+    public InboxStreams inboxStreams(final InboxProperties properties) {
+        return new InboxStreams(properties);
+    }
+
+    /**
+     * Cross-node broadcast of inbox changes.
+     * @param rabbitTemplate broker template
+     * @param properties inbox settings
+     * @return broadcast
+     */
+    @Bean
+    public InboxBroadcast inboxBroadcast(final RabbitTemplate rabbitTemplate, final InboxProperties properties) {
+        return new RabbitInboxBroadcast(rabbitTemplate, properties.getExchange());
+    }
+
+    /**
+     * Inbox service, fed by the dispatcher with every written batch.
+     * @param store inbox store
+     * @param streams push streams
+     * @param broadcast cross-node broadcast
+     * @param properties inbox settings
+     * @param dispatcher notification dispatcher
+     * @param registry metrics registry
+     * @return service
+     */
+    @Bean
+    public InboxService inboxService(final InboxStore store, final InboxStreams streams,
+                                     final InboxBroadcast broadcast, final InboxProperties properties,
+                                     final NotificationDispatcher dispatcher, final MeterRegistry registry) {
+        InboxService service = new InboxService(store, streams, broadcast, properties, Clock.systemUTC(), registry);
+        dispatcher.addListener(service::onStored);
+        return service;
+    }
+
+    /**
+     * Listener for changes made on other nodes.
+     * @param service inbox service
+     * @return listener
+     */
+    @Bean
+    public InboxUpdateListener inboxUpdateListener(final InboxService service) {
+        return new InboxUpdateListener(service);
+    }
+}
@@ -0,0 +1,124 @@
+package com.seminote.notification.inbox;
+
+import com.seminote.common.users.GatewayUser;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Inbox API.
+ *
+ * Counts and recent notifications are served from memory; clients that keep
+ * the stream open receive changes as they happen instead of polling. An
+ * inbox is only open to its owner, as identified by the gateway.
+ */
+@RestController
+@RequestMapping("/api/v1/notifications/users/{userId}")
+public class InboxController {
+
+    static final int MAX_READ_IDS = 500;
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final InboxService service;
+    private final InboxProperties properties;
+
+    /**
+     * Create the controller.
+     * @param service inbox service
+     * @param properties inbox settings
+     */
+    public InboxController(final InboxService service, final InboxProperties properties) {
+        this.service = service;
+        this.properties = properties;
+    }
+
+    /**
+     * Unread notification count.
+     * @param callerId user id forwarded by the gateway
+     * @param userId user id
+     * @return unread count
+     */
+    @GetMapping("/unread-count")
+    public UnreadCountView unreadCount(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId) {
+        GatewayUser.requireSelf(callerId, userId);
+        return service.unreadCount(userId);
+    }
+
+    /**
+     * Unread count and most recent notifications.
+     * @param callerId user id forwarded by the gateway
+     * @param userId user id
+     * @param limit maximum notifications, at most the cached window
+     * @return inbox
+     */
+    @GetMapping("/inbox")
+    public InboxView inbox(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId, @RequestParam(required = false) final Integer limit) {
+        GatewayUser.requireSelf(callerId, userId);
+        int max = properties.getWindow();
+        int resolved = limit != null ? limit : Math.min(DEFAULT_LIMIT, max);
+        if (resolved < 0 || resolved > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 0 and " + max);
+        }
+        return service.inbox(userId, resolved);
+    }
+
+    /**
+     * Stream inbox changes as server-sent events.
+     * @param callerId user id forwarded by the gateway
+     * @param userId user id
+     * @return SSE stream starting with the current {@code unread} count, followed by
+     *         {@code notification} events and updated counts
+     */
+    @GetMapping(path = "/inbox/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId) {
+        GatewayUser.requireSelf(callerId, userId);
+        return service.subscribe(userId);
+    }
+
+    /**
+     * Mark notifications as read.
+     * @param callerId user id forwarded by the gateway
+     * @param userId user id
+     * @param request notification ids
+     * @return unread count afterwards
+     */
+    @PostMapping("/read")
+    public UnreadCountView markRead(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId, @RequestBody final MarkReadRequest request) {
+        GatewayUser.requireSelf(callerId, userId);
+        if (request.ids() == null || request.ids().size() > MAX_READ_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must list 0 to " + MAX_READ_IDS + " ids");
+        }
+        return service.markRead(userId, request.ids());
+    }
+
+    /**
+     * Mark all notifications as read.
+     * @param callerId user id forwarded by the gateway
+     * @param userId user id
+     * @return unread count afterwards
+     */
+    @PostMapping("/read-all")
+    public UnreadCountView markAllRead(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId) {
+        GatewayUser.requireSelf(callerId, userId);
+        return service.markAllRead(userId);
+    }
+}
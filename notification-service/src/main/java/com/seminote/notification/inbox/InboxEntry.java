@@ -0,0 +1,20 @@
+package com.seminote.notification.inbox;
+
+import java.time.Instant;
+
+/**
+ * One notification as shown in a user's inbox.
+ *
+ * @param id notification id
+ * @param type notification type
+ * @param title title
+ * @param message body
+ * @param read whether the user has read it
+ * @param createdAt creation time
+ */
+public record InboxEntry(long id, String type, String title, String message, boolean read, Instant createdAt) {
+
+    InboxEntry markedRead() {
+        return read ? this : new InboxEntry(id, type, title, message, true, createdAt);
+    }
+}
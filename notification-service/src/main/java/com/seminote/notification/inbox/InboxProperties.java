@@ -0,0 +1,108 @@
+package com.seminote.notification.inbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for cached inboxes and their push streams.
+ */
+@ConfigurationProperties(prefix = "seminote.notifications.inbox")
+public class InboxProperties {
+
+    private static final String DEFAULT_EXCHANGE = "seminote.notifications.inbox";
+    private static final int DEFAULT_WINDOW = 50;
+    private static final int DEFAULT_CACHE_SIZE = 100_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+    private static final long DEFAULT_MAX_AGE_MINUTES = 15;
+    private static final long DEFAULT_STREAM_TIMEOUT_MINUTES = 30;
+    private static final long DEFAULT_HEARTBEAT_SECONDS = 25;
+
+    private String exchange = DEFAULT_EXCHANGE;
+    private int window = DEFAULT_WINDOW;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private Duration idleTimeout = Duration.ofMinutes(DEFAULT_IDLE_TIMEOUT_MINUTES);
+    private Duration maxAge = Duration.ofMinutes(DEFAULT_MAX_AGE_MINUTES);
+    private Duration streamTimeout = Duration.ofMinutes(DEFAULT_STREAM_TIMEOUT_MINUTES);
+    private Duration heartbeatInterval = Duration.ofSeconds(DEFAULT_HEARTBEAT_SECONDS);
+
+    /**
+     * Fanout exchange every node publishes its inbox changes to.
+     * @return exchange name
+     */
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(final String exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Recent notifications kept per cached inbox; also the largest page served from the cache.
+     * @return window size
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(final int window) {
+        this.window = window;
+    }
+
+    /**
+     * Maximum cached inboxes.
+     * @return cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * How long an inbox stays cached without being read.
+     * @return idle timeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * How long a cached inbox is trusted before it is reloaded, bounding drift from missed updates.
+     * @return maximum age
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(final Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(final Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Interval of keep-alive comments on idle streams, below common proxy idle timeouts.
+     * @return heartbeat interval
+     */
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(final Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+}
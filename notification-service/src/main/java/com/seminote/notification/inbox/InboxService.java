@@ -0,0 +1,216 @@
+package com.seminote.notification.inbox;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seminote.notification.dispatch.StoredNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serves unread counts and recent notifications from memory.
+ *
+ * Each user's inbox is loaded from the store once and then kept current by
+ * applying changes: notifications written by the dispatcher and reads made
+ * through this API are applied on the node where they happen, broadcast to the
+ * other nodes, and pushed to open streams. Inboxes are evicted when idle and
+ * reloaded after the configured maximum age, which bounds drift from a missed
+ * broadcast. Counters are only changed by updates that report ids the store
+ * actually changed, so repeating a read does not count twice.
+ */
+public class InboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InboxService.class);
+
+    private final InboxStore store;
+    private final InboxStreams streams;
+    private final InboxBroadcast broadcast;
+    private final Clock clock;
+    private final int window;
+    private final long maxAgeMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<Long, UserInbox> inboxes;
+    private final Counter loads;
+    private final Counter remoteUpdates;
+
+    /**
+     * Create an inbox service.
+     * @param store durable inbox state
+     * @param streams open push streams
+     * @param broadcast delivery of changes to other nodes
+     * @param properties cache settings
+     * @param clock time source for cache age
+     * @param registry registry for inbox metrics
+     */
+    public InboxService(final InboxStore store, final InboxStreams streams, final InboxBroadcast broadcast,
+                        final InboxProperties properties, final Clock clock, final MeterRegistry registry) {
+        this.store = store;
+        this.streams = streams;
+        this.broadcast = broadcast;
+        this.clock = clock;
+        this.window = properties.getWindow();
+        this.maxAgeMillis = properties.getMaxAge().toMillis();
+        this.inboxes = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.loads = Counter.builder("seminote.notifications.inbox.loads")
+                .description("Inboxes loaded from the database").register(registry);
+        this.remoteUpdates = Counter.builder("seminote.notifications.inbox.remote")
+                .description("Inbox changes received from other nodes").register(registry);
+        Gauge.builder("seminote.notifications.inbox.cached", inboxes, Cache::estimatedSize)
+                .description("Inboxes held in memory").register(registry);
+        Gauge.builder("seminote.notifications.inbox.streams", streams, InboxStreams::subscriberCount)
+                .description("Open inbox streams").register(registry);
+    }
+
+    /**
+     * Unread count and most recent notifications of a user.
+     * @param userId user
+     * @param limit maximum notifications, at most the window size
+     * @return inbox view
+     */
+    public InboxView inbox(final long userId, final int limit) {
+        UserInbox inbox = inbox(userId);
+        return new InboxView(userId, inbox.unreadCount(), inbox.recent(limit));
+    }
+
+    /**
+     * Unread count of a user.
+     * @param userId user
+     * @return unread count
+     */
+    public UnreadCountView unreadCount(final long userId) {
+        return new UnreadCountView(userId, inbox(userId).unreadCount());
+    }
+
+    /**
+     * Mark notifications of a user as read.
+     * @param userId user
+     * @param ids notification ids; unknown, foreign or already read ids are ignored
+     * @return unread count afterwards
+     */
+    public UnreadCountView markRead(final long userId, final List<Long> ids) {
+        return read(userId, store.markRead(userId, ids));
+    }
+
+    /**
+     * Mark all notifications of a user as read.
+     * @param userId user
+     * @return unread count afterwards
+     */
+    public UnreadCountView markAllRead(final long userId) {
+        return read(userId, store.markAllRead(userId));
+    }
+
+    /**
+     * Open a push stream for a user.
+     * @param userId user
+     * @return emitter receiving inbox events
+     */
+    public SseEmitter subscribe(final long userId) {
+        return streams.subscribe(userId, unreadCount(userId));
+    }
+
+    /**
+     * Apply notifications written by the dispatcher on this node.
+     * @param stored written notifications
+     */
+    public void onStored(final List<StoredNotification> stored) {
+        Map<Long, List<InboxEntry>> byUser = new LinkedHashMap<>();
+        for (StoredNotification notification : stored) {
+            byUser.computeIfAbsent(notification.userId(), id -> new ArrayList<>())
+                    .add(new InboxEntry(notification.id(), notification.type(), notification.title(),
+                            notification.message(), false, notification.createdAt()));
+        }
+        List<InboxUpdate> updates = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, entries) -> updates.add(new InboxUpdate(userId, entries, List.of())));
+        applyAndBroadcast(updates);
+    }
+
+    /**
+     * Apply changes broadcast by another node.
+     * @param updates changes; ignored if this node made them
+     */
+    public void onRemote(final InboxUpdates updates) {
+        if (nodeId.equals(updates.origin())) {
+            return;
+        }
+        remoteUpdates.increment();
+        for (InboxUpdate update : updates.updates()) {
+            apply(update);
+        }
+    }
+
+    /**
+     * Whether a user's inbox is in memory.
+     * @param userId user
+     * @return true if cached
+     */
+    boolean isCached(final long userId) {
+        return inboxes.getIfPresent(userId) != null;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private UnreadCountView read(final long userId, final List<Long> changed) {
+        if (!changed.isEmpty()) {
+            applyAndBroadcast(List.of(new InboxUpdate(userId, List.of(), changed)));
+        }
+        return unreadCount(userId);
+    }
+
+    private void applyAndBroadcast(final List<InboxUpdate> updates) {
+        for (InboxUpdate update : updates) {
+            apply(update);
+        }
+        try {
+            broadcast.publish(new InboxUpdates(nodeId, updates));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not broadcast {} inbox updates: {}", updates.size(), e.toString());
+        }
+    }
+
+    private void apply(final InboxUpdate update) {
+        // Waits for an in-flight load of the same inbox, so the update is not lost
+        UserInbox inbox = inboxes.asMap().computeIfPresent(update.userId(), (id, current) -> current);
+        boolean changed = inbox != null && inbox.apply(update);
+        if (!streams.hasSubscribers(update.userId())) {
+            return;
+        }
+        if (inbox == null) {
+            inbox = inbox(update.userId());
+            changed = true;
+        }
+        if (changed) {
+            streams.push(update.userId(), update.stored(), inbox.unreadCount());
+        }
+    }
+
+    private UserInbox inbox(final long userId) {
+        UserInbox inbox = inboxes.get(userId, this::load);
+        if (clock.millis() - inbox.loadedAtMillis() > maxAgeMillis) {
+            inboxes.asMap().remove(userId, inbox);
+            inbox = inboxes.get(userId, this::load);
+        }
+        return inbox;
+    }
+
+    private UserInbox load(final long userId) {
+        long loadedAt = clock.millis();
+        loads.increment();
+        return new UserInbox(store.load(userId, window), window, loadedAt);
+    }
+}
@@ -0,0 +1,42 @@
+package com.seminote.notification.inbox;
+
+import java.util.List;
+
+/**
+ * Durable inbox state behind the cache.
+ */
+public interface InboxStore {
+
+    /**
+     * Read a user's unread count and most recent notifications.
+     * @param userId user
+     * @param window number of recent notifications to read
+     * @return snapshot of the inbox
+     */
+    Snapshot load(long userId, int window);
+
+    /**
+     * Mark notifications as read.
+     * @param userId owner; ids belonging to other users are ignored
+     * @param ids notification ids
+     * @return ids that were unread and are now read
+     */
+    List<Long> markRead(long userId, List<Long> ids);
+
+    /**
+     * Mark all of a user's notifications as read.
+     * @param userId user
+     * @return ids that were unread and are now read
+     */
+    List<Long> markAllRead(long userId);
+
+    /**
+     * Inbox state as read from the store.
+     *
+     * @param unreadCount unread notifications
+     * @param maxId highest notification id of the user at load time, zero if none
+     * @param recent most recent notifications, newest first
+     */
+    record Snapshot(int unreadCount, long maxId, List<InboxEntry> recent) {
+    }
+}
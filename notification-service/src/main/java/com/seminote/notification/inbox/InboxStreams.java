@@ -0,0 +1,177 @@
+package com.seminote.notification.inbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes inbox changes to SSE subscribers.
+ *
+ * Each subscriber gets the current {@value #UNREAD_EVENT} count on connect,
+ * then a {@value #NOTIFICATION_EVENT} event per new notification and a fresh
+ * count after every change. Sends run on one push thread, in order, so a slow
+ * client never holds up the dispatcher or the broker consumer. Idle streams
+ * get a keep-alive comment every heartbeat interval.
+ */
+public class InboxStreams implements SmartLifecycle {
+
+    static final String UNREAD_EVENT = "unread";
+    static final String NOTIFICATION_EVENT = "notification";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InboxStreams.class);
+
+    private final InboxProperties properties;
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService pusher;
+
+    /**
+     * Create a stream registry.
+     * @param properties stream settings
+     */
+    public InboxStreams(final InboxProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Subscribe to a user's inbox changes.
+     * @param userId user
+     * @param current unread count sent as the first event
+     * @return emitter receiving inbox events
+     */
+    public SseEmitter subscribe(final long userId, final UnreadCountView current) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> remove(userId, emitters, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        send(emitter, UNREAD_EVENT, current);
+        return emitter;
+    }
+
+    /**
+     * Whether a user has open streams.
+     * @param userId user
+     * @return true if at least one stream is open
+     */
+    public boolean hasSubscribers(final long userId) {
+        List<SseEmitter> emitters = subscribers.get(userId);
+        return emitters != null && !emitters.isEmpty();
+    }
+
+    /**
+     * Push new notifications and the resulting unread count to a user's streams.
+     * @param userId user
+     * @param stored new notifications
+     * @param unreadCount unread count after the change
+     */
+    public void push(final long userId, final List<InboxEntry> stored, final int unreadCount) {
+        List<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        Runnable task = () -> {
+            UnreadCountView count = new UnreadCountView(userId, unreadCount);
+            for (SseEmitter emitter : emitters) {
+                for (InboxEntry entry : stored) {
+                    send(emitter, NOTIFICATION_EVENT, entry);
+                }
+                send(emitter, UNREAD_EVENT, count);
+            }
+        };
+        ScheduledExecutorService current = pusher;
+        if (current == null) {
+            task.run();
+            return;
+        }
+        try {
+            current.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Stopping; the streams are about to complete
+        }
+    }
+
+    /**
+     * Number of open streams.
+     * @return stream count
+     */
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void heartbeat() {
+        for (List<SseEmitter> emitters : subscribers.values()) {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+    }
+
+    private void remove(final long userId, final List<SseEmitter> emitters, final SseEmitter emitter) {
+        emitters.remove(emitter);
+        if (emitters.isEmpty()) {
+            subscribers.remove(userId, emitters);
+        }
+    }
+
+    private static void send(final SseEmitter emitter, final String name, final Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (pusher != null) {
+            return;
+        }
+        pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-inbox-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getHeartbeatInterval().toMillis();
+        pusher.scheduleAtFixedRate(() -> {
+            try {
+                heartbeat();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Inbox stream heartbeat failed: {}", e.toString());
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (pusher == null) {
+            return;
+        }
+        pusher.shutdownNow();
+        pusher = null;
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pusher != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.seminote.notification.inbox;
+
+import java.util.List;
+
+/**
+ * Changes to one user's inbox.
+ *
+ * @param userId user
+ * @param stored newly written notifications
+ * @param readIds notifications that changed from unread to read
+ */
+public record InboxUpdate(long userId, List<InboxEntry> stored, List<Long> readIds) {
+}
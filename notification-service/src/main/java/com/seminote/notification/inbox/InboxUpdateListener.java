@@ -0,0 +1,36 @@
+package com.seminote.notification.inbox;
+
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+
+/**
+ * Applies inbox changes made on other nodes.
+ *
+ * Each node consumes through its own exclusive, auto-deleted queue bound to
+ * the fanout exchange, so every node sees every change.
+ */
+public class InboxUpdateListener {
+
+    private final InboxService service;
+
+    /**
+     * Create a listener.
+     * @param service inbox service applying the changes
+     */
+    public InboxUpdateListener(final InboxService service) {
+        this.service = service;
+    }
+
+    /**
+     * Receive changes from the fanout exchange.
+     * @param updates inbox changes
+     */
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(exclusive = "true", autoDelete = "true"),
+            exchange = @Exchange(value = "${seminote.notifications.inbox.exchange}", type = ExchangeTypes.FANOUT)))
+    public void onUpdates(final InboxUpdates updates) {
+        service.onRemote(updates);
+    }
+}
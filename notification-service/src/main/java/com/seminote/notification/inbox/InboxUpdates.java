@@ -0,0 +1,12 @@
+package com.seminote.notification.inbox;
+
+import java.util.List;
+
+/**
+ * Inbox changes broadcast to every notification-service node.
+ *
+ * @param origin id of the node that made the changes; it has applied them already
+ * @param updates per-user changes
+ */
+public record InboxUpdates(String origin, List<InboxUpdate> updates) {
+}
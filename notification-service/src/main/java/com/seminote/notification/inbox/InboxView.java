@@ -0,0 +1,13 @@
+package com.seminote.notification.inbox;
+
+import java.util.List;
+
+/**
+ * Unread count and most recent notifications of a user.
+ *
+ * @param userId user
+ * @param unreadCount unread notifications
+ * @param entries most recent notifications, newest first
+ */
+public record InboxView(long userId, int unreadCount, List<InboxEntry> entries) {
+}
@@ -0,0 +1,70 @@
+package com.seminote.notification.inbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Reads and updates inboxes in the {@code notifications} table.
+ *
+ * Only cold loads read the table; they use {@code idx_notifications_user_id}.
+ * Updates return the ids they actually changed so the caller can adjust
+ * cached counters without counting again.
+ */
+public class JdbcInboxStore implements InboxStore {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FILTER (WHERE NOT is_read), COALESCE(MAX(id), 0) "
+            + "FROM notifications WHERE user_id = ?";
+    private static final String RECENT_SQL = "SELECT id, notification_type, title, message, is_read, created_at "
+            + "FROM notifications WHERE user_id = ? ORDER BY id DESC LIMIT ?";
+    private static final String MARK_READ_SQL = "UPDATE notifications SET is_read = TRUE "
+            + "WHERE user_id = ? AND id = ANY(?) AND NOT is_read RETURNING id";
+    private static final String MARK_ALL_READ_SQL = "UPDATE notifications SET is_read = TRUE "
+            + "WHERE user_id = ? AND NOT is_read RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the notification datasource
+     */
+    public JdbcInboxStore(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Snapshot load(final long userId, final int window) {
+        long[] counts = jdbcTemplate.queryForObject(COUNT_SQL,
+                (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)}, userId);
+        List<InboxEntry> recent = window == 0 ? List.of()
+                : jdbcTemplate.query(RECENT_SQL, JdbcInboxStore::entry, userId, window);
+        return new Snapshot(Math.toIntExact(counts[0]), counts[1], recent);
+    }
+
+    @Override
+    public List<Long> markRead(final long userId, final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(MARK_READ_SQL, ps -> {
+            ps.setLong(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    @Override
+    public List<Long> markAllRead(final long userId) {
+        return jdbcTemplate.query(MARK_ALL_READ_SQL, (rs, rowNum) -> rs.getLong(1), userId);
+    }
+
+    private static InboxEntry entry(final ResultSet rs, final int rowNum) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new InboxEntry(rs.getLong("id"), rs.getString("notification_type"), rs.getString("title"),
+                rs.getString("message"), rs.getBoolean("is_read"),
+                createdAt != null ? createdAt.toLocalDateTime().toInstant(ZoneOffset.UTC) : null);
+    }
+}
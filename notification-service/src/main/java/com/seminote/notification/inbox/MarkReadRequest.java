@@ -0,0 +1,11 @@
+package com.seminote.notification.inbox;
+
+import java.util.List;
+
+/**
+ * Notifications to mark as read.
+ *
+ * @param ids notification ids
+ */
+public record MarkReadRequest(List<Long> ids) {
+}
@@ -0,0 +1,27 @@
+package com.seminote.notification.inbox;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * Publishes inbox changes to a fanout exchange every node is bound to.
+ */
+public class RabbitInboxBroadcast implements InboxBroadcast {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+
+    /**
+     * Create a broadcast.
+     * @param rabbitTemplate broker template
+     * @param exchange fanout exchange name
+     */
+    public RabbitInboxBroadcast(final RabbitTemplate rabbitTemplate, final String exchange) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+    }
+
+    @Override
+    public void publish(final InboxUpdates updates) {
+        rabbitTemplate.convertAndSend(exchange, "", updates);
+    }
+}
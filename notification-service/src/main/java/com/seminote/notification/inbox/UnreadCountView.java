@@ -0,0 +1,10 @@
+package com.seminote.notification.inbox;
+
+/**
+ * Unread notification count of a user.
+ *
+ * @param userId user
+ * @param unreadCount unread notifications
+ */
+public record UnreadCountView(long userId, int unreadCount) {
+}
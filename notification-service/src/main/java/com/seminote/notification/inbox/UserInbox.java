@@ -0,0 +1,91 @@
+package com.seminote.notification.inbox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cached inbox of one user: the unread counter and a window of the most
+ * recent notifications, newest first.
+ *
+ * Notifications with ids up to the load watermark were counted by the load
+ * itself, so a stored update racing a cold load is not counted twice.
+ */
+final class UserInbox {
+
+    private static final Comparator<InboxEntry> NEWEST_FIRST = Comparator.comparingLong(InboxEntry::id).reversed();
+
+    private final int window;
+    private final long watermark;
+    private final long loadedAtMillis;
+    private final List<InboxEntry> recent;
+    private int unreadCount;
+
+    UserInbox(final InboxStore.Snapshot snapshot, final int window, final long loadedAtMillis) {
+        this.window = window;
+        this.watermark = snapshot.maxId();
+        this.loadedAtMillis = loadedAtMillis;
+        this.recent = new ArrayList<>(snapshot.recent());
+        this.unreadCount = snapshot.unreadCount();
+    }
+
+    /**
+     * Apply stored and read notifications.
+     * @return true if anything changed
+     */
+    synchronized boolean apply(final InboxUpdate update) {
+        boolean changed = false;
+        for (InboxEntry entry : update.stored()) {
+            if (entry.id() <= watermark || indexOf(entry.id()) >= 0) {
+                continue;
+            }
+            recent.add(entry);
+            if (!entry.read()) {
+                unreadCount++;
+            }
+            changed = true;
+        }
+        if (changed) {
+            recent.sort(NEWEST_FIRST);
+            while (recent.size() > window) {
+                recent.remove(recent.size() - 1);
+            }
+        }
+        for (Long id : update.readIds()) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                InboxEntry entry = recent.get(index);
+                if (entry.read()) {
+                    continue;
+                }
+                recent.set(index, entry.markedRead());
+            }
+            if (unreadCount > 0) {
+                unreadCount--;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    synchronized int unreadCount() {
+        return unreadCount;
+    }
+
+    synchronized List<InboxEntry> recent(final int limit) {
+        return List.copyOf(recent.subList(0, Math.min(limit, recent.size())));
+    }
+
+    long loadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    private int indexOf(final long id) {
+        for (int i = 0; i < recent.size(); i++) {
+            if (recent.get(i).id() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.seminote.notification.dispatch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the notification queue, its park queues and its dead-letter
+ * queue: settles deliveries the way RabbitMQ does, with requeued messages
+ * going back to the head of the queue and parked ones returning once their
+ * delay has passed on the given clock.
+ */
+final class InProcessBroker implements NotificationParking {
+
+    private final Clock clock;
+    private final ConcurrentLinkedDeque<NotificationRequest> queue = new ConcurrentLinkedDeque<>();
+    private final List<Parked> parked = new ArrayList<>();
+    private final Queue<NotificationRequest> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger acked = new AtomicInteger();
+    private final AtomicInteger requeued = new AtomicInteger();
+    private final AtomicInteger unacked = new AtomicInteger();
+
+    InProcessBroker(final Clock clock) {
+        this.clock = clock;
+    }
+
+    void publish(final NotificationRequest request) {
+        queue.add(request);
+    }
+
+    /**
+     * Deliver queued messages to the dispatcher, like a consumer with a prefetch limit.
+     * @return number delivered
+     */
+    int deliverTo(final NotificationDispatcher dispatcher, final int prefetch) {
+        int delivered = 0;
+        NotificationRequest request;
+        while (unacked.get() < prefetch && (request = queue.poll()) != null) {
+            unacked.incrementAndGet();
+            dispatcher.submit(request, new Delivery(request));
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /**
+     * Move parked messages whose delay has passed back onto the queue.
+     * @return number released
+     */
+    synchronized int releaseParked() {
+        long now = clock.millis();
+        int released = 0;
+        for (Iterator<Parked> it = parked.iterator(); it.hasNext();) {
+            Parked entry = it.next();
+            if (entry.releaseAtMillis() <= now) {
+                queue.add(entry.request());
+                it.remove();
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public synchronized void park(final NotificationRequest request, final Duration delay) {
+        parked.add(new Parked(request, clock.millis() + delay.toMillis()));
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    synchronized int parkedCount() {
+        return parked.size();
+    }
+
+    int acked() {
+        return acked.get();
+    }
+
+    int requeued() {
+        return requeued.get();
+    }
+
+    int unacked() {
+        return unacked.get();
+    }
+
+    Queue<NotificationRequest> deadLetters() {
+        return deadLetters;
+    }
+
+    private record Parked(NotificationRequest request, long releaseAtMillis) {
+    }
+
+    private final class Delivery implements Acknowledgement {
+
+        private final NotificationRequest request;
+
+        Delivery(final NotificationRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void ack() {
+            acked.incrementAndGet();
+            unacked.decrementAndGet();
+        }
+
+        @Override
+        public void requeue() {
+            requeued.incrementAndGet();
+            queue.addFirst(request);
+            unacked.decrementAndGet();
+        }
+
+        @Override
+        public void reject() {
+            deadLetters.add(request);
+            unacked.decrementAndGet();
+        }
+    }
+}
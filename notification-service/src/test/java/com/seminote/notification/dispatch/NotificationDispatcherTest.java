@@ -0,0 +1,338 @@
+package com.seminote.notification.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationDispatcherTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcherTest.class);
+    private static final Instant START = Instant.parse("2025-03-10T07:59:00Z");
+    private static final int PREFETCH = 1_000;
+
+    private final MutableClock clock = new MutableClock(START);
+    private final InProcessBroker broker = new InProcessBroker(clock);
+    private final RecordingWriter writer = new RecordingWriter();
+
+    private NotificationDispatcher dispatcher(final int flushSize) {
+        NotificationDispatchProperties properties = new NotificationDispatchProperties();
+        properties.setTick(Duration.ofMillis(100));
+        properties.setWheelSlots(16);
+        properties.setParkDelays(List.of(Duration.ofSeconds(1), Duration.ofSeconds(10)));
+        properties.setFlushSize(flushSize);
+        properties.setFlushInterval(Duration.ZERO);
+        return new NotificationDispatcher(properties, writer, broker, clock, new SimpleMeterRegistry());
+    }
+
+    private static NotificationRequest reminder(final long userId, final String title, final Instant deliverAt) {
+        return new NotificationRequest(userId, "PRACTICE_REMINDER", title, "Time to practice", deliverAt,
+                Priority.LOW, "daily-practice");
+    }
+
+    private static NotificationRequest request(final long userId, final Priority priority) {
+        return new NotificationRequest(userId, "LESSON_UPDATE", priority.name(), "", null, priority, null);
+    }
+
+    private void step(final NotificationDispatcher dispatcher, final Duration elapsed) {
+        clock.advance(elapsed);
+        broker.releaseParked();
+        broker.deliverTo(dispatcher, PREFETCH);
+        dispatcher.tick();
+    }
+
+    @Test
+    void coalescesDuplicateRemindersPerUserWhileScheduled() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        Instant at = START.plusSeconds(1);
+        broker.publish(reminder(1, "first", at));
+        broker.publish(reminder(2, "other user", at));
+        broker.publish(reminder(1, "second", at));
+        broker.publish(reminder(1, "latest", at));
+
+        step(dispatcher, Duration.ZERO);
+        assertEquals(2, dispatcher.scheduledCount());
+        assertEquals(0, writer.rows.size());
+        assertEquals(4, broker.unacked());
+
+        step(dispatcher, Duration.ofSeconds(1));
+        assertEquals(List.of("latest", "other user"), writer.titlesSorted());
+        assertEquals(4, broker.acked());
+        assertEquals(0, broker.unacked());
+    }
+
+    @Test
+    void keepsRequestsWithoutACoalescingKeyApart() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        broker.publish(new NotificationRequest(1L, "LESSON_UPDATE", "Scales added", "", null, null, null));
+        broker.publish(new NotificationRequest(1L, "LESSON_UPDATE", "Etude added", "", null, null, null));
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(List.of("Etude added", "Scales added"), writer.titlesSorted());
+        assertEquals(2, broker.acked());
+    }
+
+    @Test
+    void writesHigherPrioritiesFirstInBatchesOfTheFlushSize() {
+        NotificationDispatcher dispatcher = dispatcher(2);
+        broker.publish(request(1, Priority.LOW));
+        broker.publish(request(2, Priority.LOW));
+        broker.publish(request(3, Priority.HIGH));
+        broker.publish(request(4, Priority.NORMAL));
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(List.of(List.of("HIGH", "NORMAL"), List.of("LOW", "LOW")), writer.batches);
+        assertEquals(0, dispatcher.readyCount());
+    }
+
+    @Test
+    void mergingAnEarlierDeliveryTimeMovesTheNotificationUp() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        broker.publish(reminder(1, "later", START.plusMillis(1_400)));
+        broker.publish(reminder(1, "sooner", START.plusMillis(300)));
+
+        step(dispatcher, Duration.ZERO);
+        step(dispatcher, Duration.ofMillis(200));
+        assertEquals(0, writer.rows.size());
+        step(dispatcher, Duration.ofMillis(100));
+        assertEquals(List.of("sooner"), writer.titlesSorted());
+
+        for (int i = 0; i < 20; i++) {
+            step(dispatcher, Duration.ofMillis(100));
+        }
+        assertEquals(1, writer.rows.size());
+        assertEquals(2, broker.acked());
+    }
+
+    @Test
+    void parksRequestsBeyondTheHorizonInTheBrokerUntilTheyAreDue() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        Instant due = START.plusSeconds(25);
+        broker.publish(reminder(1, "tomorrow-ish", due));
+
+        step(dispatcher, Duration.ZERO);
+        assertEquals(1, broker.parkedCount());
+        assertEquals(0, dispatcher.scheduledCount());
+        assertEquals(0, broker.unacked());
+
+        Instant writtenAt = null;
+        while (writtenAt == null && clock.instant().isBefore(due.plusSeconds(5))) {
+            step(dispatcher, Duration.ofMillis(100));
+            if (!writer.rows.isEmpty()) {
+                writtenAt = clock.instant();
+            }
+        }
+        assertEquals(due, writtenAt);
+        assertEquals(1, writer.rows.size());
+        assertEquals(0, broker.parkedCount());
+    }
+
+    @Test
+    void reportsStoredRowsToListenersAfterTheyAreWritten() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        List<StoredNotification> stored = new ArrayList<>();
+        dispatcher.addListener(stored::addAll);
+        broker.publish(reminder(7, "practice", null));
+        broker.publish(request(8, Priority.HIGH));
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(List.of(
+                new StoredNotification(1, 8, "LESSON_UPDATE", "HIGH", "", clock.instant()),
+                new StoredNotification(2, 7, "PRACTICE_REMINDER", "practice", "Time to practice", clock.instant())),
+                stored);
+    }
+
+    @Test
+    void deadLettersInvalidRequests() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        broker.publish(new NotificationRequest(1L, "LESSON_UPDATE", null, "body", null, null, null));
+        broker.publish(new NotificationRequest(null, "LESSON_UPDATE", "title", "body", null, null, null));
+        broker.publish(new NotificationRequest(1L + Integer.MAX_VALUE, "LESSON_UPDATE", "title", "body", null,
+                null, null));
+        broker.publish(new NotificationRequest(1L, "LESSON_UPDATE", "t".repeat(256), "body", null, null, null));
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(4, broker.deadLetters().size());
+        assertEquals(0, writer.rows.size());
+        assertEquals(0, broker.unacked());
+    }
+
+    @Test
+    void retriesAFailedWriteAndAcksOnlyAfterItSucceeds() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        writer.failures.set(2);
+        broker.publish(request(1, Priority.NORMAL));
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(3, writer.attempts.get());
+        assertEquals(1, writer.rows.size());
+        assertEquals(1, broker.acked());
+    }
+
+    @Test
+    void deadLettersNotificationsTheDatabaseRejectsAndWritesTheRest() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        writer.unknownUsers = Set.of(3L, 6L);
+        List<StoredNotification> stored = new ArrayList<>();
+        dispatcher.addListener(stored::addAll);
+        for (long user = 1; user <= 7; user++) {
+            broker.publish(request(user, Priority.NORMAL));
+        }
+
+        step(dispatcher, Duration.ofMillis(100));
+
+        assertEquals(5, writer.rows.size());
+        assertEquals(5, stored.size());
+        assertEquals(List.of(3L, 6L), broker.deadLetters().stream().map(NotificationRequest::userId).sorted()
+                .toList());
+        assertEquals(5, broker.acked());
+        assertEquals(0, broker.unacked());
+        assertEquals(0, dispatcher.readyCount());
+    }
+
+    @Test
+    void requeuesWhatIsStillScheduledOnShutdown() {
+        NotificationDispatcher dispatcher = dispatcher(100);
+        dispatcher.start();
+        broker.publish(reminder(1, "due now", null));
+        broker.publish(reminder(2, "due later", START.plusSeconds(1)));
+        broker.publish(reminder(2, "duplicate", START.plusSeconds(1)));
+        broker.deliverTo(dispatcher, PREFETCH);
+
+        dispatcher.stop();
+
+        assertEquals(List.of("due now"), writer.titlesSorted());
+        assertEquals(1, broker.acked());
+        assertTrue(broker.requeued() >= 2);
+        assertEquals(2, broker.queued());
+        assertEquals(0, broker.unacked());
+    }
+
+    @Test
+    void sustainsOneHundredThousandNotificationsPerMinute() throws InterruptedException {
+        NotificationDispatchProperties properties = new NotificationDispatchProperties();
+        properties.setTick(Duration.ofMillis(10));
+        NotificationDispatcher dispatcher = new NotificationDispatcher(properties, writer, broker,
+                Clock.systemUTC(), new SimpleMeterRegistry());
+        int total = 200_000;
+        int users = 150_000;
+        for (int i = 0; i < total; i++) {
+            broker.publish(reminder(i % users, "reminder", null));
+        }
+
+        long start = System.nanoTime();
+        dispatcher.start();
+        int consumers = 4;
+        CountDownLatch done = new CountDownLatch(consumers);
+        for (int c = 0; c < consumers; c++) {
+            Thread consumer = new Thread(() -> {
+                while (broker.acked() < total) {
+                    if (broker.deliverTo(dispatcher, 4 * properties.getPrefetch()) == 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - start;
+        dispatcher.stop();
+
+        double perMinute = total * 60e9 / elapsedNanos;
+        LOGGER.info("Dispatched {} requests into {} rows at {} requests/min", total, writer.rows.size(),
+                Math.round(perMinute));
+        assertTrue(writer.rows.size() >= users && writer.rows.size() <= total);
+        assertTrue(perMinute >= 100_000, "throughput " + Math.round(perMinute) + "/min");
+    }
+
+    private static final class RecordingWriter implements NotificationWriter {
+
+        private final List<String> rows = Collections.synchronizedList(new ArrayList<>());
+        private final List<List<String>> batches = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private long nextId = 1;
+        private Set<Long> unknownUsers = Set.of();
+
+        @Override
+        public long[] write(final List<PendingNotification> notifications, final Instant createdAt) {
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            if (notifications.stream().anyMatch(notification -> unknownUsers.contains(notification.userId()))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            List<String> titles = new ArrayList<>(notifications.size());
+            for (PendingNotification notification : notifications) {
+                titles.add(notification.title());
+            }
+            batches.add(titles);
+            rows.addAll(titles);
+            long[] ids = new long[notifications.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nextId++;
+            }
+            return ids;
+        }
+
+        List<String> titlesSorted() {
+            List<String> sorted = new ArrayList<>(rows);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.seminote.notification.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    void firesEachItemOnTheFirstTickAtOrAfterItsDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 1_000);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule(1_250, "a");
+        wheel.schedule(1_300, "b");
+        wheel.schedule(900, "late");
+
+        assertEquals(1, wheel.advance(1_100, fired::add));
+        assertEquals(List.of("late"), fired);
+        assertEquals(0, wheel.advance(1_299, fired::add));
+        assertEquals(2, wheel.advance(1_300, fired::add));
+        assertEquals(List.of("late", "a", "b"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void keepsItemsBeyondOneTurnInTheirSlotUntilTheirRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule(200, "soon");
+        wheel.schedule(200 + 4 * TICK, "next-turn");
+        wheel.schedule(200 + 8 * TICK, "two-turns");
+
+        for (long now = 0; now <= 500; now += TICK) {
+            wheel.advance(now, fired::add);
+        }
+        assertEquals(List.of("soon"), fired);
+        for (long now = 600; now <= 900; now += TICK) {
+            wheel.advance(now, fired::add);
+        }
+        assertEquals(List.of("soon", "next-turn"), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void catchesUpAfterTheClockJumpsPastAWholeTurn() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 16, 0);
+        List<Integer> fired = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(i * 50L, i);
+        }
+
+        assertEquals(100, wheel.advance(60_000, fired::add));
+        assertEquals(100, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void roundsSlotCountUpToAPowerOfTwo() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 1000, 0);
+
+        assertEquals(1024 * TICK, wheel.horizonMillis());
+        assertEquals(1024 * TICK, new TimingWheel<String>(TICK, 1024, 0).horizonMillis());
+    }
+}
@@ -0,0 +1,222 @@
+package com.seminote.notification.inbox;
+
+import com.seminote.notification.dispatch.StoredNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InboxServiceTest {
+
+    private static final long USER = 7;
+    private static final Instant NOW = Instant.parse("2025-03-10T08:00:00Z");
+    private static final String OTHER_NODE = "other-node";
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final InMemoryStore store = new InMemoryStore();
+    private final List<InboxUpdates> broadcasts = new ArrayList<>();
+
+    private InboxService service() {
+        InboxProperties properties = new InboxProperties();
+        properties.setWindow(3);
+        properties.setMaxAge(Duration.ofMinutes(15));
+        return new InboxService(store, new InboxStreams(properties), broadcasts::add, properties, clock,
+                new SimpleMeterRegistry());
+    }
+
+    private static StoredNotification stored(final long id, final long userId) {
+        return new StoredNotification(id, userId, "PRACTICE_REMINDER", "Practice #" + id, "Time to practice", NOW);
+    }
+
+    private static InboxUpdates remote(final String origin, final InboxUpdate update) {
+        return new InboxUpdates(origin, List.of(update));
+    }
+
+    @Test
+    void loadsAnInboxOnceAndServesCountsFromMemory() {
+        store.insert(USER, 1, true);
+        store.insert(USER, 2, false);
+        store.insert(USER, 3, false);
+        InboxService service = service();
+
+        assertEquals(2, service.unreadCount(USER).unreadCount());
+        assertEquals(List.of(3L, 2L), service.inbox(USER, 2).entries().stream().map(InboxEntry::id).toList());
+        assertEquals(2, service.unreadCount(USER).unreadCount());
+        assertEquals(1, store.loads);
+    }
+
+    @Test
+    void appliesWrittenNotificationsToCachedInboxesAndBroadcastsThem() {
+        store.insert(USER, 1, false);
+        InboxService service = service();
+        service.unreadCount(USER);
+
+        store.insert(USER, 2, false);
+        store.insert(USER, 3, false);
+        store.insert(USER, 4, false);
+        store.insert(8, 5, false);
+        service.onStored(List.of(stored(2, USER), stored(3, USER), stored(4, USER), stored(5, 8)));
+
+        InboxView inbox = service.inbox(USER, 3);
+        assertEquals(4, inbox.unreadCount());
+        assertEquals(List.of(4L, 3L, 2L), inbox.entries().stream().map(InboxEntry::id).toList());
+        assertFalse(service.isCached(8));
+        assertEquals(1, store.loads);
+        assertEquals(1, broadcasts.size());
+        assertEquals(service.nodeId(), broadcasts.get(0).origin());
+        assertEquals(2, broadcasts.get(0).updates().size());
+    }
+
+    @Test
+    void countsOnlyNotificationsTheStoreActuallyMarkedRead() {
+        store.insert(USER, 1, false);
+        store.insert(USER, 2, false);
+        store.insert(USER, 3, true);
+        InboxService service = service();
+        service.unreadCount(USER);
+
+        assertEquals(1, service.markRead(USER, List.of(1L, 3L, 99L)).unreadCount());
+        assertEquals(1, service.markRead(USER, List.of(1L)).unreadCount());
+        assertTrue(service.inbox(USER, 3).entries().stream()
+                .filter(entry -> entry.id() == 1)
+                .allMatch(InboxEntry::read));
+        assertEquals(0, service.markAllRead(USER).unreadCount());
+        assertEquals(1, store.loads);
+        assertEquals(2, broadcasts.size());
+    }
+
+    @Test
+    void appliesRemoteChangesOnceAndIgnoresItsOwn() {
+        store.insert(USER, 1, false);
+        store.insert(USER, 2, false);
+        InboxService service = service();
+        service.unreadCount(USER);
+        InboxEntry alreadyLoaded = new InboxEntry(2, "LESSON_UPDATE", "t", "m", false, NOW);
+        InboxEntry fresh = new InboxEntry(3, "LESSON_UPDATE", "t", "m", false, NOW);
+
+        service.onRemote(remote(OTHER_NODE, new InboxUpdate(USER, List.of(alreadyLoaded), List.of())));
+        assertEquals(2, service.unreadCount(USER).unreadCount());
+
+        service.onRemote(remote(OTHER_NODE, new InboxUpdate(USER, List.of(fresh), List.of())));
+        service.onRemote(remote(OTHER_NODE, new InboxUpdate(USER, List.of(fresh), List.of())));
+        assertEquals(3, service.unreadCount(USER).unreadCount());
+
+        service.onRemote(remote(service.nodeId(), new InboxUpdate(USER, List.of(), List.of(1L))));
+        assertEquals(3, service.unreadCount(USER).unreadCount());
+        service.onRemote(remote(OTHER_NODE, new InboxUpdate(USER, List.of(), List.of(1L))));
+        assertEquals(2, service.unreadCount(USER).unreadCount());
+    }
+
+    @Test
+    void reloadsAnInboxOlderThanTheMaximumAge() {
+        store.insert(USER, 1, false);
+        InboxService service = service();
+        service.unreadCount(USER);
+
+        store.insert(USER, 2, false);
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(1, service.unreadCount(USER).unreadCount());
+        clock.advance(Duration.ofMinutes(6));
+        assertEquals(2, service.unreadCount(USER).unreadCount());
+        assertEquals(2, store.loads);
+    }
+
+    private static final class InMemoryStore implements InboxStore {
+
+        private final List<Row> rows = new ArrayList<>();
+        private int loads;
+
+        void insert(final long userId, final long id, final boolean read) {
+            rows.add(new Row(userId, new InboxEntry(id, "PRACTICE_REMINDER", "Practice #" + id, "Time to practice",
+                    read, NOW)));
+        }
+
+        @Override
+        public Snapshot load(final long userId, final int window) {
+            loads++;
+            List<InboxEntry> entries = new ArrayList<>();
+            int unread = 0;
+            long maxId = 0;
+            for (Row row : rows) {
+                if (row.userId == userId) {
+                    entries.add(0, row.entry);
+                    unread += row.entry.read() ? 0 : 1;
+                    maxId = Math.max(maxId, row.entry.id());
+                }
+            }
+            return new Snapshot(unread, maxId, entries.subList(0, Math.min(window, entries.size())));
+        }
+
+        @Override
+        public List<Long> markRead(final long userId, final List<Long> ids) {
+            List<Long> changed = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.userId == userId && ids.contains(row.entry.id()) && !row.entry.read()) {
+                    row.entry = row.entry.markedRead();
+                    changed.add(row.entry.id());
+                }
+            }
+            return changed;
+        }
+
+        @Override
+        public List<Long> markAllRead(final long userId) {
+            List<Long> ids = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.userId == userId) {
+                    ids.add(row.entry.id());
+                }
+            }
+            return markRead(userId, ids);
+        }
+
+        private static final class Row {
+
+            private final long userId;
+            private InboxEntry entry;
+
+            Row(final long userId, final InboxEntry entry) {
+                this.userId = userId;
+                this.entry = entry;
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
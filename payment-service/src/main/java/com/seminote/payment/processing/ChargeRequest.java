@@ -0,0 +1,16 @@
+package com.seminote.payment.processing;
+
+import java.math.BigDecimal;
+
+/**
+ * A request to charge a user.
+ *
+ * @param transactionId client-chosen idempotency key; retrying with the same key never charges twice
+ * @param userId paying user, optional; the payer is always the authenticated caller
+ * @param amount amount in the currency's major unit
+ * @param currency ISO 4217 code, defaults to USD
+ * @param paymentMethod payment method, optional
+ */
+public record ChargeRequest(String transactionId, Long userId, BigDecimal amount, String currency,
+                            String paymentMethod) {
+}
@@ -0,0 +1,74 @@
+package com.seminote.payment.processing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the payment provider, for development and offline load
+ * tests.
+ *
+ * Each call takes the configured latency and fails transiently with the
+ * configured probability. Whether a transaction is declined is derived from
+ * its id, so every run declines the same transactions. Like a real provider
+ * it is idempotent by transaction id.
+ */
+public class FakePaymentProvider implements PaymentProvider {
+
+    private final long latencyNanos;
+    private final double declineRate;
+    private final double failureRate;
+    private final Map<String, ProviderResult> answered = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong charges = new AtomicLong();
+
+    /**
+     * Create a fake provider.
+     * @param latencyMillis simulated latency per call
+     * @param declineRate share of transactions declined
+     * @param failureRate share of calls failing transiently
+     */
+    public FakePaymentProvider(final long latencyMillis, final double declineRate, final double failureRate) {
+        this.latencyNanos = latencyMillis * 1_000_000;
+        this.declineRate = declineRate;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public ProviderResult charge(final Payment payment) {
+        calls.incrementAndGet();
+        if (latencyNanos > 0) {
+            try {
+                Thread.sleep(latencyNanos / 1_000_000, (int) (latencyNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProviderUnavailableException("Interrupted", e);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new ProviderUnavailableException("Simulated provider outage");
+        }
+        return answered.computeIfAbsent(payment.transactionId(), id -> {
+            charges.incrementAndGet();
+            boolean declined = Math.floorMod(id.hashCode(), 10_000) < declineRate * 10_000;
+            return declined ? new ProviderResult(false, "card_declined") : new ProviderResult(true, null);
+        });
+    }
+
+    /**
+     * Calls received, including retries and repeats.
+     * @return call count
+     */
+    public long calls() {
+        return calls.get();
+    }
+
+    /**
+     * Distinct transactions answered.
+     * @return charge count
+     */
+    public long charges() {
+        return charges.get();
+    }
+}
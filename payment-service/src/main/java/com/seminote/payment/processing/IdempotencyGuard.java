@@ -0,0 +1,97 @@
+package com.seminote.payment.processing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * In-memory screen for idempotency keys in front of the database.
+ *
+ * A bounded cache holds the outcome of recently processed keys, so the bursts
+ * of repeats providers send are answered without a query. Behind it a Bloom
+ * filter tells apart keys that were certainly never seen, which need no
+ * existence check, from keys that might have been, which are confirmed against
+ * the database. The filter rotates through two generations once the current
+ * one reaches capacity, keeping the false-positive rate near its target.
+ * The database stays authoritative; the guard only saves round trips.
+ */
+final class IdempotencyGuard {
+
+    /** Result of screening a key. */
+    enum Verdict {
+        /** Certainly never processed on this node since the filter was warmed. */
+        NEW,
+        /** Possibly processed; confirm against the database. */
+        UNKNOWN
+    }
+
+    private final long capacity;
+    private final double falsePositiveRate;
+    private final Cache<String, Payment> recent;
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    IdempotencyGuard(final long capacity, final double falsePositiveRate, final int recentKeys,
+                     final Duration recentTtl) {
+        this.capacity = capacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(capacity, falsePositiveRate);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(recentKeys)
+                .expireAfterWrite(recentTtl)
+                .build();
+    }
+
+    /**
+     * Outcome of a recently processed key.
+     * @return payment state after processing, or null if not cached
+     */
+    Payment recent(final String key) {
+        return recent.getIfPresent(key);
+    }
+
+    /**
+     * Screen a key that missed the recent cache.
+     * @return verdict
+     */
+    Verdict screen(final String key) {
+        BloomFilter older = previous;
+        boolean seen = current.mightContain(key) || (older != null && older.mightContain(key));
+        return seen ? Verdict.UNKNOWN : Verdict.NEW;
+    }
+
+    /**
+     * Record a processed key and its outcome.
+     * @param key idempotency key
+     * @param payment payment state after processing
+     */
+    void remember(final String key, final Payment payment) {
+        recent.put(key, payment);
+        record(key);
+    }
+
+    /**
+     * Record a key known from the database, without an outcome.
+     * @param key idempotency key
+     */
+    void record(final String key) {
+        BloomFilter filter = current;
+        filter.put(key);
+        if (filter.approximateInsertions() >= capacity) {
+            rotate(filter);
+        }
+    }
+
+    long recentSize() {
+        return recent.estimatedSize();
+    }
+
+    private synchronized void rotate(final BloomFilter full) {
+        if (current != full) {
+            return;
+        }
+        previous = full;
+        current = new BloomFilter(capacity, falsePositiveRate);
+    }
+}
@@ -0,0 +1,98 @@
+package com.seminote.payment.processing;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Payments in the {@code payments} table.
+ *
+ * Every write is a single statement guarded by the unique
+ * {@code transaction_id}: inserts use {@code ON CONFLICT DO NOTHING} and
+ * status changes only match rows in an allowed previous status, so concurrent
+ * nodes can never charge or transition a payment twice. No row locks are held
+ * between statements.
+ */
+public class JdbcPaymentRepository implements PaymentRepository {
+
+    private static final String FIND_SQL = "SELECT transaction_id, user_id, amount, currency, payment_method, status "
+            + "FROM payments WHERE transaction_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO payments "
+            + "(user_id, amount, currency, payment_method, status, transaction_id) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (transaction_id) DO NOTHING";
+    private static final String APPLY_SQL = "UPDATE payments SET status = ?, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE transaction_id = ? AND status = ANY(?)";
+    private static final String UPDATED_SINCE_SQL = "SELECT transaction_id, status FROM payments "
+            + "WHERE updated_at >= ? AND transaction_id IS NOT NULL";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the payment datasource
+     * @param transactionTemplate transactions over the same datasource; scans run read-only inside one
+     *                            so the driver streams rows instead of buffering them
+     */
+    public JdbcPaymentRepository(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public Payment find(final String transactionId) {
+        List<Payment> payments = jdbcTemplate.query(FIND_SQL, JdbcPaymentRepository::payment, transactionId);
+        return payments.isEmpty() ? null : payments.get(0);
+    }
+
+    @Override
+    public boolean insertPending(final Payment payment) {
+        return jdbcTemplate.update(INSERT_SQL, payment.userId(), payment.amount(), payment.currency(),
+                payment.paymentMethod(), PaymentStatus.PENDING.id(), payment.transactionId()) == 1;
+    }
+
+    @Override
+    public boolean applyStatus(final Payment payment) {
+        String[] predecessors = payment.status().predecessors().stream().map(PaymentStatus::id)
+                .toArray(String[]::new);
+        return jdbcTemplate.update(APPLY_SQL, ps -> {
+            ps.setString(1, payment.status().id());
+            ps.setString(2, payment.transactionId());
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", predecessors));
+        }) == 1;
+    }
+
+    @Override
+    public void forEachUpdatedSince(final Instant since, final KeyConsumer consumer) {
+        readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATED_SINCE_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.ofInstant(since, ZoneOffset.UTC)));
+            return ps;
+        }, rs -> {
+            PaymentStatus status = PaymentStatus.parse(rs.getString(2));
+            if (status != null) {
+                consumer.accept(rs.getString(1), status);
+            }
+        }));
+    }
+
+    private static Payment payment(final ResultSet rs, final int rowNum) throws SQLException {
+        PaymentStatus status = PaymentStatus.parse(rs.getString("status"));
+        if (status == null) {
+            throw new IllegalStateException("Unknown payment status " + rs.getString("status"));
+        }
+        return new Payment(rs.getString("transaction_id"), rs.getLong("user_id"), rs.getBigDecimal("amount"),
+                rs.getString("currency"), rs.getString("payment_method"), status);
+    }
+}
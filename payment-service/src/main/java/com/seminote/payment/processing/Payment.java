@@ -0,0 +1,21 @@
+package com.seminote.payment.processing;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment row.
+ *
+ * @param transactionId idempotency key, unique across payments
+ * @param userId paying user
+ * @param amount amount in the currency's major unit
+ * @param currency ISO 4217 code
+ * @param paymentMethod payment method, optional
+ * @param status current status
+ */
+public record Payment(String transactionId, long userId, BigDecimal amount, String currency, String paymentMethod,
+                      PaymentStatus status) {
+
+    Payment withStatus(final PaymentStatus next) {
+        return new Payment(transactionId, userId, amount, currency, paymentMethod, next);
+    }
+}
@@ -0,0 +1,90 @@
+package com.seminote.payment.processing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires idempotent payment processing.
+ *
+ * There is no provider by default: the local fake is registered only with
+ * {@code seminote.payments.provider=fake}, and the service refuses to start
+ * when no {@link PaymentProvider} bean is defined.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PaymentProperties.class)
+public class PaymentConfiguration {
+
+    /**
+     * Payment storage.
+     * @param jdbcTemplate template over the payments datasource
+     * @param transactionTemplate template for the warmup scan
+     * @return repository
+     */
+    @Bean
+    public PaymentRepository paymentRepository(final JdbcTemplate jdbcTemplate,
+                                               final TransactionTemplate transactionTemplate) {
+        return new JdbcPaymentRepository(jdbcTemplate, transactionTemplate);
+    }
+
+    /**
+     * Local fake provider, only when explicitly selected.
+     * @param properties payment settings
+     * @return fake provider
+     */
+    @Bean
+    @ConditionalOnProperty(name = "seminote.payments.provider", havingValue = PaymentProperties.FAKE_PROVIDER)
+    public PaymentProvider fakePaymentProvider(final PaymentProperties properties) {
+        return new FakePaymentProvider(properties.getFakeLatencyMillis(), properties.getFakeDeclineRate(),
+                properties.getFakeFailureRate());
+    }
+
+    /**
+     * Verifier for provider webhooks.
+     * @param properties payment settings
+     * @return verifier
+     * @throws IllegalStateException if no webhook secret is configured
+     */
+    @Bean
+    public WebhookSignature webhookSignature(final PaymentProperties properties) {
+        return new WebhookSignature(properties.getWebhookSecret());
+    }
+
+    /**
+     * Payment processor.
+     * @param repository payment storage
+     * @param provider payment provider
+     * @param properties payment settings
+     * @param registry metrics registry
+     * @return processor
+     * @throws IllegalStateException if no payment provider is configured
+     */
+    @Bean
+    public PaymentProcessor paymentProcessor(final PaymentRepository repository,
+                                             final ObjectProvider<PaymentProvider> provider,
+                                             final PaymentProperties properties, final MeterRegistry registry) {
+        return new PaymentProcessor(repository, requireProvider(provider), properties, Clock.systemUTC(), registry);
+    }
+
+    /**
+     * Resolve the configured provider.
+     * @param provider provider beans
+     * @return the provider
+     * @throws IllegalStateException if none is defined
+     */
+    public static PaymentProvider requireProvider(final ObjectProvider<PaymentProvider> provider) {
+        PaymentProvider resolved = provider.getIfUnique();
+        if (resolved == null) {
+            throw new IllegalStateException("No payment provider is configured; set seminote.payments.provider="
+                    + PaymentProperties.FAKE_PROVIDER + " to charge through the local fake");
+        }
+        return resolved;
+    }
+}
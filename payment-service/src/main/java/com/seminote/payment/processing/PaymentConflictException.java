@@ -0,0 +1,18 @@
+package com.seminote.payment.processing;
+
+/**
+ * Thrown when a transaction id is reused for a different user or amount, or
+ * a webhook disagrees with the payment it names.
+ */
+public class PaymentConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception.
+     * @param message description
+     */
+    public PaymentConflictException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.seminote.payment.processing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.common.users.GatewayUser;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Payments API.
+ *
+ * Charges are idempotent by transaction id: clients retry with the same id
+ * and get the original result back. Charges and lookups act only for the
+ * caller named by the gateway's {@link GatewayUser#USER_ID_HEADER}; another
+ * user's payment reads as not found. Provider webhooks must carry a valid
+ * {@link WebhookSignature} and match the payment they name; those that do are
+ * acknowledged with 200 whether they changed anything or not, so the provider
+ * stops resending.
+ */
+@RestController
+@RequestMapping("/api/v1/payments")
+public class PaymentController {
+
+    static final int MAX_TRANSACTION_ID_LENGTH = 255;
+    private static final String DEFAULT_CURRENCY = "USD";
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}");
+
+    private final PaymentProcessor processor;
+    private final PaymentRepository repository;
+    private final WebhookSignature webhookSignature;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Create the controller.
+     * @param processor payment processor
+     * @param repository payment storage
+     * @param webhookSignature verifier for provider webhooks
+     * @param objectMapper mapper for verified webhook bodies
+     */
+    public PaymentController(final PaymentProcessor processor, final PaymentRepository repository,
+                             final WebhookSignature webhookSignature, final ObjectMapper objectMapper) {
+        this.processor = processor;
+        this.repository = repository;
+        this.webhookSignature = webhookSignature;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Charge the caller once per transaction id.
+     * @param callerId user id forwarded by the gateway
+     * @param request charge request; its userId, if given, must be the caller
+     * @return payment, marked duplicate if the transaction id was already charged
+     */
+    @PostMapping
+    public PaymentView charge(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @RequestBody final ChargeRequest request) {
+        long payer = GatewayUser.require(callerId);
+        if (request.userId() != null && request.userId() != payer) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Payments can only be charged to the caller");
+        }
+        String currency = currency(request.currency());
+        Payment payment = new Payment(transactionId(request.transactionId()), payer,
+                amount(request.amount()), currency, request.paymentMethod(), PaymentStatus.PENDING);
+        try {
+            return processor.charge(payment);
+        } catch (PaymentConflictException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a provider status notification.
+     * @param body raw provider event, parsed only once its signature checks out
+     * @param signature provider signature of the body
+     * @return what the event did
+     */
+    @PostMapping("/webhooks")
+    public Map<String, String> webhook(@RequestBody final byte[] body,
+                                       @RequestHeader(name = WebhookSignature.HEADER, required = false)
+                                       final String signature) {
+        if (!webhookSignature.verify(body, signature)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid webhook signature");
+        }
+        ProviderWebhook webhook;
+        try {
+            webhook = objectMapper.readValue(body, ProviderWebhook.class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed webhook");
+        }
+        PaymentStatus status = PaymentStatus.parse(webhook.status());
+        if (status == null || status == PaymentStatus.PENDING) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported status: " + webhook.status());
+        }
+        Payment event = new Payment(transactionId(webhook.transactionId()), userId(webhook.userId()),
+                amount(webhook.amount()), currency(webhook.currency()), null, status);
+        try {
+            return Map.of("outcome", processor.handle(event).name().toLowerCase(Locale.ROOT));
+        } catch (PaymentConflictException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Look up one of the caller's payments.
+     * @param callerId user id forwarded by the gateway
+     * @param transactionId transaction id
+     * @return payment
+     */
+    @GetMapping("/{transactionId}")
+    public PaymentView get(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final String transactionId) {
+        long userId = GatewayUser.require(callerId);
+        Payment payment = repository.find(transactionId);
+        if (payment == null || payment.userId() != userId) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found");
+        }
+        return PaymentView.of(payment, false);
+    }
+
+    private static String transactionId(final String transactionId) {
+        if (transactionId == null || transactionId.isBlank() || transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "transactionId must be 1 to " + MAX_TRANSACTION_ID_LENGTH + " characters");
+        }
+        return transactionId;
+    }
+
+    private static long userId(final Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId is required");
+        }
+        return userId;
+    }
+
+    private static BigDecimal amount(final BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0 || amount.scale() > 2) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "amount must be positive with at most 2 decimals");
+        }
+        return amount;
+    }
+
+    private static String currency(final String currency) {
+        if (currency == null) {
+            return DEFAULT_CURRENCY;
+        }
+        String code = currency.toUpperCase(Locale.ROOT);
+        if (!CURRENCY.matcher(code).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "currency must be a 3-letter code");
+        }
+        return code;
+    }
+}
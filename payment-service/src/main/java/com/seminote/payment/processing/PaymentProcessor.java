@@ -0,0 +1,327 @@
+package com.seminote.payment.processing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Processes charges and provider webhooks exactly once per transaction id.
+ *
+ * Each request is first screened in memory by an {@link IdempotencyGuard}:
+ * repeats of recently processed keys are answered from its cache without
+ * touching the database, keys it has certainly never seen skip the existence
+ * check, and only the rest are confirmed with a lookup. Work for one user runs
+ * under that user's stripe of {@link StripedLocks}, so a user's payments are
+ * serialized on this node while other users proceed in parallel; across nodes
+ * the unique transaction id and status-guarded writes keep the result exact.
+ *
+ * Provider calls are retried with jittered exponential backoff under the same
+ * transaction id. A charge whose attempts all fail stays pending, and
+ * repeating the request resumes it.
+ */
+public class PaymentProcessor implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    private final PaymentRepository repository;
+    private final PaymentProvider provider;
+    private final PaymentProperties properties;
+    private final Clock clock;
+    private final IdempotencyGuard guard;
+    private final StripedLocks locks;
+    private final Counter charged;
+    private final Counter declined;
+    private final Counter leftPending;
+    private final Counter duplicateCharges;
+    private final Counter webhooksApplied;
+    private final Counter webhooksDuplicate;
+    private final Counter webhooksIgnored;
+    private final Counter webhooksUnknown;
+    private final Counter answeredFromCache;
+    private final Counter skippedLookup;
+    private final Counter confirmedLookup;
+    private final Counter providerRetries;
+    private final Timer providerLatency;
+
+    private volatile boolean running;
+
+    /**
+     * Create a processor.
+     * @param repository payment storage
+     * @param provider payment provider
+     * @param properties processing settings
+     * @param clock time source for the warmup window
+     * @param registry registry for payment metrics
+     */
+    public PaymentProcessor(final PaymentRepository repository, final PaymentProvider provider,
+                            final PaymentProperties properties, final Clock clock, final MeterRegistry registry) {
+        this.repository = repository;
+        this.provider = provider;
+        this.properties = properties;
+        this.clock = clock;
+        this.guard = new IdempotencyGuard(properties.getBloomCapacity(), properties.getBloomFalsePositiveRate(),
+                properties.getRecentKeys(), properties.getRecentKeyTtl());
+        this.locks = new StripedLocks(properties.getLockStripes());
+        this.charged = outcome(registry, "seminote.payments.charges", "succeeded");
+        this.declined = outcome(registry, "seminote.payments.charges", "failed");
+        this.leftPending = outcome(registry, "seminote.payments.charges", "pending");
+        this.duplicateCharges = outcome(registry, "seminote.payments.charges", "duplicate");
+        this.webhooksApplied = outcome(registry, "seminote.payments.webhooks", "applied");
+        this.webhooksDuplicate = outcome(registry, "seminote.payments.webhooks", "duplicate");
+        this.webhooksIgnored = outcome(registry, "seminote.payments.webhooks", "ignored");
+        this.webhooksUnknown = outcome(registry, "seminote.payments.webhooks", "unknown");
+        this.answeredFromCache = idempotencyCheck(registry, "cache");
+        this.skippedLookup = idempotencyCheck(registry, "bloom");
+        this.confirmedLookup = idempotencyCheck(registry, "database");
+        this.providerRetries = Counter.builder("seminote.payments.provider.retries")
+                .description("Provider calls retried after a transient failure").register(registry);
+        this.providerLatency = Timer.builder("seminote.payments.provider.calls")
+                .description("Time per provider call, including failed ones")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("seminote.payments.idempotency.recent", guard, IdempotencyGuard::recentSize)
+                .description("Recently processed keys held in memory").register(registry);
+    }
+
+    /**
+     * Charge a payment once.
+     * @param payment payment to charge; its status is ignored
+     * @return payment after processing, marked duplicate if the transaction id was already processed
+     * @throws PaymentConflictException if the transaction id belongs to a different user or amount
+     */
+    public PaymentView charge(final Payment payment) {
+        String key = payment.transactionId();
+        Payment recent = guard.recent(key);
+        if (recent != null) {
+            answeredFromCache.increment();
+            return duplicateCharge(recent, payment);
+        }
+        ReentrantLock lock = locks.forUser(payment.userId());
+        lock.lock();
+        try {
+            Payment existing = lookup(key, key);
+            if (existing == null && !repository.insertPending(payment.withStatus(PaymentStatus.PENDING))) {
+                // Another node inserted it first
+                existing = repository.find(key);
+            }
+            Payment pending = payment.withStatus(PaymentStatus.PENDING);
+            if (existing != null) {
+                if (existing.status() != PaymentStatus.PENDING) {
+                    guard.remember(key, existing);
+                    return duplicateCharge(existing, payment);
+                }
+                checkSameCharge(existing, payment);
+                pending = existing;
+            }
+            Payment settled = settle(pending);
+            if (settled.status() == PaymentStatus.PENDING) {
+                guard.record(key);
+                leftPending.increment();
+            } else {
+                guard.remember(key, settled);
+                guard.record(statusKey(settled.transactionId(), settled.status()));
+                (settled.status() == PaymentStatus.SUCCEEDED ? charged : declined).increment();
+            }
+            return PaymentView.of(settled, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply a provider webhook once to the payment it names. The webhook must
+     * agree with the stored payment's user, amount and currency, and is
+     * serialized with the stored user's other payments.
+     * @param event payment carrying the reported status
+     * @return what the webhook did
+     * @throws PaymentConflictException if the webhook does not match the stored payment
+     */
+    public WebhookOutcome handle(final Payment event) {
+        String key = statusKey(event.transactionId(), event.status());
+        Payment recent = guard.recent(key);
+        if (recent != null) {
+            checkSamePayment(recent, event);
+            answeredFromCache.increment();
+            webhooksDuplicate.increment();
+            return WebhookOutcome.DUPLICATE;
+        }
+        // Owner, amount and currency never change, so a remembered payment is good enough to check them
+        Payment stored = guard.recent(event.transactionId());
+        boolean fresh = stored == null;
+        if (fresh) {
+            confirmedLookup.increment();
+            stored = repository.find(event.transactionId());
+        }
+        if (stored == null) {
+            webhooksUnknown.increment();
+            return WebhookOutcome.UNKNOWN;
+        }
+        checkSamePayment(stored, event);
+        ReentrantLock lock = locks.forUser(stored.userId());
+        lock.lock();
+        try {
+            Payment current = stored;
+            if (!fresh || current.status() != event.status()) {
+                Payment updated = stored.withStatus(event.status());
+                if (repository.applyStatus(updated)) {
+                    guard.remember(key, updated);
+                    guard.remember(event.transactionId(), updated);
+                    webhooksApplied.increment();
+                    return WebhookOutcome.APPLIED;
+                }
+                current = repository.find(event.transactionId());
+            }
+            if (current != null && current.status() == event.status()) {
+                guard.remember(key, current);
+                webhooksDuplicate.increment();
+                return WebhookOutcome.DUPLICATE;
+            }
+            webhooksIgnored.increment();
+            return WebhookOutcome.IGNORED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read recently updated payments into the Bloom filter, so repeats of them
+     * are confirmed against the database instead of being written blindly.
+     * @return number of payments read
+     */
+    public long warm() {
+        LongAdder count = new LongAdder();
+        repository.forEachUpdatedSince(clock.instant().minus(properties.getWarmupWindow()), (transactionId, status) -> {
+            guard.record(transactionId);
+            guard.record(statusKey(transactionId, status));
+            count.increment();
+        });
+        return count.sum();
+    }
+
+    private Payment lookup(final String key, final String transactionId) {
+        if (guard.screen(key) == IdempotencyGuard.Verdict.NEW) {
+            skippedLookup.increment();
+            return null;
+        }
+        confirmedLookup.increment();
+        return repository.find(transactionId);
+    }
+
+    private Payment settle(final Payment pending) {
+        ProviderResult result = callProvider(pending);
+        if (result == null) {
+            return pending;
+        }
+        Payment settled = pending.withStatus(result.approved() ? PaymentStatus.SUCCEEDED : PaymentStatus.FAILED);
+        if (repository.applyStatus(settled)) {
+            return settled;
+        }
+        // A webhook settled it while the provider call was in flight
+        Payment current = repository.find(pending.transactionId());
+        return current != null ? current : settled;
+    }
+
+    private ProviderResult callProvider(final Payment payment) {
+        long backoffMs = properties.getProviderInitialBackoff().toMillis();
+        long maxBackoffMs = properties.getProviderMaxBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                return provider.charge(payment);
+            } catch (ProviderUnavailableException e) {
+                if (attempt >= properties.getProviderAttempts()) {
+                    LOGGER.warn("Payment {} left pending after {} provider attempts: {}",
+                            payment.transactionId(), attempt, e.getMessage());
+                    return null;
+                }
+                providerRetries.increment();
+                try {
+                    Thread.sleep(backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            } finally {
+                providerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private PaymentView duplicateCharge(final Payment existing, final Payment requested) {
+        checkSameCharge(existing, requested);
+        duplicateCharges.increment();
+        return PaymentView.of(existing, true);
+    }
+
+    private static void checkSameCharge(final Payment existing, final Payment requested) {
+        if (existing.userId() != requested.userId() || existing.amount().compareTo(requested.amount()) != 0) {
+            throw new PaymentConflictException("Transaction " + requested.transactionId()
+                    + " was already used for a different charge");
+        }
+    }
+
+    private static void checkSamePayment(final Payment stored, final Payment event) {
+        if (stored.userId() != event.userId() || stored.amount().compareTo(event.amount()) != 0
+                || !Objects.equals(stored.currency(), event.currency())) {
+            throw new PaymentConflictException("Webhook for transaction " + event.transactionId()
+                    + " does not match the stored payment");
+        }
+    }
+
+    static String statusKey(final String transactionId, final PaymentStatus status) {
+        return transactionId + '#' + status.id();
+    }
+
+    private static Counter outcome(final MeterRegistry registry, final String name, final String outcome) {
+        return Counter.builder(name)
+                .description("Payments processed, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter idempotencyCheck(final MeterRegistry registry, final String source) {
+        return Counter.builder("seminote.payments.idempotency.checks")
+                .description("Idempotency checks, by where they were decided")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        try {
+            long start = System.nanoTime();
+            long warmed = warm();
+            LOGGER.info("Warmed payment idempotency filter with {} payments in {} ms", warmed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Payment idempotency warmup failed, every repeat will be confirmed by insert: {}",
+                    e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
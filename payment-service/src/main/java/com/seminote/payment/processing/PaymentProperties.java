@@ -0,0 +1,183 @@
+package com.seminote.payment.processing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for payment processing.
+ */
+@ConfigurationProperties(prefix = "seminote.payments")
+public class PaymentProperties {
+
+    /** {@link #getProvider()} value selecting {@link FakePaymentProvider}. */
+    public static final String FAKE_PROVIDER = "fake";
+
+    private static final int DEFAULT_LOCK_STRIPES = 4096;
+    private static final long DEFAULT_BLOOM_CAPACITY = 1_000_000;
+    private static final double DEFAULT_BLOOM_FALSE_POSITIVE_RATE = 0.001;
+    private static final int DEFAULT_RECENT_KEYS = 100_000;
+    private static final long DEFAULT_RECENT_KEY_TTL_MINUTES = 60;
+    private static final long DEFAULT_WARMUP_WINDOW_DAYS = 7;
+    private static final int DEFAULT_PROVIDER_ATTEMPTS = 4;
+    private static final long DEFAULT_PROVIDER_INITIAL_BACKOFF_MILLIS = 100;
+    private static final long DEFAULT_PROVIDER_MAX_BACKOFF_SECONDS = 2;
+    private static final long DEFAULT_FAKE_LATENCY_MILLIS = 20;
+    private static final double DEFAULT_FAKE_DECLINE_RATE = 0.02;
+    private static final double DEFAULT_FAKE_FAILURE_RATE = 0.05;
+
+    private int lockStripes = DEFAULT_LOCK_STRIPES;
+    private long bloomCapacity = DEFAULT_BLOOM_CAPACITY;
+    private double bloomFalsePositiveRate = DEFAULT_BLOOM_FALSE_POSITIVE_RATE;
+    private int recentKeys = DEFAULT_RECENT_KEYS;
+    private Duration recentKeyTtl = Duration.ofMinutes(DEFAULT_RECENT_KEY_TTL_MINUTES);
+    private Duration warmupWindow = Duration.ofDays(DEFAULT_WARMUP_WINDOW_DAYS);
+    private int providerAttempts = DEFAULT_PROVIDER_ATTEMPTS;
+    private Duration providerInitialBackoff = Duration.ofMillis(DEFAULT_PROVIDER_INITIAL_BACKOFF_MILLIS);
+    private Duration providerMaxBackoff = Duration.ofSeconds(DEFAULT_PROVIDER_MAX_BACKOFF_SECONDS);
+    private String provider;
+    private long fakeLatencyMillis = DEFAULT_FAKE_LATENCY_MILLIS;
+    private double fakeDeclineRate = DEFAULT_FAKE_DECLINE_RATE;
+    private double fakeFailureRate = DEFAULT_FAKE_FAILURE_RATE;
+    private String webhookSecret;
+
+    /**
+     * Number of per-user locks; users only contend when their ids share a stripe.
+     * @return stripe count, rounded up to a power of two
+     */
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(final int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
+    /**
+     * Keys per Bloom filter generation before it rotates.
+     * @return capacity
+     */
+    public long getBloomCapacity() {
+        return bloomCapacity;
+    }
+
+    public void setBloomCapacity(final long bloomCapacity) {
+        this.bloomCapacity = bloomCapacity;
+    }
+
+    public double getBloomFalsePositiveRate() {
+        return bloomFalsePositiveRate;
+    }
+
+    public void setBloomFalsePositiveRate(final double bloomFalsePositiveRate) {
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+    }
+
+    /**
+     * Recently processed keys whose outcome is kept to answer repeats without a query.
+     * @return cache size
+     */
+    public int getRecentKeys() {
+        return recentKeys;
+    }
+
+    public void setRecentKeys(final int recentKeys) {
+        this.recentKeys = recentKeys;
+    }
+
+    public Duration getRecentKeyTtl() {
+        return recentKeyTtl;
+    }
+
+    public void setRecentKeyTtl(final Duration recentKeyTtl) {
+        this.recentKeyTtl = recentKeyTtl;
+    }
+
+    /**
+     * How far back payments are read into the Bloom filter on startup.
+     * @return warmup window
+     */
+    public Duration getWarmupWindow() {
+        return warmupWindow;
+    }
+
+    public void setWarmupWindow(final Duration warmupWindow) {
+        this.warmupWindow = warmupWindow;
+    }
+
+    /**
+     * Provider calls per charge, including the first, before the payment is left pending.
+     * @return attempts
+     */
+    public int getProviderAttempts() {
+        return providerAttempts;
+    }
+
+    public void setProviderAttempts(final int providerAttempts) {
+        this.providerAttempts = providerAttempts;
+    }
+
+    public Duration getProviderInitialBackoff() {
+        return providerInitialBackoff;
+    }
+
+    public void setProviderInitialBackoff(final Duration providerInitialBackoff) {
+        this.providerInitialBackoff = providerInitialBackoff;
+    }
+
+    public Duration getProviderMaxBackoff() {
+        return providerMaxBackoff;
+    }
+
+    public void setProviderMaxBackoff(final Duration providerMaxBackoff) {
+        this.providerMaxBackoff = providerMaxBackoff;
+    }
+
+    /**
+     * Payment provider to charge through; required, {@value #FAKE_PROVIDER} selects the local fake.
+     * @return provider name
+     */
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(final String provider) {
+        this.provider = provider;
+    }
+
+    public long getFakeLatencyMillis() {
+        return fakeLatencyMillis;
+    }
+
+    public void setFakeLatencyMillis(final long fakeLatencyMillis) {
+        this.fakeLatencyMillis = fakeLatencyMillis;
+    }
+
+    public double getFakeDeclineRate() {
+        return fakeDeclineRate;
+    }
+
+    public void setFakeDeclineRate(final double fakeDeclineRate) {
+        this.fakeDeclineRate = fakeDeclineRate;
+    }
+
+    public double getFakeFailureRate() {
+        return fakeFailureRate;
+    }
+
+    public void setFakeFailureRate(final double fakeFailureRate) {
+        this.fakeFailureRate = fakeFailureRate;
+    }
+
+    /**
+     * Secret the provider signs webhooks with; required, there is no default.
+     * @return webhook secret
+     */
+    public String getWebhookSecret() {
+        return webhookSecret;
+    }
+
+    public void setWebhookSecret(final String webhookSecret) {
+        this.webhookSecret = webhookSecret;
+    }
+}
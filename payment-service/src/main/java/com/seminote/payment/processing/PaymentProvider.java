@@ -0,0 +1,19 @@
+package com.seminote.payment.processing;
+
+/**
+ * External payment provider.
+ *
+ * Implementations must be idempotent by transaction id: charging the same
+ * transaction again returns the first answer instead of charging twice, which
+ * is what makes retries safe.
+ */
+public interface PaymentProvider {
+
+    /**
+     * Charge a payment.
+     * @param payment pending payment
+     * @return final answer
+     * @throws ProviderUnavailableException on a transient failure
+     */
+    ProviderResult charge(Payment payment);
+}
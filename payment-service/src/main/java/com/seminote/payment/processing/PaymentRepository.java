@@ -0,0 +1,52 @@
+package com.seminote.payment.processing;
+
+import java.time.Instant;
+
+/**
+ * Payment storage. The unique transaction id is the idempotency authority.
+ */
+public interface PaymentRepository {
+
+    /**
+     * Find a payment.
+     * @param transactionId transaction id
+     * @return payment, or null if none
+     */
+    Payment find(String transactionId);
+
+    /**
+     * Insert a pending payment unless its transaction id exists.
+     * @param payment payment in {@link PaymentStatus#PENDING}
+     * @return true if inserted, false if the transaction id was taken
+     */
+    boolean insertPending(Payment payment);
+
+    /**
+     * Set an existing payment's status if its current status may precede it.
+     * Only the status changes; payments are never created this way.
+     * @param payment payment carrying the new status
+     * @return true if the row was changed
+     */
+    boolean applyStatus(Payment payment);
+
+    /**
+     * Stream keys of payments updated since a point in time.
+     * @param since lower bound on {@code updated_at}
+     * @param consumer receives transaction id and status of each payment
+     */
+    void forEachUpdatedSince(Instant since, KeyConsumer consumer);
+
+    /**
+     * Receives payment keys.
+     */
+    @FunctionalInterface
+    interface KeyConsumer {
+
+        /**
+         * Accept one payment key.
+         * @param transactionId transaction id
+         * @param status current status
+         */
+        void accept(String transactionId, PaymentStatus status);
+    }
+}
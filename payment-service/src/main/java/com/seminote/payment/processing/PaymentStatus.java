@@ -0,0 +1,56 @@
+package com.seminote.payment.processing;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lifecycle of a payment, stored lower-case in {@code payments.status}.
+ */
+public enum PaymentStatus {
+
+    /** Recorded, not yet confirmed by the provider. */
+    PENDING,
+    /** Charged. */
+    SUCCEEDED,
+    /** Declined or abandoned. */
+    FAILED,
+    /** Charged and later refunded. */
+    REFUNDED;
+
+    /**
+     * Value stored in the database.
+     * @return lower-case status
+     */
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Statuses a payment may move to this one from.
+     * @return allowed previous statuses
+     */
+    public List<PaymentStatus> predecessors() {
+        return switch (this) {
+            case PENDING -> List.of();
+            case SUCCEEDED, FAILED -> List.of(PENDING);
+            case REFUNDED -> List.of(SUCCEEDED);
+        };
+    }
+
+    /**
+     * Parse a stored or provider status.
+     * @param value status name in any case
+     * @return status, or null if unknown
+     */
+    public static PaymentStatus parse(final String value) {
+        if (value == null) {
+            return null;
+        }
+        for (PaymentStatus status : values()) {
+            if (status.name().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
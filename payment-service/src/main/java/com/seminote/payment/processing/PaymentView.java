@@ -0,0 +1,22 @@
+package com.seminote.payment.processing;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment as returned by the API.
+ *
+ * @param transactionId idempotency key
+ * @param userId paying user
+ * @param amount amount
+ * @param currency currency
+ * @param status lower-case status
+ * @param duplicate true if the request repeated an earlier one and nothing new happened
+ */
+public record PaymentView(String transactionId, long userId, BigDecimal amount, String currency, String status,
+                          boolean duplicate) {
+
+    static PaymentView of(final Payment payment, final boolean duplicate) {
+        return new PaymentView(payment.transactionId(), payment.userId(), payment.amount(), payment.currency(),
+                payment.status().id(), duplicate);
+    }
+}
@@ -0,0 +1,10 @@
+package com.seminote.payment.processing;
+
+/**
+ * Final answer of the payment provider for a charge.
+ *
+ * @param approved whether the charge went through
+ * @param reason decline reason, null when approved
+ */
+public record ProviderResult(boolean approved, String reason) {
+}
@@ -0,0 +1,27 @@
+package com.seminote.payment.processing;
+
+/**
+ * The payment provider could not be reached or answered with a transient
+ * error; the call can be retried with the same transaction id.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception.
+     * @param message description
+     */
+    public ProviderUnavailableException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Create an exception.
+     * @param message description
+     * @param cause underlying failure
+     */
+    public ProviderUnavailableException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
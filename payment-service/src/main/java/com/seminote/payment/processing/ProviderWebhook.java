@@ -0,0 +1,17 @@
+package com.seminote.payment.processing;
+
+import java.math.BigDecimal;
+
+/**
+ * A status notification from the payment provider. Providers deliver these
+ * at least once, often several times in quick succession.
+ *
+ * @param transactionId transaction the event is about
+ * @param userId paying user
+ * @param amount amount in the currency's major unit
+ * @param currency ISO 4217 code
+ * @param status new status name
+ */
+public record ProviderWebhook(String transactionId, Long userId, BigDecimal amount, String currency,
+                              String status) {
+}
@@ -0,0 +1,35 @@
+package com.seminote.payment.processing;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks selected by user id.
+ *
+ * A user's payments are serialized without row locks in the database, and
+ * two users only share a lock when their ids hash to the same stripe.
+ * {@link ReentrantLock} rather than monitors, so waiting virtual threads do
+ * not pin their carrier.
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    StripedLocks(final int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock forUser(final long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return locks[(int) (h ^ (h >>> 32)) & mask];
+    }
+
+    int size() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,16 @@
+package com.seminote.payment.processing;
+
+/**
+ * What processing a provider webhook did.
+ */
+public enum WebhookOutcome {
+
+    /** The payment moved to the reported status. */
+    APPLIED,
+    /** The status was already recorded; nothing changed. */
+    DUPLICATE,
+    /** The reported status cannot follow the current one, for example a late success after a refund. */
+    IGNORED,
+    /** No payment has the transaction id; webhooks never create payments. */
+    UNKNOWN
+}
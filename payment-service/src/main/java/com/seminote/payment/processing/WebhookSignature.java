@@ -0,0 +1,78 @@
+package com.seminote.payment.processing;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Checks the signature a payment provider sends with each webhook.
+ *
+ * The provider signs the raw request body with HMAC-SHA256 under a secret
+ * shared out of band and sends the hex digest in the {@value #HEADER} header.
+ * The body is verified before it is parsed, and digests are compared in
+ * constant time.
+ */
+public class WebhookSignature {
+
+    /** Request header carrying the hex signature. */
+    public static final String HEADER = "X-Seminote-Signature";
+    static final int SECRET_MIN_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    /**
+     * Create a verifier.
+     * @param secret secret shared with the provider, at least {@value #SECRET_MIN_BYTES} bytes
+     * @throws IllegalStateException if the secret is missing or too short
+     */
+    public WebhookSignature(final String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("seminote.payments.webhook-secret must be set");
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < SECRET_MIN_BYTES) {
+            throw new IllegalStateException("seminote.payments.webhook-secret must be at least "
+                    + SECRET_MIN_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    /**
+     * Check a webhook body against its signature.
+     * @param body raw request body
+     * @param signature hex digest from the {@value #HEADER} header, may be null
+     * @return true if the body was signed with the shared secret
+     */
+    public boolean verify(final byte[] body, final String signature) {
+        if (signature == null) {
+            return false;
+        }
+        byte[] given;
+        try {
+            given = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(body), given);
+    }
+
+    /**
+     * Sign a body the way the provider does.
+     * @param body raw request body
+     * @return HMAC-SHA256 digest
+     */
+    byte[] sign(final byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renewal state in the {@code subscriptions}, {@code payments},
+ * {@code invoices} and {@code renewal_*} tables.
+ *
+ * Chunks are read with a keyset on {@code (user_id, id)} so every page is an
+ * index range scan, and written as column arrays expanded with
+ * {@code unnest}, so a chunk costs a handful of statements regardless of its
+ * size. Subscription updates only match the period and attempt they were
+ * computed from, and checkpoints only match the node holding the lease, so a
+ * chunk committed twice or by a node that lost its lease changes nothing.
+ * Timestamps are stored as UTC.
+ */
+public class JdbcRenewalStore implements RenewalStore {
+
+    private static final String CREATE_RUN_SQL = "INSERT INTO renewal_runs (run_id, as_of) VALUES (?, ?) "
+            + "ON CONFLICT (run_id) DO NOTHING";
+    private static final String DUE_RANGE_SQL = "SELECT min(user_id), max(user_id) FROM subscriptions "
+            + "WHERE status = 'active' AND next_attempt_at <= ?";
+    private static final String CREATE_PARTITION_SQL = "INSERT INTO renewal_partitions "
+            + "(run_id, partition_index, range_start, range_end, last_user_id, last_subscription_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String CLAIM_SQL = "UPDATE renewal_partitions p SET claimed_by = ?, lease_until = ? "
+            + "FROM renewal_runs r WHERE r.run_id = p.run_id AND (p.run_id, p.partition_index) = ("
+            + "SELECT run_id, partition_index FROM renewal_partitions "
+            + "WHERE completed_at IS NULL AND (lease_until IS NULL OR lease_until < ?) "
+            + "ORDER BY run_id, partition_index LIMIT 1 FOR UPDATE SKIP LOCKED) "
+            + "RETURNING p.run_id, p.partition_index, p.range_start, p.range_end, p.last_user_id, "
+            + "p.last_subscription_id, r.as_of";
+    private static final String DUE_SQL = "SELECT id, user_id, amount, currency, period_months, status, renews_at, "
+            + "next_attempt_at, failed_attempts FROM subscriptions "
+            + "WHERE status = 'active' AND (user_id, id) > (?, ?) AND user_id < ? AND next_attempt_at <= ? "
+            + "ORDER BY user_id, id LIMIT ?";
+    private static final String INSERT_PENDING_SQL = "INSERT INTO payments "
+            + "(user_id, amount, currency, payment_method, status, transaction_id) "
+            + "SELECT u, a, c, '" + RenewalEngine.PAYMENT_METHOD + "', 'pending', t "
+            + "FROM unnest(?::integer[], ?::numeric[], ?::varchar[], ?::varchar[]) AS x(u, a, c, t) "
+            + "ON CONFLICT (transaction_id) DO NOTHING";
+    private static final String SETTLED_SQL = "SELECT transaction_id, status FROM payments "
+            + "WHERE transaction_id = ANY(?) AND status <> 'pending'";
+    private static final String CHECKPOINT_SQL = "UPDATE renewal_partitions SET last_user_id = ?, "
+            + "last_subscription_id = ?, processed = processed + ?, renewed = renewed + ?, declined = declined + ?, "
+            + "deferred = deferred + ?, lease_until = ?, completed_at = CASE WHEN ? THEN CURRENT_TIMESTAMP END "
+            + "WHERE run_id = ? AND partition_index = ? AND claimed_by = ?";
+    private static final String SETTLE_SQL = "UPDATE payments p SET status = x.s, updated_at = CURRENT_TIMESTAMP "
+            + "FROM unnest(?::varchar[], ?::varchar[]) AS x(t, s) "
+            + "WHERE p.transaction_id = x.t AND p.status = 'pending'";
+    private static final String INVOICE_SQL = "INSERT INTO invoices "
+            + "(subscription_id, user_id, period_start, amount, currency, transaction_id, status) "
+            + "SELECT * FROM unnest(?::bigint[], ?::integer[], ?::timestamp[], ?::numeric[], ?::varchar[], "
+            + "?::varchar[], ?::varchar[]) "
+            + "ON CONFLICT (subscription_id, period_start) DO UPDATE SET transaction_id = EXCLUDED.transaction_id, "
+            + "status = EXCLUDED.status, updated_at = CURRENT_TIMESTAMP";
+    private static final String ADVANCE_SQL = "UPDATE subscriptions s SET status = x.st, renews_at = x.r, "
+            + "next_attempt_at = x.n, failed_attempts = x.f, updated_at = CURRENT_TIMESTAMP "
+            + "FROM unnest(?::bigint[], ?::varchar[], ?::timestamp[], ?::timestamp[], ?::integer[], "
+            + "?::timestamp[], ?::integer[]) AS x(id, st, r, n, f, old_r, old_f) "
+            + "WHERE s.id = x.id AND s.renews_at = x.old_r AND s.failed_attempts = x.old_f";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the payment datasource
+     * @param transactionTemplate transactions over the same datasource
+     */
+    public JdbcRenewalStore(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public boolean plan(final String runId, final Instant asOf, final int partitions) {
+        Boolean created = transactionTemplate.execute(tx -> {
+            if (jdbcTemplate.update(CREATE_RUN_SQL, runId, timestamp(asOf)) == 0) {
+                return false;
+            }
+            Map<String, Object> range = jdbcTemplate.queryForMap(DUE_RANGE_SQL, timestamp(asOf));
+            Object min = range.get("min");
+            Object max = range.get("max");
+            if (min == null || max == null) {
+                return true;
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (RenewalPartition p : RenewalPartition.split(runId, asOf, ((Number) min).longValue(),
+                    ((Number) max).longValue(), partitions)) {
+                rows.add(new Object[] {p.runId(), p.index(), p.rangeStart(), p.rangeEnd(), p.lastUserId(),
+                    p.lastSubscriptionId()});
+            }
+            jdbcTemplate.batchUpdate(CREATE_PARTITION_SQL, rows);
+            return true;
+        });
+        return Boolean.TRUE.equals(created);
+    }
+
+    @Override
+    public RenewalPartition claim(final String nodeId, final Instant now, final Instant leaseUntil) {
+        List<RenewalPartition> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new RenewalPartition(
+                rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6),
+                instant(rs.getTimestamp(7))), nodeId, timestamp(leaseUntil), timestamp(now));
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    @Override
+    public List<Subscription> due(final RenewalPartition partition, final int limit) {
+        return jdbcTemplate.query(DUE_SQL, JdbcRenewalStore::subscription, partition.lastUserId(),
+                partition.lastSubscriptionId(), partition.rangeEnd(), timestamp(partition.asOf()), limit);
+    }
+
+    @Override
+    public Map<String, PaymentStatus> recordPending(final List<Renewal> renewals) {
+        int size = renewals.size();
+        Integer[] userIds = new Integer[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        String[] currencies = new String[size];
+        String[] transactionIds = new String[size];
+        for (int i = 0; i < size; i++) {
+            Subscription subscription = renewals.get(i).subscription();
+            userIds[i] = Math.toIntExact(subscription.userId());
+            amounts[i] = subscription.amount();
+            currencies[i] = subscription.currency();
+            transactionIds[i] = renewals.get(i).transactionId();
+        }
+        int inserted = jdbcTemplate.update(INSERT_PENDING_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", userIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("numeric", amounts));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", currencies));
+            ps.setArray(4, ps.getConnection().createArrayOf("varchar", transactionIds));
+        });
+        Map<String, PaymentStatus> settled = new HashMap<>();
+        if (inserted == size) {
+            // Every charge is new, none can have settled
+            return settled;
+        }
+        jdbcTemplate.query(SETTLED_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar",
+                transactionIds)), rs -> {
+                    PaymentStatus status = PaymentStatus.parse(rs.getString(2));
+                    if (status != null) {
+                        settled.put(rs.getString(1), status);
+                    }
+                });
+        return settled;
+    }
+
+    @Override
+    public boolean commit(final RenewalPartition checkpoint, final String nodeId, final List<Renewal> renewals,
+                          final boolean completed, final Instant leaseUntil) {
+        Boolean committed = transactionTemplate.execute(tx -> {
+            if (!checkpoint(checkpoint, nodeId, renewals, completed, leaseUntil)) {
+                return false;
+            }
+            List<Renewal> settled = renewals.stream().filter(Renewal::settled).toList();
+            if (!settled.isEmpty()) {
+                settle(settled);
+                invoice(settled);
+                advance(settled);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(committed);
+    }
+
+    private boolean checkpoint(final RenewalPartition checkpoint, final String nodeId, final List<Renewal> renewals,
+                               final boolean completed, final Instant leaseUntil) {
+        long renewed = 0;
+        long declined = 0;
+        long deferred = 0;
+        for (Renewal renewal : renewals) {
+            switch (renewal.status()) {
+                case PENDING -> deferred++;
+                case FAILED -> declined++;
+                default -> renewed++;
+            }
+        }
+        return jdbcTemplate.update(CHECKPOINT_SQL, checkpoint.lastUserId(), checkpoint.lastSubscriptionId(),
+                renewals.size(), renewed, declined, deferred, timestamp(leaseUntil), completed, checkpoint.runId(),
+                checkpoint.index(), nodeId) == 1;
+    }
+
+    private void settle(final List<Renewal> settled) {
+        String[] transactionIds = settled.stream().map(Renewal::transactionId).toArray(String[]::new);
+        String[] statuses = settled.stream().map(renewal -> renewal.status().id()).toArray(String[]::new);
+        jdbcTemplate.update(SETTLE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", transactionIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", statuses));
+        });
+    }
+
+    private void invoice(final List<Renewal> settled) {
+        int size = settled.size();
+        Long[] subscriptionIds = new Long[size];
+        Integer[] userIds = new Integer[size];
+        Timestamp[] periodStarts = new Timestamp[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        String[] currencies = new String[size];
+        String[] transactionIds = new String[size];
+        String[] statuses = new String[size];
+        for (int i = 0; i < size; i++) {
+            Renewal renewal = settled.get(i);
+            Subscription subscription = renewal.subscription();
+            subscriptionIds[i] = subscription.id();
+            userIds[i] = Math.toIntExact(subscription.userId());
+            periodStarts[i] = timestamp(subscription.renewsAt());
+            amounts[i] = subscription.amount();
+            currencies[i] = subscription.currency();
+            transactionIds[i] = renewal.transactionId();
+            statuses[i] = renewal.status() == PaymentStatus.FAILED ? "open" : "paid";
+        }
+        jdbcTemplate.update(INVOICE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", subscriptionIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", userIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("timestamp", periodStarts));
+            ps.setArray(4, ps.getConnection().createArrayOf("numeric", amounts));
+            ps.setArray(5, ps.getConnection().createArrayOf("varchar", currencies));
+            ps.setArray(6, ps.getConnection().createArrayOf("varchar", transactionIds));
+            ps.setArray(7, ps.getConnection().createArrayOf("varchar", statuses));
+        });
+    }
+
+    private void advance(final List<Renewal> settled) {
+        int size = settled.size();
+        Long[] ids = new Long[size];
+        String[] statuses = new String[size];
+        Timestamp[] renewsAt = new Timestamp[size];
+        Timestamp[] nextAttemptAt = new Timestamp[size];
+        Integer[] failedAttempts = new Integer[size];
+        Timestamp[] previousRenewsAt = new Timestamp[size];
+        Integer[] previousFailedAttempts = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            Subscription previous = settled.get(i).subscription();
+            Subscription next = settled.get(i).next();
+            ids[i] = previous.id();
+            statuses[i] = next.status();
+            renewsAt[i] = timestamp(next.renewsAt());
+            nextAttemptAt[i] = timestamp(next.nextAttemptAt());
+            failedAttempts[i] = next.failedAttempts();
+            previousRenewsAt[i] = timestamp(previous.renewsAt());
+            previousFailedAttempts[i] = previous.failedAttempts();
+        }
+        jdbcTemplate.update(ADVANCE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", statuses));
+            ps.setArray(3, ps.getConnection().createArrayOf("timestamp", renewsAt));
+            ps.setArray(4, ps.getConnection().createArrayOf("timestamp", nextAttemptAt));
+            ps.setArray(5, ps.getConnection().createArrayOf("integer", failedAttempts));
+            ps.setArray(6, ps.getConnection().createArrayOf("timestamp", previousRenewsAt));
+            ps.setArray(7, ps.getConnection().createArrayOf("integer", previousFailedAttempts));
+        });
+    }
+
+    private static Subscription subscription(final ResultSet rs, final int rowNum) throws SQLException {
+        return new Subscription(rs.getLong("id"), rs.getLong("user_id"), rs.getBigDecimal("amount"),
+                rs.getString("currency"), rs.getInt("period_months"), rs.getString("status"),
+                instant(rs.getTimestamp("renews_at")), instant(rs.getTimestamp("next_attempt_at")),
+                rs.getInt("failed_attempts"));
+    }
+
+    private static Timestamp timestamp(final Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    private static Instant instant(final Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,57 @@
+package com.seminote.payment.renewal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces provider calls evenly to stay under the provider's rate limit.
+ *
+ * Every caller reserves the next free slot and sleeps until it; slots are
+ * handed out in order, so no caller starves. Unused time is not banked, which
+ * keeps a run from bursting past the limit after a pause.
+ */
+final class ProviderThrottle {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private long nextFreeNanos;
+
+    /**
+     * Create a throttle.
+     * @param permitsPerSecond calls allowed per second, zero or less for no limit
+     */
+    ProviderThrottle(final int permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    ProviderThrottle(final int permitsPerSecond, final LongSupplier nanoClock) {
+        this.intervalNanos = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Wait for the next slot.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserve the next slot.
+     * @return nanoseconds until the slot
+     */
+    synchronized long reserve() {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long slot = Math.max(nextFreeNanos, now);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,22 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.PaymentStatus;
+
+/**
+ * Outcome of one renewal attempt.
+ *
+ * @param subscription subscription as read for the attempt
+ * @param transactionId idempotency key of the charge, stable across restarts of the same attempt
+ * @param status charge status; {@link PaymentStatus#PENDING} if the provider could not be reached
+ * @param next subscription after the attempt, or null if it stays unchanged
+ */
+public record Renewal(Subscription subscription, String transactionId, PaymentStatus status, Subscription next) {
+
+    /**
+     * Whether the charge reached a final status.
+     * @return true if succeeded or failed
+     */
+    public boolean settled() {
+        return status != PaymentStatus.PENDING;
+    }
+}
@@ -0,0 +1,48 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.PaymentConfiguration;
+import com.seminote.payment.processing.PaymentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires subscription renewal runs.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RenewalProperties.class)
+public class RenewalConfiguration {
+
+    /**
+     * Renewal storage.
+     * @param jdbcTemplate template over the payments datasource
+     * @param transactionTemplate template for chunk commits
+     * @return store
+     */
+    @Bean
+    public RenewalStore renewalStore(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        return new JdbcRenewalStore(jdbcTemplate, transactionTemplate);
+    }
+
+    /**
+     * Renewal engine, charging through the same provider as single payments.
+     * @param store renewal storage
+     * @param provider payment provider
+     * @param properties renewal settings
+     * @param registry metrics registry
+     * @return engine
+     * @throws IllegalStateException if no payment provider is configured
+     */
+    @Bean
+    public RenewalEngine renewalEngine(final RenewalStore store, final ObjectProvider<PaymentProvider> provider,
+                                       final RenewalProperties properties, final MeterRegistry registry) {
+        return new RenewalEngine(store, PaymentConfiguration.requireProvider(provider), properties, Clock.systemUTC(),
+                registry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.seminote.payment.renewal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Renewal run progress and manual starts.
+ */
+@RestController
+@RequestMapping("/api/v1/payments/renewals")
+public class RenewalController {
+
+    private final RenewalEngine engine;
+
+    /**
+     * Create the controller.
+     * @param engine renewal engine
+     */
+    public RenewalController(final RenewalEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Progress of the current or last run on this node.
+     * @return progress
+     */
+    @GetMapping
+    public RenewalProgress progress() {
+        return engine.progress();
+    }
+
+    /**
+     * Start a run in the background; follow it through {@link #progress()}.
+     * @return 202 once started
+     */
+    @PostMapping
+    public ResponseEntity<RenewalProgress> start() {
+        if (!engine.trigger()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A renewal run is already in progress");
+        }
+        return ResponseEntity.accepted().body(engine.progress());
+    }
+}
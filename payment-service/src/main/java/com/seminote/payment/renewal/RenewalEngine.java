@@ -0,0 +1,413 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.Payment;
+import com.seminote.payment.processing.PaymentProvider;
+import com.seminote.payment.processing.PaymentStatus;
+import com.seminote.payment.processing.ProviderResult;
+import com.seminote.payment.processing.ProviderUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renews due subscriptions in parallel, restartable batches.
+ *
+ * Once per UTC day a run is planned: the user id range of due subscriptions is
+ * split into partitions, which nodes claim under a lease and process on a
+ * bounded pool of workers. A worker reads its partition in keyset-ordered
+ * chunks, records the chunk's charges as pending, charges them through the
+ * provider under a shared rate limit, and commits the outcomes together with
+ * the partition's cursor. A worker only holds a connection while it queries
+ * or commits, never across provider calls.
+ *
+ * Transaction ids are derived from the subscription, its period and attempt,
+ * so resuming a partition after a crash charges the same transactions again
+ * and the provider answers them idempotently. Charges the provider could not
+ * take are left pending and retried on the next run.
+ */
+public class RenewalEngine implements SmartLifecycle {
+
+    static final String PAYMENT_METHOD = "subscription";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenewalEngine.class);
+    private static final DateTimeFormatter PERIOD = DateTimeFormatter.BASIC_ISO_DATE.withZone(ZoneOffset.UTC);
+
+    private final RenewalStore store;
+    private final PaymentProvider provider;
+    private final RenewalProperties properties;
+    private final Clock clock;
+    private final ProviderThrottle throttle;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean active = new AtomicBoolean();
+    private final LongAdder partitionsCompleted = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder renewed = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final Counter renewedCounter;
+    private final Counter declinedCounter;
+    private final Counter deferredCounter;
+    private final Counter partitionCounter;
+    private final Timer chunkTimer;
+    private final Timer providerTimer;
+
+    private volatile String runId;
+    private volatile long startedNanos;
+    private volatile long endedNanos;
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create an engine.
+     * @param store subscription and checkpoint storage
+     * @param provider payment provider
+     * @param properties renewal settings
+     * @param clock time source for run dates, due checks and leases
+     * @param registry registry for renewal metrics
+     */
+    public RenewalEngine(final RenewalStore store, final PaymentProvider provider, final RenewalProperties properties,
+                         final Clock clock, final MeterRegistry registry) {
+        this.store = store;
+        this.provider = provider;
+        this.properties = properties;
+        this.clock = clock;
+        this.throttle = new ProviderThrottle(properties.getProviderRateLimit());
+        this.renewedCounter = outcome(registry, "renewed");
+        this.declinedCounter = outcome(registry, "declined");
+        this.deferredCounter = outcome(registry, "deferred");
+        this.partitionCounter = Counter.builder("seminote.payments.renewals.partitions")
+                .description("Renewal partitions completed on this node").register(registry);
+        this.chunkTimer = Timer.builder("seminote.payments.renewals.chunk")
+                .description("Time to charge and commit one chunk of renewals")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.providerTimer = Timer.builder("seminote.payments.renewals.provider")
+                .description("Time per renewal charge, including the wait for the rate limit")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("seminote.payments.renewals.throughput", this, engine -> engine.progress().perSecond())
+                .description("Subscriptions committed per second in the current or last run").register(registry);
+    }
+
+    /**
+     * Plan today's run if needed and process every claimable partition,
+     * including unfinished ones of earlier runs. Returns immediately if a run
+     * is already in progress on this node.
+     * @return progress after the run
+     */
+    public RenewalProgress renew() {
+        if (!active.compareAndSet(false, true)) {
+            return progress();
+        }
+        try {
+            Instant now = clock.instant();
+            reset(runId(now));
+            if (store.plan(runId, now, properties.getPartitions())) {
+                LOGGER.info("Planned renewal run {} for subscriptions due by {}", runId, now);
+            }
+            drainAll();
+        } finally {
+            endedNanos = System.nanoTime();
+            active.set(false);
+        }
+        RenewalProgress progress = progress();
+        LOGGER.info("Renewal run {}: {} partitions, {} subscriptions ({} renewed, {} declined, {} deferred) "
+                        + "in {} ms, {} per second", progress.runId(), progress.partitionsCompleted(),
+                progress.processed(), progress.renewed(), progress.declined(), progress.deferred(),
+                progress.elapsedMillis(), Math.round(progress.perSecond()));
+        return progress;
+    }
+
+    /**
+     * Start a run in the background.
+     * @return false if a run is already in progress or the engine is stopped
+     */
+    public boolean trigger() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null || active.get()) {
+            return false;
+        }
+        try {
+            current.execute(this::renewQuietly);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Progress of the current or last run on this node.
+     * @return progress
+     */
+    public RenewalProgress progress() {
+        boolean running = active.get();
+        long started = startedNanos;
+        long elapsedNanos = started == 0 ? 0 : (running ? System.nanoTime() : endedNanos) - started;
+        long done = processed.sum();
+        double perSecond = elapsedNanos > 0 ? done / (elapsedNanos / 1e9) : 0;
+        return new RenewalProgress(runId, running, partitionsCompleted.sum(), done, renewed.sum(), declined.sum(),
+                deferred.sum(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), perSecond);
+    }
+
+    static String runId(final Instant now) {
+        return "renewals-" + LocalDate.ofInstant(now, ZoneOffset.UTC);
+    }
+
+    static String transactionId(final Subscription subscription) {
+        return "renewal-" + subscription.id() + '-' + PERIOD.format(subscription.renewsAt()) + '-'
+                + subscription.failedAttempts();
+    }
+
+    private void reset(final String nextRunId) {
+        runId = nextRunId;
+        partitionsCompleted.reset();
+        processed.reset();
+        renewed.reset();
+        declined.reset();
+        deferred.reset();
+        startedNanos = System.nanoTime();
+    }
+
+    private void drainAll() {
+        int parallelism = properties.getParallelism();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "payment-renewals-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore permits = new Semaphore(properties.getMaxConcurrentCalls());
+        try {
+            List<Future<?>> drains = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                drains.add(workers.submit(() -> drain(calls, permits)));
+            }
+            for (Future<?> drain : drains) {
+                try {
+                    drain.get();
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Renewal worker failed: {}", e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+            calls.shutdownNow();
+        }
+    }
+
+    private void drain(final ExecutorService calls, final Semaphore permits) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Instant now = clock.instant();
+            RenewalPartition partition = store.claim(nodeId, now, now.plus(properties.getLease()));
+            if (partition == null) {
+                return;
+            }
+            try {
+                if (process(partition, calls, permits)) {
+                    partitionsCompleted.increment();
+                    partitionCounter.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // The lease expires and the partition is resumed from its checkpoint by the next run
+                LOGGER.warn("Renewal partition {}/{} failed: {}", partition.runId(), partition.index(), e.toString());
+                return;
+            }
+        }
+    }
+
+    private boolean process(final RenewalPartition partition, final ExecutorService calls,
+                            final Semaphore permits) throws InterruptedException {
+        RenewalPartition cursor = partition;
+        while (true) {
+            long start = System.nanoTime();
+            List<Subscription> due = store.due(cursor, properties.getChunkSize());
+            boolean completed = due.size() < properties.getChunkSize();
+            List<Renewal> renewals = due.isEmpty() ? List.of() : charge(cursor.asOf(), due, calls, permits);
+            RenewalPartition next = due.isEmpty() ? cursor : cursor.after(due.get(due.size() - 1));
+            if (!store.commit(next, nodeId, renewals, completed, clock.instant().plus(properties.getLease()))) {
+                LOGGER.warn("Lost the lease on renewal partition {}/{}, leaving it to its new owner",
+                        partition.runId(), partition.index());
+                return false;
+            }
+            count(renewals);
+            chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (completed) {
+                return true;
+            }
+            cursor = next;
+        }
+    }
+
+    private List<Renewal> charge(final Instant asOf, final List<Subscription> due, final ExecutorService calls,
+                                 final Semaphore permits) throws InterruptedException {
+        List<Renewal> attempts = new ArrayList<>(due.size());
+        for (Subscription subscription : due) {
+            attempts.add(new Renewal(subscription, transactionId(subscription), PaymentStatus.PENDING, null));
+        }
+        Map<String, PaymentStatus> settled = store.recordPending(attempts);
+        List<Future<PaymentStatus>> charges = new ArrayList<>(attempts.size());
+        for (Renewal attempt : attempts) {
+            PaymentStatus known = settled.get(attempt.transactionId());
+            if (known != null) {
+                charges.add(CompletableFuture.completedFuture(known));
+                continue;
+            }
+            permits.acquire();
+            try {
+                charges.add(calls.submit(() -> {
+                    try {
+                        return charge(attempt);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        List<Renewal> renewals = new ArrayList<>(attempts.size());
+        for (int i = 0; i < attempts.size(); i++) {
+            try {
+                renewals.add(outcome(attempts.get(i), charges.get(i).get(), asOf));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Renewal charge failed", e.getCause());
+            }
+        }
+        return renewals;
+    }
+
+    private PaymentStatus charge(final Renewal attempt) throws InterruptedException {
+        Subscription subscription = attempt.subscription();
+        Payment payment = new Payment(attempt.transactionId(), subscription.userId(), subscription.amount(),
+                subscription.currency(), PAYMENT_METHOD, PaymentStatus.PENDING);
+        long start = System.nanoTime();
+        try {
+            throttle.acquire();
+            ProviderResult result = provider.charge(payment);
+            return result.approved() ? PaymentStatus.SUCCEEDED : PaymentStatus.FAILED;
+        } catch (ProviderUnavailableException e) {
+            return PaymentStatus.PENDING;
+        } finally {
+            providerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Renewal outcome(final Renewal attempt, final PaymentStatus status, final Instant asOf) {
+        Subscription s = attempt.subscription();
+        Subscription next = switch (status) {
+            case PENDING -> null;
+            case FAILED -> {
+                int attempts = s.failedAttempts() + 1;
+                boolean exhausted = attempts >= properties.getMaxFailedAttempts();
+                yield new Subscription(s.id(), s.userId(), s.amount(), s.currency(), s.periodMonths(),
+                        exhausted ? Subscription.PAST_DUE : Subscription.ACTIVE, s.renewsAt(),
+                        exhausted ? s.nextAttemptAt() : asOf.plus(properties.getRetryInterval()), attempts);
+            }
+            case SUCCEEDED, REFUNDED -> {
+                Instant renewsAt = s.renewsAt().atZone(ZoneOffset.UTC).plusMonths(s.periodMonths()).toInstant();
+                yield new Subscription(s.id(), s.userId(), s.amount(), s.currency(), s.periodMonths(),
+                        Subscription.ACTIVE, renewsAt, renewsAt, 0);
+            }
+        };
+        return new Renewal(s, attempt.transactionId(), status, next);
+    }
+
+    private void count(final List<Renewal> renewals) {
+        for (Renewal renewal : renewals) {
+            processed.increment();
+            switch (renewal.status()) {
+                case PENDING -> {
+                    deferred.increment();
+                    deferredCounter.increment();
+                }
+                case FAILED -> {
+                    declined.increment();
+                    declinedCounter.increment();
+                }
+                default -> {
+                    renewed.increment();
+                    renewedCounter.increment();
+                }
+            }
+        }
+    }
+
+    private void renewQuietly() {
+        try {
+            renew();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Renewal run failed: {}", e.toString());
+        }
+    }
+
+    private static Counter outcome(final MeterRegistry registry, final String outcome) {
+        return Counter.builder("seminote.payments.renewals")
+                .description("Subscriptions processed by renewal runs, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-renewals");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isEnabled()) {
+            long intervalMs = properties.getCheckInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::renewQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Interrupts a run in progress; its partitions keep their checkpoints and
+     * are resumed once their leases expire.
+     */
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.seminote.payment.renewal;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user id range of a renewal run and its keyset cursor.
+ *
+ * @param runId run the partition belongs to
+ * @param index partition number within the run
+ * @param rangeStart first user id, inclusive
+ * @param rangeEnd last user id, exclusive
+ * @param lastUserId user id of the last committed subscription
+ * @param lastSubscriptionId id of the last committed subscription
+ * @param asOf renewals due at or before this instant belong to the run
+ */
+public record RenewalPartition(String runId, int index, long rangeStart, long rangeEnd, long lastUserId,
+                               long lastSubscriptionId, Instant asOf) {
+
+    /**
+     * Split the due user id range into equally wide partitions.
+     * @param runId run id
+     * @param asOf run cutoff
+     * @param minUserId smallest due user id
+     * @param maxUserId largest due user id
+     * @param count maximum number of partitions
+     * @return partitions covering the range, fewer than {@code count} if the range is narrower
+     */
+    public static List<RenewalPartition> split(final String runId, final Instant asOf, final long minUserId,
+                                               final long maxUserId, final int count) {
+        long span = maxUserId - minUserId + 1;
+        long width = Math.max(1, (span + count - 1) / count);
+        List<RenewalPartition> partitions = new ArrayList<>();
+        for (long start = minUserId; start <= maxUserId; start += width) {
+            long end = Math.min(start + width, maxUserId + 1);
+            partitions.add(new RenewalPartition(runId, partitions.size(), start, end, start, 0, asOf));
+        }
+        return partitions;
+    }
+
+    /**
+     * The partition with its cursor moved past a subscription.
+     * @param last last subscription of a committed chunk
+     * @return advanced partition
+     */
+    public RenewalPartition after(final Subscription last) {
+        return new RenewalPartition(runId, index, rangeStart, rangeEnd, last.userId(), last.id(), asOf);
+    }
+}
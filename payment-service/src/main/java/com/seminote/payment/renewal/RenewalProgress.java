@@ -0,0 +1,18 @@
+package com.seminote.payment.renewal;
+
+/**
+ * Progress of the renewal work done on this node.
+ *
+ * @param runId newest run planned or resumed, null before the first run
+ * @param running whether renewals are being processed now
+ * @param partitionsCompleted partitions finished by this node
+ * @param processed subscriptions committed
+ * @param renewed subscriptions charged and moved to their next period
+ * @param declined charges declined
+ * @param deferred charges left pending because the provider was unavailable
+ * @param elapsedMillis duration of the current or last run
+ * @param perSecond subscriptions committed per second over that run
+ */
+public record RenewalProgress(String runId, boolean running, long partitionsCompleted, long processed,
+                              long renewed, long declined, long deferred, long elapsedMillis, double perSecond) {
+}
@@ -0,0 +1,153 @@
+package com.seminote.payment.renewal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for subscription renewal runs.
+ */
+@ConfigurationProperties(prefix = "seminote.payments.renewals")
+public class RenewalProperties {
+
+    private static final long DEFAULT_CHECK_INTERVAL_MINUTES = 60;
+    private static final int DEFAULT_PARTITIONS = 64;
+    private static final int DEFAULT_PARALLELISM = 8;
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int DEFAULT_PROVIDER_RATE_LIMIT = 1_000;
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 200;
+    private static final long DEFAULT_LEASE_MINUTES = 5;
+    private static final long DEFAULT_RETRY_INTERVAL_DAYS = 3;
+    private static final int DEFAULT_MAX_FAILED_ATTEMPTS = 3;
+
+    private boolean enabled = true;
+    private Duration checkInterval = Duration.ofMinutes(DEFAULT_CHECK_INTERVAL_MINUTES);
+    private int partitions = DEFAULT_PARTITIONS;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int providerRateLimit = DEFAULT_PROVIDER_RATE_LIMIT;
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+    private Duration lease = Duration.ofMinutes(DEFAULT_LEASE_MINUTES);
+    private Duration retryInterval = Duration.ofDays(DEFAULT_RETRY_INTERVAL_DAYS);
+    private int maxFailedAttempts = DEFAULT_MAX_FAILED_ATTEMPTS;
+
+    /**
+     * Whether renewal runs are scheduled on this node; the API can still start one.
+     * @return true if scheduled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * How often the node plans the day's run and claims unfinished partitions.
+     * @return check interval
+     */
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(final Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * User id ranges per run; more partitions balance skewed ranges and let more nodes share a run.
+     * @return maximum partitions
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(final int partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Partitions processed at once on this node, each holding a connection only while it queries or commits.
+     * @return worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Subscriptions per committed chunk.
+     * @return chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Provider calls per second across this node's workers.
+     * @return calls per second, zero for no limit
+     */
+    public int getProviderRateLimit() {
+        return providerRateLimit;
+    }
+
+    public void setProviderRateLimit(final int providerRateLimit) {
+        this.providerRateLimit = providerRateLimit;
+    }
+
+    /**
+     * Provider calls in flight at once across this node's workers.
+     * @return concurrent calls
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(final int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * How long a claimed partition stays with a node without a commit; after that another node may resume it.
+     * @return lease
+     */
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(final Duration lease) {
+        this.lease = lease;
+    }
+
+    /**
+     * Delay before a declined renewal is charged again.
+     * @return retry interval
+     */
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(final Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * Declined attempts after which a subscription becomes past due.
+     * @return attempts
+     */
+    public int getMaxFailedAttempts() {
+        return maxFailedAttempts;
+    }
+
+    public void setMaxFailedAttempts(final int maxFailedAttempts) {
+        this.maxFailedAttempts = maxFailedAttempts;
+    }
+}
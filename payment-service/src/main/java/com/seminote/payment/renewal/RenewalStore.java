@@ -0,0 +1,60 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.PaymentStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for subscriptions, renewal charges and run checkpoints.
+ */
+public interface RenewalStore {
+
+    /**
+     * Create a run and its partitions unless the run already exists.
+     * @param runId run id
+     * @param asOf renewals due at or before this instant belong to the run
+     * @param partitions maximum number of partitions
+     * @return true if the run was created by this call
+     */
+    boolean plan(String runId, Instant asOf, int partitions);
+
+    /**
+     * Claim an unfinished partition whose lease has expired, oldest run first.
+     * @param nodeId claiming node
+     * @param now current time
+     * @param leaseUntil lease expiry for the claim
+     * @return claimed partition with its checkpointed cursor, or null if none is claimable
+     */
+    RenewalPartition claim(String nodeId, Instant now, Instant leaseUntil);
+
+    /**
+     * Due subscriptions after the partition's cursor, in cursor order.
+     * @param partition partition and cursor
+     * @param limit maximum subscriptions
+     * @return due subscriptions
+     */
+    List<Subscription> due(RenewalPartition partition, int limit);
+
+    /**
+     * Record pending charges for renewals about to be charged. Charges that
+     * already exist are left as they are.
+     * @param renewals renewals with their transaction ids
+     * @return statuses of charges that had already settled, by transaction id
+     */
+    Map<String, PaymentStatus> recordPending(List<Renewal> renewals);
+
+    /**
+     * Commit a chunk: settle its charges, write invoices, move subscriptions
+     * on and checkpoint the partition, all in one transaction.
+     * @param checkpoint partition with the cursor after the chunk
+     * @param nodeId node holding the lease
+     * @param renewals outcomes of the chunk
+     * @param completed whether the partition has no more due subscriptions
+     * @param leaseUntil extended lease expiry
+     * @return false if the lease was lost and nothing was written
+     */
+    boolean commit(RenewalPartition checkpoint, String nodeId, List<Renewal> renewals, boolean completed,
+                   Instant leaseUntil);
+}
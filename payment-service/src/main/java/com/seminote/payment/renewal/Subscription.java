@@ -0,0 +1,27 @@
+package com.seminote.payment.renewal;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A subscription due for renewal.
+ *
+ * @param id subscription id
+ * @param userId subscriber
+ * @param amount price per period
+ * @param currency ISO 4217 code
+ * @param periodMonths months per period
+ * @param status {@code active} or {@code past_due}
+ * @param renewsAt end of the current period
+ * @param nextAttemptAt when the renewal is next charged
+ * @param failedAttempts declined charges for the current period
+ */
+public record Subscription(long id, long userId, BigDecimal amount, String currency, int periodMonths,
+                           String status, Instant renewsAt, Instant nextAttemptAt, int failedAttempts) {
+
+    /** Status of subscriptions the engine renews. */
+    public static final String ACTIVE = "active";
+
+    /** Status after the last allowed renewal attempt was declined. */
+    public static final String PAST_DUE = "past_due";
+}
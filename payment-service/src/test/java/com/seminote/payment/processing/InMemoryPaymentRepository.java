@@ -0,0 +1,51 @@
+package com.seminote.payment.processing;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repository with the same conditional-write semantics as the JDBC one.
+ */
+final class InMemoryPaymentRepository implements PaymentRepository {
+
+    private final Map<String, Payment> rows = new ConcurrentHashMap<>();
+    final AtomicInteger queries = new AtomicInteger();
+    final AtomicInteger inserts = new AtomicInteger();
+
+    @Override
+    public Payment find(final String transactionId) {
+        queries.incrementAndGet();
+        return rows.get(transactionId);
+    }
+
+    @Override
+    public boolean insertPending(final Payment payment) {
+        queries.incrementAndGet();
+        boolean inserted = rows.putIfAbsent(payment.transactionId(), payment) == null;
+        if (inserted) {
+            inserts.incrementAndGet();
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean applyStatus(final Payment payment) {
+        queries.incrementAndGet();
+        boolean[] applied = new boolean[1];
+        rows.computeIfPresent(payment.transactionId(), (id, current) -> {
+            if (payment.status().predecessors().contains(current.status())) {
+                applied[0] = true;
+                return current.withStatus(payment.status());
+            }
+            return current;
+        });
+        return applied[0];
+    }
+
+    @Override
+    public void forEachUpdatedSince(final Instant since, final KeyConsumer consumer) {
+        rows.values().forEach(payment -> consumer.accept(payment.transactionId(), payment.status()));
+    }
+}
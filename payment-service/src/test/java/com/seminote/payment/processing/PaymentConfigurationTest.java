@@ -0,0 +1,22 @@
+package com.seminote.payment.processing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentConfigurationTest {
+
+    @Test
+    void refusesToStartWithoutAPaymentProvider() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+
+        assertThrows(IllegalStateException.class,
+                () -> PaymentConfiguration.requireProvider(beans.getBeanProvider(PaymentProvider.class)));
+
+        PaymentProvider provider = new FakePaymentProvider(0, 0, 0);
+        beans.addBean("paymentProvider", provider);
+        assertSame(provider, PaymentConfiguration.requireProvider(beans.getBeanProvider(PaymentProvider.class)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.seminote.payment.processing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaymentControllerTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("9.99");
+
+    private final InMemoryPaymentRepository repository = new InMemoryPaymentRepository();
+    private final PaymentController controller = new PaymentController(
+            new PaymentProcessor(repository, new FakePaymentProvider(0, 0, 0), new PaymentProperties(),
+                    Clock.systemUTC(), new SimpleMeterRegistry()),
+            repository, new WebhookSignature("webhook-secret-of-at-least-32-bytes"), new ObjectMapper());
+
+    @Test
+    void chargesTheAuthenticatedCaller() {
+        PaymentView charged = controller.charge("7", new ChargeRequest("tx-1", null, AMOUNT, null, "card"));
+
+        assertEquals("succeeded", charged.status());
+        assertEquals(7, repository.find("tx-1").userId());
+        assertEquals("succeeded", controller.get("7", "tx-1").status());
+    }
+
+    @Test
+    void rejectsAnonymousAndCrossUserRequests() {
+        controller.charge("7", new ChargeRequest("tx-1", 7L, AMOUNT, "USD", "card"));
+
+        assertStatus(HttpStatus.UNAUTHORIZED,
+                () -> controller.charge(null, new ChargeRequest("tx-2", 7L, AMOUNT, "USD", "card")));
+        assertStatus(HttpStatus.FORBIDDEN,
+                () -> controller.charge("8", new ChargeRequest("tx-2", 7L, AMOUNT, "USD", "card")));
+        assertStatus(HttpStatus.UNAUTHORIZED, () -> controller.get(null, "tx-1"));
+        assertStatus(HttpStatus.NOT_FOUND, () -> controller.get("8", "tx-1"));
+        assertNull(repository.find("tx-2"));
+    }
+
+    private static void assertStatus(final HttpStatus status, final Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(status, e.getStatusCode());
+    }
+}
@@ -0,0 +1,187 @@
+package com.seminote.payment.processing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentProcessorTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T08:00:00Z");
+    private static final BigDecimal AMOUNT = new BigDecimal("9.99");
+
+    private final InMemoryPaymentRepository repository = new InMemoryPaymentRepository();
+
+    private PaymentProcessor processor(final PaymentProvider provider) {
+        PaymentProperties properties = new PaymentProperties();
+        properties.setLockStripes(64);
+        properties.setBloomCapacity(10_000);
+        properties.setProviderAttempts(4);
+        properties.setProviderInitialBackoff(Duration.ofMillis(1));
+        properties.setProviderMaxBackoff(Duration.ofMillis(2));
+        return new PaymentProcessor(repository, provider, properties, Clock.fixed(NOW, ZoneOffset.UTC),
+                new SimpleMeterRegistry());
+    }
+
+    private static Payment charge(final String transactionId, final long userId) {
+        return new Payment(transactionId, userId, AMOUNT, "USD", "card", PaymentStatus.PENDING);
+    }
+
+    @Test
+    void answersRepeatedChargesFromMemory() {
+        FakePaymentProvider provider = new FakePaymentProvider(0, 0, 0);
+        PaymentProcessor processor = processor(provider);
+
+        PaymentView first = processor.charge(charge("tx-1", 7));
+        int queries = repository.queries.get();
+        PaymentView second = processor.charge(charge("tx-1", 7));
+
+        assertEquals("succeeded", first.status());
+        assertFalse(first.duplicate());
+        assertEquals("succeeded", second.status());
+        assertTrue(second.duplicate());
+        assertEquals(queries, repository.queries.get());
+        assertEquals(1, provider.calls());
+    }
+
+    @Test
+    void chargesOnceUnderConcurrentRepeats() throws Exception {
+        FakePaymentProvider provider = new FakePaymentProvider(1, 0, 0);
+        PaymentProcessor processor = processor(provider);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<PaymentView>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String transactionId = "tx-" + (i % 20);
+                long userId = i % 20 / 4;
+                results.add(executor.submit(() -> processor.charge(charge(transactionId, userId))));
+            }
+            int originals = 0;
+            for (Future<PaymentView> result : results) {
+                if (!result.get().duplicate()) {
+                    originals++;
+                }
+            }
+            assertEquals(20, originals);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(20, provider.charges());
+        assertEquals(20, provider.calls());
+        assertEquals(20, repository.inserts.get());
+    }
+
+    @Test
+    void retriesTransientProviderFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentProcessor processor = processor(payment -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ProviderUnavailableException("timeout");
+            }
+            return new ProviderResult(true, null);
+        });
+
+        assertEquals("succeeded", processor.charge(charge("tx-1", 7)).status());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void leavesChargePendingAfterLastAttemptAndResumesOnRepeat() {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentProcessor processor = processor(payment -> {
+            if (calls.incrementAndGet() <= 4) {
+                throw new ProviderUnavailableException("timeout");
+            }
+            return new ProviderResult(false, "card_declined");
+        });
+
+        assertEquals("pending", processor.charge(charge("tx-1", 7)).status());
+        PaymentView resumed = processor.charge(charge("tx-1", 7));
+
+        assertEquals("failed", resumed.status());
+        assertFalse(resumed.duplicate());
+        assertEquals(1, repository.inserts.get());
+    }
+
+    @Test
+    void rejectsReusedTransactionIdForAnotherCharge() {
+        PaymentProcessor processor = processor(new FakePaymentProvider(0, 0, 0));
+        processor.charge(charge("tx-1", 7));
+
+        assertThrows(PaymentConflictException.class, () -> processor.charge(charge("tx-1", 8)));
+    }
+
+    @Test
+    void appliesEachWebhookOnceAndIgnoresStaleOnes() {
+        PaymentProcessor processor = processor(payment -> {
+            throw new ProviderUnavailableException("timeout");
+        });
+        processor.charge(charge("tx-1", 7));
+        Payment succeeded = charge("tx-1", 7).withStatus(PaymentStatus.SUCCEEDED);
+
+        assertEquals(WebhookOutcome.APPLIED, processor.handle(succeeded));
+        int queries = repository.queries.get();
+        assertEquals(WebhookOutcome.DUPLICATE, processor.handle(succeeded));
+        assertEquals(queries, repository.queries.get());
+        assertEquals(WebhookOutcome.IGNORED, processor.handle(charge("tx-1", 7).withStatus(PaymentStatus.FAILED)));
+        assertEquals(WebhookOutcome.APPLIED, processor.handle(succeeded.withStatus(PaymentStatus.REFUNDED)));
+        assertEquals(PaymentStatus.REFUNDED, repository.find("tx-1").status());
+    }
+
+    @Test
+    void rejectsWebhooksThatDoNotMatchTheStoredPayment() {
+        PaymentProcessor processor = processor(payment -> {
+            throw new ProviderUnavailableException("timeout");
+        });
+        processor.charge(charge("tx-1", 7));
+        Payment succeeded = charge("tx-1", 7).withStatus(PaymentStatus.SUCCEEDED);
+
+        assertThrows(PaymentConflictException.class, () -> processor.handle(charge("tx-1", 8)
+                .withStatus(PaymentStatus.SUCCEEDED)));
+        assertThrows(PaymentConflictException.class, () -> processor.handle(new Payment("tx-1", 7,
+                new BigDecimal("0.01"), "USD", null, PaymentStatus.SUCCEEDED)));
+        assertEquals(PaymentStatus.PENDING, repository.find("tx-1").status());
+
+        assertEquals(WebhookOutcome.APPLIED, processor.handle(succeeded));
+        assertThrows(PaymentConflictException.class, () -> processor.handle(charge("tx-1", 8)
+                .withStatus(PaymentStatus.SUCCEEDED)));
+    }
+
+    @Test
+    void neverCreatesPaymentsFromWebhooks() {
+        PaymentProcessor processor = processor(new FakePaymentProvider(0, 0, 0));
+
+        assertEquals(WebhookOutcome.UNKNOWN, processor.handle(charge("tx-9", 7).withStatus(PaymentStatus.SUCCEEDED)));
+        assertNull(repository.find("tx-9"));
+    }
+
+    @Test
+    void confirmsWarmedKeysAgainstTheDatabase() {
+        repository.rows.put("tx-1", charge("tx-1", 7).withStatus(PaymentStatus.SUCCEEDED));
+        FakePaymentProvider provider = new FakePaymentProvider(0, 0, 0);
+        PaymentProcessor processor = processor(provider);
+
+        assertEquals(1, processor.warm());
+        PaymentView view = processor.charge(charge("tx-1", 7));
+
+        assertTrue(view.duplicate());
+        assertEquals(0, provider.calls());
+        assertEquals(0, repository.inserts.get());
+    }
+}
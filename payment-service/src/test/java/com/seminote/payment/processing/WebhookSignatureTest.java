@@ -0,0 +1,37 @@
+package com.seminote.payment.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookSignatureTest {
+
+    private static final String SECRET = "a-private-webhook-secret-of-32-bytes!";
+
+    @Test
+    void acceptsOnlyBodiesSignedWithTheSharedSecret() {
+        WebhookSignature signature = new WebhookSignature(SECRET);
+        byte[] body = "{\"transactionId\":\"tx-1\",\"status\":\"succeeded\"}".getBytes(StandardCharsets.UTF_8);
+        String valid = HexFormat.of().formatHex(signature.sign(body));
+
+        assertTrue(signature.verify(body, valid));
+        assertTrue(signature.verify(body, valid.toUpperCase()));
+        assertFalse(signature.verify(body, null));
+        assertFalse(signature.verify(body, "not hex"));
+        assertFalse(signature.verify("{}".getBytes(StandardCharsets.UTF_8), valid));
+        assertFalse(signature.verify(body, HexFormat.of().formatHex(
+                new WebhookSignature(SECRET + "x").sign(body))));
+    }
+
+    @Test
+    void requiresAPrivateSecret() {
+        assertThrows(IllegalStateException.class, () -> new WebhookSignature(null));
+        assertThrows(IllegalStateException.class, () -> new WebhookSignature(" "));
+        assertThrows(IllegalStateException.class, () -> new WebhookSignature("too-short"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renewal store with the same claim, keyset and guarded-write semantics as
+ * the JDBC one. Can be told to fail a commit to simulate a node crashing in
+ * the middle of a partition.
+ */
+final class InMemoryRenewalStore implements RenewalStore {
+
+    private static final Comparator<Subscription> CURSOR_ORDER =
+            Comparator.comparingLong(Subscription::userId).thenComparingLong(Subscription::id);
+
+    final Map<Long, Subscription> subscriptions = new TreeMap<>();
+    final Map<String, PaymentStatus> payments = new HashMap<>();
+    final Map<String, String> invoices = new HashMap<>();
+    private final Map<String, Instant> runs = new LinkedHashMap<>();
+    private final List<Claimable> partitions = new ArrayList<>();
+    private int commits;
+    private int failCommit = -1;
+
+    synchronized void add(final long id, final long userId, final Instant renewsAt) {
+        subscriptions.put(id, new Subscription(id, userId, new BigDecimal("9.99"), "USD", 1, Subscription.ACTIVE,
+                renewsAt, renewsAt, 0));
+    }
+
+    synchronized void failCommit(final int commitNumber) {
+        failCommit = commitNumber;
+    }
+
+    synchronized long completedPartitions() {
+        return partitions.stream().filter(p -> p.completed).count();
+    }
+
+    @Override
+    public synchronized boolean plan(final String runId, final Instant asOf, final int count) {
+        if (runs.putIfAbsent(runId, asOf) != null) {
+            return false;
+        }
+        List<Subscription> due = subscriptions.values().stream()
+                .filter(s -> isDue(s, asOf)).sorted(CURSOR_ORDER).toList();
+        if (!due.isEmpty()) {
+            for (RenewalPartition partition : RenewalPartition.split(runId, asOf, due.get(0).userId(),
+                    due.get(due.size() - 1).userId(), count)) {
+                partitions.add(new Claimable(partition));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized RenewalPartition claim(final String nodeId, final Instant now, final Instant leaseUntil) {
+        for (Claimable claimable : partitions) {
+            if (!claimable.completed && (claimable.leaseUntil == null || claimable.leaseUntil.isBefore(now))) {
+                claimable.claimedBy = nodeId;
+                claimable.leaseUntil = leaseUntil;
+                return claimable.partition;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized List<Subscription> due(final RenewalPartition partition, final int limit) {
+        return subscriptions.values().stream()
+                .filter(s -> isDue(s, partition.asOf()) && s.userId() < partition.rangeEnd())
+                .filter(s -> s.userId() > partition.lastUserId()
+                        || s.userId() == partition.lastUserId() && s.id() > partition.lastSubscriptionId())
+                .sorted(CURSOR_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public synchronized Map<String, PaymentStatus> recordPending(final List<Renewal> renewals) {
+        Map<String, PaymentStatus> settled = new HashMap<>();
+        for (Renewal renewal : renewals) {
+            PaymentStatus existing = payments.putIfAbsent(renewal.transactionId(), PaymentStatus.PENDING);
+            if (existing != null && existing != PaymentStatus.PENDING) {
+                settled.put(renewal.transactionId(), existing);
+            }
+        }
+        return settled;
+    }
+
+    @Override
+    public synchronized boolean commit(final RenewalPartition checkpoint, final String nodeId,
+                                       final List<Renewal> renewals, final boolean completed,
+                                       final Instant leaseUntil) {
+        if (++commits == failCommit) {
+            throw new IllegalStateException("Connection reset");
+        }
+        Claimable claimable = partitions.stream()
+                .filter(p -> p.partition.runId().equals(checkpoint.runId())
+                        && p.partition.index() == checkpoint.index())
+                .findFirst().orElseThrow();
+        if (!nodeId.equals(claimable.claimedBy)) {
+            return false;
+        }
+        claimable.partition = checkpoint;
+        claimable.leaseUntil = leaseUntil;
+        claimable.completed = completed;
+        for (Renewal renewal : renewals) {
+            if (!renewal.settled()) {
+                continue;
+            }
+            payments.replace(renewal.transactionId(), PaymentStatus.PENDING, renewal.status());
+            Subscription previous = renewal.subscription();
+            invoices.put(previous.id() + "@" + previous.renewsAt(),
+                    renewal.status() == PaymentStatus.FAILED ? "open" : "paid");
+            Subscription current = subscriptions.get(previous.id());
+            if (current.renewsAt().equals(previous.renewsAt())
+                    && current.failedAttempts() == previous.failedAttempts()) {
+                subscriptions.put(previous.id(), renewal.next());
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDue(final Subscription subscription, final Instant asOf) {
+        return Subscription.ACTIVE.equals(subscription.status()) && !subscription.nextAttemptAt().isAfter(asOf);
+    }
+
+    private static final class Claimable {
+
+        private RenewalPartition partition;
+        private String claimedBy;
+        private Instant leaseUntil;
+        private boolean completed;
+
+        Claimable(final RenewalPartition partition) {
+            this.partition = partition;
+        }
+    }
+}
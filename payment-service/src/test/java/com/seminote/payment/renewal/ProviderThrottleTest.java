@@ -0,0 +1,43 @@
+package com.seminote.payment.renewal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProviderThrottleTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void spacesCallsEvenly() {
+        AtomicLong now = new AtomicLong();
+        ProviderThrottle throttle = new ProviderThrottle(100, now::get);
+
+        assertEquals(0, throttle.reserve());
+        assertEquals(INTERVAL, throttle.reserve());
+        assertEquals(2 * INTERVAL, throttle.reserve());
+    }
+
+    @Test
+    void doesNotBankIdleTime() {
+        AtomicLong now = new AtomicLong();
+        ProviderThrottle throttle = new ProviderThrottle(100, now::get);
+        throttle.reserve();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, throttle.reserve());
+        assertEquals(INTERVAL, throttle.reserve());
+    }
+
+    @Test
+    void zeroMeansUnlimited() {
+        ProviderThrottle throttle = new ProviderThrottle(0, () -> 0);
+
+        assertEquals(0, throttle.reserve());
+        assertEquals(0, throttle.reserve());
+    }
+}
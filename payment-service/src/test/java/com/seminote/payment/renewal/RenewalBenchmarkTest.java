@@ -0,0 +1,105 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.FakePaymentProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renewal run over one million synthetic subscriptions against Postgres.
+ *
+ * The fake provider answers instantly and the rate limit is off, so the run
+ * measures partitioned reads and chunked commits alone. Reports subscriptions
+ * per second and chunk latency.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("load")
+class RenewalBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenewalBenchmarkTest.class);
+    private static final int SUBSCRIPTIONS = 1_000_000;
+    private static final Instant AS_OF = Instant.parse("2025-03-01T08:00:00Z");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withCopyFileToContainer(MountableFile.forHostPath("../infrastructure/sql/init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void createSubscriptions() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        config.setMaximumPoolSize(16);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("INSERT INTO users (username, email, password_hash) "
+                + "SELECT 'renewal-' || g, 'renewal-' || g || '@seminote.com', 'x' FROM generate_series(1, ?) g",
+                SUBSCRIPTIONS);
+        jdbcTemplate.update("INSERT INTO subscriptions (user_id, plan, amount, renews_at, next_attempt_at) "
+                + "SELECT id, 'monthly', 9.99, '2025-03-01', '2025-03-01' FROM users "
+                + "WHERE username LIKE 'renewal-%'");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void closePool() {
+        dataSource.close();
+    }
+
+    @Test
+    void renewsAMillionSubscriptions() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RenewalProperties properties = new RenewalProperties();
+        properties.setChunkSize(1_000);
+        properties.setProviderRateLimit(0);
+        FakePaymentProvider provider = new FakePaymentProvider(0, 0.02, 0);
+        RenewalEngine engine = new RenewalEngine(new JdbcRenewalStore(jdbcTemplate, transactionTemplate), provider,
+                properties, Clock.fixed(AS_OF, ZoneOffset.UTC), registry);
+
+        RenewalProgress progress = engine.renew();
+
+        Timer chunk = registry.get("seminote.payments.renewals.chunk").timer();
+        LOGGER.info("{} subscriptions in {} ms ({} per second), {} renewed, {} declined, {} chunks, "
+                        + "mean chunk {} ms, max chunk {} ms", progress.processed(), progress.elapsedMillis(),
+                Math.round(progress.perSecond()), progress.renewed(), progress.declined(), chunk.count(),
+                Math.round(chunk.mean(TimeUnit.MILLISECONDS)), Math.round(chunk.max(TimeUnit.MILLISECONDS)));
+
+        assertEquals(SUBSCRIPTIONS, progress.processed());
+        assertEquals(SUBSCRIPTIONS, provider.charges());
+        assertEquals(progress.renewed(), count("SELECT count(*) FROM subscriptions WHERE renews_at = '2025-04-01'"));
+        assertEquals(SUBSCRIPTIONS, count("SELECT count(*) FROM invoices"));
+        assertEquals(0, count("SELECT count(*) FROM renewal_partitions WHERE completed_at IS NULL"));
+    }
+
+    private static long count(final String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,171 @@
+package com.seminote.payment.renewal;
+
+import com.seminote.payment.processing.FakePaymentProvider;
+import com.seminote.payment.processing.PaymentProvider;
+import com.seminote.payment.processing.PaymentStatus;
+import com.seminote.payment.processing.ProviderResult;
+import com.seminote.payment.processing.ProviderUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenewalEngineTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T08:00:00Z");
+    private static final Instant DUE = Instant.parse("2025-03-01T00:00:00Z");
+    private static final Instant NEXT_PERIOD = Instant.parse("2025-04-01T00:00:00Z");
+    private static final int USERS = 500;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final InMemoryRenewalStore store = new InMemoryRenewalStore();
+
+    private RenewalEngine engine(final PaymentProvider provider, final int partitions, final int parallelism) {
+        RenewalProperties properties = new RenewalProperties();
+        properties.setPartitions(partitions);
+        properties.setParallelism(parallelism);
+        properties.setChunkSize(50);
+        properties.setProviderRateLimit(0);
+        properties.setMaxFailedAttempts(2);
+        return new RenewalEngine(store, provider, properties, clock, new SimpleMeterRegistry());
+    }
+
+    private void subscribeAll() {
+        for (long userId = 1; userId <= USERS; userId++) {
+            store.add(userId * 2, userId, DUE);
+            store.add(userId * 2 + 1, userId, DUE);
+        }
+        store.add(10_000, 1, NEXT_PERIOD);
+    }
+
+    @Test
+    void renewsEveryDueSubscriptionOnceAcrossPartitions() {
+        subscribeAll();
+        FakePaymentProvider provider = new FakePaymentProvider(0, 0, 0);
+
+        RenewalProgress progress = engine(provider, 8, 4).renew();
+
+        assertEquals(2 * USERS, progress.processed());
+        assertEquals(2 * USERS, progress.renewed());
+        assertEquals(8, progress.partitionsCompleted());
+        assertEquals(2 * USERS, provider.charges());
+        assertEquals(2 * USERS, store.invoices.size());
+        assertTrue(store.payments.values().stream().allMatch(status -> status == PaymentStatus.SUCCEEDED));
+        assertTrue(store.subscriptions.values().stream().allMatch(s -> s.renewsAt().equals(NEXT_PERIOD)));
+    }
+
+    @Test
+    void resumesAnInterruptedPartitionWithoutChargingTwice() {
+        subscribeAll();
+        FakePaymentProvider provider = new FakePaymentProvider(0, 0, 0);
+        store.failCommit(3);
+
+        RenewalProgress interrupted = engine(provider, 1, 1).renew();
+        clock.advance(Duration.ofMinutes(10));
+        RenewalProgress resumed = engine(provider, 1, 1).renew();
+
+        assertEquals(100, interrupted.processed());
+        assertEquals(0, interrupted.partitionsCompleted());
+        assertEquals(2 * USERS - 100, resumed.processed());
+        assertEquals(1, store.completedPartitions());
+        assertEquals(2 * USERS, provider.charges());
+        assertTrue(provider.calls() > provider.charges());
+        assertTrue(store.subscriptions.values().stream().allMatch(s -> s.renewsAt().equals(NEXT_PERIOD)));
+    }
+
+    @Test
+    void retriesDeclinedRenewalsUntilPastDue() {
+        store.add(1, 1, DUE);
+        RenewalEngine engine = engine(subscription -> new ProviderResult(false, "card_declined"), 1, 1);
+
+        engine.renew();
+        Subscription retried = store.subscriptions.get(1L);
+        assertEquals(Subscription.ACTIVE, retried.status());
+        assertEquals(1, retried.failedAttempts());
+        assertEquals(NOW.plus(Duration.ofDays(3)), retried.nextAttemptAt());
+
+        clock.advance(Duration.ofDays(3));
+        engine.renew();
+        Subscription pastDue = store.subscriptions.get(1L);
+        assertEquals(Subscription.PAST_DUE, pastDue.status());
+        assertEquals(DUE, pastDue.renewsAt());
+        assertEquals(2, store.payments.size());
+        assertEquals("open", store.invoices.get("1@" + DUE));
+    }
+
+    @Test
+    void leavesUnreachableChargesPendingForTheNextRun() {
+        store.add(1, 1, DUE);
+        AtomicBoolean down = new AtomicBoolean(true);
+        FakePaymentProvider fake = new FakePaymentProvider(0, 0, 0);
+        RenewalEngine engine = engine(payment -> {
+            if (down.get()) {
+                throw new ProviderUnavailableException("timeout");
+            }
+            return fake.charge(payment);
+        }, 1, 1);
+
+        RenewalProgress first = engine.renew();
+        assertEquals(1, first.deferred());
+        assertEquals(DUE, store.subscriptions.get(1L).renewsAt());
+        String transactionId = RenewalEngine.transactionId(store.subscriptions.get(1L));
+        assertEquals(PaymentStatus.PENDING, store.payments.get(transactionId));
+
+        down.set(false);
+        clock.advance(Duration.ofDays(1));
+        RenewalProgress second = engine.renew();
+        assertEquals(1, second.renewed());
+        assertEquals(PaymentStatus.SUCCEEDED, store.payments.get(transactionId));
+        assertEquals(NEXT_PERIOD, store.subscriptions.get(1L).renewsAt());
+    }
+
+    @Test
+    void splitsTheUserRangeIntoContiguousPartitions() {
+        List<RenewalPartition> partitions = RenewalPartition.split("run", NOW, 1, 10, 4);
+
+        assertEquals(4, partitions.size());
+        assertEquals(1, partitions.get(0).rangeStart());
+        assertEquals(10 + 1, partitions.get(3).rangeEnd());
+        for (int i = 1; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i - 1).rangeEnd(), partitions.get(i).rangeStart());
+        }
+        assertEquals(1, RenewalPartition.split("run", NOW, 5, 5, 4).size());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.seminote.progress.achievement;
+
+import com.seminote.progress.tracking.ProgressCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires the achievement engine to progress updates.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AchievementProperties.class)
+public class AchievementConfiguration {
+
+    /**
+     * Achievement storage.
+     * @param jdbcTemplate template over the progress datasource
+     * @param transactionTemplate transaction template
+     * @return store
+     */
+    @Bean
+    public AchievementStateStore achievementStateStore(final JdbcTemplate jdbcTemplate,
+                                                       final TransactionTemplate transactionTemplate) {
+        return new JdbcAchievementStateStore(jdbcTemplate, transactionTemplate);
+    }
+
+    /**
+     * Achievement engine, fed with every update the coalescer accepts.
+     * @param store achievement storage
+     * @param properties achievement settings
+     * @param coalescer progress coalescer
+     * @param registry metrics registry
+     * @return engine
+     */
+    @Bean
+    public AchievementEngine achievementEngine(final AchievementStateStore store,
+                                               final AchievementProperties properties,
+                                               final ProgressCoalescer coalescer, final MeterRegistry registry) {
+        AchievementEngine engine = new AchievementEngine(MilestoneRules.compile(properties.getMilestones()), store,
+                properties, registry, Clock.systemUTC());
+        coalescer.addListener(engine::onProgress);
+        return engine;
+    }
+}
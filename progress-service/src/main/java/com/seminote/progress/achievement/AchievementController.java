@@ -0,0 +1,37 @@
+package com.seminote.progress.achievement;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Achievement API.
+ */
+@RestController
+@RequestMapping("/api/v1/progress")
+public class AchievementController {
+
+    private final AchievementEngine engine;
+
+    /**
+     * Create the controller.
+     * @param engine achievement engine
+     */
+    public AchievementController(final AchievementEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * A student's progress towards every milestone.
+     * @param userId student id
+     * @return achievements, including updates not yet saved
+     */
+    @GetMapping("/users/{userId}/achievements")
+    public AchievementView achievements(@PathVariable final long userId) {
+        return AchievementView.of(engine.snapshot(userId), engine.rules(), LocalDate.now(ZoneOffset.UTC).toEpochDay());
+    }
+}
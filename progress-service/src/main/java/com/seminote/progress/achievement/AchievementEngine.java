@@ -0,0 +1,575 @@
+package com.seminote.progress.achievement;
+
+import com.seminote.progress.tracking.ProgressCoalescer;
+import com.seminote.progress.tracking.ProgressState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates milestones incrementally as progress updates arrive.
+ *
+ * Each student has a small in-memory {@link LearnerState}: one counter per
+ * {@link Metric}, the current streak and the completed content ids. An update
+ * touches only the counters it changes and asks the compiled
+ * {@link MilestoneRules} for milestones crossed by those counters, so the cost
+ * of an update does not depend on the student's history or on the number of
+ * rules. Changed counters and unlocks are written behind in batches; idle
+ * students are evicted once saved and reloaded from the store on their next
+ * update. While running, that reload happens on a loader thread and the
+ * student's updates wait for it in memory, so a slow store never stalls the
+ * recording thread. The same holds for completions of content created after
+ * the last difficulty refresh: the student's updates wait while the loader
+ * thread reloads difficulties, so the item is counted at its difficulty.
+ * Students the store rejects for good (an unknown user id) are logged,
+ * counted and dropped instead of holding up later flushes.
+ *
+ * Counters are owned by the node holding the student in memory. With several
+ * nodes, a student's updates should reach one node at a time or concurrent
+ * increments can be lost; milestones are never unlocked twice either way.
+ */
+public class AchievementEngine implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AchievementEngine.class);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long MIN_DIFFICULTY_RELOAD_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    // Content that exists but has a difficulty no milestone counts
+    private static final byte UNRANKED = -1;
+
+    private final MilestoneRules rules;
+    private final AchievementStateStore store;
+    private final Clock clock;
+    private final long flushIntervalMs;
+    private final long idleTimeoutMs;
+    private final long difficultyRefreshMs;
+    private final Map<Long, LearnerState> learners = new ConcurrentHashMap<>();
+    private final Queue<AchievementUnlocked> pendingUnlocks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong difficultiesLoadedAt = new AtomicLong(Long.MIN_VALUE / 2);
+    private final Queue<LearnerState> awaitingDifficulties = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean difficultyReloadScheduled = new AtomicBoolean();
+    private final Counter events;
+    private final Counter unlocked;
+    private final Counter rejected;
+    private final Timer flushTimer;
+
+    // Completion metric ordinal plus one by content id, zero for unknown content
+    private volatile byte[] difficulties = new byte[0];
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ScheduledExecutorService loader;
+
+    /**
+     * Create an engine.
+     * @param rules compiled milestones
+     * @param store counter and unlock storage
+     * @param properties achievement settings
+     * @param registry registry for event and unlock metrics
+     * @param clock time source for updates without a practice time and for eviction
+     */
+    public AchievementEngine(final MilestoneRules rules, final AchievementStateStore store,
+                             final AchievementProperties properties, final MeterRegistry registry,
+                             final Clock clock) {
+        this.rules = rules;
+        this.store = store;
+        this.clock = clock;
+        this.flushIntervalMs = properties.getFlushInterval().toMillis();
+        this.idleTimeoutMs = properties.getIdleTimeout().toMillis();
+        this.difficultyRefreshMs = properties.getDifficultyRefreshInterval().toMillis();
+        this.events = Counter.builder("seminote.progress.achievements.events")
+                .description("Progress updates evaluated against milestones")
+                .register(registry);
+        this.unlocked = Counter.builder("seminote.progress.achievements.unlocked")
+                .description("Milestones reached")
+                .register(registry);
+        this.rejected = Counter.builder("seminote.progress.achievements.rejected")
+                .description("Students whose counters the database rejected and that were dropped")
+                .register(registry);
+        this.flushTimer = Timer.builder("seminote.progress.achievements.flush")
+                .description("Time to save changed achievement counters")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("seminote.progress.achievements.learners", learners, Map::size)
+                .description("Students whose achievement counters are held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Apply one progress update.
+     * @param update progress delta as recorded by the {@link ProgressCoalescer}
+     * @return milestones the update unlocked, usually none; always none while
+     *         the student's counters are loading, the update's unlocks are
+     *         then saved once it is applied
+     */
+    public List<AchievementUnlocked> onProgress(final ProgressState update) {
+        events.increment();
+        long now = clock.millis();
+        while (true) {
+            LearnerState learner = learner(update.userId());
+            synchronized (learner) {
+                if (learner.evicted) {
+                    continue;
+                }
+                learner.touchedMillis = now;
+                if (!learner.loaded) {
+                    learner.waiting.add(update);
+                    return List.of();
+                }
+                return applyOrHold(learner, update, now);
+            }
+        }
+    }
+
+    /**
+     * Current counters of a student. Students not held in memory are read
+     * from the store without being cached.
+     * @param userId student id
+     * @return counters, including unsaved changes while the student is held in memory
+     */
+    public LearnerSnapshot snapshot(final long userId) {
+        LearnerState learner = learners.get(userId);
+        if (learner != null) {
+            synchronized (learner) {
+                if (learner.loaded && !learner.evicted) {
+                    learner.touchedMillis = clock.millis();
+                    return learner.snapshot();
+                }
+            }
+        }
+        LearnerSnapshot stored = store.load(userId);
+        return stored != null ? stored : LearnerSnapshot.empty(userId);
+    }
+
+    /**
+     * Milestones evaluated by this engine.
+     * @return compiled rules
+     */
+    public MilestoneRules rules() {
+        return rules;
+    }
+
+    /**
+     * Save changed counters and new unlocks, then evict idle students, also
+     * when saving failed.
+     * @return number of students saved
+     */
+    public int flush() {
+        List<LearnerState> saved = new ArrayList<>();
+        List<LearnerSnapshot> snapshots = new ArrayList<>();
+        for (LearnerState learner : learners.values()) {
+            synchronized (learner) {
+                if (learner.dirty) {
+                    learner.dirty = false;
+                    saved.add(learner);
+                    snapshots.add(learner.snapshot());
+                }
+            }
+        }
+        List<AchievementUnlocked> unlocks = new ArrayList<>();
+        for (AchievementUnlocked unlock = pendingUnlocks.poll(); unlock != null; unlock = pendingUnlocks.poll()) {
+            unlocks.add(unlock);
+        }
+        int dropped = 0;
+        try {
+            if (!snapshots.isEmpty() || !unlocks.isEmpty()) {
+                long start = System.nanoTime();
+                try {
+                    store.save(snapshots, unlocks);
+                } catch (DataIntegrityViolationException e) {
+                    dropped = saveEach(snapshots, unlocks);
+                } catch (RuntimeException e) {
+                    // Still in memory, so marking them dirty again is enough for the next flush to retry
+                    for (LearnerState learner : saved) {
+                        synchronized (learner) {
+                            learner.dirty = true;
+                        }
+                    }
+                    pendingUnlocks.addAll(unlocks);
+                    throw e;
+                }
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            evictIdle(clock.millis());
+        }
+        return snapshots.size() - dropped;
+    }
+
+    /**
+     * Reload content difficulties from the store.
+     */
+    public void refreshDifficulties() {
+        Map<Integer, String> levels = store.contentDifficulties();
+        int maxId = levels.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        byte[] table = new byte[maxId + 1];
+        levels.forEach((contentId, level) -> {
+            if (contentId >= 0) {
+                Metric metric = Metric.completedAt(level);
+                table[contentId] = metric != null ? (byte) (metric.ordinal() + 1) : UNRANKED;
+            }
+        });
+        difficulties = table;
+        difficultiesLoadedAt.set(clock.millis());
+    }
+
+    /**
+     * Number of students held in memory.
+     * @return learner count
+     */
+    public int learnerCount() {
+        return learners.size();
+    }
+
+    private LearnerState learner(final long userId) {
+        LearnerState learner = learners.get(userId);
+        if (learner != null) {
+            return learner;
+        }
+        LearnerState created = new LearnerState(userId);
+        LearnerState raced = learners.putIfAbsent(userId, created);
+        if (raced != null) {
+            return raced;
+        }
+        ScheduledExecutorService executor = loader;
+        if (executor != null) {
+            executor.execute(() -> loadOrRetry(created));
+            return created;
+        }
+        // Not running, so there is no loader thread
+        try {
+            load(created);
+        } catch (RuntimeException e) {
+            synchronized (created) {
+                created.evicted = true;
+                learners.remove(userId, created);
+            }
+            throw e;
+        }
+        return created;
+    }
+
+    private void load(final LearnerState learner) {
+        LearnerSnapshot stored = store.load(learner.userId);
+        long now = clock.millis();
+        synchronized (learner) {
+            learner.load(stored != null ? stored : LearnerSnapshot.empty(learner.userId));
+            List<ProgressState> updates = new ArrayList<>(learner.waiting);
+            learner.waiting.clear();
+            for (ProgressState update : updates) {
+                applyOrHold(learner, update, now);
+            }
+        }
+    }
+
+    /**
+     * Apply an update to a loaded student, or hold it and the student's later
+     * updates until difficulties are reloaded when it completes unknown content.
+     * Called with the student's monitor held.
+     */
+    private List<AchievementUnlocked> applyOrHold(final LearnerState learner, final ProgressState update,
+                                                  final long now) {
+        if (learner.awaitingDifficulties) {
+            learner.waiting.add(update);
+            return List.of();
+        }
+        if (update.completionBasisPoints() >= ProgressState.FULL_COMPLETION && codeOf(update.contentId()) == 0
+                && !learner.hasCompleted(update.contentId())) {
+            ScheduledExecutorService executor = loader;
+            if (executor != null) {
+                learner.awaitingDifficulties = true;
+                learner.waiting.add(update);
+                awaitingDifficulties.add(learner);
+                scheduleDifficultyReload(executor);
+                return List.of();
+            }
+            // Not running, so there is no loader thread; reload once rather than miscount it
+            if (reloadDifficultiesAllowed()) {
+                refreshDifficultiesQuietly();
+            }
+        }
+        return apply(learner, update, now);
+    }
+
+    private void scheduleDifficultyReload(final ScheduledExecutorService executor) {
+        if (difficultyReloadScheduled.compareAndSet(false, true)) {
+            // Content without any difficulty row would otherwise reload on every completion
+            long delay = Math.max(0, difficultiesLoadedAt.get() + MIN_DIFFICULTY_RELOAD_MILLIS - clock.millis());
+            try {
+                executor.schedule(this::reloadDifficultiesForWaiting, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Stopping; stop() applies the held updates
+                difficultyReloadScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Reload difficulties, then apply the updates of every student held for them.
+     * Runs on the loader thread, and on the stopping thread for students still held.
+     */
+    private void reloadDifficultiesForWaiting() {
+        // Cleared first, so a student held from here on schedules the next reload
+        difficultyReloadScheduled.set(false);
+        refreshDifficultiesQuietly();
+        long now = clock.millis();
+        for (LearnerState learner = awaitingDifficulties.poll(); learner != null;
+             learner = awaitingDifficulties.poll()) {
+            synchronized (learner) {
+                if (!learner.awaitingDifficulties) {
+                    continue;
+                }
+                learner.awaitingDifficulties = false;
+                for (ProgressState update : learner.waiting) {
+                    apply(learner, update, now);
+                }
+                learner.waiting.clear();
+            }
+        }
+    }
+
+    private void loadOrRetry(final LearnerState learner) {
+        try {
+            load(learner);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not load achievement counters of user {}, will retry: {}", learner.userId,
+                    e.toString());
+            ScheduledExecutorService executor = loader;
+            if (executor != null) {
+                executor.schedule(() -> loadOrRetry(learner), flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Save each student on its own after the batch was rejected, dropping the ones the store rejects.
+     * @return number of students dropped
+     */
+    private int saveEach(final List<LearnerSnapshot> snapshots, final List<AchievementUnlocked> unlocks) {
+        Map<Long, List<AchievementUnlocked>> unlocksByUser = new HashMap<>();
+        for (AchievementUnlocked unlock : unlocks) {
+            unlocksByUser.computeIfAbsent(unlock.userId(), id -> new ArrayList<>()).add(unlock);
+        }
+        List<LearnerSnapshot> remaining = new ArrayList<>(snapshots);
+        int dropped = 0;
+        try {
+            while (!remaining.isEmpty()) {
+                LearnerSnapshot snapshot = remaining.get(remaining.size() - 1);
+                if (!saveOne(List.of(snapshot), unlocksByUser.getOrDefault(snapshot.userId(), List.of()),
+                        snapshot.userId())) {
+                    dropped++;
+                }
+                unlocksByUser.remove(snapshot.userId());
+                remaining.remove(remaining.size() - 1);
+            }
+            while (!unlocksByUser.isEmpty()) {
+                Map.Entry<Long, List<AchievementUnlocked>> entry = unlocksByUser.entrySet().iterator().next();
+                saveOne(List.of(), entry.getValue(), entry.getKey());
+                unlocksByUser.remove(entry.getKey());
+            }
+        } catch (RuntimeException e) {
+            // The store failed for another reason; whatever was not saved yet is retried by the next flush
+            for (LearnerSnapshot snapshot : remaining) {
+                LearnerState learner = learners.get(snapshot.userId());
+                if (learner != null) {
+                    synchronized (learner) {
+                        learner.dirty = true;
+                    }
+                }
+            }
+            unlocksByUser.values().forEach(pendingUnlocks::addAll);
+            throw e;
+        }
+        return dropped;
+    }
+
+    private boolean saveOne(final List<LearnerSnapshot> snapshot, final List<AchievementUnlocked> unlocks,
+                            final long userId) {
+        try {
+            store.save(snapshot, unlocks);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            LearnerState learner = learners.remove(userId);
+            if (learner != null) {
+                synchronized (learner) {
+                    learner.evicted = true;
+                }
+            }
+            rejected.increment();
+            LOGGER.error("Dropped achievement counters and {} unlocks of user {} rejected by the database: {}",
+                    unlocks.size(), userId, e.getMostSpecificCause().getMessage());
+            return false;
+        }
+    }
+
+    private List<AchievementUnlocked> apply(final LearnerState learner, final ProgressState update, final long now) {
+        List<MilestoneDefinition> crossed = new ArrayList<>(0);
+        if (update.practiceMinutes() > 0) {
+            increase(learner, Metric.TOTAL_MINUTES, update.practiceMinutes(), crossed);
+        }
+        long practicedAt = update.lastPracticedMillis() > 0 ? update.lastPracticedMillis() : now;
+        long dayBefore = learner.lastPracticeDay;
+        int streak = learner.practiceOn(Math.floorDiv(practicedAt, DAY_MILLIS));
+        if (learner.lastPracticeDay != dayBefore) {
+            learner.dirty = true;
+        }
+        long best = learner.metrics[Metric.BEST_STREAK_DAYS.ordinal()];
+        if (streak > best) {
+            increase(learner, Metric.BEST_STREAK_DAYS, streak - best, crossed);
+        }
+        if (update.completionBasisPoints() >= ProgressState.FULL_COMPLETION && learner.complete(update.contentId())) {
+            learner.dirty = true;
+            increase(learner, Metric.COMPLETED_LESSONS, 1, crossed);
+            Metric byDifficulty = difficultyOf(update.contentId());
+            if (byDifficulty != null) {
+                increase(learner, byDifficulty, 1, crossed);
+            }
+        }
+        if (crossed.isEmpty()) {
+            return List.of();
+        }
+        Instant at = Instant.ofEpochMilli(practicedAt);
+        List<AchievementUnlocked> unlocks = new ArrayList<>(crossed.size());
+        for (MilestoneDefinition milestone : crossed) {
+            unlocks.add(new AchievementUnlocked(learner.userId, milestone.id(), at));
+        }
+        pendingUnlocks.addAll(unlocks);
+        unlocked.increment(unlocks.size());
+        return unlocks;
+    }
+
+    private void increase(final LearnerState learner, final Metric metric, final long amount,
+                          final List<MilestoneDefinition> crossed) {
+        int index = metric.ordinal();
+        long before = learner.metrics[index];
+        long after = before + amount;
+        learner.metrics[index] = after;
+        learner.dirty = true;
+        rules.crossed(index, before, after, crossed);
+    }
+
+    private Metric difficultyOf(final int contentId) {
+        byte code = codeOf(contentId);
+        return code > 0 ? Metric.of(code - 1) : null;
+    }
+
+    private byte codeOf(final int contentId) {
+        byte[] table = difficulties;
+        return contentId >= 0 && contentId < table.length ? table[contentId] : 0;
+    }
+
+    private boolean reloadDifficultiesAllowed() {
+        long now = clock.millis();
+        long last = difficultiesLoadedAt.get();
+        return now - last >= MIN_DIFFICULTY_RELOAD_MILLIS && difficultiesLoadedAt.compareAndSet(last, now);
+    }
+
+    private void evictIdle(final long now) {
+        Iterator<LearnerState> it = learners.values().iterator();
+        while (it.hasNext()) {
+            LearnerState learner = it.next();
+            synchronized (learner) {
+                if (learner.loaded && !learner.dirty && !learner.awaitingDifficulties
+                        && now - learner.touchedMillis >= idleTimeoutMs) {
+                    learner.evicted = true;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Achievement flush failed, will retry: {}", e.toString());
+        }
+    }
+
+    private void refreshDifficultiesQuietly() {
+        try {
+            refreshDifficulties();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not refresh content difficulties: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        refreshDifficultiesQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "achievement-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::refreshDifficultiesQuietly, difficultyRefreshMs,
+                difficultyRefreshMs, TimeUnit.MILLISECONDS);
+        loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "achievement-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        // Loads already queued still run and apply their waiting updates, failed ones are not retried
+        ScheduledExecutorService stopping = loader;
+        loader = null;
+        stopping.shutdown();
+        scheduler.shutdown();
+        try {
+            stopping.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+            scheduler.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        if (!awaitingDifficulties.isEmpty()) {
+            // A reload scheduled later than the loader was waited for; apply the held updates before saving
+            reloadDifficultiesForWaiting();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Stop together with the coalescer, after the web server has stopped sending updates.
+     * @return lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return ProgressCoalescer.PHASE;
+    }
+}
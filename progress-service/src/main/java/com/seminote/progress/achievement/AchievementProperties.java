@@ -0,0 +1,76 @@
+package com.seminote.progress.achievement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the achievement engine.
+ */
+@ConfigurationProperties(prefix = "seminote.progress.achievements")
+public class AchievementProperties {
+
+    private static final long DEFAULT_FLUSH_SECONDS = 5;
+    private static final long DEFAULT_IDLE_MINUTES = 30;
+    private static final long DEFAULT_DIFFICULTY_REFRESH_MINUTES = 10;
+    private static final List<MilestoneDefinition> DEFAULT_MILESTONES = List.of(
+            new MilestoneDefinition("first-lesson", Metric.COMPLETED_LESSONS, 1),
+            new MilestoneDefinition("ten-lessons", Metric.COMPLETED_LESSONS, 10),
+            new MilestoneDefinition("fifty-lessons", Metric.COMPLETED_LESSONS, 50),
+            new MilestoneDefinition("first-hour", Metric.TOTAL_MINUTES, 60),
+            new MilestoneDefinition("ten-hours", Metric.TOTAL_MINUTES, 600),
+            new MilestoneDefinition("hundred-hours", Metric.TOTAL_MINUTES, 6000),
+            new MilestoneDefinition("three-day-streak", Metric.BEST_STREAK_DAYS, 3),
+            new MilestoneDefinition("week-streak", Metric.BEST_STREAK_DAYS, 7),
+            new MilestoneDefinition("month-streak", Metric.BEST_STREAK_DAYS, 30),
+            new MilestoneDefinition("beginner-graduate", Metric.COMPLETED_BEGINNER, 10),
+            new MilestoneDefinition("intermediate-five", Metric.COMPLETED_INTERMEDIATE, 5),
+            new MilestoneDefinition("first-advanced", Metric.COMPLETED_ADVANCED, 1));
+
+    private List<MilestoneDefinition> milestones = new ArrayList<>(DEFAULT_MILESTONES);
+    private Duration flushInterval = Duration.ofSeconds(DEFAULT_FLUSH_SECONDS);
+    private Duration idleTimeout = Duration.ofMinutes(DEFAULT_IDLE_MINUTES);
+    private Duration difficultyRefreshInterval = Duration.ofMinutes(DEFAULT_DIFFICULTY_REFRESH_MINUTES);
+
+    /**
+     * Milestones to evaluate; configuring any replaces the built-in set.
+     * @return milestone definitions
+     */
+    public List<MilestoneDefinition> getMilestones() {
+        return milestones;
+    }
+
+    public void setMilestones(final List<MilestoneDefinition> milestones) {
+        this.milestones = milestones;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(final Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * How long a saved student stays in memory without updates.
+     * @return idle timeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getDifficultyRefreshInterval() {
+        return difficultyRefreshInterval;
+    }
+
+    public void setDifficultyRefreshInterval(final Duration difficultyRefreshInterval) {
+        this.difficultyRefreshInterval = difficultyRefreshInterval;
+    }
+}
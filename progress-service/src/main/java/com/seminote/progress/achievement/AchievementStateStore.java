@@ -0,0 +1,30 @@
+package com.seminote.progress.achievement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable storage for achievement counters and unlocks.
+ */
+public interface AchievementStateStore {
+
+    /**
+     * Load the counters of one student.
+     * @param userId student id
+     * @return stored counters, or null if none were saved yet
+     */
+    LearnerSnapshot load(long userId);
+
+    /**
+     * Save changed counters and new unlocks in one transaction.
+     * @param learners counters to overwrite
+     * @param unlocks unlocks to add; unlocks already stored are ignored
+     */
+    void save(List<LearnerSnapshot> learners, List<AchievementUnlocked> unlocks);
+
+    /**
+     * Difficulty level of every content item.
+     * @return {@code content.difficulty_level} by content id
+     */
+    Map<Integer, String> contentDifficulties();
+}
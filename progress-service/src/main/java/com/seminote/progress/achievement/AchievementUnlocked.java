@@ -0,0 +1,13 @@
+package com.seminote.progress.achievement;
+
+import java.time.Instant;
+
+/**
+ * A student reaching a milestone.
+ *
+ * @param userId student id
+ * @param milestoneId milestone id
+ * @param unlockedAt time of the progress event that crossed the threshold
+ */
+public record AchievementUnlocked(long userId, String milestoneId, Instant unlockedAt) {
+}
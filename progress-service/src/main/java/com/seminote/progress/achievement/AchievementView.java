@@ -0,0 +1,36 @@
+package com.seminote.progress.achievement;
+
+import java.util.List;
+
+/**
+ * Achievement progress of a student as returned by the API.
+ *
+ * @param currentStreakDays consecutive practice days up to today or yesterday, zero if broken
+ * @param milestones every milestone with the student's progress towards it
+ */
+public record AchievementView(int currentStreakDays, List<Milestone> milestones) {
+
+    static AchievementView of(final LearnerSnapshot learner, final MilestoneRules rules, final long today) {
+        boolean alive = learner.lastPracticeDay() != LearnerSnapshot.NEVER && learner.lastPracticeDay() >= today - 1;
+        List<Milestone> milestones = rules.definitions().stream()
+                .map(definition -> {
+                    long value = learner.metric(definition.metric());
+                    return new Milestone(definition.id(), definition.metric(), definition.threshold(),
+                            Math.min(value, definition.threshold()), value >= definition.threshold());
+                })
+                .toList();
+        return new AchievementView(alive ? learner.currentStreakDays() : 0, milestones);
+    }
+
+    /**
+     * Progress towards one milestone.
+     *
+     * @param id milestone id
+     * @param metric metric the milestone watches
+     * @param threshold value that unlocks it
+     * @param progress current value, capped at the threshold
+     * @param unlocked whether the milestone has been reached
+     */
+    public record Milestone(String id, Metric metric, long threshold, long progress, boolean unlocked) {
+    }
+}
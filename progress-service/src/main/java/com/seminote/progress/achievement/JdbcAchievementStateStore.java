@@ -0,0 +1,133 @@
+package com.seminote.progress.achievement;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link AchievementStateStore} over the {@code achievement_counters} and
+ * {@code user_achievements} tables.
+ *
+ * Counters are stored as one row per student with the metrics in an array
+ * indexed by {@link Metric} ordinal, so adding a metric needs no migration.
+ */
+public class JdbcAchievementStateStore implements AchievementStateStore {
+
+    private static final String LOAD_SQL = "SELECT metrics, completed_content, current_streak, last_practice_day "
+            + "FROM achievement_counters WHERE user_id = ?";
+    private static final String SAVE_SQL = "INSERT INTO achievement_counters "
+            + "(user_id, metrics, completed_content, current_streak, last_practice_day, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (user_id) DO UPDATE SET metrics = EXCLUDED.metrics, "
+            + "completed_content = EXCLUDED.completed_content, current_streak = EXCLUDED.current_streak, "
+            + "last_practice_day = EXCLUDED.last_practice_day, updated_at = CURRENT_TIMESTAMP";
+    private static final String UNLOCK_SQL = "INSERT INTO user_achievements (user_id, milestone_id, unlocked_at) "
+            + "VALUES (?, ?, ?) ON CONFLICT (user_id, milestone_id) DO NOTHING";
+    private static final String DIFFICULTY_SQL = "SELECT id, difficulty_level FROM content";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the progress datasource
+     * @param transactionTemplate transaction wrapping each save
+     */
+    public JdbcAchievementStateStore(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public LearnerSnapshot load(final long userId) {
+        RowMapper<LearnerSnapshot> mapper = (rs, rowNum) -> {
+            LocalDate lastDay = rs.getObject("last_practice_day", LocalDate.class);
+            return new LearnerSnapshot(userId, toLongs(rs.getArray("metrics")),
+                    toInts(rs.getArray("completed_content")), rs.getInt("current_streak"),
+                    lastDay != null ? lastDay.toEpochDay() : LearnerSnapshot.NEVER);
+        };
+        List<LearnerSnapshot> rows = jdbcTemplate.query(LOAD_SQL, mapper, userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void save(final List<LearnerSnapshot> learners, final List<AchievementUnlocked> unlocks) {
+        // Key order keeps concurrent saves from several nodes from deadlocking
+        List<LearnerSnapshot> ordered = learners.stream()
+                .sorted(Comparator.comparingLong(LearnerSnapshot::userId)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SAVE_SQL, ordered, ordered.size(), (ps, learner) -> {
+                ps.setLong(1, learner.userId());
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", boxed(learner.metrics())));
+                ps.setArray(3, ps.getConnection().createArrayOf("integer", boxed(learner.completedContent())));
+                ps.setInt(4, learner.currentStreakDays());
+                if (learner.lastPracticeDay() == LearnerSnapshot.NEVER) {
+                    ps.setNull(5, Types.DATE);
+                } else {
+                    ps.setDate(5, Date.valueOf(LocalDate.ofEpochDay(learner.lastPracticeDay())));
+                }
+            });
+            jdbcTemplate.batchUpdate(UNLOCK_SQL, unlocks, unlocks.size(), (ps, unlock) -> {
+                ps.setLong(1, unlock.userId());
+                ps.setString(2, unlock.milestoneId());
+                ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.ofInstant(unlock.unlockedAt(), ZoneOffset.UTC)));
+            });
+        });
+    }
+
+    @Override
+    public Map<Integer, String> contentDifficulties() {
+        Map<Integer, String> levels = new HashMap<>();
+        jdbcTemplate.query(DIFFICULTY_SQL, rs -> {
+            levels.put(rs.getInt("id"), rs.getString("difficulty_level"));
+        });
+        return levels;
+    }
+
+    private static long[] toLongs(final Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = ((Number) values[i]).longValue();
+        }
+        return result;
+    }
+
+    private static int[] toInts(final Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = ((Number) values[i]).intValue();
+        }
+        return result;
+    }
+
+    private static Long[] boxed(final long[] values) {
+        Long[] result = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    private static Integer[] boxed(final int[] values) {
+        Integer[] result = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.seminote.progress.achievement;
+
+/**
+ * Persisted achievement counters of one student.
+ *
+ * @param userId student id
+ * @param metrics metric values indexed by {@link Metric} ordinal; shorter arrays are zero-padded
+ * @param completedContent ids of completed content items, ascending
+ * @param currentStreakDays length of the practice streak ending on {@code lastPracticeDay}
+ * @param lastPracticeDay last UTC day with practice as an epoch day, or {@link #NEVER}
+ */
+public record LearnerSnapshot(long userId, long[] metrics, int[] completedContent, int currentStreakDays,
+                              long lastPracticeDay) {
+
+    /** Marker for a student who has not practised yet. */
+    public static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * Counters of a student without any recorded progress.
+     * @param userId student id
+     * @return empty snapshot
+     */
+    public static LearnerSnapshot empty(final long userId) {
+        return new LearnerSnapshot(userId, new long[Metric.count()], new int[0], 0, NEVER);
+    }
+
+    /**
+     * Value of one metric.
+     * @param metric metric
+     * @return value, zero if the snapshot predates the metric
+     */
+    public long metric(final Metric metric) {
+        return metric.ordinal() < metrics.length ? metrics[metric.ordinal()] : 0L;
+    }
+}
@@ -0,0 +1,107 @@
+package com.seminote.progress.achievement;
+
+import com.seminote.progress.tracking.ProgressState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable achievement counters of one student, guarded by its own monitor.
+ *
+ * Completed content is a sorted int array: students complete at most a few
+ * hundred items, so a binary search and an occasional array copy are cheaper
+ * than a boxed set and keep the state a few hundred bytes.
+ *
+ * A state is created empty and filled in once its stored counters are
+ * loaded; updates arriving in between wait in arrival order. They also wait
+ * while content difficulties are reloaded for an item the student completed.
+ */
+final class LearnerState {
+
+    private static final int INITIAL_COMPLETED = 8;
+
+    final long userId;
+    final long[] metrics = new long[Metric.count()];
+    int currentStreakDays;
+    long lastPracticeDay;
+    boolean dirty;
+    boolean evicted;
+    long touchedMillis;
+    boolean loaded;
+    boolean awaitingDifficulties;
+    final List<ProgressState> waiting = new ArrayList<>(0);
+
+    private int[] completed = new int[INITIAL_COMPLETED];
+    private int completedCount;
+
+    LearnerState(final long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Take over the stored counters.
+     * @param snapshot stored counters
+     */
+    void load(final LearnerSnapshot snapshot) {
+        for (Metric metric : Metric.values()) {
+            metrics[metric.ordinal()] = snapshot.metric(metric);
+        }
+        this.currentStreakDays = snapshot.currentStreakDays();
+        this.lastPracticeDay = snapshot.lastPracticeDay();
+        this.completedCount = snapshot.completedContent().length;
+        this.completed = Arrays.copyOf(snapshot.completedContent(), Math.max(INITIAL_COMPLETED, completedCount));
+        this.loaded = true;
+    }
+
+    /**
+     * Whether a content item is already completed.
+     * @param contentId content id
+     * @return true if it was completed before
+     */
+    boolean hasCompleted(final int contentId) {
+        return Arrays.binarySearch(completed, 0, completedCount, contentId) >= 0;
+    }
+
+    /**
+     * Mark a content item completed.
+     * @param contentId content id
+     * @return true if it was not completed before
+     */
+    boolean complete(final int contentId) {
+        int index = Arrays.binarySearch(completed, 0, completedCount, contentId);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (completedCount == completed.length) {
+            completed = Arrays.copyOf(completed, completed.length * 2);
+        }
+        System.arraycopy(completed, insertAt, completed, insertAt + 1, completedCount - insertAt);
+        completed[insertAt] = contentId;
+        completedCount++;
+        return true;
+    }
+
+    /**
+     * Record practice on a UTC day.
+     * @param epochDay practice day
+     * @return the streak length after the update
+     */
+    int practiceOn(final long epochDay) {
+        if (lastPracticeDay == LearnerSnapshot.NEVER || epochDay > lastPracticeDay + 1) {
+            currentStreakDays = 1;
+            lastPracticeDay = epochDay;
+        } else if (epochDay == lastPracticeDay + 1) {
+            currentStreakDays++;
+            lastPracticeDay = epochDay;
+        }
+        // Same day or a late heartbeat for an earlier day leaves the streak alone
+        return currentStreakDays;
+    }
+
+    LearnerSnapshot snapshot() {
+        return new LearnerSnapshot(userId, metrics.clone(), Arrays.copyOf(completed, completedCount),
+                currentStreakDays, lastPracticeDay);
+    }
+}
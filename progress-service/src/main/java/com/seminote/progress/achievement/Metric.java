@@ -0,0 +1,59 @@
+package com.seminote.progress.achievement;
+
+import java.util.Locale;
+
+/**
+ * Per-student counters milestones are defined over. Every metric only ever
+ * grows, so a milestone is reached exactly once.
+ */
+public enum Metric {
+
+    /** Practice minutes across all content. */
+    TOTAL_MINUTES,
+    /** Longest run of consecutive UTC days with practice. */
+    BEST_STREAK_DAYS,
+    /** Content items completed. */
+    COMPLETED_LESSONS,
+    /** Beginner content items completed. */
+    COMPLETED_BEGINNER,
+    /** Intermediate content items completed. */
+    COMPLETED_INTERMEDIATE,
+    /** Advanced content items completed. */
+    COMPLETED_ADVANCED;
+
+    private static final Metric[] VALUES = values();
+
+    /**
+     * Number of metrics, the length of per-student counter arrays.
+     * @return metric count
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Metric by ordinal.
+     * @param ordinal ordinal
+     * @return metric
+     */
+    public static Metric of(final int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Completion metric for a {@code content.difficulty_level} value.
+     * @param difficultyLevel difficulty level, case insensitive
+     * @return metric, or null for unknown levels
+     */
+    public static Metric completedAt(final String difficultyLevel) {
+        if (difficultyLevel == null) {
+            return null;
+        }
+        return switch (difficultyLevel.toLowerCase(Locale.ROOT)) {
+            case "beginner" -> COMPLETED_BEGINNER;
+            case "intermediate" -> COMPLETED_INTERMEDIATE;
+            case "advanced" -> COMPLETED_ADVANCED;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.seminote.progress.achievement;
+
+/**
+ * A milestone reached when a metric reaches a threshold.
+ *
+ * @param id stable milestone id, stored with each unlock
+ * @param metric metric the milestone watches
+ * @param threshold value at which the milestone is reached
+ */
+public record MilestoneDefinition(String id, Metric metric, long threshold) {
+}
@@ -0,0 +1,111 @@
+package com.seminote.progress.achievement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Milestone definitions compiled into per-metric threshold tables.
+ *
+ * Each metric gets its thresholds sorted ascending, so the milestones crossed
+ * by a change from {@code before} to {@code after} are one binary search and
+ * a short scan. A change only consults the table of the metric it touched.
+ */
+public final class MilestoneRules {
+
+    private final long[][] thresholds;
+    private final MilestoneDefinition[][] milestones;
+    private final List<MilestoneDefinition> definitions;
+
+    private MilestoneRules(final long[][] thresholds, final MilestoneDefinition[][] milestones,
+                           final List<MilestoneDefinition> definitions) {
+        this.thresholds = thresholds;
+        this.milestones = milestones;
+        this.definitions = definitions;
+    }
+
+    /**
+     * Compile milestone definitions.
+     * @param definitions definitions with unique ids and positive thresholds
+     * @return compiled rules
+     * @throws IllegalArgumentException if an id repeats or a threshold is not positive
+     */
+    public static MilestoneRules compile(final List<MilestoneDefinition> definitions) {
+        Set<String> ids = new HashSet<>();
+        List<List<MilestoneDefinition>> byMetric = new ArrayList<>();
+        for (int i = 0; i < Metric.count(); i++) {
+            byMetric.add(new ArrayList<>());
+        }
+        for (MilestoneDefinition definition : definitions) {
+            if (!ids.add(definition.id())) {
+                throw new IllegalArgumentException("Duplicate milestone id " + definition.id());
+            }
+            if (definition.threshold() <= 0) {
+                throw new IllegalArgumentException("Milestone " + definition.id() + " needs a positive threshold");
+            }
+            byMetric.get(definition.metric().ordinal()).add(definition);
+        }
+        long[][] thresholds = new long[Metric.count()][];
+        MilestoneDefinition[][] milestones = new MilestoneDefinition[Metric.count()][];
+        for (int metric = 0; metric < Metric.count(); metric++) {
+            List<MilestoneDefinition> list = byMetric.get(metric);
+            list.sort(Comparator.comparingLong(MilestoneDefinition::threshold));
+            milestones[metric] = list.toArray(new MilestoneDefinition[0]);
+            thresholds[metric] = list.stream().mapToLong(MilestoneDefinition::threshold).toArray();
+        }
+        return new MilestoneRules(thresholds, milestones, List.copyOf(definitions));
+    }
+
+    /**
+     * Whether any milestone watches a metric; unwatched metrics are still counted.
+     * @param metric metric
+     * @return true if at least one milestone depends on it
+     */
+    public boolean watches(final Metric metric) {
+        return thresholds[metric.ordinal()].length > 0;
+    }
+
+    /**
+     * Index of the first milestone of a metric above a value.
+     * @param metric metric ordinal
+     * @param value metric value
+     * @return index into the metric's threshold table
+     */
+    int firstAbove(final int metric, final long value) {
+        long[] table = thresholds[metric];
+        int index = Arrays.binarySearch(table, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Step past equal thresholds; several milestones may share one
+        while (index < table.length && table[index] <= value) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Milestones of a metric crossed by a change, appended to a list.
+     * @param metric metric ordinal
+     * @param before value before the change
+     * @param after value after the change
+     * @param crossed receives every milestone with {@code before < threshold <= after}
+     */
+    void crossed(final int metric, final long before, final long after, final List<MilestoneDefinition> crossed) {
+        long[] table = thresholds[metric];
+        for (int i = firstAbove(metric, before); i < table.length && table[i] <= after; i++) {
+            crossed.add(milestones[metric][i]);
+        }
+    }
+
+    /**
+     * Every compiled definition in declaration order.
+     * @return definitions
+     */
+    public List<MilestoneDefinition> definitions() {
+        return definitions;
+    }
+}
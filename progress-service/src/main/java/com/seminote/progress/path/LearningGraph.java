@@ -0,0 +1,625 @@
+package com.seminote.progress.path;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable prerequisite graph over the content catalog.
+ *
+ * Lessons are numbered densely in content id order and both edge directions
+ * are stored as compressed sparse rows: one offsets array and one flat index
+ * array each, so 100k lessons with a few prerequisites each take a few
+ * megabytes and walks touch contiguous memory. Prerequisite cycles, which
+ * the catalog cannot rule out, are broken when the graph is built.
+ *
+ * Queries take the completed lessons as sorted dense indices and never
+ * modify the graph, so any number of threads can share one instance.
+ */
+public final class LearningGraph {
+
+    /** Most targets whose prerequisite closure {@link #pathTo} computes. */
+    static final int MAX_PATH_CANDIDATES = 64;
+
+    private static final byte UNRANKED = -1;
+    private static final int INDEX_BITS = 32;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int DEPENDENT_BITS = 20;
+    private static final long MAX_DEPENDENTS = (1L << DEPENDENT_BITS) - 1;
+    private static final int MAX_DIRECT_SPREAD = 4;
+    private static final int MIN_DIRECT_SLOTS = 1024;
+
+    private final long[] contentIds;
+    // Index by content id for catalogs whose serial ids are not too sparse, null otherwise
+    private final int[] indexByContentId;
+    private final byte[] levels;
+    private final int[] prerequisiteOffsets;
+    private final int[] prerequisites;
+    private final int[] dependentOffsets;
+    private final int[] dependents;
+    private final int[] topologicalRank;
+    private final int[] depth;
+    // Lessons without prerequisites per level, as ranking keys in recommendation order
+    private final long[][] rootKeysByLevel;
+    private final int[][] lessonsByLevel;
+    private final Map<String, int[]> lessonsBySkill;
+    private final int droppedEdges;
+
+    private LearningGraph(final long[] contentIds, final byte[] levels, final int[][] prerequisiteRows,
+                          final int[][] dependentRows, final int[] order, final Map<String, int[]> lessonsBySkill,
+                          final int droppedEdges) {
+        int size = contentIds.length;
+        this.contentIds = contentIds;
+        this.indexByContentId = directIndex(contentIds);
+        this.levels = levels;
+        this.prerequisiteOffsets = prerequisiteRows[0];
+        this.prerequisites = prerequisiteRows[1];
+        this.dependentOffsets = dependentRows[0];
+        this.dependents = dependentRows[1];
+        this.droppedEdges = droppedEdges;
+        this.topologicalRank = new int[size];
+        this.depth = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            int lesson = order[rank];
+            topologicalRank[lesson] = rank;
+            int deepest = 0;
+            for (int i = prerequisiteOffsets[lesson]; i < prerequisiteOffsets[lesson + 1]; i++) {
+                deepest = Math.max(deepest, depth[prerequisites[i]]);
+            }
+            depth[lesson] = deepest + 1;
+        }
+        this.lessonsByLevel = new int[SkillLevel.values().length][];
+        this.rootKeysByLevel = new long[SkillLevel.values().length][];
+        for (SkillLevel level : SkillLevel.values()) {
+            int[] atLevel = filter(size, lesson -> levels[lesson] == level.ordinal());
+            lessonsByLevel[level.ordinal()] = byDepth(atLevel);
+            long[] rootKeys = Arrays.stream(atLevel)
+                    .filter(lesson -> prerequisiteOffsets[lesson] == prerequisiteOffsets[lesson + 1])
+                    .mapToLong(lesson -> rankKey(0, lesson))
+                    .toArray();
+            Arrays.sort(rootKeys);
+            rootKeysByLevel[level.ordinal()] = rootKeys;
+        }
+        Map<String, int[]> skills = new HashMap<>();
+        lessonsBySkill.forEach((skill, lessons) -> skills.put(skill, byDepth(lessons)));
+        this.lessonsBySkill = skills;
+    }
+
+    /**
+     * Start building a graph.
+     * @return empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Number of lessons.
+     * @return lesson count
+     */
+    public int size() {
+        return contentIds.length;
+    }
+
+    /**
+     * Number of prerequisite edges.
+     * @return edge count
+     */
+    public int edgeCount() {
+        return prerequisites.length;
+    }
+
+    /**
+     * Prerequisite edges ignored: repeats, self references, unknown content and edges closing a cycle.
+     * @return dropped edge count
+     */
+    public int droppedEdges() {
+        return droppedEdges;
+    }
+
+    /**
+     * Dense index of a lesson.
+     * @param contentId content id
+     * @return index, or -1 if the content is not in the graph
+     */
+    public int indexOf(final long contentId) {
+        if (indexByContentId != null) {
+            return contentId >= 0 && contentId < indexByContentId.length ? indexByContentId[(int) contentId] : -1;
+        }
+        int index = Arrays.binarySearch(contentIds, contentId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Content id of a lesson.
+     * @param index dense index
+     * @return content id
+     */
+    public long contentId(final int index) {
+        return contentIds[index];
+    }
+
+    /**
+     * Difficulty of a lesson.
+     * @param index dense index
+     * @return level, or null if the catalog level is unknown
+     */
+    public SkillLevel level(final int index) {
+        return levels[index] == UNRANKED ? null : SkillLevel.of(levels[index]);
+    }
+
+    /**
+     * Number of lessons that list a lesson as a direct prerequisite.
+     * @param index dense index
+     * @return dependent count
+     */
+    public int dependentCount(final int index) {
+        return dependentOffsets[index + 1] - dependentOffsets[index];
+    }
+
+    /**
+     * Dense indices of content ids, dropping unknown and repeated ids.
+     * @param contentIds content ids in any order
+     * @return sorted unique indices
+     */
+    public int[] indicesOf(final long[] contentIds) {
+        int[] indices = new int[contentIds.length];
+        int count = 0;
+        for (long contentId : contentIds) {
+            int index = indexOf(contentId);
+            if (index >= 0) {
+                indices[count++] = index;
+            }
+        }
+        Arrays.sort(indices, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || indices[unique - 1] != indices[i]) {
+                indices[unique++] = indices[i];
+            }
+        }
+        return Arrays.copyOf(indices, unique);
+    }
+
+    /**
+     * Lessons a target resolves to: every lesson of a level, or every lesson tagged with a skill.
+     * @param target level name or skill tag, case insensitive
+     * @return lesson indices, shallowest first, or null if nothing matches
+     */
+    public int[] lessonsFor(final String target) {
+        SkillLevel level = SkillLevel.parse(target);
+        int[] lessons = level != null ? lessonsByLevel[level.ordinal()]
+                : lessonsBySkill.get(target.trim().toLowerCase(Locale.ROOT));
+        return lessons == null || lessons.length == 0 ? null : lessons;
+    }
+
+    /**
+     * Lessons that can be taken next.
+     *
+     * A lesson qualifies when it is not completed, all of its prerequisites
+     * are, and it is at most one level above the learner. Lessons at the
+     * learner's level come first, then the next level up, then gaps below;
+     * within a tier, lessons that unlock more others come first.
+     *
+     * @param completed completed lessons as sorted dense indices
+     * @param skill learner's level
+     * @param limit maximum number of lessons
+     * @return lesson indices in recommendation order
+     */
+    public int[] next(final int[] completed, final SkillLevel skill, final int limit) {
+        long[] done = bits(completed);
+        long[] seen = new long[done.length];
+        long[] keys = new long[16];
+        int count = 0;
+        // Roots are always unlocked and already ranked, so each level contributes at most limit of them
+        for (int level = 0; level < rootKeysByLevel.length; level++) {
+            int tier = tier(level, skill);
+            if (tier < 0) {
+                continue;
+            }
+            int taken = 0;
+            for (long rootKey : rootKeysByLevel[level]) {
+                if (taken == limit) {
+                    break;
+                }
+                int root = (int) (rootKey & INDEX_MASK);
+                if (!isSet(done, root)) {
+                    keys = ensureCapacity(keys, count);
+                    keys[count++] = (long) tier << (INDEX_BITS + DEPENDENT_BITS) | rootKey;
+                    taken++;
+                }
+            }
+        }
+        for (int lesson : completed) {
+            for (int i = dependentOffsets[lesson]; i < dependentOffsets[lesson + 1]; i++) {
+                int dependent = dependents[i];
+                if (isSet(seen, dependent) || isSet(done, dependent)) {
+                    continue;
+                }
+                set(seen, dependent);
+                int tier = tier(levels[dependent], skill);
+                if (tier >= 0 && unlocked(dependent, done)) {
+                    keys = ensureCapacity(keys, count);
+                    keys[count++] = rankKey(tier, dependent);
+                }
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int[] result = new int[Math.min(limit, count)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) (keys[i] & INDEX_MASK);
+        }
+        return result;
+    }
+
+    /**
+     * Shortest route to a target: the uncompleted prerequisite closure of the
+     * cheapest target lesson, in an order that can be taken front to back.
+     *
+     * Targets are tried shallowest first and at most {@link #MAX_PATH_CANDIDATES}
+     * closures are computed, so level targets with thousands of lessons stay
+     * cheap; a target whose prerequisites are all done wins immediately.
+     *
+     * @param completed completed lessons as sorted dense indices
+     * @param targets candidate target lessons, shallowest first, not empty
+     * @return lesson indices ending with the chosen target, empty if a target is already completed
+     */
+    public int[] pathTo(final int[] completed, final int[] targets) {
+        long[] done = bits(completed);
+        for (int target : targets) {
+            if (isSet(done, target)) {
+                return new int[0];
+            }
+        }
+        for (int target : targets) {
+            if (unlocked(target, done)) {
+                return new int[] {target};
+            }
+        }
+        int[] best = null;
+        int[] stack = new int[Math.max(16, size())];
+        long[] visited = new long[done.length];
+        for (int i = 0; i < targets.length && i < MAX_PATH_CANDIDATES; i++) {
+            Arrays.fill(visited, 0L);
+            int[] closure = closure(targets[i], done, visited, stack, best != null ? best.length : Integer.MAX_VALUE);
+            if (closure != null) {
+                best = closure;
+            }
+        }
+        long[] ordered = new long[best.length];
+        for (int i = 0; i < best.length; i++) {
+            ordered[i] = (long) topologicalRank[best[i]] << INDEX_BITS | best[i];
+        }
+        Arrays.sort(ordered);
+        int[] path = new int[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            path[i] = (int) (ordered[i] & INDEX_MASK);
+        }
+        return path;
+    }
+
+    /**
+     * Recommendation tier of a level for a learner: own level, one up, gaps below; -1 if excluded.
+     */
+    private static int tier(final int level, final SkillLevel skill) {
+        if (level == skill.ordinal()) {
+            return 0;
+        }
+        if (level == skill.ordinal() + 1) {
+            return 1;
+        }
+        return level != UNRANKED && level < skill.ordinal() ? 2 : -1;
+    }
+
+    /**
+     * Tier, then most dependents, then lowest index, in one sortable long.
+     */
+    private long rankKey(final int tier, final int lesson) {
+        long fewerDependents = MAX_DEPENDENTS - Math.min(dependentCount(lesson), MAX_DEPENDENTS);
+        return (long) tier << (INDEX_BITS + DEPENDENT_BITS) | fewerDependents << INDEX_BITS | lesson;
+    }
+
+    private static long[] ensureCapacity(final long[] keys, final int count) {
+        return count < keys.length ? keys : Arrays.copyOf(keys, keys.length * 2);
+    }
+
+    private boolean unlocked(final int lesson, final long[] done) {
+        for (int i = prerequisiteOffsets[lesson]; i < prerequisiteOffsets[lesson + 1]; i++) {
+            if (!isSet(done, prerequisites[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] closure(final int target, final long[] done, final long[] visited, final int[] stack,
+                          final int bound) {
+        int[] members = new int[16];
+        int count = 0;
+        int top = 0;
+        stack[top++] = target;
+        set(visited, target);
+        while (top > 0) {
+            int lesson = stack[--top];
+            if (count == bound) {
+                return null;
+            }
+            if (count == members.length) {
+                members = Arrays.copyOf(members, count * 2);
+            }
+            members[count++] = lesson;
+            for (int i = prerequisiteOffsets[lesson]; i < prerequisiteOffsets[lesson + 1]; i++) {
+                int prerequisite = prerequisites[i];
+                if (!isSet(visited, prerequisite) && !isSet(done, prerequisite)) {
+                    set(visited, prerequisite);
+                    stack[top++] = prerequisite;
+                }
+            }
+        }
+        return Arrays.copyOf(members, count);
+    }
+
+    private long[] bits(final int[] lessons) {
+        long[] bits = new long[(size() + Long.SIZE - 1) / Long.SIZE];
+        for (int lesson : lessons) {
+            set(bits, lesson);
+        }
+        return bits;
+    }
+
+    private static int[] directIndex(final long[] contentIds) {
+        if (contentIds.length == 0 || contentIds[0] < 0) {
+            return null;
+        }
+        long maxId = contentIds[contentIds.length - 1];
+        if (maxId >= (long) contentIds.length * MAX_DIRECT_SPREAD + MIN_DIRECT_SLOTS) {
+            return null;
+        }
+        int[] table = new int[(int) maxId + 1];
+        Arrays.fill(table, -1);
+        for (int i = 0; i < contentIds.length; i++) {
+            table[(int) contentIds[i]] = i;
+        }
+        return table;
+    }
+
+    private int[] byDepth(final int[] lessons) {
+        long[] keyed = new long[lessons.length];
+        for (int i = 0; i < lessons.length; i++) {
+            keyed[i] = (long) depth[lessons[i]] << INDEX_BITS | lessons[i];
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[lessons.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) (keyed[i] & INDEX_MASK);
+        }
+        return sorted;
+    }
+
+    private static int[] filter(final int size, final IntPredicate predicate) {
+        return IntStream.range(0, size).filter(predicate).toArray();
+    }
+
+    private static boolean isSet(final long[] bits, final int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static void set(final long[] bits, final int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Collects lessons, prerequisites and skills in any order.
+     */
+    public static final class Builder {
+
+        private static final int LEVEL_BITS = 8;
+        private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+
+        private long[] lessons = new long[16];
+        private int lessonCount;
+        private long[] edgeLessons = new long[16];
+        private long[] edgePrerequisites = new long[16];
+        private int edgeCount;
+        private final Map<String, long[]> skills = new HashMap<>();
+        private final Map<String, Integer> skillCounts = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a lesson.
+         * @param contentId positive content id
+         * @param difficultyLevel catalog difficulty; unknown levels are kept but never recommended
+         * @return this builder
+         */
+        public Builder lesson(final long contentId, final String difficultyLevel) {
+            SkillLevel level = SkillLevel.parse(difficultyLevel);
+            if (lessonCount == lessons.length) {
+                lessons = Arrays.copyOf(lessons, lessonCount * 2);
+            }
+            // Id and level packed together so one primitive sort orders both
+            lessons[lessonCount++] = contentId << LEVEL_BITS | (level != null ? level.ordinal() : LEVEL_MASK);
+            return this;
+        }
+
+        /**
+         * Require one lesson before another.
+         * @param contentId lesson
+         * @param prerequisiteId lesson that must be completed first
+         * @return this builder
+         */
+        public Builder prerequisite(final long contentId, final long prerequisiteId) {
+            if (edgeCount == edgeLessons.length) {
+                edgeLessons = Arrays.copyOf(edgeLessons, edgeCount * 2);
+                edgePrerequisites = Arrays.copyOf(edgePrerequisites, edgeCount * 2);
+            }
+            edgeLessons[edgeCount] = contentId;
+            edgePrerequisites[edgeCount++] = prerequisiteId;
+            return this;
+        }
+
+        /**
+         * Tag a lesson with a skill it teaches.
+         * @param contentId lesson
+         * @param skill skill tag, case insensitive
+         * @return this builder
+         */
+        public Builder skill(final long contentId, final String skill) {
+            String key = skill.trim().toLowerCase(Locale.ROOT);
+            int count = skillCounts.getOrDefault(key, 0);
+            long[] ids = skills.computeIfAbsent(key, k -> new long[4]);
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                skills.put(key, ids);
+            }
+            ids[count] = contentId;
+            skillCounts.put(key, count + 1);
+            return this;
+        }
+
+        /**
+         * Build the graph.
+         * @return immutable graph
+         */
+        public LearningGraph build() {
+            long[] packed = Arrays.copyOf(lessons, lessonCount);
+            Arrays.sort(packed);
+            long[] ids = new long[packed.length];
+            byte[] levels = new byte[packed.length];
+            int size = 0;
+            for (long entry : packed) {
+                long id = entry >>> LEVEL_BITS;
+                if (size > 0 && ids[size - 1] == id) {
+                    continue;
+                }
+                ids[size] = id;
+                long level = entry & LEVEL_MASK;
+                levels[size++] = level == LEVEL_MASK ? UNRANKED : (byte) level;
+            }
+            long[] contentIds = Arrays.copyOf(ids, size);
+            byte[] lessonLevels = Arrays.copyOf(levels, size);
+
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            int edges = 0;
+            for (int i = 0; i < edgeCount; i++) {
+                int lesson = Arrays.binarySearch(contentIds, edgeLessons[i]);
+                int prerequisite = Arrays.binarySearch(contentIds, edgePrerequisites[i]);
+                if (lesson >= 0 && prerequisite >= 0 && lesson != prerequisite) {
+                    from[edges] = lesson;
+                    to[edges++] = prerequisite;
+                }
+            }
+            int[][] rows = rows(size, from, to, edges);
+            int[] order = new int[size];
+            int sorted = topologicalOrder(rows, order);
+            if (sorted < size) {
+                // Lessons left over sit on or behind a cycle; keep only their edges to sorted lessons
+                boolean[] placed = new boolean[size];
+                for (int i = 0; i < sorted; i++) {
+                    placed[order[i]] = true;
+                }
+                int kept = 0;
+                for (int i = 0; i < edges; i++) {
+                    if (placed[from[i]] || placed[to[i]]) {
+                        from[kept] = from[i];
+                        to[kept++] = to[i];
+                    }
+                }
+                edges = kept;
+                rows = rows(size, from, to, edges);
+                topologicalOrder(rows, order);
+            }
+            int[][] dependentRows = rows(size, to, from, edges);
+
+            Map<String, int[]> skillLessons = new HashMap<>();
+            skills.forEach((skill, skillIds) -> {
+                long[] tagged = Arrays.copyOf(skillIds, skillCounts.get(skill));
+                int[] indices = LongStream.of(tagged)
+                        .mapToInt(id -> Arrays.binarySearch(contentIds, id))
+                        .filter(index -> index >= 0)
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                if (indices.length > 0) {
+                    skillLessons.put(skill, indices);
+                }
+            });
+            return new LearningGraph(contentIds, lessonLevels, rows, dependentRows, order, skillLessons,
+                    edgeCount - rows[1].length);
+        }
+
+        /**
+         * Compressed rows of {@code from -> to} edges, duplicates removed.
+         */
+        private static int[][] rows(final int size, final int[] from, final int[] to, final int edges) {
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < edges; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] targets = new int[edges];
+            int[] cursor = Arrays.copyOf(offsets, size);
+            for (int i = 0; i < edges; i++) {
+                targets[cursor[from[i]]++] = to[i];
+            }
+            int[] compactOffsets = new int[size + 1];
+            int written = 0;
+            for (int row = 0; row < size; row++) {
+                int start = offsets[row];
+                int end = offsets[row + 1];
+                Arrays.sort(targets, start, end);
+                for (int i = start; i < end; i++) {
+                    if (i == start || targets[i] != targets[i - 1]) {
+                        targets[written++] = targets[i];
+                    }
+                }
+                compactOffsets[row + 1] = written;
+            }
+            return new int[][] {compactOffsets, Arrays.copyOf(targets, written)};
+        }
+
+        /**
+         * Kahn's algorithm over prerequisite rows.
+         * @return number of lessons placed; fewer than the size means a cycle
+         */
+        private static int topologicalOrder(final int[][] prerequisiteRows, final int[] order) {
+            int size = order.length;
+            int[] offsets = prerequisiteRows[0];
+            int[] remaining = new int[size];
+            int[][] dependentRows = rows(size, prerequisiteRows[1], rowOwners(offsets), prerequisiteRows[1].length);
+            int tail = 0;
+            for (int lesson = 0; lesson < size; lesson++) {
+                remaining[lesson] = offsets[lesson + 1] - offsets[lesson];
+                if (remaining[lesson] == 0) {
+                    order[tail++] = lesson;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int lesson = order[head];
+                for (int i = dependentRows[0][lesson]; i < dependentRows[0][lesson + 1]; i++) {
+                    int dependent = dependentRows[1][i];
+                    if (--remaining[dependent] == 0) {
+                        order[tail++] = dependent;
+                    }
+                }
+            }
+            return tail;
+        }
+
+        private static int[] rowOwners(final int[] offsets) {
+            int[] owners = new int[offsets[offsets.length - 1]];
+            for (int row = 0; row + 1 < offsets.length; row++) {
+                Arrays.fill(owners, offsets[row], offsets[row + 1], row);
+            }
+            return owners;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.seminote.progress.path;
+
+import com.seminote.progress.tracking.ProgressCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Wires learning path queries over the content catalog.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(LearningPathProperties.class)
+public class LearningPathConfiguration {
+
+    /**
+     * Catalog graph source.
+     * @param jdbcTemplate template over the catalog datasource
+     * @return repository
+     */
+    @Bean
+    public LearningPathRepository learningPathRepository(final JdbcTemplate jdbcTemplate) {
+        return new LearningPathRepository(jdbcTemplate);
+    }
+
+    /**
+     * Learning path service.
+     * @param repository catalog graph source
+     * @param coalescer source of completed lessons
+     * @param properties path settings
+     * @param registry metrics registry
+     * @return service
+     */
+    @Bean
+    public LearningPathService learningPathService(final LearningPathRepository repository,
+                                                   final ProgressCoalescer coalescer,
+                                                   final LearningPathProperties properties,
+                                                   final MeterRegistry registry) {
+        return new LearningPathService(repository, coalescer, properties, registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.seminote.progress.path;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Learning path API.
+ */
+@RestController
+@RequestMapping("/api/v1/progress/users/{userId}/path")
+public class LearningPathController {
+
+    private final LearningPathService service;
+    private final LearningPathProperties properties;
+
+    /**
+     * Create the controller.
+     * @param service learning path service
+     * @param properties path settings
+     */
+    public LearningPathController(final LearningPathService service, final LearningPathProperties properties) {
+        this.service = service;
+        this.properties = properties;
+    }
+
+    /**
+     * Lessons a student can take next.
+     * @param userId student id
+     * @param level student level; inferred from completed lessons when absent
+     * @param limit maximum lessons
+     * @return recommendation
+     */
+    @GetMapping("/next")
+    public NextLessonsView next(@PathVariable final long userId,
+                                @RequestParam(required = false) final String level,
+                                @RequestParam(required = false) final Integer limit) {
+        SkillLevel skill = null;
+        if (level != null) {
+            skill = SkillLevel.parse(level);
+            if (skill == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown level " + level);
+            }
+        }
+        int max = properties.getMaxLimit();
+        int resolved = limit != null ? limit : properties.getDefaultLimit();
+        if (resolved < 0 || resolved > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 0 and " + max);
+        }
+        return service.next(userId, skill, resolved);
+    }
+
+    /**
+     * Shortest route for a student to a level or skill.
+     * @param userId student id
+     * @param target level name such as {@code advanced}, or a skill tag
+     * @return path
+     */
+    @GetMapping("/to/{target}")
+    public PathView pathTo(@PathVariable final long userId, @PathVariable final String target) {
+        PathView path = service.pathTo(userId, target);
+        if (path == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No lesson teaches " + target);
+        }
+        return path;
+    }
+}
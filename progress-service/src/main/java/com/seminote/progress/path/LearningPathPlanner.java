@@ -0,0 +1,132 @@
+package com.seminote.progress.path;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Memoizing front end of a {@link LearningGraph}.
+ *
+ * Answers are cached under the query and the exact set of completed lessons,
+ * so every student at the same stage of the catalog shares one computation.
+ * A planner belongs to one graph; a catalog change builds a new planner and
+ * the old answers go with the old graph.
+ */
+public final class LearningPathPlanner {
+
+    private static final String NEXT = "next:";
+    private static final String PATH = "path:";
+
+    private final LearningGraph graph;
+    private final int maxResults;
+    private final Cache<MemoKey, int[]> memo;
+
+    /**
+     * Create a planner.
+     * @param graph prerequisite graph
+     * @param cacheSize maximum number of memoized answers
+     * @param maxResults most next lessons computed and cached per answer
+     */
+    public LearningPathPlanner(final LearningGraph graph, final int cacheSize, final int maxResults) {
+        this.graph = graph;
+        this.maxResults = maxResults;
+        this.memo = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * Lessons a student can take next.
+     * @param completedContentIds content ids the student has completed
+     * @param level student level, or null to infer it from the completed lessons
+     * @param limit maximum lessons, at most the planner's result limit
+     * @return recommendation
+     */
+    public NextLessonsView next(final long[] completedContentIds, final SkillLevel level, final int limit) {
+        int[] completed = graph.indicesOf(completedContentIds);
+        SkillLevel skill = level != null ? level : inferLevel(completed);
+        int[] lessons = memo.get(new MemoKey(NEXT + skill.id(), completed),
+                key -> graph.next(completed, skill, maxResults));
+        return new NextLessonsView(skill.id(), views(lessons, Math.min(limit, lessons.length)));
+    }
+
+    /**
+     * Shortest route to a level or skill.
+     * @param completedContentIds content ids the student has completed
+     * @param target level name or skill tag
+     * @return path, or null if no lesson matches the target
+     */
+    public PathView pathTo(final long[] completedContentIds, final String target) {
+        int[] targets = graph.lessonsFor(target);
+        if (targets == null) {
+            return null;
+        }
+        int[] completed = graph.indicesOf(completedContentIds);
+        String query = PATH + target.trim().toLowerCase(Locale.ROOT);
+        int[] lessons = memo.get(new MemoKey(query, completed), key -> graph.pathTo(completed, targets));
+        return new PathView(target, lessons.length == 0, views(lessons, lessons.length));
+    }
+
+    /**
+     * Graph the planner answers from.
+     * @return graph
+     */
+    public LearningGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Number of memoized answers.
+     * @return approximate cache size
+     */
+    public long cachedAnswers() {
+        return memo.estimatedSize();
+    }
+
+    /**
+     * Highest level among completed lessons, beginner for a new student.
+     */
+    private SkillLevel inferLevel(final int[] completed) {
+        SkillLevel highest = SkillLevel.BEGINNER;
+        for (int lesson : completed) {
+            SkillLevel level = graph.level(lesson);
+            if (level != null && level.compareTo(highest) > 0) {
+                highest = level;
+            }
+        }
+        return highest;
+    }
+
+    private List<LessonView> views(final int[] lessons, final int count) {
+        return Arrays.stream(lessons, 0, count).mapToObj(index -> LessonView.of(graph, index)).toList();
+    }
+
+    /**
+     * Query plus completed-set signature; the sorted indices are compared in full so
+     * two students only share an answer when their completed sets are identical.
+     */
+    private static final class MemoKey {
+
+        private final String query;
+        private final int[] completed;
+        private final int hash;
+
+        MemoKey(final String query, final int[] completed) {
+            this.query = query;
+            this.completed = completed;
+            this.hash = 31 * query.hashCode() + Arrays.hashCode(completed);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof MemoKey key && hash == key.hash && query.equals(key.query)
+                    && Arrays.equals(completed, key.completed);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.seminote.progress.path;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for learning path queries.
+ */
+@ConfigurationProperties(prefix = "seminote.progress.paths")
+public class LearningPathProperties {
+
+    private static final long DEFAULT_REFRESH_MINUTES = 5;
+    private static final int DEFAULT_CACHE_SIZE = 50_000;
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int DEFAULT_MAX_LIMIT = 50;
+
+    private Duration refreshInterval = Duration.ofMinutes(DEFAULT_REFRESH_MINUTES);
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private int defaultLimit = DEFAULT_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    /**
+     * How often the catalog version is checked; the graph is rebuilt only when it changed.
+     * @return refresh interval
+     */
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(final Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Maximum memoized answers per graph.
+     * @return cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(final int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
@@ -0,0 +1,66 @@
+package com.seminote.progress.path;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+
+/**
+ * Reads the prerequisite graph out of the {@code content} catalog.
+ *
+ * Prerequisites and skills live in content metadata as
+ * {@code {"prerequisites": [12, 15], "skills": ["pedalling"]}}; Postgres
+ * unnests both arrays so no JSON is parsed here. Malformed entries are
+ * skipped rather than failing the load.
+ */
+public class LearningPathRepository {
+
+    private static final String VERSION_SQL = "SELECT COUNT(*) AS lessons, MAX(updated_at) AS updated FROM content";
+    private static final String LESSONS_SQL = "SELECT id, difficulty_level FROM content";
+    private static final String PREREQUISITES_SQL = "SELECT c.id, p.value FROM content c "
+            + "CROSS JOIN LATERAL jsonb_array_elements_text(CASE WHEN jsonb_typeof(c.metadata -> 'prerequisites') "
+            + "= 'array' THEN c.metadata -> 'prerequisites' ELSE '[]'::jsonb END) AS p(value) "
+            + "WHERE p.value ~ '^[0-9]{1,18}$'";
+    private static final String SKILLS_SQL = "SELECT c.id, s.value FROM content c "
+            + "CROSS JOIN LATERAL jsonb_array_elements_text(CASE WHEN jsonb_typeof(c.metadata -> 'skills') "
+            + "= 'array' THEN c.metadata -> 'skills' ELSE '[]'::jsonb END) AS s(value) "
+            + "WHERE length(trim(s.value)) > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a repository.
+     * @param jdbcTemplate template over the catalog datasource
+     */
+    public LearningPathRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Cheap fingerprint of the catalog that changes whenever content is added, removed or edited.
+     * @return version string
+     */
+    public String catalogVersion() {
+        return jdbcTemplate.queryForObject(VERSION_SQL, (rs, rowNum) -> {
+            Timestamp updated = rs.getTimestamp("updated");
+            return rs.getLong("lessons") + "@" + (updated != null ? updated.getTime() : 0L);
+        });
+    }
+
+    /**
+     * Load the whole graph.
+     * @return graph
+     */
+    public LearningGraph load() {
+        LearningGraph.Builder builder = LearningGraph.builder();
+        jdbcTemplate.query(LESSONS_SQL, rs -> {
+            builder.lesson(rs.getLong("id"), rs.getString("difficulty_level"));
+        });
+        jdbcTemplate.query(PREREQUISITES_SQL, rs -> {
+            builder.prerequisite(rs.getLong("id"), Long.parseLong(rs.getString("value")));
+        });
+        jdbcTemplate.query(SKILLS_SQL, rs -> {
+            builder.skill(rs.getLong("id"), rs.getString("value"));
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.seminote.progress.path;
+
+import com.seminote.progress.tracking.ProgressCoalescer;
+import com.seminote.progress.tracking.ProgressState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link LearningPathPlanner} over the current catalog and answers
+ * path queries for students.
+ *
+ * The graph is loaded on startup and rebuilt in the background whenever the
+ * catalog version changes; queries keep using the previous planner until the
+ * new one is swapped in. A student's completed lessons come from the
+ * {@link ProgressCoalescer}, so a completion counts before it is flushed.
+ */
+public class LearningPathService implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LearningPathService.class);
+
+    private final LearningPathRepository repository;
+    private final ProgressCoalescer coalescer;
+    private final LearningPathProperties properties;
+    private final Timer buildTimer;
+
+    private volatile LearningPathPlanner planner;
+    private volatile String catalogVersion;
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create the service.
+     * @param repository catalog graph source
+     * @param coalescer source of students' completed lessons
+     * @param properties path settings
+     * @param registry registry for graph metrics
+     */
+    public LearningPathService(final LearningPathRepository repository, final ProgressCoalescer coalescer,
+                               final LearningPathProperties properties, final MeterRegistry registry) {
+        this.repository = repository;
+        this.coalescer = coalescer;
+        this.properties = properties;
+        this.planner = new LearningPathPlanner(LearningGraph.builder().build(), properties.getCacheSize(),
+                properties.getMaxLimit());
+        this.buildTimer = Timer.builder("seminote.progress.paths.build")
+                .description("Time to load and build the prerequisite graph")
+                .register(registry);
+        Gauge.builder("seminote.progress.paths.lessons", this, service -> service.planner.graph().size())
+                .description("Lessons in the prerequisite graph")
+                .register(registry);
+        Gauge.builder("seminote.progress.paths.cached", this, service -> service.planner.cachedAnswers())
+                .description("Memoized learning path answers")
+                .register(registry);
+    }
+
+    /**
+     * Rebuild the graph if the catalog changed.
+     * @return true if a new graph was built
+     */
+    public boolean refresh() {
+        String version = repository.catalogVersion();
+        if (Objects.equals(version, catalogVersion)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        LearningGraph graph = repository.load();
+        planner = new LearningPathPlanner(graph, properties.getCacheSize(), properties.getMaxLimit());
+        catalogVersion = version;
+        buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (graph.droppedEdges() > 0) {
+            LOGGER.warn("Ignored {} invalid or cyclic content prerequisites", graph.droppedEdges());
+        }
+        LOGGER.info("Built prerequisite graph with {} lessons and {} edges", graph.size(), graph.edgeCount());
+        return true;
+    }
+
+    /**
+     * Lessons a student can take next.
+     * @param userId student id
+     * @param level student level, or null to infer it
+     * @param limit maximum lessons
+     * @return recommendation
+     */
+    public NextLessonsView next(final long userId, final SkillLevel level, final int limit) {
+        return planner.next(completedContent(userId), level, limit);
+    }
+
+    /**
+     * Shortest route for a student to a level or skill.
+     * @param userId student id
+     * @param target level name or skill tag
+     * @return path, or null if nothing in the catalog matches the target
+     */
+    public PathView pathTo(final long userId, final String target) {
+        return planner.pathTo(completedContent(userId), target);
+    }
+
+    private long[] completedContent(final long userId) {
+        return coalescer.findByUser(userId).stream()
+                .filter(state -> state.completionBasisPoints() >= ProgressState.FULL_COMPLETION)
+                .mapToLong(ProgressState::contentId)
+                .toArray();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Prerequisite graph refresh failed, keeping the current graph: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        refreshQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "learning-path-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
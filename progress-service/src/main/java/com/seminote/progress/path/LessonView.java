@@ -0,0 +1,16 @@
+package com.seminote.progress.path;
+
+/**
+ * A lesson in a learning path answer.
+ *
+ * @param contentId content id
+ * @param level catalog difficulty, null if unknown
+ * @param unlocks number of lessons that list this one as a direct prerequisite
+ */
+public record LessonView(long contentId, String level, int unlocks) {
+
+    static LessonView of(final LearningGraph graph, final int index) {
+        SkillLevel level = graph.level(index);
+        return new LessonView(graph.contentId(index), level != null ? level.id() : null, graph.dependentCount(index));
+    }
+}
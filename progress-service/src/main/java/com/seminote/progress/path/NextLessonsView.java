@@ -0,0 +1,12 @@
+package com.seminote.progress.path;
+
+import java.util.List;
+
+/**
+ * Lessons a student can take next.
+ *
+ * @param level level the recommendation was made for
+ * @param lessons lessons in recommendation order
+ */
+public record NextLessonsView(String level, List<LessonView> lessons) {
+}
@@ -0,0 +1,13 @@
+package com.seminote.progress.path;
+
+import java.util.List;
+
+/**
+ * Shortest route from a student's completed lessons to a target.
+ *
+ * @param target requested level or skill
+ * @param reached whether a target lesson is already completed
+ * @param lessons lessons to take in order, ending with the target lesson; empty when reached
+ */
+public record PathView(String target, boolean reached, List<LessonView> lessons) {
+}
@@ -0,0 +1,52 @@
+package com.seminote.progress.path;
+
+import java.util.Locale;
+
+/**
+ * Difficulty levels of the content catalog, in learning order.
+ */
+public enum SkillLevel {
+
+    /** First steps at the instrument. */
+    BEGINNER,
+    /** Comfortable with the basics. */
+    INTERMEDIATE,
+    /** Concert and exam repertoire. */
+    ADVANCED;
+
+    private static final SkillLevel[] VALUES = values();
+
+    /**
+     * Level for a {@code content.difficulty_level} value.
+     * @param value level name, case insensitive
+     * @return level, or null for unknown names
+     */
+    public static SkillLevel parse(final String value) {
+        if (value == null) {
+            return null;
+        }
+        for (SkillLevel level : VALUES) {
+            if (level.name().equalsIgnoreCase(value.trim())) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Level by ordinal.
+     * @param ordinal ordinal
+     * @return level
+     */
+    static SkillLevel of(final int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Name as used in the catalog and the API.
+     * @return lower case name
+     */
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,123 @@
+package com.seminote.progress.tracking;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link ProgressStore} over the {@code progress} table.
+ *
+ * A flush is a single batched upsert: completion and last practice time only
+ * move forward and minutes are added, so rows never need to be read first.
+ * Rows are written in key order so concurrent flushes from several nodes
+ * lock them in the same order and cannot deadlock. When the batch violates a
+ * constraint it is replayed row by row under savepoints in the same
+ * transaction, so only the offending rows are left out and the checkpoint
+ * still covers the whole batch.
+ */
+public class JdbcProgressStore implements ProgressStore {
+
+    private static final String UPSERT_SQL = "INSERT INTO progress "
+            + "(user_id, content_id, completion_percentage, practice_time_minutes, last_practiced, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (user_id, content_id) DO UPDATE SET "
+            + "completion_percentage = GREATEST(progress.completion_percentage, EXCLUDED.completion_percentage), "
+            + "practice_time_minutes = COALESCE(progress.practice_time_minutes, 0) + EXCLUDED.practice_time_minutes, "
+            + "last_practiced = GREATEST(progress.last_practiced, EXCLUDED.last_practiced), "
+            + "updated_at = CURRENT_TIMESTAMP";
+    private static final String CHECKPOINT_SQL = "INSERT INTO progress_wal_checkpoints (node_id, segment, updated_at) "
+            + "VALUES (?, ?, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (node_id) DO UPDATE SET segment = EXCLUDED.segment, updated_at = CURRENT_TIMESTAMP";
+    private static final Comparator<ProgressState> KEY_ORDER = Comparator.comparingLong(ProgressState::userId)
+            .thenComparingInt(ProgressState::contentId);
+    private static final ParameterizedPreparedStatementSetter<ProgressState> UPSERT_SETTER = (ps, state) -> {
+        ps.setLong(1, state.userId());
+        ps.setInt(2, state.contentId());
+        ps.setBigDecimal(3, BigDecimal.valueOf(Math.max(state.completionBasisPoints(), 0), 2));
+        ps.setInt(4, state.practiceMinutes());
+        ps.setTimestamp(5, state.lastPracticedMillis() > 0
+                ? Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(state.lastPracticedMillis()),
+                        ZoneOffset.UTC))
+                : null);
+    };
+    private static final RowMapper<ProgressState> ROW_MAPPER = (rs, rowNum) -> {
+        BigDecimal completion = rs.getBigDecimal("completion_percentage");
+        LocalDateTime lastPracticed = rs.getObject("last_practiced", LocalDateTime.class);
+        return new ProgressState(rs.getLong("user_id"), rs.getInt("content_id"),
+                completion != null ? completion.movePointRight(2).intValue() : 0,
+                rs.getInt("practice_time_minutes"),
+                lastPracticed != null ? lastPracticed.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the progress datasource
+     * @param transactionTemplate transaction wrapping each flush
+     */
+    public JdbcProgressStore(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public List<ProgressState> apply(final List<ProgressState> batch, final String nodeId, final long segment) {
+        List<ProgressState> ordered = batch.stream().sorted(KEY_ORDER).toList();
+        return transactionTemplate.execute(status -> {
+            List<ProgressState> rejected = new ArrayList<>();
+            Object savepoint = status.createSavepoint();
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, ordered, ordered.size(), UPSERT_SETTER);
+                status.releaseSavepoint(savepoint);
+            } catch (DataIntegrityViolationException e) {
+                status.rollbackToSavepoint(savepoint);
+                for (ProgressState state : ordered) {
+                    if (!upsertOne(status, state)) {
+                        rejected.add(state);
+                    }
+                }
+            }
+            jdbcTemplate.update(CHECKPOINT_SQL, nodeId, segment);
+            return rejected;
+        });
+    }
+
+    private boolean upsertOne(final TransactionStatus status, final ProgressState state) {
+        Object savepoint = status.createSavepoint();
+        try {
+            jdbcTemplate.update(UPSERT_SQL, ps -> UPSERT_SETTER.setValues(ps, state));
+            status.releaseSavepoint(savepoint);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            status.rollbackToSavepoint(savepoint);
+            return false;
+        }
+    }
+
+    @Override
+    public long checkpoint(final String nodeId) {
+        List<Long> segments = jdbcTemplate.queryForList(
+                "SELECT segment FROM progress_wal_checkpoints WHERE node_id = ?", Long.class, nodeId);
+        return segments.isEmpty() ? NO_CHECKPOINT : segments.get(0);
+    }
+
+    @Override
+    public List<ProgressState> findByUser(final long userId) {
+        return jdbcTemplate.query("SELECT user_id, content_id, completion_percentage, practice_time_minutes, "
+                + "last_practiced FROM progress WHERE user_id = ? ORDER BY content_id", ROW_MAPPER, userId);
+    }
+}
@@ -0,0 +1,334 @@
+package com.seminote.progress.tracking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Merges progress heartbeats in memory and flushes them in batches.
+ *
+ * Updates are appended to the {@link ProgressWriteAheadLog}, merged into a
+ * lock-striped map keyed by student and content, and acknowledged once the
+ * log is durable. A flush swaps out every pending delta, rotates the log and
+ * writes one batched upsert; the log segments are deleted only after the
+ * database has them, together with a checkpoint that stops a crash between
+ * the two from replaying them twice. Deltas the store rejects for good (an
+ * unknown student or content id) are logged, counted and dropped, so they
+ * cannot hold up later flushes. Reads overlay pending and in-flight deltas on
+ * the stored rows.
+ */
+public class ProgressCoalescer implements SmartLifecycle {
+
+    /** Start before and stop after the web server, so no request sees an unreplayed or closed log. */
+    public static final int PHASE = DEFAULT_PHASE - 4096;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressCoalescer.class);
+
+    private final ProgressStore store;
+    private final ProgressWriteAheadLog wal;
+    private final String nodeId;
+    private final long flushIntervalMs;
+    private final Map<Key, ProgressState>[] stripes;
+    private final int stripeMask;
+    // Updates hold the read side while they log and merge; a flush takes the
+    // write side only to rotate the log and swap out the pending deltas
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Counter updates;
+    private final Counter flushedRows;
+    private final Counter rejectedRows;
+    private final Timer flushTimer;
+    private final List<Consumer<ProgressState>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<Key, ProgressState> inFlight = Map.of();
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Create a coalescer.
+     * @param store durable progress storage
+     * @param wal local write-ahead log
+     * @param properties tracking settings
+     * @param registry registry for update and flush metrics
+     */
+    @SuppressWarnings("unchecked")
+    public ProgressCoalescer(final ProgressStore store, final ProgressWriteAheadLog wal,
+                             final ProgressTrackingProperties properties, final MeterRegistry registry) {
+        this.store = store;
+        this.wal = wal;
+        this.nodeId = nodeId(properties, wal);
+        this.flushIntervalMs = properties.getFlushInterval().toMillis();
+        int count = Integer.highestOneBit(Math.max(1, properties.getStripes() * 2 - 1));
+        this.stripes = new Map[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new HashMap<>();
+        }
+        this.stripeMask = count - 1;
+        this.updates = Counter.builder("seminote.progress.updates")
+                .description("Progress updates accepted")
+                .register(registry);
+        this.flushedRows = Counter.builder("seminote.progress.flushed")
+                .description("Coalesced progress rows written")
+                .register(registry);
+        this.rejectedRows = Counter.builder("seminote.progress.rejected")
+                .description("Coalesced progress rows the database rejected and that were dropped")
+                .register(registry);
+        this.flushTimer = Timer.builder("seminote.progress.flush")
+                .description("Time to write one coalesced batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("seminote.progress.pending", this, ProgressCoalescer::pendingCount)
+                .description("Student and content pairs waiting to be flushed")
+                .register(registry);
+    }
+
+    /**
+     * Register a listener called with every update once it is durable.
+     * Listeners run on the recording thread and must be fast; updates
+     * replayed from the log on startup are not passed to them.
+     * @param listener update listener
+     */
+    public void addListener(final Consumer<ProgressState> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Log and merge one update; returns once the update is durable.
+     * @param delta progress delta
+     */
+    public void record(final ProgressState delta) {
+        long position;
+        flushLock.readLock().lock();
+        try {
+            position = wal.append(delta);
+            merge(delta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not log progress update", e);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        try {
+            wal.sync(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync progress log", e);
+        }
+        updates.increment();
+        for (Consumer<ProgressState> listener : listeners) {
+            try {
+                listener.accept(delta);
+            } catch (RuntimeException e) {
+                // The update is already durable, a failing listener must not fail the request
+                LOGGER.warn("Progress listener failed: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Stored progress of a student with unflushed deltas applied.
+     * @param userId student id
+     * @return one state per content item, ordered by content id
+     */
+    public List<ProgressState> findByUser(final long userId) {
+        Map<Integer, ProgressState> merged = new TreeMap<>();
+        for (ProgressState stored : store.findByUser(userId)) {
+            merged.put(stored.contentId(), stored);
+        }
+        for (ProgressState flushing : inFlight.values()) {
+            if (flushing.userId() == userId) {
+                merged.merge(flushing.contentId(), flushing, ProgressState::merge);
+            }
+        }
+        Map<Key, ProgressState> stripe = stripes[stripeOf(userId)];
+        synchronized (stripe) {
+            for (ProgressState pending : stripe.values()) {
+                if (pending.userId() == userId) {
+                    merged.merge(pending.contentId(), pending, ProgressState::merge);
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Write every pending delta to the store.
+     * @return number of rows written
+     */
+    public int flush() {
+        long segment;
+        Map<Key, ProgressState> batch = new HashMap<>();
+        flushLock.writeLock().lock();
+        try {
+            segment = wal.rotate();
+            for (Map<Key, ProgressState> stripe : stripes) {
+                synchronized (stripe) {
+                    batch.putAll(stripe);
+                    stripe.clear();
+                }
+            }
+            inFlight = batch;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate progress log", e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (batch.isEmpty()) {
+            deleteSegmentsQuietly(segment);
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<ProgressState> rejected;
+        try {
+            rejected = store.apply(new ArrayList<>(batch.values()), nodeId, segment);
+        } catch (RuntimeException e) {
+            // Keep the segments and put the deltas back; the next flush retries both
+            flushLock.readLock().lock();
+            try {
+                batch.values().forEach(this::merge);
+            } finally {
+                flushLock.readLock().unlock();
+                inFlight = Map.of();
+            }
+            throw e;
+        }
+        inFlight = Map.of();
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!rejected.isEmpty()) {
+            rejectedRows.increment(rejected.size());
+            LOGGER.error("Dropped {} progress rows rejected by the database, first: {}", rejected.size(),
+                    rejected.get(0));
+        }
+        int applied = batch.size() - rejected.size();
+        flushedRows.increment(applied);
+        deleteSegmentsQuietly(segment);
+        return applied;
+    }
+
+    /**
+     * Number of student and content pairs waiting to be flushed.
+     * @return pending count
+     */
+    public int pendingCount() {
+        int count = 0;
+        for (Map<Key, ProgressState> stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The configured node id, or else one kept in the log directory: the
+     * checkpoint belongs to the log, so the id must live exactly as long as it.
+     */
+    private static String nodeId(final ProgressTrackingProperties properties, final ProgressWriteAheadLog wal) {
+        String configured = properties.getNodeId();
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        try {
+            return wal.nodeId();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read progress log node id", e);
+        }
+    }
+
+    private void merge(final ProgressState delta) {
+        Map<Key, ProgressState> stripe = stripes[stripeOf(delta.userId())];
+        synchronized (stripe) {
+            stripe.merge(new Key(delta.userId(), delta.contentId()), delta, ProgressState::merge);
+        }
+    }
+
+    private int stripeOf(final long userId) {
+        // A student's deltas share a stripe so reads of their progress lock only one
+        return Long.hashCode(userId * 0x9E3779B97F4A7C15L) & stripeMask;
+    }
+
+    private void deleteSegmentsQuietly(final long segment) {
+        try {
+            wal.deleteThrough(segment);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete flushed progress log segments: {}", e.toString());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Progress flush failed, will retry: {}", e.toString());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        try {
+            long replayed = wal.replay(store.checkpoint(nodeId), this::merge);
+            if (replayed > 0) {
+                LOGGER.info("Replayed {} progress updates from the write-ahead log", replayed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay progress log", e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        flushQuietly();
+        try {
+            wal.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close progress log: {}", e.toString());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private record Key(long userId, int contentId) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.seminote.progress.tracking;
+
+/**
+ * Progress of one student on one content item, either as a delta to apply
+ * or as merged state.
+ *
+ * Deltas merge by taking the highest completion and latest practice time
+ * and summing practice minutes, so merging is associative and any number of
+ * heartbeats collapse into one row update.
+ *
+ * @param userId student id
+ * @param contentId content id
+ * @param completionBasisPoints completion in hundredths of a percent, or {@link #NO_COMPLETION}
+ * @param practiceMinutes practice minutes
+ * @param lastPracticedMillis last practice time in epoch millis, or zero if unknown
+ */
+public record ProgressState(long userId, int contentId, int completionBasisPoints, int practiceMinutes,
+                            long lastPracticedMillis) {
+
+    /** Marker for a delta that does not report completion. */
+    public static final int NO_COMPLETION = -1;
+
+    /** Completion of a finished item. */
+    public static final int FULL_COMPLETION = 10_000;
+
+    /**
+     * Merge another delta for the same student and content into this one.
+     * @param other later delta
+     * @return merged state
+     */
+    public ProgressState merge(final ProgressState other) {
+        return new ProgressState(userId, contentId,
+                Math.max(completionBasisPoints, other.completionBasisPoints),
+                practiceMinutes + other.practiceMinutes,
+                Math.max(lastPracticedMillis, other.lastPracticedMillis));
+    }
+
+    /**
+     * Completion as a percentage.
+     * @return completion between 0 and 100, zero when not reported
+     */
+    public double completionPercentage() {
+        return Math.max(completionBasisPoints, 0) / 100.0;
+    }
+}
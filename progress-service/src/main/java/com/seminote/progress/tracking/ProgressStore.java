@@ -0,0 +1,37 @@
+package com.seminote.progress.tracking;
+
+import java.util.List;
+
+/**
+ * Durable storage for coalesced progress.
+ */
+public interface ProgressStore {
+
+    /** Checkpoint of a node that has never flushed. */
+    long NO_CHECKPOINT = 0;
+
+    /**
+     * Apply merged deltas and record the log checkpoint in one transaction.
+     * Deltas the database rejects for good, such as an unknown student or
+     * content id, are left out instead of failing the whole batch.
+     * @param batch merged deltas, at most one per student and content
+     * @param nodeId id of the node whose log the deltas came from
+     * @param segment newest log segment fully contained in the batch
+     * @return rejected deltas, empty when every delta was applied
+     */
+    List<ProgressState> apply(List<ProgressState> batch, String nodeId, long segment);
+
+    /**
+     * Newest log segment the store holds for a node.
+     * @param nodeId node id
+     * @return segment id, or {@link #NO_CHECKPOINT}
+     */
+    long checkpoint(String nodeId);
+
+    /**
+     * Stored progress of one student.
+     * @param userId student id
+     * @return one state per content item
+     */
+    List<ProgressState> findByUser(long userId);
+}
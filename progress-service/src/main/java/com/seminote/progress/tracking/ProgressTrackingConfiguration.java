@@ -0,0 +1,56 @@
+package com.seminote.progress.tracking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+
+/**
+ * Wires write-coalescing progress tracking.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ProgressTrackingProperties.class)
+public class ProgressTrackingConfiguration {
+
+    /**
+     * Progress storage.
+     * @param jdbcTemplate template over the progress datasource
+     * @param transactionTemplate transaction template
+     * @return store
+     */
+    @Bean
+    public ProgressStore progressStore(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        return new JdbcProgressStore(jdbcTemplate, transactionTemplate);
+    }
+
+    /**
+     * Local write-ahead log.
+     * @param properties tracking settings
+     * @return log, closed by the coalescer on shutdown
+     * @throws IOException if the log directory cannot be opened
+     */
+    @Bean
+    public ProgressWriteAheadLog progressWriteAheadLog(final ProgressTrackingProperties properties)
+            throws IOException {
+        return new ProgressWriteAheadLog(properties.getWalDirectory(), properties.isWalSync());
+    }
+
+    /**
+     * Progress coalescer.
+     * @param store progress storage
+     * @param wal write-ahead log
+     * @param properties tracking settings
+     * @param registry metrics registry
+     * @return coalescer
+     */
+    @Bean
+    public ProgressCoalescer progressCoalescer(final ProgressStore store, final ProgressWriteAheadLog wal,
+                                              final ProgressTrackingProperties properties,
+                                              final MeterRegistry registry) {
+        return new ProgressCoalescer(store, wal, properties, registry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.seminote.progress.tracking;
+
+import com.seminote.common.users.GatewayUser;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress API.
+ *
+ * Heartbeats are acknowledged with 202 once they are in the local log; the
+ * database sees them at the next flush. Reads already include them. Students
+ * record and read only their own progress.
+ */
+@RestController
+@RequestMapping("/api/v1/progress")
+public class ProgressTrackingController {
+
+    static final int MAX_MINUTES_PER_UPDATE = 24 * 60;
+    private static final double BASIS_POINTS_PER_PERCENT = 100.0;
+    private static final double MAX_PERCENTAGE = 100.0;
+
+    private final ProgressCoalescer coalescer;
+
+    /**
+     * Create the controller.
+     * @param coalescer progress coalescer
+     */
+    public ProgressTrackingController(final ProgressCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * Record a progress heartbeat.
+     * @param callerId user id forwarded by the gateway
+     * @param userId student id
+     * @param contentId content id
+     * @param request heartbeat
+     * @return 202 once the heartbeat is durable
+     */
+    @PostMapping("/users/{userId}/content/{contentId}")
+    public ResponseEntity<Void> update(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId, @PathVariable final int contentId,
+            @RequestBody final ProgressUpdateRequest request) {
+        GatewayUser.requireSelf(callerId, userId);
+        if (userId <= 0 || userId > Integer.MAX_VALUE || contentId <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid userId or contentId");
+        }
+        Double completion = request.completionPercentage();
+        if (completion != null && (completion.isNaN() || completion < 0 || completion > MAX_PERCENTAGE)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "completionPercentage must be 0 to 100");
+        }
+        int minutes = request.practiceMinutes() != null ? request.practiceMinutes() : 0;
+        if (minutes < 0 || minutes > MAX_MINUTES_PER_UPDATE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "practiceMinutes must be 0 to " + MAX_MINUTES_PER_UPDATE);
+        }
+        Instant practicedAt = request.practicedAt() != null ? request.practicedAt() : Instant.now();
+        coalescer.record(new ProgressState(userId, contentId,
+                completion != null ? (int) Math.round(completion * BASIS_POINTS_PER_PERCENT)
+                        : ProgressState.NO_COMPLETION,
+                minutes, practicedAt.toEpochMilli()));
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Progress of a student on every content item they have started.
+     * @param callerId user id forwarded by the gateway
+     * @param userId student id
+     * @return progress, ordered by content id
+     */
+    @GetMapping("/users/{userId}")
+    public List<ProgressView> list(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId) {
+        GatewayUser.requireSelf(callerId, userId);
+        return coalescer.findByUser(userId).stream().map(ProgressView::of).toList();
+    }
+
+    /**
+     * Progress of a student on one content item.
+     * @param callerId user id forwarded by the gateway
+     * @param userId student id
+     * @param contentId content id
+     * @return progress
+     */
+    @GetMapping("/users/{userId}/content/{contentId}")
+    public ProgressView get(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final long userId, @PathVariable final int contentId) {
+        GatewayUser.requireSelf(callerId, userId);
+        return coalescer.findByUser(userId).stream()
+                .filter(state -> state.contentId() == contentId)
+                .findFirst()
+                .map(ProgressView::of)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No progress recorded"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.seminote.progress.tracking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for write-coalescing progress tracking.
+ */
+@ConfigurationProperties(prefix = "seminote.progress.tracking")
+public class ProgressTrackingProperties {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final long DEFAULT_FLUSH_SECONDS = 2;
+
+    private int stripes = DEFAULT_STRIPES;
+    private Duration flushInterval = Duration.ofSeconds(DEFAULT_FLUSH_SECONDS);
+    private Path walDirectory = Path.of("progress-wal");
+    private boolean walSync = true;
+    private String nodeId;
+
+    /**
+     * Number of lock stripes the pending map is split into, rounded up to a power of two.
+     * @return stripe count
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(final int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(final Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Path getWalDirectory() {
+        return walDirectory;
+    }
+
+    public void setWalDirectory(final Path walDirectory) {
+        this.walDirectory = walDirectory;
+    }
+
+    /**
+     * Whether an update is forced to disk before it is acknowledged.
+     * @return true to fsync through group commit
+     */
+    public boolean isWalSync() {
+        return walSync;
+    }
+
+    public void setWalSync(final boolean walSync) {
+        this.walSync = walSync;
+    }
+
+    /**
+     * Stable id of this node's log, used to checkpoint it in the database.
+     * When unset, an id generated once and stored next to the log is used.
+     * @return node id, or null
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(final String nodeId) {
+        this.nodeId = nodeId;
+    }
+}
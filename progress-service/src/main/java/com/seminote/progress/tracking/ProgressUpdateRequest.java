@@ -0,0 +1,13 @@
+package com.seminote.progress.tracking;
+
+import java.time.Instant;
+
+/**
+ * A progress heartbeat from a practice client.
+ *
+ * @param completionPercentage completion between 0 and 100, optional
+ * @param practiceMinutes practice minutes since the previous heartbeat, optional
+ * @param practicedAt practice time, defaults to when the heartbeat was received
+ */
+public record ProgressUpdateRequest(Double completionPercentage, Integer practiceMinutes, Instant practicedAt) {
+}
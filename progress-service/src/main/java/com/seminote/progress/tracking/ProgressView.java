@@ -0,0 +1,20 @@
+package com.seminote.progress.tracking;
+
+import java.time.Instant;
+
+/**
+ * Progress of a student on one content item as returned by the API.
+ *
+ * @param contentId content id
+ * @param completionPercentage completion between 0 and 100
+ * @param practiceTimeMinutes total practice minutes
+ * @param lastPracticed last practice time, null if never reported
+ */
+public record ProgressView(int contentId, double completionPercentage, int practiceTimeMinutes,
+                           Instant lastPracticed) {
+
+    static ProgressView of(final ProgressState state) {
+        return new ProgressView(state.contentId(), state.completionPercentage(), state.practiceMinutes(),
+                state.lastPracticedMillis() > 0 ? Instant.ofEpochMilli(state.lastPracticedMillis()) : null);
+    }
+}
@@ -0,0 +1,272 @@
+package com.seminote.progress.tracking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local write-ahead log of progress deltas.
+ *
+ * Records are fixed-size and checksummed, appended to numbered segment files.
+ * {@link #sync} is a group commit: whichever caller gets there first forces
+ * every record written so far, and callers whose record is already covered
+ * return without touching the disk. Segments are rotated at each flush and
+ * deleted once the database holds their contents; a torn record at the tail
+ * of a segment after a crash is detected by its checksum and ignored.
+ */
+public class ProgressWriteAheadLog implements Closeable {
+
+    static final int RECORD_SIZE = 32;
+
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - Integer.BYTES;
+    private static final String NODE_ID_FILE = "node-id";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("progress-(\\d{20})\\.wal");
+
+    private final Path directory;
+    private final boolean syncEnabled;
+    private final Object syncLock = new Object();
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private long segment;
+    private long written;
+    private volatile long durable;
+
+    /**
+     * Open the log, starting a new segment after any existing ones.
+     * @param directory directory holding the segments
+     * @param syncEnabled whether {@link #sync} forces records to disk
+     * @throws IOException if the directory or segment cannot be created
+     */
+    public ProgressWriteAheadLog(final Path directory, final boolean syncEnabled) throws IOException {
+        this.directory = directory;
+        this.syncEnabled = syncEnabled;
+        Files.createDirectories(directory);
+        List<Long> existing = segments();
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.channel = open(segment);
+    }
+
+    /**
+     * Replay closed segments newer than the checkpoint and delete older ones.
+     * Call before the first append.
+     * @param checkpoint newest segment the database already holds
+     * @param consumer receives each intact record in log order
+     * @return number of records replayed
+     * @throws IOException if a segment cannot be read
+     */
+    public long replay(final long checkpoint, final Consumer<ProgressState> consumer) throws IOException {
+        if (checkpoint >= currentSegment()) {
+            // The directory was emptied or replaced: continue numbering after the
+            // checkpoint so new segments are never mistaken for flushed ones
+            restartAfter(checkpoint);
+        }
+        long replayed = 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32C checksum = new CRC32C();
+        for (long id : segments()) {
+            if (id >= segment) {
+                continue;
+            }
+            if (id <= checkpoint) {
+                Files.deleteIfExists(segmentPath(id));
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segmentPath(id), StandardOpenOption.READ)) {
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && in.read(record) >= 0) {
+                        // Keep reading until the record is complete or the file ends
+                    }
+                    if (record.hasRemaining()) {
+                        break;
+                    }
+                    record.flip();
+                    ProgressState state = decode(record, checksum);
+                    if (state == null) {
+                        break;
+                    }
+                    consumer.accept(state);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Id of the node owning this log, created on first use and kept in the
+     * log directory so it survives restarts and container replacement along
+     * with the segments it checkpoints.
+     * @return node id
+     * @throws IOException if the id file cannot be read or written
+     */
+    public String nodeId() throws IOException {
+        Path file = directory.resolve(NODE_ID_FILE);
+        if (!Files.exists(file)) {
+            Path temp = directory.resolve(NODE_ID_FILE + ".tmp");
+            Files.writeString(temp, "progress-" + UUID.randomUUID(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return Files.readString(file, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Append a delta.
+     * @param state delta to log
+     * @return log position to pass to {@link #sync}
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized long append(final ProgressState state) throws IOException {
+        buffer.clear();
+        buffer.putLong(state.userId())
+                .putInt(state.contentId())
+                .putInt(state.completionBasisPoints())
+                .putInt(state.practiceMinutes())
+                .putLong(state.lastPracticedMillis());
+        crc.reset();
+        crc.update(buffer.array(), 0, PAYLOAD_SIZE);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += RECORD_SIZE;
+        return written;
+    }
+
+    /**
+     * Wait until everything up to a position is on disk.
+     * @param position position returned by {@link #append}
+     * @throws IOException if the log cannot be forced
+     */
+    public void sync(final long position) throws IOException {
+        if (!syncEnabled || durable >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = written;
+                current = channel;
+            }
+            current.force(false);
+            durable = target;
+        }
+    }
+
+    /**
+     * Close the current segment and start a new one.
+     * @return id of the closed segment; every record appended so far is in it or an older one
+     * @throws IOException if the segments cannot be switched
+     */
+    public long rotate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (syncEnabled) {
+                    channel.force(false);
+                }
+                channel.close();
+                durable = written;
+                long closed = segment;
+                segment++;
+                channel = open(segment);
+                return closed;
+            }
+        }
+    }
+
+    /**
+     * Delete closed segments up to and including an id.
+     * @param segmentId newest segment to delete
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteThrough(final long segmentId) throws IOException {
+        for (long id : segments()) {
+            if (id <= segmentId && id < currentSegment()) {
+                Files.deleteIfExists(segmentPath(id));
+            }
+        }
+    }
+
+    /**
+     * Id of the segment being appended to.
+     * @return segment id
+     */
+    public synchronized long currentSegment() {
+        return segment;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (syncEnabled && channel.isOpen()) {
+                    channel.force(false);
+                }
+                channel.close();
+            }
+        }
+    }
+
+    private synchronized void restartAfter(final long checkpoint) throws IOException {
+        if (written > 0) {
+            throw new IllegalStateException("replay must run before the first append");
+        }
+        channel.close();
+        Files.deleteIfExists(segmentPath(segment));
+        segment = checkpoint + 1;
+        channel = open(segment);
+    }
+
+    private static ProgressState decode(final ByteBuffer record, final CRC32C checksum) {
+        checksum.reset();
+        checksum.update(record.array(), 0, PAYLOAD_SIZE);
+        if ((int) checksum.getValue() != record.getInt(PAYLOAD_SIZE)) {
+            return null;
+        }
+        return new ProgressState(record.getLong(), record.getInt(), record.getInt(), record.getInt(),
+                record.getLong());
+    }
+
+    private FileChannel open(final long id) throws IOException {
+        return FileChannel.open(segmentPath(id), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(final long id) {
+        return directory.resolve(String.format("progress-%020d.wal", id));
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
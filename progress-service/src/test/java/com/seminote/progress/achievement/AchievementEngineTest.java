@@ -0,0 +1,320 @@
+package com.seminote.progress.achievement;
+
+import com.seminote.progress.tracking.ProgressState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AchievementEngineTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long START = Instant.parse("2026-03-02T18:00:00Z").toEpochMilli();
+    private static final long USER = 7;
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(START), ZoneOffset.UTC);
+
+    private AchievementEngine engine(final MilestoneDefinition... milestones) {
+        AchievementProperties properties = new AchievementProperties();
+        properties.setIdleTimeout(Duration.ZERO);
+        AchievementEngine engine = new AchievementEngine(MilestoneRules.compile(List.of(milestones)), store,
+                properties, new SimpleMeterRegistry(), clock);
+        engine.refreshDifficulties();
+        return engine;
+    }
+
+    private static ProgressState practice(final int contentId, final int minutes, final long at) {
+        return new ProgressState(USER, contentId, ProgressState.NO_COMPLETION, minutes, at);
+    }
+
+    private static ProgressState completion(final int contentId, final long at) {
+        return new ProgressState(USER, contentId, ProgressState.FULL_COMPLETION, 0, at);
+    }
+
+    private static List<String> ids(final List<AchievementUnlocked> unlocks) {
+        return unlocks.stream().map(AchievementUnlocked::milestoneId).toList();
+    }
+
+    @Test
+    void unlocksEveryMilestoneCrossedByAnUpdateExactlyOnce() {
+        AchievementEngine engine = engine(
+                new MilestoneDefinition("half-hour", Metric.TOTAL_MINUTES, 30),
+                new MilestoneDefinition("also-half-hour", Metric.TOTAL_MINUTES, 30),
+                new MilestoneDefinition("hour", Metric.TOTAL_MINUTES, 60));
+
+        assertEquals(List.of(), ids(engine.onProgress(practice(1, 20, START))));
+        assertEquals(List.of("half-hour", "also-half-hour"), ids(engine.onProgress(practice(1, 15, START))));
+        assertEquals(List.of(), ids(engine.onProgress(practice(2, 20, START))));
+        assertEquals(List.of("hour"), ids(engine.onProgress(practice(2, 500, START))));
+        assertEquals(List.of(), ids(engine.onProgress(practice(2, 500, START))));
+        assertEquals(1055, engine.snapshot(USER).metric(Metric.TOTAL_MINUTES));
+    }
+
+    @Test
+    void streaksCountConsecutiveDaysAndKeepTheBestRun() {
+        AchievementEngine engine = engine(new MilestoneDefinition("three-days", Metric.BEST_STREAK_DAYS, 3));
+
+        engine.onProgress(practice(1, 5, START));
+        engine.onProgress(practice(1, 5, START + DAY));
+        engine.onProgress(practice(1, 5, START + DAY + 60_000));
+        assertEquals(List.of("three-days"), ids(engine.onProgress(practice(1, 5, START + 2 * DAY))));
+        // A late heartbeat for an earlier day changes nothing
+        engine.onProgress(practice(1, 5, START));
+        engine.onProgress(practice(1, 5, START + 5 * DAY));
+        assertEquals(List.of(), ids(engine.onProgress(practice(1, 5, START + 6 * DAY))));
+
+        LearnerSnapshot learner = engine.snapshot(USER);
+        assertEquals(2, learner.currentStreakDays());
+        assertEquals(3, learner.metric(Metric.BEST_STREAK_DAYS));
+    }
+
+    @Test
+    void countsEachCompletedItemOnceOverallAndByDifficulty() {
+        store.difficulties.put(1, "beginner");
+        store.difficulties.put(2, "Beginner");
+        store.difficulties.put(3, "advanced");
+        store.difficulties.put(4, "expert");
+        AchievementEngine engine = engine(
+                new MilestoneDefinition("two-beginner", Metric.COMPLETED_BEGINNER, 2),
+                new MilestoneDefinition("four-lessons", Metric.COMPLETED_LESSONS, 4));
+
+        engine.onProgress(completion(1, START));
+        engine.onProgress(completion(1, START));
+        engine.onProgress(new ProgressState(USER, 2, 9_999, 0, START));
+        assertEquals(List.of("two-beginner"), ids(engine.onProgress(completion(2, START))));
+        engine.onProgress(completion(3, START));
+        assertEquals(List.of("four-lessons"), ids(engine.onProgress(completion(4, START))));
+
+        LearnerSnapshot learner = engine.snapshot(USER);
+        assertEquals(4, learner.metric(Metric.COMPLETED_LESSONS));
+        assertEquals(2, learner.metric(Metric.COMPLETED_BEGINNER));
+        assertEquals(1, learner.metric(Metric.COMPLETED_ADVANCED));
+        assertEquals(0, learner.metric(Metric.COMPLETED_INTERMEDIATE));
+        assertEquals(List.of(1, 2, 3, 4), Arrays.stream(learner.completedContent()).boxed().toList());
+    }
+
+    @Test
+    void reloadsDifficultiesForContentCreatedAfterTheLastRefresh() {
+        AchievementEngine engine = new AchievementEngine(MilestoneRules.compile(List.of()), store,
+                new AchievementProperties(), new SimpleMeterRegistry(), clock);
+        store.difficulties.put(9, "intermediate");
+
+        engine.onProgress(completion(9, START));
+
+        assertEquals(1, engine.snapshot(USER).metric(Metric.COMPLETED_INTERMEDIATE));
+    }
+
+    @Test
+    void holdsCompletionsOfNewContentWhileTheLoaderReloadsDifficulties() throws InterruptedException {
+        MovableClock movable = new MovableClock(START);
+        AchievementEngine engine = new AchievementEngine(
+                MilestoneRules.compile(List.of(new MilestoneDefinition("first-intermediate",
+                        Metric.COMPLETED_INTERMEDIATE, 1))),
+                store, new AchievementProperties(), new SimpleMeterRegistry(), movable);
+        engine.start();
+        try {
+            engine.onProgress(practice(1, 5, START));
+            for (int i = 0; i < 100 && engine.snapshot(USER).metric(Metric.TOTAL_MINUTES) == 0; i++) {
+                Thread.sleep(20);
+            }
+            store.difficulties.put(9, "intermediate");
+            store.difficultiesLoadedOn.clear();
+            movable.advance(TimeUnit.MINUTES.toMillis(1));
+
+            assertEquals(List.of(), engine.onProgress(completion(9, START)));
+            assertEquals(List.of(), engine.onProgress(practice(9, 10, START)));
+            for (int i = 0; i < 100 && engine.snapshot(USER).metric(Metric.TOTAL_MINUTES) < 15; i++) {
+                Thread.sleep(20);
+            }
+        } finally {
+            engine.stop();
+        }
+        assertEquals(List.of("achievement-loader"), store.difficultiesLoadedOn);
+        assertEquals(1, store.learners.get(USER).metric(Metric.COMPLETED_INTERMEDIATE));
+        assertEquals(15, store.learners.get(USER).metric(Metric.TOTAL_MINUTES));
+        assertEquals(List.of("first-intermediate"), ids(store.unlocks));
+    }
+
+    @Test
+    void savesChangedCountersAndReloadsThemAfterEviction() {
+        AchievementEngine engine = engine(new MilestoneDefinition("hour", Metric.TOTAL_MINUTES, 60));
+        engine.onProgress(practice(1, 45, START));
+
+        assertEquals(1, engine.flush());
+        assertEquals(0, engine.learnerCount());
+        assertEquals(45, store.learners.get(USER).metric(Metric.TOTAL_MINUTES));
+        assertEquals(0, engine.flush());
+
+        assertEquals(List.of("hour"), ids(engine.onProgress(practice(1, 15, START))));
+        engine.flush();
+        assertEquals(List.of("hour"), ids(store.unlocks));
+        assertEquals(Instant.ofEpochMilli(START), store.unlocks.get(0).unlockedAt());
+    }
+
+    @Test
+    void keepsChangesAndUnlocksWhenSavingFails() {
+        AchievementEngine engine = engine(new MilestoneDefinition("first", Metric.COMPLETED_LESSONS, 1));
+        engine.onProgress(completion(1, START));
+        store.failing = true;
+
+        assertThrows(IllegalStateException.class, engine::flush);
+        assertEquals(1, engine.learnerCount());
+
+        store.failing = false;
+        assertEquals(1, engine.flush());
+        assertNotNull(store.learners.get(USER));
+        assertEquals(List.of("first"), ids(store.unlocks));
+    }
+
+    @Test
+    void dropsStudentsTheStoreRejectsAndSavesTheRest() {
+        AchievementEngine engine = engine(new MilestoneDefinition("first", Metric.COMPLETED_LESSONS, 1));
+        engine.onProgress(completion(1, START));
+        engine.onProgress(new ProgressState(99, 1, ProgressState.FULL_COMPLETION, 0, START));
+        store.unknownUsers.add(99L);
+
+        assertEquals(1, engine.flush());
+        assertEquals(0, engine.learnerCount());
+        assertNotNull(store.learners.get(USER));
+        assertFalse(store.learners.containsKey(99L));
+        assertEquals(List.of(USER), store.unlocks.stream().map(AchievementUnlocked::userId).toList());
+        assertEquals(0, engine.flush());
+    }
+
+    @Test
+    void evictsIdleStudentsWhenSavingFails() {
+        AchievementEngine engine = engine();
+        engine.onProgress(practice(1, 5, START));
+        engine.flush();
+        // Reloaded, but the update changes nothing, so the student stays clean and idle
+        engine.onProgress(practice(1, 0, START));
+        engine.onProgress(new ProgressState(8, 1, ProgressState.NO_COMPLETION, 5, START));
+        store.failing = true;
+
+        assertThrows(IllegalStateException.class, engine::flush);
+        assertEquals(1, engine.learnerCount());
+    }
+
+    @Test
+    void loadsStudentsOnTheLoaderThreadWhileRunning() throws InterruptedException {
+        AchievementEngine engine = engine(new MilestoneDefinition("first", Metric.COMPLETED_LESSONS, 1));
+        store.loadGate = new CountDownLatch(1);
+        engine.start();
+        try {
+            assertEquals(List.of(), engine.onProgress(completion(1, START)));
+            assertEquals(List.of(), engine.onProgress(practice(1, 5, START)));
+            store.loadGate.countDown();
+            for (int i = 0; i < 100 && engine.flush() == 0; i++) {
+                Thread.sleep(20);
+            }
+        } finally {
+            engine.stop();
+        }
+        assertEquals(5, store.learners.get(USER).metric(Metric.TOTAL_MINUTES));
+        assertEquals(List.of("first"), ids(store.unlocks));
+    }
+
+    @Test
+    void rejectsAmbiguousDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> MilestoneRules.compile(List.of(
+                new MilestoneDefinition("a", Metric.TOTAL_MINUTES, 1),
+                new MilestoneDefinition("a", Metric.COMPLETED_LESSONS, 1))));
+        assertThrows(IllegalArgumentException.class, () -> MilestoneRules.compile(List.of(
+                new MilestoneDefinition("zero", Metric.TOTAL_MINUTES, 0))));
+        MilestoneRules rules = MilestoneRules.compile(new AchievementProperties().getMilestones());
+        assertTrue(rules.watches(Metric.BEST_STREAK_DAYS));
+    }
+
+    private static final class InMemoryStore implements AchievementStateStore {
+
+        private final Map<Long, LearnerSnapshot> learners = new HashMap<>();
+        private final List<AchievementUnlocked> unlocks = new ArrayList<>();
+        private final Map<Integer, String> difficulties = new HashMap<>();
+        private final Set<Long> unknownUsers = new HashSet<>();
+        private volatile boolean failing;
+        private volatile CountDownLatch loadGate = new CountDownLatch(0);
+        private final List<String> difficultiesLoadedOn = new CopyOnWriteArrayList<>();
+
+        @Override
+        public LearnerSnapshot load(final long userId) {
+            try {
+                loadGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return learners.get(userId);
+        }
+
+        @Override
+        public synchronized void save(final List<LearnerSnapshot> changed, final List<AchievementUnlocked> unlocked) {
+            if (failing) {
+                throw new IllegalStateException("database down");
+            }
+            if (changed.stream().anyMatch(learner -> unknownUsers.contains(learner.userId()))
+                    || unlocked.stream().anyMatch(unlock -> unknownUsers.contains(unlock.userId()))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            changed.forEach(learner -> learners.put(learner.userId(), learner));
+            unlocks.addAll(unlocked);
+        }
+
+        @Override
+        public Map<Integer, String> contentDifficulties() {
+            difficultiesLoadedOn.add(Thread.currentThread().getName());
+            return new HashMap<>(difficulties);
+        }
+    }
+
+    /**
+     * Clock that tests can move forward.
+     */
+    private static final class MovableClock extends Clock {
+
+        private volatile long millis;
+
+        MovableClock(final long millis) {
+            this.millis = millis;
+        }
+
+        void advance(final long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.seminote.progress.path;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LearningGraphTest {
+
+    private static LearningGraph graph() {
+        return LearningGraph.builder()
+                .lesson(10, "beginner")
+                .lesson(11, "Beginner")
+                .lesson(12, "beginner")
+                .lesson(20, "intermediate")
+                .lesson(21, "intermediate")
+                .lesson(30, "advanced")
+                .lesson(31, "advanced")
+                .lesson(40, "beginner")
+                .lesson(41, "beginner")
+                .lesson(99, "virtuoso")
+                .prerequisite(11, 10)
+                .prerequisite(12, 10)
+                .prerequisite(20, 11)
+                .prerequisite(20, 12)
+                .prerequisite(20, 11)
+                .prerequisite(21, 20)
+                .prerequisite(30, 21)
+                .prerequisite(31, 12)
+                .prerequisite(40, 41)
+                .prerequisite(41, 40)
+                .prerequisite(11, 500)
+                .prerequisite(12, 12)
+                .skill(21, "Pedalling")
+                .skill(31, "pedalling ")
+                .build();
+    }
+
+    private static List<Long> ids(final LearningGraph graph, final int[] lessons) {
+        return Arrays.stream(lessons).mapToObj(graph::contentId).toList();
+    }
+
+    private static List<Long> ids(final List<LessonView> lessons) {
+        return lessons.stream().map(LessonView::contentId).toList();
+    }
+
+    private static int[] completed(final LearningGraph graph, final long... contentIds) {
+        return graph.indicesOf(contentIds);
+    }
+
+    @Test
+    void dropsInvalidEdgesAndBreaksCycles() {
+        LearningGraph graph = graph();
+
+        assertEquals(10, graph.size());
+        assertEquals(7, graph.edgeCount());
+        assertEquals(5, graph.droppedEdges());
+        assertEquals(-1, graph.indexOf(500));
+        assertNull(graph.level(graph.indexOf(99)));
+    }
+
+    @Test
+    void recommendsUnlockedLessonsByLevelThenUnlockCount() {
+        LearningGraph graph = graph();
+
+        assertEquals(List.of(10L, 40L, 41L), ids(graph, graph.next(completed(graph), SkillLevel.BEGINNER, 10)));
+        assertEquals(List.of(12L, 11L, 40L, 41L),
+                ids(graph, graph.next(completed(graph, 10), SkillLevel.BEGINNER, 10)));
+        assertEquals(List.of(20L, 31L, 40L, 41L),
+                ids(graph, graph.next(completed(graph, 10, 11, 12), SkillLevel.INTERMEDIATE, 10)));
+        assertEquals(List.of(40L, 41L, 20L),
+                ids(graph, graph.next(completed(graph, 10, 11, 12), SkillLevel.BEGINNER, 10)));
+        assertEquals(List.of(12L), ids(graph, graph.next(completed(graph, 10), SkillLevel.BEGINNER, 1)));
+    }
+
+    @Test
+    void findsTheCheapestTargetAndOrdersItsPrerequisites() {
+        LearningGraph graph = graph();
+
+        assertEquals(List.of(12L, 31L), ids(graph, graph.pathTo(completed(graph, 10), graph.lessonsFor("advanced"))));
+        assertEquals(List.of(12L, 31L), ids(graph, graph.pathTo(completed(graph, 10), graph.lessonsFor("PEDALLING"))));
+        assertEquals(List.of(10L, 11L, 12L, 20L),
+                ids(graph, graph.pathTo(completed(graph), graph.lessonsFor("intermediate"))));
+        assertEquals(List.of(), ids(graph, graph.pathTo(completed(graph, 10, 12, 31), graph.lessonsFor("pedalling"))));
+        assertNull(graph.lessonsFor("sight-reading"));
+    }
+
+    @Test
+    void plannerSharesAnswersBetweenStudentsWithTheSameCompletedSet() {
+        LearningPathPlanner planner = new LearningPathPlanner(graph(), 100, 10);
+
+        NextLessonsView first = planner.next(new long[] {12, 10, 500}, null, 2);
+        NextLessonsView second = planner.next(new long[] {10, 12, 12}, null, 10);
+        assertEquals("beginner", first.level());
+        assertEquals(List.of(11L, 40L), ids(first.lessons()));
+        assertEquals(List.of(11L, 40L, 41L), ids(second.lessons()));
+        assertEquals(1, planner.cachedAnswers());
+
+        assertEquals("intermediate", planner.next(new long[] {10, 11, 12, 20}, null, 10).level());
+        assertEquals(2, planner.cachedAnswers());
+
+        PathView reached = planner.pathTo(new long[] {10, 12, 31}, "Pedalling");
+        assertTrue(reached.reached());
+        PathView path = planner.pathTo(new long[] {10}, "advanced");
+        assertFalse(path.reached());
+        assertEquals(List.of(12L, 31L), ids(path.lessons()));
+        assertEquals("advanced", path.lessons().get(1).level());
+        assertNull(planner.pathTo(new long[0], "sight-reading"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.seminote.progress.tracking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProgressCoalescerTest {
+
+    private static final String NODE = "node-1";
+
+    @TempDir
+    private Path walDirectory;
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private ProgressCoalescer coalescer() throws IOException {
+        ProgressTrackingProperties properties = new ProgressTrackingProperties();
+        properties.setWalDirectory(walDirectory);
+        properties.setNodeId(NODE);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setStripes(4);
+        ProgressCoalescer coalescer = new ProgressCoalescer(store,
+                new ProgressWriteAheadLog(walDirectory, false), properties, new SimpleMeterRegistry());
+        coalescer.start();
+        return coalescer;
+    }
+
+    private static ProgressState heartbeat(final int completionBasisPoints, final int minutes, final long at) {
+        return new ProgressState(7, 42, completionBasisPoints, minutes, at);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void mergesHeartbeatsIntoOneRowPerStudentAndContent() throws IOException {
+        ProgressCoalescer coalescer = coalescer();
+
+        coalescer.record(heartbeat(2_500, 1, 1_000));
+        coalescer.record(heartbeat(6_000, 2, 3_000));
+        coalescer.record(heartbeat(ProgressState.NO_COMPLETION, 1, 2_000));
+        coalescer.record(new ProgressState(7, 43, 100, 1, 500));
+
+        assertEquals(2, coalescer.pendingCount());
+        assertEquals(new ProgressState(7, 42, 6_000, 4, 3_000), coalescer.findByUser(7).get(0));
+
+        assertEquals(2, coalescer.flush());
+        assertEquals(1, store.applied.size());
+        assertEquals(new ProgressState(7, 42, 6_000, 4, 3_000), store.rows.get(42));
+        assertEquals(0, coalescer.pendingCount());
+    }
+
+    @Test
+    void readsOverlayPendingDeltasOnStoredRows() throws IOException {
+        ProgressCoalescer coalescer = coalescer();
+        coalescer.record(heartbeat(5_000, 10, 1_000));
+        coalescer.flush();
+
+        coalescer.record(heartbeat(4_000, 5, 2_000));
+
+        assertEquals(List.of(new ProgressState(7, 42, 5_000, 15, 2_000)), coalescer.findByUser(7));
+        assertTrue(coalescer.findByUser(8).isEmpty());
+    }
+
+    @Test
+    void replaysUnflushedUpdatesAfterACrash() throws IOException {
+        ProgressCoalescer crashed = coalescer();
+        crashed.record(heartbeat(3_000, 2, 1_000));
+        crashed.record(heartbeat(3_500, 3, 2_000));
+
+        ProgressCoalescer restarted = coalescer();
+
+        assertEquals(1, restarted.pendingCount());
+        restarted.flush();
+        assertEquals(new ProgressState(7, 42, 3_500, 5, 2_000), store.rows.get(42));
+    }
+
+    @Test
+    void skipsSegmentsTheStoreAlreadyCheckpointed() throws IOException {
+        ProgressCoalescer coalescer = coalescer();
+        coalescer.record(heartbeat(3_000, 2, 1_000));
+        // The store commits but the node dies before deleting the flushed segment
+        store.keepSegments = true;
+        coalescer.flush();
+        Files.write(store.savedSegment, store.savedBytes);
+
+        ProgressCoalescer restarted = coalescer();
+
+        assertEquals(0, restarted.pendingCount());
+        assertEquals(2, store.rows.get(42).practiceMinutes());
+    }
+
+    @Test
+    void keepsDeltasAndSegmentsWhenTheStoreFails() throws IOException {
+        ProgressCoalescer coalescer = coalescer();
+        coalescer.record(heartbeat(3_000, 2, 1_000));
+        store.failing = true;
+
+        assertThrows(IllegalStateException.class, coalescer::flush);
+        assertEquals(1, coalescer.pendingCount());
+
+        coalescer.record(heartbeat(3_000, 1, 2_000));
+        store.failing = false;
+        coalescer.flush();
+        assertEquals(3, store.rows.get(42).practiceMinutes());
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    void dropsRowsTheStoreRejectsAndKeepsFlushing() throws IOException {
+        ProgressCoalescer coalescer = coalescer();
+        store.unknownUsers.add(99L);
+        coalescer.record(new ProgressState(99, 41, 1_000, 1, 1_000));
+        coalescer.record(heartbeat(3_000, 2, 1_000));
+
+        assertEquals(1, coalescer.flush());
+        assertEquals(0, coalescer.pendingCount());
+        assertFalse(store.rows.containsKey(41));
+        assertEquals(1, segmentCount(), "Only the open segment remains after rows were rejected");
+
+        coalescer.record(heartbeat(3_000, 1, 2_000));
+        assertEquals(1, coalescer.flush());
+        assertEquals(3, store.rows.get(42).practiceMinutes());
+    }
+
+    @Test
+    void numbersSegmentsAfterTheCheckpointWhenTheLogDirectoryIsNew() throws IOException {
+        store.checkpoint = 41;
+        ProgressWriteAheadLog wal = new ProgressWriteAheadLog(walDirectory, false);
+        assertEquals(1, wal.currentSegment());
+
+        wal.replay(store.checkpoint, state -> { });
+
+        assertEquals(42, wal.currentSegment());
+        assertEquals(1, segmentCount());
+        wal.close();
+    }
+
+    @Test
+    void keepsAGeneratedNodeIdInTheLogDirectory() throws IOException {
+        ProgressWriteAheadLog wal = new ProgressWriteAheadLog(walDirectory, false);
+        String nodeId = wal.nodeId();
+        wal.close();
+
+        ProgressWriteAheadLog reopened = new ProgressWriteAheadLog(walDirectory, false);
+        assertEquals(nodeId, reopened.nodeId());
+        assertTrue(nodeId.startsWith("progress-"));
+        reopened.close();
+    }
+
+    @Test
+    void ignoresATornRecordAtTheEndOfTheLog() throws IOException {
+        ProgressCoalescer crashed = coalescer();
+        crashed.record(heartbeat(3_000, 2, 1_000));
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            Path segment = files.max(Path::compareTo).orElseThrow();
+            Files.write(segment, new byte[ProgressWriteAheadLog.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+        }
+
+        ProgressCoalescer restarted = coalescer();
+        restarted.flush();
+
+        assertEquals(new ProgressState(7, 42, 3_000, 2, 1_000), store.rows.get(42));
+    }
+
+    /** Store that applies batches to a map keyed by content id, like the SQL upsert. */
+    private final class InMemoryStore implements ProgressStore {
+
+        private final Map<Integer, ProgressState> rows = new HashMap<>();
+        private final List<List<ProgressState>> applied = new ArrayList<>();
+        private final Set<Long> unknownUsers = new HashSet<>();
+        private long checkpoint = NO_CHECKPOINT;
+        private boolean failing;
+        private boolean keepSegments;
+        private Path savedSegment;
+        private byte[] savedBytes;
+
+        @Override
+        public List<ProgressState> apply(final List<ProgressState> batch, final String nodeId, final long segment) {
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            applied.add(batch);
+            List<ProgressState> rejected = batch.stream().filter(state -> unknownUsers.contains(state.userId()))
+                    .toList();
+            batch.stream().filter(state -> !unknownUsers.contains(state.userId()))
+                    .forEach(state -> rows.merge(state.contentId(), state, ProgressState::merge));
+            checkpoint = segment;
+            if (keepSegments) {
+                savedSegment = walDirectory.resolve(String.format("progress-%020d.wal", segment));
+                try {
+                    savedBytes = Files.readAllBytes(savedSegment);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return rejected;
+        }
+
+        @Override
+        public long checkpoint(final String nodeId) {
+            return checkpoint;
+        }
+
+        @Override
+        public List<ProgressState> findByUser(final long userId) {
+            return rows.values().stream().filter(state -> state.userId() == userId).toList();
+        }
+    }
+}
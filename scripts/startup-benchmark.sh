@@ -0,0 +1,186 @@
+#!/bin/bash
+
+# ⏱️ Startup Benchmark for Seminote service images
+# Builds each service image in standard and fast-startup (AOT + AppCDS) mode, starts it
+# repeatedly against the local Postgres and Redis, and reports the median time from
+# `docker run` to the first successful /health response and the JVM's RSS at that point.
+#
+# Usage: scripts/startup-benchmark.sh [service ...]
+#   SERVICES    services to measure when none are given (default: user-service content-service api-gateway)
+#   ITERATIONS  starts per service and mode (default: 5)
+#   HOST_PORT   host port the service is published on while measured (default: 18080)
+#   SKIP_BUILD  set to true to reuse images built by an earlier run
+#   SEMINOTE_JWT_SECRET, SEMINOTE_PAYMENT_WEBHOOK_SECRET
+#               secrets passed to the services (default: random per run)
+# The payment service is measured with the local fake provider (SEMINOTE_PAYMENT_PROVIDER=fake).
+#
+# Each service listens on its own server.port from application.properties, published on HOST_PORT.
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m'
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_warning() {
+    echo -e "${YELLOW}[WARNING]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+print_header() {
+    echo -e "\n${BLUE}========================================${NC}"
+    echo -e "${BLUE} $1${NC}"
+    echo -e "${BLUE}========================================${NC}\n"
+}
+
+# Check if we're in the right directory
+if [ ! -f "build.gradle" ]; then
+    print_error "Please run this script from the seminote-backend root directory"
+    exit 1
+fi
+
+for tool in docker curl; do
+    if ! command -v "$tool" > /dev/null 2>&1; then
+        print_error "$tool is required"
+        exit 1
+    fi
+done
+
+if [ $# -gt 0 ]; then
+    SERVICES="$*"
+else
+    SERVICES="${SERVICES:-user-service content-service api-gateway}"
+fi
+ITERATIONS="${ITERATIONS:-5}"
+HOST_PORT="${HOST_PORT:-18080}"
+SKIP_BUILD="${SKIP_BUILD:-false}"
+STARTUP_TIMEOUT_SECONDS=120
+JWT_SECRET="${SEMINOTE_JWT_SECRET:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')}"
+WEBHOOK_SECRET="${SEMINOTE_PAYMENT_WEBHOOK_SECRET:-$(head -c 48 /dev/urandom | base64 | tr -d '\n')}"
+CONTAINER=seminote-startup-benchmark
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+cleanup() {
+    docker rm -f "$CONTAINER" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+print_header "⏱️ SERVICE STARTUP BENCHMARK"
+
+print_status "Starting Postgres and Redis..."
+docker compose up -d postgres redis > /dev/null
+until docker exec seminote-postgres pg_isready -U seminote_user -d seminote_dev > /dev/null 2>&1; do
+    sleep 1
+done
+NETWORK=$(docker inspect -f '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}}{{end}}' seminote-postgres)
+print_success "Infrastructure ready on network $NETWORK"
+
+# Port a service listens on inside its container
+service_port() {
+    sed -n 's/^server\.port=\([0-9]*\).*/\1/p' "$1/src/main/resources/application.properties"
+}
+
+# Start one container and print "<millis to first /health> <RSS in MB>"
+measure() {
+    local image=$1
+    local port=$2
+    local start
+    local elapsed
+    local rss_kb
+    cleanup
+    start=$(now_millis)
+    docker run -d --name "$CONTAINER" --network "$NETWORK" -p "$HOST_PORT:$port" \
+        -e SEMINOTE_SECURITY_JWT_SECRET="$JWT_SECRET" \
+        -e SEMINOTE_PAYMENT_WEBHOOK_SECRET="$WEBHOOK_SECRET" \
+        -e SEMINOTE_PAYMENT_PROVIDER=fake \
+        -e SPRING_DATASOURCE_URL=jdbc:postgresql://seminote-postgres:5432/seminote_dev \
+        -e SPRING_REDIS_HOST=seminote-redis \
+        "$image" > /dev/null
+    until curl -fs "http://localhost:$HOST_PORT/health" > /dev/null 2>&1; do
+        if [ $(( $(now_millis) - start )) -gt $(( STARTUP_TIMEOUT_SECONDS * 1000 )) ]; then
+            print_error "$image did not answer /health within ${STARTUP_TIMEOUT_SECONDS}s" >&2
+            docker logs --tail 50 "$CONTAINER" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_millis) - start ))
+    # The entrypoint execs java, so the JVM is PID 1
+    rss_kb=$(docker exec "$CONTAINER" awk '/VmRSS/ { print $2 }' /proc/1/status)
+    cleanup
+    echo "$elapsed $(( rss_kb / 1024 ))"
+}
+
+RESULTS=()
+for service in $SERVICES; do
+    if [ ! -f "$service/Dockerfile" ]; then
+        print_error "Unknown service: $service"
+        exit 1
+    fi
+    port=$(service_port "$service")
+    if [ -z "$port" ]; then
+        print_error "No server.port in $service/src/main/resources/application.properties"
+        exit 1
+    fi
+    for mode in standard fast; do
+        image="seminote/$service:startup-$mode"
+        if [ "$SKIP_BUILD" != "true" ]; then
+            print_status "Building $image..."
+            fast_startup=false
+            [ "$mode" = "fast" ] && fast_startup=true
+            docker build -q -f "$service/Dockerfile" --build-arg FAST_STARTUP="$fast_startup" \
+                --build-arg PAYMENT_PROVIDER=fake -t "$image" . > /dev/null
+        fi
+        times=()
+        rss=()
+        for i in $(seq 1 "$ITERATIONS"); do
+            read -r elapsed rss_mb < <(measure "$image" "$port") || true
+            if [ -z "$elapsed" ]; then
+                exit 1
+            fi
+            print_status "$service ($mode) run $i: ${elapsed} ms to /health, ${rss_mb} MB RSS"
+            times+=("$elapsed")
+            rss+=("$rss_mb")
+        done
+        RESULTS+=("$service $mode $(printf '%s\n' "${times[@]}" | median) $(printf '%s\n' "${rss[@]}" | median)")
+    done
+done
+
+print_header "📊 RESULTS (median of $ITERATIONS starts)"
+printf '%-18s %-10s %14s %10s\n' "SERVICE" "MODE" "TO /health" "RSS"
+for result in "${RESULTS[@]}"; do
+    read -r service mode elapsed rss_mb <<< "$result"
+    printf '%-18s %-10s %11s ms %7s MB\n' "$service" "$mode" "$elapsed" "$rss_mb"
+done
+
+echo
+for service in $SERVICES; do
+    standard=$(printf '%s\n' "${RESULTS[@]}" | awk -v s="$service" '$1 == s && $2 == "standard" { print $3 }')
+    fast=$(printf '%s\n' "${RESULTS[@]}" | awk -v s="$service" '$1 == s && $2 == "fast" { print $3 }')
+    if [ "$fast" -lt "$standard" ]; then
+        print_success "$service starts $(awk -v a="$standard" -v b="$fast" 'BEGIN { printf "%.1f", a / b }')x faster in fast mode"
+    else
+        print_warning "$service is not faster in fast mode (${standard} ms vs ${fast} ms)"
+    fi
+done
@@ -0,0 +1,63 @@
+package com.seminote.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+
+/**
+ * Reports virtual thread pinning as Micrometer metrics.
+ *
+ * A virtual thread that blocks while holding a monitor or inside native code
+ * pins its carrier thread, which silently caps concurrency. This binder streams
+ * the JDK's {@code jdk.VirtualThreadPinned} and {@code jdk.VirtualThreadSubmitFailed}
+ * JFR events into {@code seminote.virtual.threads.pinned} (timer) and
+ * {@code seminote.virtual.threads.submit.failed} (counter).
+ */
+public final class VirtualThreadPinningMonitor implements MeterBinder, AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    /**
+     * Create a monitor.
+     * @param threshold minimum pinned duration that is reported
+     */
+    public VirtualThreadPinningMonitor(final Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void bindTo(final MeterRegistry registry) {
+        if (stream != null) {
+            return;
+        }
+        Timer pinned = Timer.builder("seminote.virtual.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(registry);
+        Counter submitFailed = Counter.builder("seminote.virtual.threads.submit.failed")
+                .description("Virtual threads that could not be scheduled")
+                .register(registry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold);
+        stream.enable(SUBMIT_FAILED_EVENT);
+        stream.onEvent(PINNED_EVENT, event -> pinned.record(event.getDuration()));
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.seminote.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Virtual thread support shared by all Seminote services.
+ *
+ * The single switch is Spring Boot's {@code spring.threads.virtual.enabled},
+ * set from {@code SEMINOTE_VIRTUAL_THREADS} in every service. When it is on,
+ * Boot runs Tomcat request handling, {@code @Async} and {@code @Scheduled}
+ * work on virtual threads, and this configuration adds pinning metrics so
+ * blocking code that defeats them shows up on the Actuator metrics endpoint.
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnClass(MeterRegistry.class)
+public class VirtualThreadsAutoConfiguration {
+
+    /**
+     * JFR-based pinning monitor bound to every meter registry.
+     * @param threshold minimum pinned duration that is reported
+     * @return pinning monitor
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${seminote.virtual-threads.pinning-threshold:20ms}") final Duration threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+}
@@ -0,0 +1,178 @@
+package com.seminote.common.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects single-key lookups made within a short window into one batch call.
+ *
+ * The first key of a batch starts the window; the batch is sent when the
+ * window closes or it reaches {@code maxBatchSize} keys, whichever comes
+ * first. Callers asking for a key that is already in the open batch share its
+ * future, so a burst of requests for the same id costs one lookup. Batches
+ * are loaded on the given executor, never on the caller's thread.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class RequestBatcher<K, V> implements AutoCloseable {
+
+    /**
+     * Loads a batch of keys.
+     * @param <K> key type
+     * @param <V> value type
+     */
+    @FunctionalInterface
+    public interface BatchLoader<K, V> {
+
+        /**
+         * Load values for a batch.
+         * @param keys distinct keys, at most the batcher's maximum batch size
+         * @return values by key; keys that are missing complete with null
+         * @throws Exception if the batch could not be loaded, failing every caller in it
+         */
+        Map<K, V> load(Set<K> keys) throws Exception;
+    }
+
+    private final BatchLoader<K, V> loader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> open = new HashMap<>();
+    private ScheduledFuture<?> closeWindow;
+
+    /**
+     * Create a batcher that loads on virtual threads.
+     * @param loader batch loader
+     * @param windowNanos how long a batch stays open after its first key
+     * @param maxBatchSize keys after which a batch is sent without waiting
+     */
+    public RequestBatcher(final BatchLoader<K, V> loader, final long windowNanos, final int maxBatchSize) {
+        this(loader, windowNanos, maxBatchSize, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Create a batcher.
+     * @param loader batch loader
+     * @param windowNanos how long a batch stays open after its first key
+     * @param maxBatchSize keys after which a batch is sent without waiting
+     * @param executor executor the loader runs on
+     */
+    public RequestBatcher(final BatchLoader<K, V> loader, final long windowNanos, final int maxBatchSize,
+                          final Executor executor) {
+        this.loader = loader;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Look up one key as part of the next batch.
+     * @param key key
+     * @return value, or null if the loader did not return one
+     */
+    public CompletableFuture<V> load(final K key) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+        synchronized (lock) {
+            future = open.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            open.put(key, future);
+            if (open.size() >= maxBatchSize) {
+                full = takeOpen();
+            } else if (open.size() == 1) {
+                closeWindow = timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Look up several keys; they may be spread over more than one batch.
+     * @param keys keys
+     * @return values by key, without keys the loader did not return
+     */
+    public CompletableFuture<Map<K, V>> loadAll(final Collection<K> keys) {
+        List<K> ordered = new ArrayList<>(keys);
+        List<CompletableFuture<V>> futures = new ArrayList<>(ordered.size());
+        for (K key : ordered) {
+            futures.add(load(key));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<K, V> values = new HashMap<>();
+            for (int i = 0; i < ordered.size(); i++) {
+                V value = futures.get(i).join();
+                if (value != null) {
+                    values.put(ordered.get(i), value);
+                }
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Send the open batch now.
+     */
+    public void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = takeOpen();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Send the open batch and stop the window timer.
+     */
+    @Override
+    public void close() {
+        flush();
+        timer.shutdownNow();
+    }
+
+    private Map<K, CompletableFuture<V>> takeOpen() {
+        Map<K, CompletableFuture<V>> batch = open;
+        open = new HashMap<>();
+        if (closeWindow != null) {
+            closeWindow.cancel(false);
+            closeWindow = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(final Map<K, CompletableFuture<V>> batch) {
+        executor.execute(() -> {
+            try {
+                Map<K, V> values = loader.load(batch.keySet());
+                batch.forEach((key, future) -> future.complete(values.get(key)));
+            } catch (Exception e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
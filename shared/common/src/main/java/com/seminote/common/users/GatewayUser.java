@@ -0,0 +1,57 @@
+package com.seminote.common.users;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Caller identity of a request routed through the API gateway.
+ *
+ * The gateway drops any client-supplied {@code X-User-Id} and sets it from the
+ * verified access token, so the header is the only source services trust for
+ * who is calling. Controllers bind it with
+ * {@code @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false)}
+ * and resolve it here, so a missing header is a 401 rather than a 400.
+ */
+public final class GatewayUser {
+
+    /** Header carrying the verified user id, set by the gateway. */
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    private GatewayUser() {
+    }
+
+    /**
+     * Resolve the authenticated caller.
+     * @param header value of {@link #USER_ID_HEADER}, may be null
+     * @return caller's user id
+     * @throws ResponseStatusException 401 if the request is anonymous or the header is not a user id
+     */
+    public static long require(final String header) {
+        if (header == null || header.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        try {
+            long userId = Long.parseLong(header.trim());
+            if (userId > 0) {
+                return userId;
+            }
+        } catch (NumberFormatException e) {
+            // Reported as unauthenticated below
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid " + USER_ID_HEADER);
+    }
+
+    /**
+     * Require the authenticated caller to be the given user.
+     * @param header value of {@link #USER_ID_HEADER}, may be null
+     * @param userId user the request acts on
+     * @return the user id
+     * @throws ResponseStatusException 401 if the request is anonymous, 403 if it acts on another user
+     */
+    public static long requireSelf(final String header, final long userId) {
+        if (require(header) != userId) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to act on another user");
+        }
+        return userId;
+    }
+}
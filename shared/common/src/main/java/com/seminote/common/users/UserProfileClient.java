@@ -0,0 +1,120 @@
+package com.seminote.common.users;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seminote.common.batch.RequestBatcher;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Client for user-service profile lookups.
+ *
+ * Lookups made by any thread within a short window are sent as one multi-get
+ * call, so a service resolving the user of every request makes a few calls
+ * per window instead of one per request.
+ */
+public final class UserProfileClient implements AutoCloseable {
+
+    /** Most ids user-service accepts in one call. */
+    public static final int MAX_IDS_PER_CALL = 500;
+
+    /** Default batching window. */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+
+    /** Default timeout of one call. */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+
+    private static final String USERS_PATH = "/api/v1/users";
+
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final RequestBatcher<Long, UserSummary> batcher;
+
+    /**
+     * Create a client with default window and timeout.
+     * @param baseUri user-service base URI
+     * @param objectMapper mapper for responses
+     */
+    public UserProfileClient(final URI baseUri, final ObjectMapper objectMapper) {
+        this(baseUri, HttpClient.newHttpClient(), objectMapper, DEFAULT_WINDOW, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Create a client.
+     * @param baseUri user-service base URI
+     * @param httpClient HTTP client
+     * @param objectMapper mapper for responses
+     * @param window how long lookups are collected before a call is sent
+     * @param timeout timeout of one call
+     */
+    public UserProfileClient(final URI baseUri, final HttpClient httpClient, final ObjectMapper objectMapper,
+                             final Duration window, final Duration timeout) {
+        this.baseUri = baseUri;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.batcher = new RequestBatcher<>(this::fetch, window.toNanos(), MAX_IDS_PER_CALL);
+    }
+
+    /**
+     * Look up one user.
+     * @param userId user id
+     * @return user, or null if there is no such user
+     */
+    public CompletableFuture<UserSummary> find(final long userId) {
+        return batcher.load(userId);
+    }
+
+    /**
+     * Look up several users.
+     * @param userIds user ids
+     * @return users by id, without ids that do not exist
+     */
+    public CompletableFuture<Map<Long, UserSummary>> findAll(final Collection<Long> userIds) {
+        return batcher.loadAll(userIds);
+    }
+
+    @Override
+    public void close() {
+        batcher.close();
+    }
+
+    private Map<Long, UserSummary> fetch(final Set<Long> userIds) throws IOException, InterruptedException {
+        String ids = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(USERS_PATH + "?ids=" + ids))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("User lookup failed with status " + response.statusCode());
+        }
+        UsersResponse body = objectMapper.readValue(response.body(), UsersResponse.class);
+        Map<Long, UserSummary> users = new HashMap<>();
+        if (body.users() != null) {
+            for (UserSummary user : body.users()) {
+                users.put(user.id(), user);
+            }
+        }
+        return users;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record UsersResponse(List<UserSummary> users) {
+    }
+}
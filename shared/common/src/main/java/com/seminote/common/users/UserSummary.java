@@ -0,0 +1,15 @@
+package com.seminote.common.users;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * The profile fields other services need about a user.
+ *
+ * @param id user id
+ * @param username username
+ * @param instrumentPreference preferred instrument
+ * @param skillLevel skill level
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UserSummary(long id, String username, String instrumentPreference, String skillLevel) {
+}
@@ -0,0 +1,39 @@
+package com.seminote.common;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void pinnedVirtualThreadIsReported() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (VirtualThreadPinningMonitor pinning = new VirtualThreadPinningMonitor(Duration.ofMillis(1))) {
+            pinning.bindTo(registry);
+            Timer pinned = registry.get("seminote.virtual.threads.pinned").timer();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (pinned.count() == 0 && System.nanoTime() < deadline) {
+                // Sleeping inside synchronized pins the carrier thread on JDK 21
+                Thread.ofVirtual().start(() -> {
+                    synchronized (monitor) {
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }).join();
+                Thread.sleep(200);
+            }
+            assertTrue(pinned.count() > 0, "Expected at least one pinning event");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.seminote.common.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestBatcherTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final List<Set<Integer>> batches = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    private Map<Integer, String> load(final Set<Integer> keys) {
+        batches.add(Set.copyOf(keys));
+        Map<Integer, String> values = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) {
+                values.put(key, "user-" + key);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void collectsConcurrentLookupsIntoOneCall() throws Exception {
+        try (RequestBatcher<Integer, String> batcher = new RequestBatcher<>(this::load, WINDOW, 100, executor)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int key = i % 8;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    results.add(batcher.load(key));
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, batches.size());
+            assertEquals(8, batches.get(0).size());
+        }
+    }
+
+    @Test
+    void sharesTheFutureOfAKeyInTheOpenBatch() {
+        try (RequestBatcher<Integer, String> batcher = new RequestBatcher<>(this::load, WINDOW, 100, executor)) {
+            assertSame(batcher.load(1), batcher.load(1));
+        }
+    }
+
+    @Test
+    void sendsFullBatchesWithoutWaiting() throws Exception {
+        try (RequestBatcher<Integer, String> batcher = new RequestBatcher<>(this::load, TimeUnit.MINUTES.toNanos(1),
+                3, executor)) {
+            List<Integer> keys = List.of(1, 2, 3, 4, 5, 6, -1);
+
+            CompletableFuture<Map<Integer, String>> result = batcher.loadAll(keys.subList(0, 6));
+
+            assertEquals(6, result.get(5, TimeUnit.SECONDS).size());
+            assertEquals(2, batches.size());
+            CompletableFuture<String> missing = batcher.load(-1);
+            batcher.flush();
+            assertNull(missing.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void failsEveryCallerOfAFailedBatch() {
+        try (RequestBatcher<Integer, String> batcher = new RequestBatcher<>(keys -> {
+            throw new IOException("connection refused");
+        }, WINDOW, 100, executor)) {
+            CompletableFuture<String> first = batcher.load(1);
+            CompletableFuture<String> second = batcher.load(2);
+
+            CompletionException error = assertThrows(CompletionException.class, first::join);
+            assertInstanceOf(IOException.class, error.getCause());
+            assertThrows(CompletionException.class, second::join);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.seminote.common.users;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewayUserTest {
+
+    @Test
+    void resolvesTheCallerFromTheGatewayHeader() {
+        assertEquals(42L, GatewayUser.require("42"));
+        assertEquals(42L, GatewayUser.requireSelf("42", 42));
+    }
+
+    @Test
+    void anonymousOrMalformedCallersAreUnauthorized() {
+        for (String header : new String[] {null, "", " ", "abc", "0", "-7"}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> GatewayUser.requireSelf(header, 42));
+            assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        }
+    }
+
+    @Test
+    void actingOnAnotherUserIsForbidden() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> GatewayUser.requireSelf("41", 42));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+    }
+}
@@ -0,0 +1,87 @@
+package com.seminote.common.users;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserProfileClientTest {
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private UserProfileClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/users", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            StringBuilder users = new StringBuilder();
+            for (String id : query.substring("ids=".length()).split(",")) {
+                if (Long.parseLong(id) < 100) {
+                    users.append(users.isEmpty() ? "" : ",").append("{\"id\":").append(id)
+                            .append(",\"username\":\"user").append(id)
+                            .append("\",\"instrumentPreference\":\"piano\",\"skillLevel\":\"beginner\"}");
+                }
+            }
+            byte[] body = ("{\"users\":[" + users + "],\"missing\":[]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new UserProfileClient(URI.create("http://127.0.0.1:" + server.getAddress().getPort()),
+                HttpClient.newHttpClient(), new ObjectMapper(), Duration.ofMillis(20), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void resolvesLookupsFromOneWindowWithOneCall() throws Exception {
+        List<CompletableFuture<UserSummary>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            lookups.add(client.find(id));
+        }
+        CompletableFuture<UserSummary> unknown = client.find(404);
+
+        for (int i = 0; i < lookups.size(); i++) {
+            UserSummary user = lookups.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(i + 1, user.id());
+            assertEquals("piano", user.instrumentPreference());
+        }
+        assertNull(unknown.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void returnsOnlyExistingUsersFromMultiGet() throws Exception {
+        Map<Long, UserSummary> users = client.findAll(List.of(1L, 2L, 500L)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, users.size());
+        assertEquals("user2", users.get(2L).username());
+    }
+}
@@ -0,0 +1,55 @@
+package com.seminote.monitoring;
+
+import com.seminote.common.SeminoteCommon;
+
+/**
+ * Latency metrics tracked on the real-time piano feedback path.
+ *
+ * Each metric carries the latency budget from {@link SeminoteCommon} that
+ * samples are checked against.
+ */
+public enum LatencyMetric {
+
+    /** Round-trip WebRTC audio latency. */
+    WEBRTC("webrtc", SeminoteCommon.MAX_WEBRTC_LATENCY_MS),
+
+    /** Time to detect a played piano note. */
+    NOTE_DETECTION("note.detection", SeminoteCommon.MAX_NOTE_DETECTION_LATENCY_MS),
+
+    /** End-to-end time until feedback reaches the learner. */
+    FEEDBACK("feedback", SeminoteCommon.MAX_FEEDBACK_LATENCY_MS);
+
+    private static final long MICROS_PER_MILLI = 1000L;
+
+    private final String tagValue;
+    private final int budgetMs;
+
+    LatencyMetric(final String tagValue, final int budgetMs) {
+        this.tagValue = tagValue;
+        this.budgetMs = budgetMs;
+    }
+
+    /**
+     * Metric name used as the {@code metric} tag value.
+     * @return tag value
+     */
+    public String getTagValue() {
+        return tagValue;
+    }
+
+    /**
+     * Latency budget (SLO) for this metric.
+     * @return budget in milliseconds
+     */
+    public int getBudgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * Latency budget (SLO) for this metric.
+     * @return budget in microseconds
+     */
+    public long getBudgetMicros() {
+        return budgetMs * MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,102 @@
+package com.seminote.monitoring;
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}.
+ *
+ * All values are reported in milliseconds unless the method name says otherwise.
+ */
+public final class LatencySnapshot {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double PERCENT = 100.0;
+
+    private final long[] counts;
+    private final long count;
+    private final long sumMicros;
+    private final long maxMicros;
+
+    LatencySnapshot(final long[] counts, final long count, final long sumMicros, final long maxMicros) {
+        this.counts = counts;
+        this.count = count;
+        this.sumMicros = sumMicros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * Number of recorded samples.
+     * @return sample count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Mean latency.
+     * @return mean in milliseconds, zero when empty
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : sumMicros / MICROS_PER_MILLI / count;
+    }
+
+    /**
+     * Largest recorded latency.
+     * @return maximum in milliseconds
+     */
+    public double getMax() {
+        return maxMicros / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Median latency.
+     * @return p50 in milliseconds
+     */
+    public double getP50() {
+        return valueAtPercentile(50.0);
+    }
+
+    /**
+     * 99th percentile latency.
+     * @return p99 in milliseconds
+     */
+    public double getP99() {
+        return valueAtPercentile(99.0);
+    }
+
+    /**
+     * 99.9th percentile latency.
+     * @return p99.9 in milliseconds
+     */
+    public double getP999() {
+        return valueAtPercentile(99.9);
+    }
+
+    /**
+     * Latency at the given percentile.
+     * @param percentile Percentile between 0 and 100
+     * @return latency in milliseconds, zero when empty
+     */
+    public double valueAtPercentile(final double percentile) {
+        return valueAtPercentileMicros(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Latency at the given percentile in microseconds.
+     * @param percentile Percentile between 0 and 100
+     * @return latency in microseconds, zero when empty
+     */
+    public long valueAtPercentileMicros(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0.0), PERCENT);
+        long rank = Math.max(1, (long) Math.ceil(clamped / PERCENT * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+}
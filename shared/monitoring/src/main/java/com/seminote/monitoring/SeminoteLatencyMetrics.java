@@ -0,0 +1,81 @@
+package com.seminote.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the {@link SeminoteMonitoring} histograms to Micrometer.
+ *
+ * Meters show up under the Actuator {@code metrics} endpoint, for example
+ * {@code /actuator/metrics/seminote.latency?tag=metric:webrtc&tag=percentile:0.99}.
+ * The gauges of one metric share a snapshot that is taken at most once per
+ * {@link #SNAPSHOT_MAX_AGE_MS}, so a scrape scans each histogram once rather
+ * than once per gauge.
+ */
+public final class SeminoteLatencyMetrics implements MeterBinder {
+
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final double PERCENT = 100.0;
+    private static final String METRIC_TAG = "metric";
+    private static final String MILLISECONDS = "milliseconds";
+    static final long SNAPSHOT_MAX_AGE_MS = 1_000;
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (LatencyMetric metric : LatencyMetric.values()) {
+            CachedSnapshot cached = new CachedSnapshot(metric);
+            for (double percentile : PERCENTILES) {
+                Gauge.builder("seminote.latency", cached, c -> c.get().valueAtPercentile(percentile))
+                        .tag(METRIC_TAG, metric.getTagValue())
+                        .tag("percentile", Double.toString(percentile / PERCENT))
+                        .baseUnit(MILLISECONDS)
+                        .description("Latency percentile since startup")
+                        .register(registry);
+            }
+            Gauge.builder("seminote.latency.max", cached, c -> c.get().getMax())
+                    .tag(METRIC_TAG, metric.getTagValue())
+                    .baseUnit(MILLISECONDS)
+                    .register(registry);
+            Gauge.builder("seminote.latency.budget", metric, LatencyMetric::getBudgetMs)
+                    .tag(METRIC_TAG, metric.getTagValue())
+                    .baseUnit(MILLISECONDS)
+                    .register(registry);
+            FunctionCounter.builder("seminote.latency.samples", cached, c -> c.get().getCount())
+                    .tag(METRIC_TAG, metric.getTagValue())
+                    .register(registry);
+            FunctionCounter.builder("seminote.latency.slo.breaches", metric, SeminoteMonitoring::sloBreaches)
+                    .tag(METRIC_TAG, metric.getTagValue())
+                    .description("Samples that exceeded the latency budget")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Latest snapshot of one metric, retaken once it is older than {@link #SNAPSHOT_MAX_AGE_MS}.
+     */
+    static final class CachedSnapshot {
+
+        private static final long MAX_AGE_NANOS = SNAPSHOT_MAX_AGE_MS * 1_000_000L;
+
+        private final LatencyMetric metric;
+        private volatile LatencySnapshot snapshot;
+        private volatile long takenAt;
+
+        CachedSnapshot(final LatencyMetric metric) {
+            this.metric = metric;
+        }
+
+        LatencySnapshot get() {
+            LatencySnapshot current = snapshot;
+            long now = System.nanoTime();
+            if (current == null || now - takenAt > MAX_AGE_NANOS) {
+                current = SeminoteMonitoring.snapshot(metric);
+                snapshot = current;
+                takenAt = now;
+            }
+            return current;
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.seminote.monitoring;
 
-import java.util.logging.Logger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Seminote Monitoring Utilities.
  *
- * Shared monitoring and metrics for piano learning platform
+ * Shared monitoring and metrics for piano learning platform. Samples are
+ * recorded into lock-free {@link LatencyHistogram}s and checked against the
+ * latency budgets in {@code SeminoteCommon}; recording never allocates or logs,
+ * so it is safe to call for every note event on the audio feedback path.
  */
 public final class SeminoteMonitoring {
 
-    private static final Logger LOGGER = Logger.getLogger(SeminoteMonitoring.class.getName());
+    private static final long MICROS_PER_MILLI = 1000L;
+    private static final LatencyMetric[] METRICS = LatencyMetric.values();
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[METRICS.length];
+    private static final LongAdder[] SLO_BREACHES = new LongAdder[METRICS.length];
+
+    static {
+        for (int i = 0; i < METRICS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+            SLO_BREACHES[i] = new LongAdder();
+        }
+    }
 
     private SeminoteMonitoring() {
         // Private constructor to prevent instantiation
@@ -20,8 +33,7 @@ public final class SeminoteMonitoring {
      * @param latencyMs Latency in milliseconds
      */
     public static void recordWebRTCLatency(final int latencyMs) {
-        // Placeholder for metrics recording
-        LOGGER.info("📊 WebRTC Latency: " + latencyMs + "ms");
+        recordLatencyMicros(LatencyMetric.WEBRTC, latencyMs * MICROS_PER_MILLI);
     }
 
     /**
@@ -29,7 +41,45 @@ public final class SeminoteMonitoring {
      * @param detectionTimeMs Detection time in milliseconds
      */
     public static void recordNoteDetectionTime(final int detectionTimeMs) {
-        // Placeholder for metrics recording
-        LOGGER.info("🎹 Note Detection: " + detectionTimeMs + "ms");
+        recordLatencyMicros(LatencyMetric.NOTE_DETECTION, detectionTimeMs * MICROS_PER_MILLI);
+    }
+
+    /**
+     * Record end-to-end feedback latency.
+     * @param latencyMs Latency in milliseconds
+     */
+    public static void recordFeedbackLatency(final int latencyMs) {
+        recordLatencyMicros(LatencyMetric.FEEDBACK, latencyMs * MICROS_PER_MILLI);
+    }
+
+    /**
+     * Record a latency sample with microsecond precision.
+     * @param metric Metric to record against
+     * @param latencyMicros Latency in microseconds
+     */
+    public static void recordLatencyMicros(final LatencyMetric metric, final long latencyMicros) {
+        int index = metric.ordinal();
+        HISTOGRAMS[index].record(latencyMicros);
+        if (latencyMicros > metric.getBudgetMicros()) {
+            SLO_BREACHES[index].increment();
+        }
+    }
+
+    /**
+     * Take a percentile snapshot of a metric.
+     * @param metric Metric to inspect
+     * @return snapshot of all samples recorded so far
+     */
+    public static LatencySnapshot snapshot(final LatencyMetric metric) {
+        return HISTOGRAMS[metric.ordinal()].snapshot();
+    }
+
+    /**
+     * Number of samples that exceeded the metric's latency budget.
+     * @param metric Metric to inspect
+     * @return SLO breach count
+     */
+    public static long sloBreaches(final LatencyMetric metric) {
+        return SLO_BREACHES[metric.ordinal()].sum();
     }
 }
@@ -0,0 +1,25 @@
+package com.seminote.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration that exposes Seminote latency metrics through Actuator.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+public class SeminoteMonitoringAutoConfiguration {
+
+    /**
+     * Binder registering the latency histograms with every meter registry.
+     * @return latency metrics binder
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SeminoteLatencyMetrics seminoteLatencyMetrics() {
+        return new SeminoteLatencyMetrics();
+    }
+}
@@ -0,0 +1,188 @@
+package com.seminote.monitoring.trace;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traces requests per hop and checks each total against its latency budget.
+ *
+ * Every finished hop is written to a preallocated {@link SpanRing} and counted;
+ * hops over budget are additionally offered to a {@link SlowTraceLog} with
+ * their time split by {@link SpanKind}. The gateway sees the whole request and
+ * learns the service and database share from the service's
+ * {@link ServerTiming} header, so its entries show which of the three is
+ * spending the budget. Nothing leaves the process: traces are read on demand
+ * through the Actuator {@code latencytraces} endpoint.
+ */
+public final class LatencyBudgetTracer {
+
+    private static final SpanKind[] KINDS = SpanKind.values();
+    private static final int TRACE_ID_LENGTH = 32;
+    private static final int TRACE_ID_MIDDLE = 16;
+
+    private final SpanRing ring;
+    private final SlowTraceLog slowTraces;
+    private final long defaultBudgetMicros;
+    private final String[] budgetPrefixes;
+    private final long[] prefixBudgetMicros;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+
+    /**
+     * Create a tracer.
+     * @param ringCapacity spans kept in the ring
+     * @param slowTraceCapacity over-budget traces kept
+     * @param defaultBudget budget for paths without a more specific one
+     * @param budgets budgets by path prefix; the longest matching prefix wins
+     */
+    public LatencyBudgetTracer(final int ringCapacity, final int slowTraceCapacity, final Duration defaultBudget,
+                               final Map<String, Duration> budgets) {
+        this.ring = new SpanRing(ringCapacity);
+        this.slowTraces = new SlowTraceLog(slowTraceCapacity);
+        this.defaultBudgetMicros = micros(defaultBudget);
+        List<Map.Entry<String, Duration>> byLength = budgets.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Duration> e) -> e.getKey().length()).reversed())
+                .toList();
+        this.budgetPrefixes = new String[byLength.size()];
+        this.prefixBudgetMicros = new long[byLength.size()];
+        for (int i = 0; i < byLength.size(); i++) {
+            budgetPrefixes[i] = byLength.get(i).getKey();
+            prefixBudgetMicros[i] = micros(byLength.get(i).getValue());
+        }
+    }
+
+    /**
+     * Start a hop, continuing the caller's trace when it sent one.
+     * @param traceparent incoming {@code traceparent} header, may be null
+     * @param kind where this hop's own time is spent
+     * @param method request method
+     * @param path request path, used to pick the budget
+     * @return the started trace
+     */
+    public RequestTrace start(final String traceparent, final SpanKind kind, final String method, final String path) {
+        TraceContext parent = TraceContext.parse(traceparent);
+        TraceContext context = parent == null ? TraceContext.newTrace() : parent.newChild();
+        return new RequestTrace(context, parent == null ? 0 : parent.spanId(), kind, method + ' ' + path,
+                budgetMicros(path), ring);
+    }
+
+    /**
+     * Finish a hop: record its span and keep it if it was over budget.
+     * @param trace trace returned by {@link #start}
+     */
+    public void finish(final RequestTrace trace) {
+        long total = trace.elapsedMicros();
+        ring.record(trace.context(), trace.parentSpanId(), trace.kind(), trace.startEpochMicros(), total);
+        requests.increment();
+        if (total <= trace.budgetMicros()) {
+            return;
+        }
+        overBudget.increment();
+        if (slowTraces.admits(total)) {
+            long[] exclusive = trace.exclusiveMicros(total);
+            Map<String, Long> breakdown = new LinkedHashMap<>();
+            for (SpanKind kind : KINDS) {
+                if (exclusive[kind.ordinal()] > 0) {
+                    breakdown.put(kind.getLabel(), exclusive[kind.ordinal()]);
+                }
+            }
+            slowTraces.offer(new SlowTrace(trace.context().traceId(), trace.name(), trace.kind(),
+                    Instant.EPOCH.plus(trace.startEpochMicros(), ChronoUnit.MICROS), total,
+                    trace.budgetMicros(), breakdown));
+        }
+    }
+
+    /**
+     * {@code Server-Timing} value reporting this hop's time so far to the previous hop.
+     * @param trace trace of this hop
+     * @return header value
+     */
+    public String serverTiming(final RequestTrace trace) {
+        return ServerTiming.format(trace.exclusiveMicros(trace.elapsedMicros()));
+    }
+
+    /**
+     * Spans of a trace that are still in the ring.
+     * @param traceId trace id as 32 hex digits
+     * @return spans ordered by start time, empty for unknown or malformed ids
+     */
+    public List<SpanRecord> spans(final String traceId) {
+        if (traceId == null || traceId.length() != TRACE_ID_LENGTH) {
+            return List.of();
+        }
+        try {
+            return ring.spans(HexFormat.fromHexDigitsToLong(traceId, 0, TRACE_ID_MIDDLE),
+                    HexFormat.fromHexDigitsToLong(traceId, TRACE_ID_MIDDLE, TRACE_ID_LENGTH));
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * The slowest over-budget traces, slowest first.
+     * @return traces
+     */
+    public List<SlowTrace> slowestTraces() {
+        return slowTraces.slowest();
+    }
+
+    /**
+     * Forget the kept over-budget traces.
+     */
+    public void clearSlowTraces() {
+        slowTraces.clear();
+    }
+
+    /**
+     * Hops finished since startup.
+     * @return count
+     */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * Hops that exceeded their budget since startup.
+     * @return count
+     */
+    public long overBudget() {
+        return overBudget.sum();
+    }
+
+    /**
+     * Budget for paths without a more specific one.
+     * @return budget in microseconds
+     */
+    public long defaultBudgetMicros() {
+        return defaultBudgetMicros;
+    }
+
+    /**
+     * Spans the ring holds when full.
+     * @return ring capacity
+     */
+    public int ringCapacity() {
+        return ring.capacity();
+    }
+
+    long budgetMicros(final String path) {
+        for (int i = 0; i < budgetPrefixes.length; i++) {
+            if (path.startsWith(budgetPrefixes[i])) {
+                return prefixBudgetMicros[i];
+            }
+        }
+        return defaultBudgetMicros;
+    }
+
+    private static long micros(final Duration duration) {
+        return TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+    }
+}
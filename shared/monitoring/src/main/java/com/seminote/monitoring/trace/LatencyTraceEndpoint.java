@@ -0,0 +1,125 @@
+package com.seminote.monitoring.trace;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exporting the slowest over-budget requests.
+ *
+ * {@code GET /actuator/latencytraces} lists them with their time split into
+ * gateway, service and database; {@code GET /actuator/latencytraces/{traceId}}
+ * returns the spans of one trace still held in this process, so the same id
+ * can be looked up on the gateway and on the service it was routed to.
+ * {@code DELETE} starts a new collection window.
+ */
+@Endpoint(id = "latencytraces")
+public class LatencyTraceEndpoint {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LatencyBudgetTracer tracer;
+
+    /**
+     * Create the endpoint.
+     * @param tracer tracer to export
+     */
+    public LatencyTraceEndpoint(final LatencyBudgetTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Counts and the slowest over-budget traces.
+     * @return report
+     */
+    @ReadOperation
+    public TracesReport traces() {
+        List<SlowTraceView> traces = tracer.slowestTraces().stream().map(LatencyTraceEndpoint::view).toList();
+        return new TracesReport(tracer.requests(), tracer.overBudget(), millis(tracer.defaultBudgetMicros()),
+                traces);
+    }
+
+    /**
+     * Spans of one trace recorded by this process.
+     * @param traceId trace id as 32 hex digits
+     * @return the spans, or null (404) when none are left in the ring
+     */
+    @ReadOperation
+    public TraceView trace(@Selector final String traceId) {
+        List<SpanView> spans = tracer.spans(traceId).stream()
+                .map(span -> new SpanView(span.spanId(), span.parentSpanId(), span.kind().getLabel(),
+                        Instant.EPOCH.plus(span.startEpochMicros(), ChronoUnit.MICROS),
+                        millis(span.durationMicros())))
+                .toList();
+        return spans.isEmpty() ? null : new TraceView(traceId, spans);
+    }
+
+    /**
+     * Drop the kept over-budget traces.
+     */
+    @DeleteOperation
+    public void clear() {
+        tracer.clearSlowTraces();
+    }
+
+    private static SlowTraceView view(final SlowTrace trace) {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        trace.breakdownMicros().forEach((kind, micros) -> breakdown.put(kind, millis(micros)));
+        return new SlowTraceView(trace.traceId(), trace.name(), trace.hop().getLabel(), trace.startedAt(),
+                millis(trace.totalMicros()), millis(trace.budgetMicros()), breakdown);
+    }
+
+    private static double millis(final long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Endpoint response.
+     * @param requests requests traced since startup
+     * @param overBudget requests over budget since startup
+     * @param defaultBudgetMs budget for paths without a specific one
+     * @param slowest slowest over-budget requests since startup or the last clear
+     */
+    public record TracesReport(long requests, long overBudget, double defaultBudgetMs, List<SlowTraceView> slowest) {
+    }
+
+    /**
+     * One over-budget request.
+     * @param traceId trace id
+     * @param name method and path
+     * @param hop gateway or service
+     * @param startedAt arrival time
+     * @param totalMs total time at this hop
+     * @param budgetMs budget it was checked against
+     * @param breakdownMs exclusive time in gateway, service and database
+     */
+    public record SlowTraceView(String traceId, String name, String hop, Instant startedAt, double totalMs,
+                                double budgetMs, Map<String, Double> breakdownMs) {
+    }
+
+    /**
+     * Spans of one trace.
+     * @param traceId trace id
+     * @param spans spans ordered by start time
+     */
+    public record TraceView(String traceId, List<SpanView> spans) {
+    }
+
+    /**
+     * One span.
+     * @param spanId span id
+     * @param parentSpanId parent span id, null for the root
+     * @param kind gateway, service or database
+     * @param startedAt start time
+     * @param durationMs duration
+     */
+    public record SpanView(String spanId, String parentSpanId, String kind, Instant startedAt, double durationMs) {
+    }
+}
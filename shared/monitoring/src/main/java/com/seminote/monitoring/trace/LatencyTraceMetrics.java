@@ -0,0 +1,38 @@
+package com.seminote.monitoring.trace;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the {@link LatencyBudgetTracer} counts to Micrometer.
+ */
+public final class LatencyTraceMetrics implements MeterBinder {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LatencyBudgetTracer tracer;
+
+    /**
+     * Create the binder.
+     * @param tracer tracer to publish
+     */
+    public LatencyTraceMetrics(final LatencyBudgetTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("seminote.trace.requests", tracer, LatencyBudgetTracer::requests)
+                .description("Requests traced at this hop")
+                .register(registry);
+        FunctionCounter.builder("seminote.trace.over.budget", tracer, LatencyBudgetTracer::overBudget)
+                .description("Traced requests that exceeded their latency budget")
+                .register(registry);
+        Gauge.builder("seminote.trace.budget", tracer, t -> t.defaultBudgetMicros() / MICROS_PER_MILLI)
+                .description("Default latency budget per request")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
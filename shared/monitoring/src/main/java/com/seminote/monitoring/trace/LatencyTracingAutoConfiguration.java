@@ -0,0 +1,151 @@
+package com.seminote.monitoring.trace;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Latency budget tracing for every Seminote service.
+ *
+ * Servlet services get the tracing filter and JDBC attribution here; the
+ * reactive API gateway registers its own filter on the same
+ * {@link LatencyBudgetTracer}. Turned off with
+ * {@code seminote.monitoring.tracing.enabled=false}.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "seminote.monitoring.tracing", name = "enabled", matchIfMissing = true)
+public class LatencyTracingAutoConfiguration {
+
+    /**
+     * Tracer shared by the filters and the Actuator endpoint.
+     * @param properties tracing settings
+     * @return tracer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LatencyBudgetTracer latencyBudgetTracer(final TracingProperties properties) {
+        return new LatencyBudgetTracer(properties.getRingCapacity(), properties.getSlowTraces(),
+                properties.getBudget(), properties.getBudgets());
+    }
+
+    /**
+     * Wraps the primary datasource so statement time inside a request is attributed to the database.
+     * @return post processor
+     */
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new PrimaryDataSourcePostProcessor();
+    }
+
+    /**
+     * Wraps the only datasource, or the one marked primary when there are several;
+     * secondary datasources are left as they are.
+     */
+    static class PrimaryDataSourcePostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+        private ConfigurableListableBeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(final BeanFactory factory) {
+            this.beanFactory = factory instanceof ConfigurableListableBeanFactory listable ? listable : null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            return bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource) && isPrimary(beanName)
+                    ? new TracingDataSource(dataSource) : bean;
+        }
+
+        boolean isPrimary(final String beanName) {
+            if (beanFactory == null || !beanFactory.containsBeanDefinition(beanName)) {
+                return false;
+            }
+            return beanFactory.getBeanDefinition(beanName).isPrimary()
+                    || beanFactory.getBeanNamesForType(DataSource.class, true, false).length == 1;
+        }
+    }
+
+    /**
+     * Trace counters on the Actuator metrics endpoint.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        /**
+         * Binder publishing the tracer counts.
+         * @param tracer tracer
+         * @return metrics binder
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public LatencyTraceMetrics latencyTraceMetrics(final LatencyBudgetTracer tracer) {
+            return new LatencyTraceMetrics(tracer);
+        }
+    }
+
+    /**
+     * The {@code latencytraces} Actuator endpoint.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        /**
+         * Endpoint exporting the slowest over-budget traces.
+         * @param tracer tracer
+         * @return endpoint
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public LatencyTraceEndpoint latencyTraceEndpoint(final LatencyBudgetTracer tracer) {
+            return new LatencyTraceEndpoint(tracer);
+        }
+    }
+
+    /**
+     * Request tracing for servlet services.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletConfiguration {
+
+        /**
+         * Filter tracing each request, ahead of every other filter so their time is included.
+         * @param tracer tracer
+         * @return filter registration
+         */
+        @Bean
+        public FilterRegistrationBean<TraceServletFilter> traceServletFilter(final LatencyBudgetTracer tracer) {
+            FilterRegistrationBean<TraceServletFilter> registration =
+                    new FilterRegistrationBean<>(new TraceServletFilter(tracer));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+
+        /**
+         * Advice adding {@code Server-Timing} before response bodies are written.
+         * @param tracer tracer
+         * @return advice
+         */
+        @Bean
+        public ServerTimingAdvice serverTimingAdvice(final LatencyBudgetTracer tracer) {
+            return new ServerTimingAdvice(tracer);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.seminote.monitoring.trace;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One hop of a traced request, from {@link LatencyBudgetTracer#start} to
+ * {@link LatencyBudgetTracer#finish}.
+ *
+ * Keeps the exclusive time spent in each {@link SpanKind}: child spans timed
+ * on this hop (database calls) and time reported by the next hop are added as
+ * they complete, and whatever remains of the total is this hop's own time.
+ * A trace belongs to a single request and is not thread-safe. Servlet requests
+ * bind it to the handling thread so JDBC calls can find it through
+ * {@link #current()}.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    private final TraceContext context;
+    private final long parentSpanId;
+    private final SpanKind kind;
+    private final String name;
+    private final long budgetMicros;
+    private final SpanRing ring;
+    private final long startNanos;
+    private final long startEpochMicros;
+    private final long[] childMicros = new long[SpanKind.values().length];
+
+    RequestTrace(final TraceContext context, final long parentSpanId, final SpanKind kind, final String name,
+                 final long budgetMicros, final SpanRing ring) {
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.kind = kind;
+        this.name = name;
+        this.budgetMicros = budgetMicros;
+        this.ring = ring;
+        this.startNanos = System.nanoTime();
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+
+    /**
+     * Trace bound to the current thread.
+     * @return the trace, or null outside a traced request
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind this trace to the current thread until {@link #detach()}.
+     */
+    public void attach() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Unbind whatever trace is bound to the current thread.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Record a child span timed on this hop.
+     * @param childKind where the time was spent
+     * @param childStartNanos {@link System#nanoTime()} when the child started
+     * @param durationNanos child duration in nanoseconds
+     */
+    public void recordChild(final SpanKind childKind, final long childStartNanos, final long durationNanos) {
+        long micros = durationNanos / NANOS_PER_MICRO;
+        childMicros[childKind.ordinal()] += micros;
+        ring.record(context.traceIdHigh(), context.traceIdLow(), TraceContext.randomId(), context.spanId(),
+                childKind, startEpochMicros + (childStartNanos - startNanos) / NANOS_PER_MICRO, micros);
+    }
+
+    /**
+     * Add time that the next hop reported for itself.
+     * @param remoteKind where the time was spent
+     * @param micros exclusive time in microseconds
+     */
+    public void addRemote(final SpanKind remoteKind, final long micros) {
+        childMicros[remoteKind.ordinal()] += micros;
+    }
+
+    /**
+     * Context of this hop; pass {@link TraceContext#toHeader()} to the next hop.
+     * @return trace context
+     */
+    public TraceContext context() {
+        return context;
+    }
+
+    /**
+     * Where this hop's own time is spent.
+     * @return span kind
+     */
+    public SpanKind kind() {
+        return kind;
+    }
+
+    /**
+     * Method and path of the request.
+     * @return request name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Budget the total is checked against.
+     * @return budget in microseconds
+     */
+    public long budgetMicros() {
+        return budgetMicros;
+    }
+
+    /**
+     * Time since the trace started.
+     * @return elapsed microseconds
+     */
+    public long elapsedMicros() {
+        return (System.nanoTime() - startNanos) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Exclusive time per span kind, with this hop's own time derived from the given total.
+     * @param totalMicros total time of this hop
+     * @return microseconds indexed by {@link SpanKind#ordinal()}
+     */
+    long[] exclusiveMicros(final long totalMicros) {
+        long[] exclusive = childMicros.clone();
+        long children = 0;
+        for (long micros : childMicros) {
+            children += micros;
+        }
+        exclusive[kind.ordinal()] += Math.max(0, totalMicros - children);
+        return exclusive;
+    }
+
+    long parentSpanId() {
+        return parentSpanId;
+    }
+
+    long startEpochMicros() {
+        return startEpochMicros;
+    }
+}
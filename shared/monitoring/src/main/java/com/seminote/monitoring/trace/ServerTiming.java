@@ -0,0 +1,85 @@
+package com.seminote.monitoring.trace;
+
+/**
+ * Reads and writes the {@code Server-Timing} response header through which a
+ * service reports its time per {@link SpanKind} to the previous hop, for
+ * example {@code app;dur=3.125, db;dur=1.480}.
+ */
+public final class ServerTiming {
+
+    /** Response header carrying the breakdown. */
+    public static final String HEADER = "Server-Timing";
+
+    private static final SpanKind[] KINDS = SpanKind.values();
+    private static final String DURATION = "dur=";
+    private static final long MICROS_PER_MILLI = 1000L;
+    private static final int FRACTION_DIGITS = 3;
+
+    private ServerTiming() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Format exclusive times, skipping kinds without time.
+     * @param micros microseconds indexed by {@link SpanKind#ordinal()}
+     * @return header value
+     */
+    public static String format(final long[] micros) {
+        StringBuilder header = new StringBuilder();
+        for (SpanKind kind : KINDS) {
+            long value = micros[kind.ordinal()];
+            if (value <= 0) {
+                continue;
+            }
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            String fraction = Long.toString(value % MICROS_PER_MILLI);
+            header.append(kind.getTimingName()).append(';').append(DURATION).append(value / MICROS_PER_MILLI)
+                    .append('.').append("0".repeat(FRACTION_DIGITS - fraction.length())).append(fraction);
+        }
+        return header.toString();
+    }
+
+    /**
+     * Add the times in a header to a trace; unknown metrics and malformed entries are ignored.
+     * @param header header value, may be null
+     * @param trace trace of the previous hop
+     */
+    public static void addTo(final String header, final RequestTrace trace) {
+        if (header == null) {
+            return;
+        }
+        for (String metric : header.split(",")) {
+            SpanKind kind = kind(metric);
+            if (kind == null) {
+                continue;
+            }
+            int duration = metric.indexOf(DURATION);
+            if (duration < 0) {
+                continue;
+            }
+            int end = metric.indexOf(';', duration);
+            try {
+                double millis = Double.parseDouble(
+                        metric.substring(duration + DURATION.length(), end < 0 ? metric.length() : end).trim());
+                if (millis > 0) {
+                    trace.addRemote(kind, Math.round(millis * MICROS_PER_MILLI));
+                }
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+    }
+
+    private static SpanKind kind(final String metric) {
+        int end = metric.indexOf(';');
+        String name = (end < 0 ? metric : metric.substring(0, end)).trim();
+        for (SpanKind kind : KINDS) {
+            if (kind.getTimingName().equals(name)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.seminote.monitoring.trace;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request that exceeded its latency budget.
+ * @param traceId trace id as 32 hex digits
+ * @param name method and path
+ * @param hop kind of the hop that recorded it
+ * @param startedAt when the request arrived at this hop
+ * @param totalMicros total time at this hop
+ * @param budgetMicros budget it was checked against
+ * @param breakdownMicros exclusive time per {@link SpanKind#getLabel()}
+ */
+public record SlowTrace(String traceId, String name, SpanKind hop, Instant startedAt, long totalMicros,
+                        long budgetMicros, Map<String, Long> breakdownMicros) {
+}
@@ -0,0 +1,75 @@
+package com.seminote.monitoring.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The slowest over-budget traces seen since startup or the last reset.
+ *
+ * A min-heap bounded to the capacity; once full, traces that are not slower
+ * than the fastest one kept are rejected by {@link #admits(long)} without
+ * taking the lock, so only a slower trace pays for building and inserting an
+ * entry.
+ */
+public final class SlowTraceLog {
+
+    private static final Comparator<SlowTrace> BY_TOTAL = Comparator.comparingLong(SlowTrace::totalMicros);
+
+    private final int capacity;
+    private final PriorityQueue<SlowTrace> traces;
+    private volatile long floorMicros = -1;
+
+    /**
+     * Create a log.
+     * @param capacity number of traces kept
+     */
+    public SlowTraceLog(final int capacity) {
+        this.capacity = capacity;
+        this.traces = new PriorityQueue<>(capacity, BY_TOTAL);
+    }
+
+    /**
+     * Whether a trace of the given total would currently be kept.
+     * @param totalMicros total time of the trace
+     * @return true if {@link #offer(SlowTrace)} is worth calling
+     */
+    public boolean admits(final long totalMicros) {
+        return totalMicros > floorMicros;
+    }
+
+    /**
+     * Keep a trace if it is among the slowest.
+     * @param trace over-budget trace
+     */
+    public synchronized void offer(final SlowTrace trace) {
+        if (traces.size() < capacity) {
+            traces.add(trace);
+        } else if (trace.totalMicros() > traces.peek().totalMicros()) {
+            traces.poll();
+            traces.add(trace);
+        }
+        if (traces.size() == capacity) {
+            floorMicros = traces.peek().totalMicros();
+        }
+    }
+
+    /**
+     * Kept traces, slowest first.
+     * @return traces
+     */
+    public synchronized List<SlowTrace> slowest() {
+        List<SlowTrace> slowest = new ArrayList<>(traces);
+        slowest.sort(BY_TOTAL.reversed());
+        return slowest;
+    }
+
+    /**
+     * Drop all kept traces.
+     */
+    public synchronized void clear() {
+        traces.clear();
+        floorMicros = -1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.seminote.monitoring.trace;
+
+/**
+ * Where the time of a span was spent.
+ */
+public enum SpanKind {
+
+    /** Routing, authentication and rate limiting in the API gateway, including the hop to the service. */
+    GATEWAY("gateway", "gw"),
+
+    /** Request handling in a service outside of database calls. */
+    SERVICE("service", "app"),
+
+    /** Connection checkout and statement execution. */
+    DATABASE("database", "db");
+
+    private final String label;
+    private final String timingName;
+
+    SpanKind(final String label, final String timingName) {
+        this.label = label;
+        this.timingName = timingName;
+    }
+
+    /**
+     * Name used in exported traces.
+     * @return label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Metric name used in the {@code Server-Timing} response header.
+     * @return timing name
+     */
+    public String getTimingName() {
+        return timingName;
+    }
+}
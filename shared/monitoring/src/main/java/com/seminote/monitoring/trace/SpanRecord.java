@@ -0,0 +1,14 @@
+package com.seminote.monitoring.trace;
+
+/**
+ * A span read back from the {@link SpanRing}.
+ * @param traceId trace id as 32 hex digits
+ * @param spanId span id as 16 hex digits
+ * @param parentSpanId parent span id, or null for the root span of a trace
+ * @param kind where the time was spent
+ * @param startEpochMicros start time in microseconds since the epoch
+ * @param durationMicros duration in microseconds
+ */
+public record SpanRecord(String traceId, String spanId, String parentSpanId, SpanKind kind,
+                         long startEpochMicros, long durationMicros) {
+}
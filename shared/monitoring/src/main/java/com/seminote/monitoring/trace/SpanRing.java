@@ -0,0 +1,129 @@
+package com.seminote.monitoring.trace;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size ring of the most recent spans.
+ *
+ * All storage is allocated up front as parallel primitive arrays, so
+ * recording a span is one atomic increment and a handful of array stores,
+ * with no allocation or locking. Each slot carries a stamp that is cleared
+ * while the slot is written and set to the span's sequence number afterwards;
+ * readers skip slots whose stamp changes under them. Fences keep the plain
+ * field stores after the clear and the plain field loads before the recheck,
+ * as in a seqlock. Reads scan the whole ring
+ * and are meant for diagnostics, not the request path.
+ */
+public final class SpanRing {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0;
+    private static final SpanKind[] KINDS = SpanKind.values();
+
+    private final int mask;
+    private final long[] traceIdHigh;
+    private final long[] traceIdLow;
+    private final long[] spanId;
+    private final long[] parentSpanId;
+    private final long[] startEpochMicros;
+    private final long[] durationMicros;
+    private final byte[] kind;
+    private final AtomicLongArray stamps;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a ring.
+     * @param capacity minimum number of spans kept; rounded up to a power of two
+     */
+    public SpanRing(final int capacity) {
+        int size = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.mask = size - 1;
+        this.traceIdHigh = new long[size];
+        this.traceIdLow = new long[size];
+        this.spanId = new long[size];
+        this.parentSpanId = new long[size];
+        this.startEpochMicros = new long[size];
+        this.durationMicros = new long[size];
+        this.kind = new byte[size];
+        this.stamps = new AtomicLongArray(size);
+    }
+
+    /**
+     * Record a span, overwriting the oldest one once the ring is full.
+     * @param context trace and span id
+     * @param parent parent span id, 0 for a root span
+     * @param spanKind where the time was spent
+     * @param start start time in microseconds since the epoch
+     * @param duration duration in microseconds
+     */
+    public void record(final TraceContext context, final long parent, final SpanKind spanKind, final long start,
+                       final long duration) {
+        record(context.traceIdHigh(), context.traceIdLow(), context.spanId(), parent, spanKind, start, duration);
+    }
+
+    void record(final long high, final long low, final long span, final long parent, final SpanKind spanKind,
+                final long start, final long duration) {
+        long seq = sequence.incrementAndGet();
+        int slot = (int) (seq & mask);
+        stamps.set(slot, EMPTY);
+        VarHandle.storeStoreFence();
+        traceIdHigh[slot] = high;
+        traceIdLow[slot] = low;
+        spanId[slot] = span;
+        parentSpanId[slot] = parent;
+        startEpochMicros[slot] = start;
+        durationMicros[slot] = duration;
+        kind[slot] = (byte) spanKind.ordinal();
+        stamps.set(slot, seq);
+    }
+
+    /**
+     * Spans of one trace that are still in the ring.
+     * @param high upper half of the trace id
+     * @param low lower half of the trace id
+     * @return spans ordered by start time
+     */
+    public List<SpanRecord> spans(final long high, final long low) {
+        List<SpanRecord> spans = new ArrayList<>();
+        String traceId = TraceContext.traceId(high, low);
+        for (int slot = 0; slot <= mask; slot++) {
+            long stamp = stamps.get(slot);
+            if (stamp == EMPTY || traceIdHigh[slot] != high || traceIdLow[slot] != low) {
+                continue;
+            }
+            long span = spanId[slot];
+            long parent = parentSpanId[slot];
+            long start = startEpochMicros[slot];
+            long duration = durationMicros[slot];
+            SpanKind spanKind = KINDS[kind[slot]];
+            VarHandle.acquireFence();
+            if (stamps.get(slot) == stamp) {
+                spans.add(new SpanRecord(traceId, TraceContext.spanId(span),
+                        parent == 0 ? null : TraceContext.spanId(parent), spanKind, start, duration));
+            }
+        }
+        spans.sort(Comparator.comparingLong(SpanRecord::startEpochMicros));
+        return spans;
+    }
+
+    /**
+     * Number of spans the ring holds when full.
+     * @return capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Spans recorded since startup, including those already overwritten.
+     * @return total spans
+     */
+    public long recorded() {
+        return sequence.get();
+    }
+}
@@ -0,0 +1,119 @@
+package com.seminote.monitoring.trace;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace and span id of one hop, carried between hops in the W3C
+ * {@code traceparent} header ({@code 00-<trace id>-<span id>-01}).
+ */
+public final class TraceContext {
+
+    /** Header propagating the context to the next hop. */
+    public static final String HEADER = "traceparent";
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int HEADER_LENGTH = 55;
+    private static final int TRACE_ID_START = 3;
+    private static final int TRACE_ID_MIDDLE = 19;
+    private static final int SPAN_ID_START = 36;
+    private static final int SPAN_ID_END = 52;
+
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long spanId;
+
+    TraceContext(final long traceIdHigh, final long traceIdLow, final long spanId) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+    }
+
+    /**
+     * Start a new trace.
+     * @return context of the root span
+     */
+    public static TraceContext newTrace() {
+        return new TraceContext(randomId(), randomId(), randomId());
+    }
+
+    /**
+     * Parse a {@code traceparent} header.
+     * @param header header value, may be null
+     * @return the context, or null when the header is missing or malformed
+     */
+    public static TraceContext parse(final String header) {
+        if (header == null || header.length() != HEADER_LENGTH || header.charAt(2) != '-'
+                || header.charAt(SPAN_ID_START - 1) != '-' || header.charAt(SPAN_ID_END) != '-') {
+            return null;
+        }
+        try {
+            long high = HexFormat.fromHexDigitsToLong(header, TRACE_ID_START, TRACE_ID_MIDDLE);
+            long low = HexFormat.fromHexDigitsToLong(header, TRACE_ID_MIDDLE, SPAN_ID_START - 1);
+            long span = HexFormat.fromHexDigitsToLong(header, SPAN_ID_START, SPAN_ID_END);
+            if ((high == 0 && low == 0) || span == 0) {
+                return null;
+            }
+            return new TraceContext(high, low, span);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Context of a new span in the same trace.
+     * @return child context
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceIdHigh, traceIdLow, randomId());
+    }
+
+    /**
+     * Header value passing this span to the next hop as its parent.
+     * @return {@code traceparent} value
+     */
+    public String toHeader() {
+        return "00-" + traceId() + '-' + HEX.toHexDigits(spanId) + "-01";
+    }
+
+    /**
+     * Trace id shared by every hop of the request.
+     * @return 32 lowercase hex digits
+     */
+    public String traceId() {
+        return traceId(traceIdHigh, traceIdLow);
+    }
+
+    long traceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long traceIdLow() {
+        return traceIdLow;
+    }
+
+    long spanId() {
+        return spanId;
+    }
+
+    static String traceId(final long high, final long low) {
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    static String spanId(final long spanId) {
+        return HEX.toHexDigits(spanId);
+    }
+
+    static long randomId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return toHeader();
+    }
+}
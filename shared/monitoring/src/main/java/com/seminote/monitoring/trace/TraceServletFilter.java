@@ -0,0 +1,56 @@
+package com.seminote.monitoring.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Traces each service request as a {@link SpanKind#SERVICE} hop.
+ *
+ * Continues the gateway's trace from the {@code traceparent} header, binds the
+ * trace to the handling thread for the duration of the request so database
+ * calls are attributed to it, and reports the service and database time back
+ * in {@code Server-Timing}. Response bodies written by controllers get the
+ * header from {@link ServerTimingAdvice} just before they are written; this
+ * filter sets it for responses that are still uncommitted afterwards.
+ */
+public class TraceServletFilter extends OncePerRequestFilter {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final LatencyBudgetTracer tracer;
+
+    /**
+     * Create the filter.
+     * @param tracer tracer recording the hops
+     */
+    public TraceServletFilter(final LatencyBudgetTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain chain) throws ServletException, IOException {
+        RequestTrace trace = tracer.start(request.getHeader(TraceContext.HEADER), SpanKind.SERVICE,
+                request.getMethod(), request.getRequestURI());
+        trace.attach();
+        try {
+            chain.doFilter(request, response);
+            if (!response.isCommitted()) {
+                response.setHeader(ServerTiming.HEADER, tracer.serverTiming(trace));
+            }
+        } finally {
+            RequestTrace.detach();
+            tracer.finish(trace);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + ACTUATOR_PATH);
+    }
+}
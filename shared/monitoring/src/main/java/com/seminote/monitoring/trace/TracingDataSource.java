@@ -0,0 +1,144 @@
+package com.seminote.monitoring.trace;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Attributes JDBC time to the {@link RequestTrace} of the calling thread.
+ *
+ * Connection checkout and every {@code execute*} call on statements created
+ * inside a traced request are recorded as {@link SpanKind#DATABASE} spans;
+ * a statement hands back the traced connection, so statements created from
+ * it are traced too.
+ * Connections taken outside a request (schedulers, startup) are returned
+ * unwrapped, so background work pays nothing. Rows read from a streaming
+ * result set after the statement returns count as service time.
+ */
+public class TracingDataSource implements DataSource {
+
+    private final DataSource delegate;
+
+    /**
+     * Wrap a datasource.
+     * @param delegate the pooled datasource
+     */
+    public TracingDataSource(final DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return delegate.getConnection();
+        }
+        long start = System.nanoTime();
+        try {
+            return traced(delegate.getConnection(), trace);
+        } finally {
+            trace.recordChild(SpanKind.DATABASE, start, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return delegate.getConnection(username, password);
+        }
+        long start = System.nanoTime();
+        try {
+            return traced(delegate.getConnection(username, password), trace);
+        } finally {
+            trace.recordChild(SpanKind.DATABASE, start, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    private static Connection traced(final Connection connection, final RequestTrace trace) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement
+                    ? traced(statement, method.getReturnType(), (Connection) proxy, trace) : result;
+        });
+    }
+
+    private static Object traced(final Statement statement, final Class<?> type, final Connection connection,
+                                 final RequestTrace trace) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if ("getConnection".equals(method.getName()) && method.getParameterCount() == 0) {
+                return connection;
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                trace.recordChild(SpanKind.DATABASE, start, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static <T> T proxy(final Class<T> type, final Object target, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Traced " + target;
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.seminote.monitoring.trace;
+
+import com.seminote.common.SeminoteCommon;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for latency budget tracing.
+ */
+@ConfigurationProperties(prefix = "seminote.monitoring.tracing")
+public class TracingProperties {
+
+    private static final int DEFAULT_RING_CAPACITY = 16_384;
+    private static final int DEFAULT_SLOW_TRACES = 50;
+
+    private boolean enabled = true;
+    private Duration budget = Duration.ofMillis(SeminoteCommon.MAX_FEEDBACK_LATENCY_MS);
+    private Map<String, Duration> budgets = new LinkedHashMap<>();
+    private int ringCapacity = DEFAULT_RING_CAPACITY;
+    private int slowTraces = DEFAULT_SLOW_TRACES;
+
+    /**
+     * Whether requests are traced at all.
+     * @return true when enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Budget for requests without a path-specific one; defaults to the feedback latency budget.
+     * @return default budget
+     */
+    public Duration getBudget() {
+        return budget;
+    }
+
+    public void setBudget(final Duration budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Budgets by request path prefix, e.g. {@code budgets[/api/v1/users/login]=500ms}.
+     * @return budgets by prefix
+     */
+    public Map<String, Duration> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(final Map<String, Duration> budgets) {
+        this.budgets = budgets;
+    }
+
+    /**
+     * Most recent spans kept in memory for lookup by trace id.
+     * @return ring capacity
+     */
+    public int getRingCapacity() {
+        return ringCapacity;
+    }
+
+    public void setRingCapacity(final int ringCapacity) {
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * Slowest over-budget requests kept for the Actuator endpoint.
+     * @return number of traces
+     */
+    public int getSlowTraces() {
+        return slowTraces;
+    }
+
+    public void setSlowTraces(final int slowTraces) {
+        this.slowTraces = slowTraces;
+    }
+}
@@ -0,0 +1,79 @@
+package com.seminote.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Tag;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptySnapshot() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getP99());
+        assertEquals(0.0, snapshot.getMean());
+    }
+
+    @Test
+    void percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5.0, snapshot.getP50(), 5.0 * 0.02);
+        assertEquals(9.9, snapshot.getP99(), 9.9 * 0.02);
+        assertEquals(9.99, snapshot.getP999(), 9.99 * 0.02);
+        assertEquals(10.0, snapshot.getMax());
+        assertEquals(5.0005, snapshot.getMean(), 0.001);
+    }
+
+    @Test
+    void bucketBoundariesRoundTrip() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 123_456, LatencyHistogram.HIGHEST_TRACKABLE_MICROS};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value);
+            assertEquals(index, LatencyHistogram.bucketIndex(highest));
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.valueAtPercentileMicros(50.0));
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_MICROS, snapshot.valueAtPercentileMicros(100.0));
+    }
+
+    @Test
+    @Tag("performance")
+    void concurrentRecordingLosesNoSamples() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        int threads = 8;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i % 5_000);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals((long) threads * perThread, histogram.snapshot().getCount());
+    }
+}
@@ -2,6 +2,7 @@ package com.seminote.monitoring;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
+import static org.junit.jupiter.api.Assertions.*;
 
 class SeminoteMonitoringTest {
     
@@ -10,7 +11,14 @@ class SeminoteMonitoringTest {
     @Tag("performance")
     void webrtcLatencyRecording() {
         // Test that WebRTC latency recording works
+        long samples = SeminoteMonitoring.snapshot(LatencyMetric.WEBRTC).getCount();
+        long breaches = SeminoteMonitoring.sloBreaches(LatencyMetric.WEBRTC);
+
         SeminoteMonitoring.recordWebRTCLatency(3);
+        SeminoteMonitoring.recordWebRTCLatency(6);
+
+        assertEquals(samples + 2, SeminoteMonitoring.snapshot(LatencyMetric.WEBRTC).getCount());
+        assertEquals(breaches + 1, SeminoteMonitoring.sloBreaches(LatencyMetric.WEBRTC));
     }
     
     @Test
@@ -18,6 +26,22 @@ class SeminoteMonitoringTest {
     @Tag("performance")
     void noteDetectionTimeRecording() {
         // Test that note detection time recording works
+        long breaches = SeminoteMonitoring.sloBreaches(LatencyMetric.NOTE_DETECTION);
+
         SeminoteMonitoring.recordNoteDetectionTime(8);
+
+        assertEquals(breaches, SeminoteMonitoring.sloBreaches(LatencyMetric.NOTE_DETECTION));
+        assertTrue(SeminoteMonitoring.snapshot(LatencyMetric.NOTE_DETECTION).getMax() >= 8.0);
+    }
+
+    @Test
+    @Tag("piano")
+    @Tag("performance")
+    void feedbackLatencyRecording() {
+        long breaches = SeminoteMonitoring.sloBreaches(LatencyMetric.FEEDBACK);
+
+        SeminoteMonitoring.recordFeedbackLatency(25);
+
+        assertEquals(breaches + 1, SeminoteMonitoring.sloBreaches(LatencyMetric.FEEDBACK));
     }
 }
@@ -0,0 +1,132 @@
+package com.seminote.monitoring.trace;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyBudgetTracerTest {
+
+    private final LatencyBudgetTracer tracer = new LatencyBudgetTracer(1024, 2, Duration.ofMillis(20),
+            Map.of("/api/v1/users", Duration.ofMillis(50), "/api/v1/users/login", Duration.ofMillis(500)));
+
+    @Test
+    void longestPrefixPicksTheBudget() {
+        assertEquals(20_000, tracer.budgetMicros("/api/v1/content/1"));
+        assertEquals(50_000, tracer.budgetMicros("/api/v1/users/7"));
+        assertEquals(500_000, tracer.budgetMicros("/api/v1/users/login"));
+    }
+
+    @Test
+    void requestsWithinBudgetAreOnlyCounted() {
+        RequestTrace trace = tracer.start(null, SpanKind.SERVICE, "GET", "/api/v1/users/login");
+        tracer.finish(trace);
+
+        assertEquals(1, tracer.requests());
+        assertEquals(0, tracer.overBudget());
+        assertTrue(tracer.slowestTraces().isEmpty());
+        assertEquals(1, tracer.spans(trace.context().traceId()).size());
+    }
+
+    @Test
+    void overBudgetTraceIsSplitByKind() throws InterruptedException {
+        RequestTrace trace = tracer.start(null, SpanKind.GATEWAY, "GET", "/api/v1/content/1");
+        ServerTiming.addTo("app;dur=4.000, db;dur=6.500, cache;desc=\"hit\"", trace);
+        Thread.sleep(25);
+        tracer.finish(trace);
+
+        assertEquals(1, tracer.overBudget());
+        SlowTrace slow = tracer.slowestTraces().get(0);
+        assertEquals(trace.context().traceId(), slow.traceId());
+        assertEquals("GET /api/v1/content/1", slow.name());
+        assertEquals(20_000, slow.budgetMicros());
+        assertEquals(Long.valueOf(4_000), slow.breakdownMicros().get("service"));
+        assertEquals(Long.valueOf(6_500), slow.breakdownMicros().get("database"));
+        assertEquals(Long.valueOf(slow.totalMicros() - 10_500), slow.breakdownMicros().get("gateway"));
+    }
+
+    @Test
+    void onlyTheSlowestTracesAreKept() {
+        SlowTraceLog log = new SlowTraceLog(2);
+        for (long total : new long[] {30, 10, 50, 20, 40}) {
+            if (log.admits(total)) {
+                log.offer(new SlowTrace("t" + total, "GET /", SpanKind.SERVICE, null, total, 5, Map.of()));
+            }
+        }
+
+        List<SlowTrace> slowest = log.slowest();
+        assertEquals(List.of(50L, 40L), slowest.stream().map(SlowTrace::totalMicros).toList());
+        assertFalse(log.admits(40));
+        log.clear();
+        assertTrue(log.admits(1));
+    }
+
+    @Test
+    void serviceTraceContinuesGatewayTrace() {
+        RequestTrace gateway = tracer.start(null, SpanKind.GATEWAY, "GET", "/api/v1/users/7");
+        RequestTrace service = tracer.start(gateway.context().toHeader(), SpanKind.SERVICE, "GET", "/api/v1/users/7");
+        long start = System.nanoTime();
+        service.recordChild(SpanKind.DATABASE, start, 3_000_000);
+        tracer.finish(service);
+        tracer.finish(gateway);
+
+        List<SpanRecord> spans = tracer.spans(gateway.context().traceId());
+        assertEquals(3, spans.size());
+        SpanRecord database = spans.stream().filter(s -> s.kind() == SpanKind.DATABASE).findFirst().orElseThrow();
+        assertEquals(3_000, database.durationMicros());
+        assertEquals(TraceContext.spanId(service.context().spanId()), database.parentSpanId());
+        assertTrue(tracer.spans("not-a-trace-id").isEmpty());
+    }
+
+    @Test
+    void statementsHandBackTheTracedConnection() throws Exception {
+        Connection raw = proxy(Connection.class, (connection, method, args) ->
+                "createStatement".equals(method.getName()) ? proxy(Statement.class, (statement, m, a) ->
+                        switch (m.getName()) {
+                            case "getConnection" -> connection;
+                            case "executeUpdate" -> 1;
+                            default -> null;
+                        }) : null);
+        DataSource dataSource = proxy(DataSource.class, (ds, method, args) -> raw);
+
+        RequestTrace trace = tracer.start(null, SpanKind.SERVICE, "POST", "/api/v1/users/7");
+        trace.attach();
+        try {
+            Connection connection = new TracingDataSource(dataSource).getConnection();
+            Statement statement = connection.createStatement();
+            assertSame(connection, statement.getConnection());
+            assertEquals(1, statement.getConnection().createStatement().executeUpdate("UPDATE users SET id = id"));
+        } finally {
+            RequestTrace.detach();
+        }
+        tracer.finish(trace);
+
+        assertEquals(2, tracer.spans(trace.context().traceId()).stream()
+                .filter(s -> s.kind() == SpanKind.DATABASE).count());
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(LatencyBudgetTracerTest.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    @Test
+    void serverTimingRoundTrip() {
+        assertEquals("app;dur=1.250, db;dur=0.007", ServerTiming.format(new long[] {0, 1_250, 7}));
+
+        RequestTrace trace = tracer.start(null, SpanKind.GATEWAY, "GET", "/");
+        ServerTiming.addTo(ServerTiming.format(new long[] {0, 1_250, 7}), trace);
+        ServerTiming.addTo("db;dur=oops, app", trace);
+        long[] exclusive = trace.exclusiveMicros(2_000);
+        assertEquals(1_250, exclusive[SpanKind.SERVICE.ordinal()]);
+        assertEquals(7, exclusive[SpanKind.DATABASE.ordinal()]);
+        assertEquals(743, exclusive[SpanKind.GATEWAY.ordinal()]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.seminote.monitoring.trace;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanRingTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(16, new SpanRing(1).capacity());
+        assertEquals(1024, new SpanRing(1000).capacity());
+        assertEquals(1024, new SpanRing(1024).capacity());
+    }
+
+    @Test
+    void spansAreFoundByTraceInStartOrder() {
+        SpanRing ring = new SpanRing(64);
+        TraceContext trace = TraceContext.newTrace();
+        TraceContext other = TraceContext.newTrace();
+        TraceContext child = trace.newChild();
+
+        ring.record(child, trace.spanId(), SpanKind.SERVICE, 2_000, 500);
+        ring.record(other, 0, SpanKind.GATEWAY, 1_500, 100);
+        ring.record(trace, 0, SpanKind.GATEWAY, 1_000, 2_000);
+
+        List<SpanRecord> spans = ring.spans(trace.traceIdHigh(), trace.traceIdLow());
+        assertEquals(2, spans.size());
+        assertEquals(SpanKind.GATEWAY, spans.get(0).kind());
+        assertNull(spans.get(0).parentSpanId());
+        assertEquals(trace.traceId(), spans.get(1).traceId());
+        assertEquals(TraceContext.spanId(trace.spanId()), spans.get(1).parentSpanId());
+        assertEquals(500, spans.get(1).durationMicros());
+    }
+
+    @Test
+    void oldestSpansAreOverwritten() {
+        SpanRing ring = new SpanRing(16);
+        TraceContext first = TraceContext.newTrace();
+        ring.record(first, 0, SpanKind.SERVICE, 0, 1);
+        for (int i = 0; i < 16; i++) {
+            ring.record(TraceContext.newTrace(), 0, SpanKind.SERVICE, i, 1);
+        }
+
+        assertTrue(ring.spans(first.traceIdHigh(), first.traceIdLow()).isEmpty());
+        assertEquals(17, ring.recorded());
+    }
+
+    @Test
+    void traceparentRoundTrip() {
+        TraceContext context = TraceContext.newTrace();
+        TraceContext parsed = TraceContext.parse(context.toHeader());
+
+        assertNotNull(parsed);
+        assertEquals(context.traceId(), parsed.traceId());
+        assertEquals(context.spanId(), parsed.spanId());
+        assertEquals(context.traceId(), context.newChild().traceId());
+        assertNotEquals(context.spanId(), context.newChild().spanId());
+    }
+
+    @Test
+    void malformedTraceparentIsIgnored() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse("garbage"));
+        assertNull(TraceContext.parse("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331"));
+        assertNull(TraceContext.parse("00-0af7651916cd43dd8448eb211c80319z-b7ad6b7169203331-01"));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-b7ad6b7169203331-01"));
+        assertNotNull(TraceContext.parse("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.seminote.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * HMAC-SHA256 primitives shared by {@link JwtIssuer} and {@link JwtVerifier}.
+ */
+final class Hs256 {
+
+    static final String ALGORITHM = "HS256";
+    static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() { };
+
+    private final Mac prototype;
+
+    Hs256(final byte[] secret) {
+        try {
+            prototype = Mac.getInstance(HMAC_SHA256);
+            prototype.init(new SecretKeySpec(secret, HMAC_SHA256));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Sign the header and payload segments.
+     * @param signingInput {@code header.payload} in Base64url
+     * @return raw signature bytes
+     */
+    byte[] sign(final byte[] signingInput) {
+        return newMac().doFinal(signingInput);
+    }
+
+    static Map<String, Object> readJson(final byte[] json) throws IOException {
+        return MAPPER.readValue(json, MAP_TYPE);
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.seminote.security;
+
+/**
+ * Thrown when a JWT is malformed, wrongly signed, expired or revoked.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception with a reason.
+     * @param message why the token was rejected
+     */
+    public InvalidTokenException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Create an exception with a reason and cause.
+     * @param message why the token was rejected
+     * @param cause underlying parsing failure
+     */
+    public InvalidTokenException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
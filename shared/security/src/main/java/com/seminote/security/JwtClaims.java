@@ -0,0 +1,86 @@
+package com.seminote.security;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Verified claims of a Seminote JWT.
+ *
+ * Times are epoch seconds as defined by RFC 7519; absent numeric claims are
+ * reported as zero.
+ */
+public final class JwtClaims {
+
+    private final Map<String, Object> claims;
+
+    JwtClaims(final Map<String, Object> claims) {
+        this.claims = Collections.unmodifiableMap(claims);
+    }
+
+    /**
+     * Subject, usually the user id.
+     * @return subject or null
+     */
+    public String getSubject() {
+        return getString("sub");
+    }
+
+    /**
+     * Unique token id used for revocation.
+     * @return token id or null
+     */
+    public String getTokenId() {
+        return getString("jti");
+    }
+
+    /**
+     * Issue time.
+     * @return epoch seconds
+     */
+    public long getIssuedAt() {
+        return getLong("iat");
+    }
+
+    /**
+     * Expiry time.
+     * @return epoch seconds, zero when absent; {@link JwtVerifier} rejects tokens without a future expiry
+     */
+    public long getExpiresAt() {
+        return getLong("exp");
+    }
+
+    /**
+     * Not-before time.
+     * @return epoch seconds, zero when absent
+     */
+    public long getNotBefore() {
+        return getLong("nbf");
+    }
+
+    /**
+     * String claim.
+     * @param name claim name
+     * @return claim value as text or null
+     */
+    public String getString(final String name) {
+        Object value = claims.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Numeric claim.
+     * @param name claim name
+     * @return claim value or zero
+     */
+    public long getLong(final String name) {
+        return claims.get(name) instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * All claims as decoded from the payload.
+     * @return read-only claim map
+     */
+    public Map<String, Object> asMap() {
+        return claims;
+    }
+}
@@ -0,0 +1,75 @@
+package com.seminote.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues HS256-signed JWTs that {@link JwtVerifier} accepts.
+ */
+public final class JwtIssuer {
+
+    private static final String HEADER = Hs256.ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final Hs256 hs256;
+    private final Clock clock;
+
+    /**
+     * Create an issuer for a shared secret.
+     * @param secret HMAC secret
+     * @throws IllegalStateException if the secret is blank, the public default or too short
+     */
+    public JwtIssuer(final String secret) {
+        this(SeminoteSecurityConfig.requireJwtSecret(secret), Clock.systemUTC());
+    }
+
+    /**
+     * Create an issuer with an explicit clock.
+     * @param secret HMAC secret bytes
+     * @param clock time source for {@code iat}/{@code exp}
+     */
+    public JwtIssuer(final byte[] secret, final Clock clock) {
+        this.hs256 = new Hs256(secret);
+        this.clock = clock;
+    }
+
+    /**
+     * Issue a token for a subject.
+     * @param subject user id
+     * @param ttl token lifetime
+     * @return signed token
+     */
+    public String issue(final String subject, final Duration ttl) {
+        return issue(subject, Map.of(), ttl);
+    }
+
+    /**
+     * Issue a token with additional claims.
+     * @param subject user id
+     * @param extraClaims claims added to the payload
+     * @param ttl token lifetime
+     * @return signed token
+     */
+    public String issue(final String subject, final Map<String, Object> extraClaims, final Duration ttl) {
+        long now = clock.instant().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>(extraClaims);
+        claims.put("sub", subject);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("iat", now);
+        claims.put("exp", now + ttl.toSeconds());
+        try {
+            String payload = Hs256.ENCODER.encodeToString(Hs256.MAPPER.writeValueAsBytes(claims));
+            String signingInput = HEADER + '.' + payload;
+            byte[] signature = hs256.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + '.' + Hs256.ENCODER.encodeToString(signature);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Claims are not serializable", e);
+        }
+    }
+}
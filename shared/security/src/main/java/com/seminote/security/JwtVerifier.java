@@ -0,0 +1,179 @@
+package com.seminote.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HS256 JWT verifier with a cache of verified claims.
+ *
+ * The signature of a distinct token is checked once; afterwards the decoded
+ * claims are served from a bounded LRU cache keyed by token hash until the
+ * token expires or {@code maxCacheTtl} passes. Revocations are checked on
+ * every call, cached or not, so revoking a token or a user takes effect
+ * immediately.
+ */
+public final class JwtVerifier {
+
+    /** Default number of cached tokens. */
+    public static final int DEFAULT_CACHE_CAPACITY = 100_000;
+
+    /** Default upper bound for how long a verified token stays cached. */
+    public static final Duration DEFAULT_MAX_CACHE_TTL = Duration.ofMinutes(15);
+
+    private static final long MAX_TOKEN_LIFETIME_SECONDS =
+            Duration.ofHours(SeminoteSecurityConfig.JWT_EXPIRATION_HOURS).toSeconds();
+
+    private final Hs256 hs256;
+    private final TokenCache cache;
+    private final long maxCacheTtlSeconds;
+    private final Clock clock;
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+
+    /**
+     * Create a verifier with default cache settings.
+     * @param secret HMAC secret
+     * @throws IllegalStateException if the secret is blank, the public default or too short
+     */
+    public JwtVerifier(final String secret) {
+        this(SeminoteSecurityConfig.requireJwtSecret(secret), DEFAULT_CACHE_CAPACITY, DEFAULT_MAX_CACHE_TTL,
+                Clock.systemUTC());
+    }
+
+    /**
+     * Create a verifier.
+     * @param secret HMAC secret bytes
+     * @param cacheCapacity maximum cached tokens, zero disables caching
+     * @param maxCacheTtl upper bound for how long a verified token stays cached
+     * @param clock time source for expiry checks
+     */
+    public JwtVerifier(final byte[] secret, final int cacheCapacity, final Duration maxCacheTtl, final Clock clock) {
+        this.hs256 = new Hs256(secret);
+        this.cache = new TokenCache(cacheCapacity);
+        this.maxCacheTtlSeconds = maxCacheTtl.toSeconds();
+        this.clock = clock;
+    }
+
+    /**
+     * Verify a token and return its claims.
+     * @param token compact JWT
+     * @return verified claims
+     * @throws InvalidTokenException if the token is malformed, wrongly signed, expired or revoked
+     */
+    public JwtClaims verify(final String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidTokenException("Missing token");
+        }
+        long now = clock.instant().getEpochSecond();
+        long hash = TokenCache.hash(token);
+        JwtClaims claims = cache.get(token, hash, now);
+        if (claims == null) {
+            claims = parseAndVerify(token, now);
+            cache.put(token, hash, claims, Math.min(claims.getExpiresAt(), now + maxCacheTtlSeconds));
+        }
+        checkNotRevoked(claims);
+        return claims;
+    }
+
+    /**
+     * Revoke a single token, for example on logout.
+     * @param tokenId the token's {@code jti}
+     * @param expiresAt the token's expiry, after which the revocation can be forgotten
+     */
+    public void revokeTokenId(final String tokenId, final Instant expiresAt) {
+        revokedTokenIds.put(tokenId, expiresAt.getEpochSecond());
+    }
+
+    /**
+     * Revoke every token of a subject issued before a point in time, for
+     * example after a password change.
+     * @param subject user id
+     * @param issuedBefore tokens issued before this instant are rejected
+     */
+    public void revokeSubject(final String subject, final Instant issuedBefore) {
+        revokedSubjects.merge(subject, issuedBefore.getEpochSecond(), Math::max);
+    }
+
+    /**
+     * Drop a token from the cache so the next call verifies it again.
+     * @param token compact JWT
+     */
+    public void invalidate(final String token) {
+        cache.invalidate(token);
+    }
+
+    /**
+     * Forget revocations that can no longer match an unexpired token. Callers
+     * run this periodically, otherwise the revocation maps only grow.
+     */
+    public void purgeExpiredRevocations() {
+        long now = clock.instant().getEpochSecond();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedSubjects.values().removeIf(cutoff -> cutoff + MAX_TOKEN_LIFETIME_SECONDS <= now);
+    }
+
+    /**
+     * Number of revoked token ids and subjects currently remembered.
+     * @return revocation count
+     */
+    int revocationCount() {
+        return revokedTokenIds.size() + revokedSubjects.size();
+    }
+
+    /**
+     * Number of verified tokens currently cached.
+     * @return cache size
+     */
+    public int cachedTokenCount() {
+        return cache.size();
+    }
+
+    private JwtClaims parseAndVerify(final String token, final long now) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        try {
+            Map<String, Object> header = Hs256.readJson(Hs256.DECODER.decode(token.substring(0, firstDot)));
+            if (!Hs256.ALGORITHM.equals(header.get("alg"))) {
+                throw new InvalidTokenException("Unsupported algorithm");
+            }
+            byte[] expected = hs256.sign(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = Hs256.DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                throw new InvalidTokenException("Invalid signature");
+            }
+            JwtClaims claims = new JwtClaims(Hs256.readJson(
+                    Hs256.DECODER.decode(token.substring(firstDot + 1, lastDot))));
+            if (claims.getExpiresAt() <= now) {
+                throw new InvalidTokenException("Token expired");
+            }
+            if (claims.getNotBefore() > now) {
+                throw new InvalidTokenException("Token not yet valid");
+            }
+            return claims;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+    }
+
+    private void checkNotRevoked(final JwtClaims claims) {
+        if (!revokedTokenIds.isEmpty() && claims.getTokenId() != null
+                && revokedTokenIds.containsKey(claims.getTokenId())) {
+            throw new InvalidTokenException("Token revoked");
+        }
+        if (!revokedSubjects.isEmpty() && claims.getSubject() != null) {
+            Long cutoff = revokedSubjects.get(claims.getSubject());
+            if (cutoff != null && claims.getIssuedAt() < cutoff) {
+                throw new InvalidTokenException("Token revoked");
+            }
+        }
+    }
+}
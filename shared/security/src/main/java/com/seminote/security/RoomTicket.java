@@ -0,0 +1,96 @@
+package com.seminote.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Signed permission for one user to join one signaling room in one role.
+ *
+ * A ticket is {@code <expiry epoch seconds>.<Base64url HMAC-SHA256>} over the
+ * room, user id, role and expiry, keyed with the JWT secret, so any service
+ * holding the secret can issue tickets and the gateway checks them without a
+ * lookup. The user service issues tickets to the members of a room, in the
+ * role each holds; a ticket is useless to anyone but the user it names.
+ */
+public final class RoomTicket {
+
+    private static final char SEPARATOR = '.';
+    private static final String DOMAIN = "seminote-room-ticket";
+
+    private final Hs256 hs256;
+    private final Clock clock;
+
+    /**
+     * Create an issuer and verifier of tickets.
+     * @param secret HMAC secret bytes, as returned by {@link SeminoteSecurityConfig#requireJwtSecret(String)}
+     * @param clock time source for expiry
+     */
+    public RoomTicket(final byte[] secret, final Clock clock) {
+        this.hs256 = new Hs256(secret);
+        this.clock = clock;
+    }
+
+    /**
+     * Issue a ticket.
+     * @param room room id
+     * @param userId user allowed to join, the {@code sub} of their access token
+     * @param role role the user joins in
+     * @param ttl how long the ticket can be used to join
+     * @return ticket
+     * @throws IllegalArgumentException if a field contains a line break
+     */
+    public String issue(final String room, final String userId, final String role, final Duration ttl) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        return expiresAt + String.valueOf(SEPARATOR) + Hs256.ENCODER.encodeToString(sign(room, userId, role,
+                expiresAt));
+    }
+
+    /**
+     * Check a ticket.
+     * @param ticket ticket from the join message, may be null
+     * @param room room being joined
+     * @param userId authenticated user joining
+     * @param role role being joined in
+     * @return true if the ticket was issued for exactly this room, user and role and has not expired
+     */
+    public boolean verify(final String ticket, final String room, final String userId, final String role) {
+        if (ticket == null || room == null || userId == null || role == null) {
+            return false;
+        }
+        int dot = ticket.indexOf(SEPARATOR);
+        if (dot <= 0) {
+            return false;
+        }
+        long expiresAt;
+        byte[] signature;
+        try {
+            expiresAt = Long.parseLong(ticket, 0, dot, 10);
+            signature = Hs256.DECODER.decode(ticket.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (expiresAt <= clock.instant().getEpochSecond() || !separable(room, userId, role)) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(room, userId, role, expiresAt), signature);
+    }
+
+    private byte[] sign(final String room, final String userId, final String role, final long expiresAt) {
+        if (!separable(room, userId, role)) {
+            throw new IllegalArgumentException("Ticket fields must not contain line breaks");
+        }
+        String input = DOMAIN + '\n' + room + '\n' + userId + '\n' + role + '\n' + expiresAt;
+        return hs256.sign(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean separable(final String... fields) {
+        for (String field : fields) {
+            if (field.indexOf('\n') >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package com.seminote.security;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Seminote Security Configuration.
  *
@@ -10,10 +12,34 @@ public final class SeminoteSecurityConfig {
     public static final String JWT_SECRET_KEY = "seminote-piano-learning-platform-secret";
     public static final int JWT_EXPIRATION_HOURS = 24;
 
+    /** Shortest accepted HS256 signing secret, the hash output size required by RFC 7518. */
+    public static final int JWT_SECRET_MIN_BYTES = 32;
+
     private SeminoteSecurityConfig() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Check the configured JWT signing secret before any token is issued or verified.
+     * @param secret value of {@code seminote.security.jwt.secret}
+     * @return secret bytes
+     * @throws IllegalStateException if the secret is unset, too short or the public development value
+     */
+    public static byte[] requireJwtSecret(final String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("seminote.security.jwt.secret must be set");
+        }
+        if (JWT_SECRET_KEY.equals(secret)) {
+            throw new IllegalStateException("seminote.security.jwt.secret must not be the public default");
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < JWT_SECRET_MIN_BYTES) {
+            throw new IllegalStateException("seminote.security.jwt.secret must be at least "
+                    + JWT_SECRET_MIN_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
     /**
      * Validate piano learning session security.
      * @return true if session is secure for real-time audio processing
@@ -0,0 +1,146 @@
+package com.seminote.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, expiry-aware cache of verified tokens keyed by a 64-bit token hash.
+ *
+ * The cache is split into independently locked LRU segments so hot tokens on
+ * different threads rarely contend. Each entry keeps the full token, which is
+ * compared in constant time on lookup, so a hash collision can only cost a
+ * re-verification, never return another token's claims.
+ */
+final class TokenCache {
+
+    private static final int SEGMENTS = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final boolean enabled;
+
+    TokenCache(final int capacity) {
+        this.enabled = capacity > 0;
+        int perSegment = Math.max(1, capacity / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Look up a token.
+     * @param token raw token
+     * @param hash value of {@link #hash(String)} for the token
+     * @param nowEpochSeconds current time
+     * @return cached claims, or null when absent, expired or a hash collision
+     */
+    JwtClaims get(final String token, final long hash, final long nowEpochSeconds) {
+        if (!enabled) {
+            return null;
+        }
+        Segment segment = segmentFor(hash);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(hash);
+            if (entry != null && entry.expiresAt <= nowEpochSeconds) {
+                segment.remove(hash);
+                return null;
+            }
+        }
+        if (entry == null || !constantTimeEquals(entry.token, token)) {
+            return null;
+        }
+        return entry.claims;
+    }
+
+    void put(final String token, final long hash, final JwtClaims claims, final long expiresAtEpochSeconds) {
+        if (!enabled) {
+            return;
+        }
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            segment.put(hash, new Entry(token, claims, expiresAtEpochSeconds));
+        }
+    }
+
+    void invalidate(final String token) {
+        long hash = hash(token);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            Entry entry = segment.get(hash);
+            if (entry != null && constantTimeEquals(entry.token, token)) {
+                segment.remove(hash);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * FNV-1a hash of the token characters.
+     * @param token raw token
+     * @return 64-bit hash
+     */
+    static long hash(final String token) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Compare two tokens without leaking the position of the first difference.
+     * @param a first token
+     * @param b second token
+     * @return true when equal
+     */
+    static boolean constantTimeEquals(final String a, final String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < a.length(); i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
+    }
+
+    private Segment segmentFor(final long hash) {
+        return segments[(int) (hash ^ (hash >>> Integer.SIZE)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(String token, JwtClaims claims, long expiresAt) {
+    }
+
+    /**
+     * Access-ordered LRU map guarded by its own monitor.
+     */
+    private static final class Segment extends LinkedHashMap<Long, Entry> {
+
+        private static final long serialVersionUID = 1L;
+        private static final float LOAD_FACTOR = 0.75f;
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, LOAD_FACTOR, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.seminote.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Tag;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final byte[] SECRET = SeminoteSecurityConfig.JWT_SECRET_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-01T18:00:00Z"));
+    private final JwtIssuer issuer = new JwtIssuer(SECRET, clock);
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, 1_000, Duration.ofMinutes(15), clock);
+
+    @Test
+    void verifiesAndCachesValidToken() {
+        String token = issuer.issue("42", Map.of("skill", "beginner"), Duration.ofHours(2));
+
+        JwtClaims claims = verifier.verify(token);
+        assertEquals("42", claims.getSubject());
+        assertEquals("beginner", claims.getString("skill"));
+        assertEquals(1, verifier.cachedTokenCount());
+
+        assertSame(claims, verifier.verify(token), "Second call should be served from the cache");
+        assertEquals(1, verifier.cachedTokenCount());
+    }
+
+    @Test
+    @Tag("piano")
+    void rejectsTamperedSignatureAndPayload() {
+        String token = issuer.issue("42", Duration.ofHours(1));
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String wrongSignature = token.substring(0, signatureStart) + flipped + token.substring(signatureStart + 1);
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(wrongSignature));
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"1\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidTokenException.class,
+                () -> verifier.verify(parts[0] + "." + forgedPayload + "." + parts[2]));
+
+        JwtVerifier otherKey = new JwtVerifier("another-secret-of-at-least-32-bytes!");
+        assertThrows(InvalidTokenException.class, () -> otherKey.verify(token));
+    }
+
+    @Test
+    void rejectsUnsignedAndMalformedTokens() {
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"1\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(none + "." + payload + "."));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify("not-a-token"));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify("a.b.c"));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(""));
+    }
+
+    @Test
+    void cachedTokenStillExpires() {
+        String token = issuer.issue("42", Duration.ofMinutes(5));
+        verifier.verify(token);
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void revocationAppliesToCachedTokens() {
+        String token = issuer.issue("42", Duration.ofHours(1));
+        String other = issuer.issue("7", Duration.ofHours(1));
+        JwtClaims claims = verifier.verify(token);
+        verifier.verify(other);
+
+        verifier.revokeTokenId(claims.getTokenId(), Instant.ofEpochSecond(claims.getExpiresAt()));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token));
+        assertNotNull(verifier.verify(other));
+
+        clock.advance(Duration.ofSeconds(10));
+        verifier.revokeSubject("7", clock.instant());
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(other));
+        assertNotNull(verifier.verify(issuer.issue("7", Duration.ofHours(1))));
+
+        clock.advance(Duration.ofHours(SeminoteSecurityConfig.JWT_EXPIRATION_HOURS + 1));
+        assertEquals(2, verifier.revocationCount());
+        verifier.purgeExpiredRevocations();
+        assertEquals(0, verifier.revocationCount(), "Expired revocations should be forgotten");
+    }
+
+    @Test
+    void secretConstructorsRejectWeakSecrets() {
+        assertThrows(IllegalStateException.class, () -> new JwtVerifier("short"));
+        assertThrows(IllegalStateException.class, () -> new JwtIssuer(SeminoteSecurityConfig.JWT_SECRET_KEY));
+        assertThrows(IllegalStateException.class, () -> new JwtIssuer(""));
+    }
+
+    @Test
+    void constantTimeCompare() {
+        assertTrue(TokenCache.constantTimeEquals("abc.def.ghi", "abc.def.ghi"));
+        assertFalse(TokenCache.constantTimeEquals("abc.def.ghi", "abc.def.ghj"));
+        assertFalse(TokenCache.constantTimeEquals("abc", "abcd"));
+    }
+
+    /**
+     * Clock that tests can move forward.
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
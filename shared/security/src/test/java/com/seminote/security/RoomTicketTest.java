@@ -0,0 +1,48 @@
+package com.seminote.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomTicketTest {
+
+    private static final byte[] SECRET = "a-private-secret-of-at-least-32-bytes".getBytes(StandardCharsets.UTF_8);
+    private static final Instant NOW = Instant.parse("2025-06-01T18:00:00Z");
+
+    private final RoomTicket tickets = new RoomTicket(SECRET, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void acceptsOnlyTheRoomUserAndRoleItWasIssuedFor() {
+        String ticket = tickets.issue("lesson-42", "7", "teacher", Duration.ofMinutes(5));
+
+        assertTrue(tickets.verify(ticket, "lesson-42", "7", "teacher"));
+        assertFalse(tickets.verify(ticket, "lesson-43", "7", "teacher"));
+        assertFalse(tickets.verify(ticket, "lesson-42", "8", "teacher"));
+        assertFalse(tickets.verify(ticket, "lesson-42", "7", "student"));
+    }
+
+    @Test
+    void rejectsExpiredForgedAndMalformedTickets() {
+        String ticket = tickets.issue("lesson-42", "7", "student", Duration.ofMinutes(5));
+        RoomTicket later = new RoomTicket(SECRET, Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+        RoomTicket otherSecret = new RoomTicket("another-secret-of-at-least-32-bytes!".getBytes(StandardCharsets.UTF_8),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        String extended = (Long.parseLong(ticket.substring(0, ticket.indexOf('.'))) + 3600)
+                + ticket.substring(ticket.indexOf('.'));
+
+        assertFalse(later.verify(ticket, "lesson-42", "7", "student"));
+        assertFalse(otherSecret.verify(ticket, "lesson-42", "7", "student"));
+        assertFalse(tickets.verify(extended, "lesson-42", "7", "student"));
+        assertFalse(tickets.verify(null, "lesson-42", "7", "student"));
+        assertFalse(tickets.verify("garbage", "lesson-42", "7", "student"));
+        assertFalse(tickets.verify("x.y", "lesson-42", "7", "student"));
+        assertThrows(IllegalArgumentException.class,
+                () -> tickets.issue("lesson\n42", "7", "student", Duration.ofMinutes(5)));
+    }
+}
@@ -17,4 +17,15 @@ class SeminoteSecurityConfigTest {
         assertNotNull(SeminoteSecurityConfig.JWT_SECRET_KEY);
         assertTrue(SeminoteSecurityConfig.JWT_EXPIRATION_HOURS > 0);
     }
+
+    @Test
+    void jwtSecretMustBeConfigured() {
+        assertThrows(IllegalStateException.class, () -> SeminoteSecurityConfig.requireJwtSecret(null));
+        assertThrows(IllegalStateException.class, () -> SeminoteSecurityConfig.requireJwtSecret(" "));
+        assertThrows(IllegalStateException.class,
+                () -> SeminoteSecurityConfig.requireJwtSecret(SeminoteSecurityConfig.JWT_SECRET_KEY));
+        assertThrows(IllegalStateException.class, () -> SeminoteSecurityConfig.requireJwtSecret("too-short"));
+        String secret = "k".repeat(SeminoteSecurityConfig.JWT_SECRET_MIN_BYTES);
+        assertEquals(secret.length(), SeminoteSecurityConfig.requireJwtSecret(secret).length);
+    }
 }
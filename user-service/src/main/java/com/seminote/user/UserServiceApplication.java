@@ -1,10 +1,15 @@
 package com.seminote.user;
 
+import com.seminote.user.profile.UserProfileService;
+import com.seminote.user.profile.UserStats;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+import java.util.StringJoiner;
+
 /**
  * Seminote User Service Application
  *
@@ -41,6 +46,16 @@ public final class UserServiceApplication {
     @RestController
     public static class UserController {
 
+        private final UserProfileService profiles;
+
+        /**
+         * Create the controller.
+         * @param profiles profile service holding the user counters
+         */
+        public UserController(final UserProfileService profiles) {
+            this.profiles = profiles;
+        }
+
         /**
          * Health check endpoint for the User Service.
          * @return Health status message
@@ -61,13 +76,23 @@ public final class UserServiceApplication {
         }
 
         /**
-         * Piano learner statistics endpoint.
+         * Piano learner statistics endpoint, served from in-memory counters.
          * @return Current platform statistics
          */
         @GetMapping("/users/stats")
         public String userStats() {
-            return "📊 Piano Learners: 0 registered | Skill Levels: Beginner to Advanced | "
-                    + "Practice Sessions: 0 completed";
+            UserStats stats = profiles.stats();
+            return "📊 Piano Learners: " + stats.registered() + " registered | Skill Levels: "
+                    + format(stats.bySkillLevel()) + " | Instruments: " + format(stats.byInstrument());
+        }
+
+        private static String format(final Map<String, Long> counts) {
+            if (counts.isEmpty()) {
+                return "none yet";
+            }
+            StringJoiner joined = new StringJoiner(", ");
+            counts.forEach((name, count) -> joined.add(name + " " + count));
+            return joined.toString();
         }
     }
 }
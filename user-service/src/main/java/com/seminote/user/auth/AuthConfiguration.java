@@ -0,0 +1,89 @@
+package com.seminote.user.auth;
+
+import com.seminote.security.JwtIssuer;
+import com.seminote.security.RoomTicket;
+import com.seminote.security.SeminoteSecurityConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+/**
+ * Wires password logins, the hashing pool and signaling room tickets.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AuthProperties.class)
+public class AuthConfiguration {
+
+    /**
+     * Credential store.
+     * @param jdbcTemplate template over the user datasource
+     * @return store
+     */
+    @Bean
+    public CredentialStore credentialStore(final JdbcTemplate jdbcTemplate) {
+        return new JdbcCredentialStore(jdbcTemplate);
+    }
+
+    /**
+     * Password hashing pool, shut down with the context.
+     * @param properties pool settings
+     * @param registry metrics registry
+     * @return hasher
+     */
+    @Bean
+    public PasswordHasher passwordHasher(final AuthProperties properties, final MeterRegistry registry) {
+        return new PasswordHasher(properties, registry);
+    }
+
+    /**
+     * Issuer of the tokens the gateway verifies. Startup fails unless
+     * {@code seminote.security.jwt.secret} is set to a private value.
+     * @param secret HMAC secret shared with the gateway
+     * @return issuer
+     */
+    @Bean
+    public JwtIssuer jwtIssuer(@Value("${seminote.security.jwt.secret:}") final String secret) {
+        return new JwtIssuer(SeminoteSecurityConfig.requireJwtSecret(secret), Clock.systemUTC());
+    }
+
+    /**
+     * Issuer of the room tickets the gateway checks when a user joins a signaling room.
+     * @param secret HMAC secret shared with the gateway
+     * @return room tickets
+     */
+    @Bean
+    public RoomTicket roomTicket(@Value("${seminote.security.jwt.secret:}") final String secret) {
+        return new RoomTicket(SeminoteSecurityConfig.requireJwtSecret(secret), Clock.systemUTC());
+    }
+
+    /**
+     * Room member store.
+     * @param jdbcTemplate template over the user datasource
+     * @return store
+     */
+    @Bean
+    public RoomMemberStore roomMemberStore(final JdbcTemplate jdbcTemplate) {
+        return new JdbcRoomMemberStore(jdbcTemplate);
+    }
+
+    /**
+     * Authentication service.
+     * @param store credential store
+     * @param hasher hashing pool
+     * @param issuer token issuer
+     * @param properties login settings
+     * @param registry metrics registry
+     * @return service
+     */
+    @Bean
+    public AuthenticationService authenticationService(final CredentialStore store, final PasswordHasher hasher,
+                                                       final JwtIssuer issuer, final AuthProperties properties,
+                                                       final MeterRegistry registry) {
+        return new AuthenticationService(store, hasher, issuer, properties, registry);
+    }
+}
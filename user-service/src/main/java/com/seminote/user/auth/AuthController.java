@@ -0,0 +1,70 @@
+package com.seminote.user.auth;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Login API.
+ *
+ * When the password hashing pool is saturated a login is answered with 429
+ * and {@code Retry-After} right away, so a login storm cannot hold request
+ * threads or slow down the other user endpoints. Mounted under the users
+ * path so the gateway's user-service route covers it.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+public class AuthController {
+
+    static final int MAX_PASSWORD_BYTES = 72;
+    private static final int MAX_USERNAME_LENGTH = 100;
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AuthenticationService service;
+
+    /**
+     * Create the controller.
+     * @param service authentication service
+     */
+    public AuthController(final AuthenticationService service) {
+        this.service = service;
+    }
+
+    /**
+     * Log in with username and password.
+     * @param request credentials
+     * @return 200 with an access token, 401 for wrong credentials, or 429 when hashing is saturated
+     */
+    @PostMapping("/login")
+    public ResponseEntity<LoginView> login(@RequestBody final LoginRequest request) {
+        if (request.username() == null || request.username().isBlank()
+                || request.username().length() > MAX_USERNAME_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "username must be 1 to " + MAX_USERNAME_LENGTH + " characters");
+        }
+        // Bcrypt only reads the first 72 bytes; longer input is refused rather than silently truncated
+        if (request.password() == null || request.password().isEmpty()
+                || request.password().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "password must be 1 to " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        try {
+            LoginView login = service.login(request.username(), request.password());
+            if (login == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+            }
+            return ResponseEntity.ok(login);
+        } catch (HashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+    }
+}
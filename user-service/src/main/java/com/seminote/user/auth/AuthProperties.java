@@ -0,0 +1,93 @@
+package com.seminote.user.auth;
+
+import com.seminote.security.SeminoteSecurityConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for password verification and issued tokens.
+ */
+@ConfigurationProperties(prefix = "seminote.users.auth")
+public class AuthProperties {
+
+    private static final int DEFAULT_BCRYPT_STRENGTH = 12;
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final long DEFAULT_MAX_QUEUE_WAIT_MILLIS = 1_000;
+    private static final long DEFAULT_ROOM_TICKET_TTL_MINUTES = 5;
+
+    private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private Duration maxQueueWait = Duration.ofMillis(DEFAULT_MAX_QUEUE_WAIT_MILLIS);
+    private int bcryptStrength = DEFAULT_BCRYPT_STRENGTH;
+    private Duration tokenTtl = Duration.ofHours(SeminoteSecurityConfig.JWT_EXPIRATION_HOURS);
+    private Duration roomTicketTtl = Duration.ofMinutes(DEFAULT_ROOM_TICKET_TTL_MINUTES);
+
+    /**
+     * Threads verifying passwords; bounds the cores hashing can take from every other request.
+     * @return thread count
+     */
+    public int getHashingThreads() {
+        return hashingThreads;
+    }
+
+    public void setHashingThreads(final int hashingThreads) {
+        this.hashingThreads = hashingThreads;
+    }
+
+    /**
+     * Verifications waiting for a thread before new logins are rejected with 429.
+     * @return queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Longest a queued verification may wait; older ones are rejected instead of run for a client that gave up.
+     * @return maximum queue wait
+     */
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(final Duration maxQueueWait) {
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    /**
+     * Bcrypt cost of new hashes; weaker stored hashes are rehashed on the next successful login.
+     * @return log2 rounds
+     */
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public void setBcryptStrength(final int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+
+    public void setTokenTtl(final Duration tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+
+    /**
+     * How long a room ticket can be used to join; members ask for a fresh one each time they join.
+     * @return ticket lifetime
+     */
+    public Duration getRoomTicketTtl() {
+        return roomTicketTtl;
+    }
+
+    public void setRoomTicketTtl(final Duration roomTicketTtl) {
+        this.roomTicketTtl = roomTicketTtl;
+    }
+}
@@ -0,0 +1,136 @@
+package com.seminote.user.auth;
+
+import com.seminote.security.JwtIssuer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Password logins.
+ *
+ * The credential lookup runs on the request thread; the bcrypt comparison is
+ * handed to {@link PasswordHasher} and the request thread waits for it. An
+ * unknown username, or a stored value that is not a bcrypt hash, is verified
+ * against a dummy hash at the cost most stored hashes use, read on startup,
+ * so it costs the same time and pool capacity as a wrong password and does
+ * not reveal which usernames exist. A hash weaker than the configured cost is
+ * replaced after a successful login; failing to store it does not fail the
+ * login.
+ */
+public class AuthenticationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationService.class);
+    private static final String DUMMY_PASSWORD = "seminote-dummy-password";
+
+    private final CredentialStore store;
+    private final PasswordHasher hasher;
+    private final JwtIssuer issuer;
+    private final Duration tokenTtl;
+    private final String dummyHash;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter upgraded;
+
+    /**
+     * Create the service.
+     * @param store credentials
+     * @param hasher password verification pool
+     * @param issuer issuer of access tokens
+     * @param properties token lifetime
+     * @param registry registry for login metrics
+     */
+    public AuthenticationService(final CredentialStore store, final PasswordHasher hasher, final JwtIssuer issuer,
+                                 final AuthProperties properties, final MeterRegistry registry) {
+        this.store = store;
+        this.hasher = hasher;
+        this.issuer = issuer;
+        this.tokenTtl = properties.getTokenTtl();
+        this.dummyHash = dummyHash(store, hasher);
+        this.succeeded = loginCounter(registry, "success");
+        this.failed = loginCounter(registry, "failure");
+        this.rejected = loginCounter(registry, "rejected");
+        this.upgraded = Counter.builder("seminote.users.auth.upgrades")
+                .description("Password hashes rehashed at the configured cost").register(registry);
+    }
+
+    /**
+     * Verify a password and issue an access token.
+     * @param username username
+     * @param password password
+     * @return token for the user, or null if the username or password is wrong
+     * @throws HashingRejectedException if the password cannot be verified now
+     */
+    public LoginView login(final String username, final String password) {
+        Credentials credentials = store.find(username);
+        boolean verifiable = credentials != null && PasswordHasher.cost(credentials.passwordHash()) > 0;
+        PasswordHasher.Verification verification;
+        try {
+            verification = hasher.verify(password, verifiable ? credentials.passwordHash() : dummyHash).join();
+        } catch (HashingRejectedException e) {
+            rejected.increment();
+            throw e;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof HashingRejectedException cause) {
+                rejected.increment();
+                throw cause;
+            }
+            throw e;
+        }
+        if (!verifiable || !verification.matches()) {
+            failed.increment();
+            return null;
+        }
+        if (verification.upgradedHash() != null) {
+            upgrade(credentials, verification.upgradedHash());
+        }
+        succeeded.increment();
+        String token = issuer.issue(String.valueOf(credentials.userId()),
+                Map.of("username", credentials.username()), tokenTtl);
+        return new LoginView(credentials.userId(), token, tokenTtl.toSeconds());
+    }
+
+    /**
+     * Cost unknown usernames are verified at.
+     * @return bcrypt cost of the dummy hash
+     */
+    int dummyCost() {
+        return PasswordHasher.cost(dummyHash);
+    }
+
+    /**
+     * Without a stored cost to follow, or if it cannot be read, the dummy uses the configured cost.
+     */
+    private static String dummyHash(final CredentialStore store, final PasswordHasher hasher) {
+        Integer cost;
+        try {
+            cost = store.commonHashCost();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not read the cost of stored password hashes: {}", e.toString());
+            cost = null;
+        }
+        return cost != null ? hasher.hash(DUMMY_PASSWORD, cost) : hasher.hash(DUMMY_PASSWORD);
+    }
+
+    private void upgrade(final Credentials credentials, final String upgradedHash) {
+        try {
+            if (store.replaceHash(credentials.userId(), credentials.passwordHash(), upgradedHash)) {
+                upgraded.increment();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not store the upgraded hash of user {}: {}", credentials.userId(), e.toString());
+        }
+    }
+
+    private static Counter loginCounter(final MeterRegistry registry, final String outcome) {
+        return Counter.builder("seminote.users.auth.logins")
+                .description("Password logins by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
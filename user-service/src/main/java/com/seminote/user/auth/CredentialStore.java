@@ -0,0 +1,29 @@
+package com.seminote.user.auth;
+
+/**
+ * Durable login credentials.
+ */
+public interface CredentialStore {
+
+    /**
+     * Look up credentials by username.
+     * @param username username
+     * @return credentials, or null if there is no such user
+     */
+    Credentials find(String username);
+
+    /**
+     * Replace a password hash, unless it was changed since it was read.
+     * @param userId user id
+     * @param previousHash hash the replacement was computed against
+     * @param newHash replacement hash
+     * @return whether the hash was replaced
+     */
+    boolean replaceHash(long userId, String previousHash, String newHash);
+
+    /**
+     * The bcrypt cost most stored hashes were computed at.
+     * @return cost, or null if no bcrypt hashes are stored
+     */
+    Integer commonHashCost();
+}
@@ -0,0 +1,11 @@
+package com.seminote.user.auth;
+
+/**
+ * Stored login credentials of a user.
+ *
+ * @param userId user id
+ * @param username username
+ * @param passwordHash bcrypt hash of the password
+ */
+public record Credentials(long userId, String username, String passwordHash) {
+}
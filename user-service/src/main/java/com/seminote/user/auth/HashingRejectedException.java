@@ -0,0 +1,15 @@
+package com.seminote.user.auth;
+
+/**
+ * Thrown when a password cannot be verified now because the hashing executor is saturated.
+ */
+public class HashingRejectedException extends RuntimeException {
+
+    /**
+     * Create the exception.
+     * @param message why the verification was rejected
+     */
+    public HashingRejectedException(final String message) {
+        super(message);
+    }
+}
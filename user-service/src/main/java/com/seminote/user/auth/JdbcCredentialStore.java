@@ -0,0 +1,49 @@
+package com.seminote.user.auth;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Credentials in the {@code users} table.
+ *
+ * Hash upgrades only match the hash they were computed from, so a password
+ * changed while a login was rehashing the old one is never overwritten.
+ */
+public class JdbcCredentialStore implements CredentialStore {
+
+    private static final String FIND_SQL = "SELECT id, username, password_hash FROM users WHERE username = ?";
+    private static final String REPLACE_HASH_SQL = "UPDATE users SET password_hash = ?, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND password_hash = ?";
+    private static final String COMMON_COST_SQL = "SELECT substring(password_hash from 5 for 2)::int AS cost "
+            + "FROM users WHERE password_hash ~ '" + PasswordHasher.BCRYPT_PATTERN + "' "
+            + "GROUP BY cost ORDER BY count(*) DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the user datasource
+     */
+    public JdbcCredentialStore(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Credentials find(final String username) {
+        List<Credentials> found = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new Credentials(rs.getLong(1),
+                rs.getString(2), rs.getString(3)), username);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public boolean replaceHash(final long userId, final String previousHash, final String newHash) {
+        return jdbcTemplate.update(REPLACE_HASH_SQL, newHash, userId, previousHash) == 1;
+    }
+
+    @Override
+    public Integer commonHashCost() {
+        List<Integer> costs = jdbcTemplate.queryForList(COMMON_COST_SQL, Integer.class);
+        return costs.isEmpty() ? null : costs.get(0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.seminote.user.auth;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Room members in the {@code room_members} table.
+ *
+ * A partial unique index allows one teacher per room, so two users opening
+ * the same room concurrently cannot both become its teacher.
+ */
+public class JdbcRoomMemberStore implements RoomMemberStore {
+
+    private static final String ROLE_SQL = "SELECT role FROM room_members WHERE room = ? AND user_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO room_members (room, user_id, role) VALUES (?, ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the user datasource
+     */
+    public JdbcRoomMemberStore(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String role(final String room, final long userId) {
+        List<String> roles = jdbcTemplate.queryForList(ROLE_SQL, String.class, room, userId);
+        return roles.isEmpty() ? null : roles.get(0);
+    }
+
+    @Override
+    public boolean open(final String room, final long teacherId) {
+        jdbcTemplate.update(INSERT_SQL, room, teacherId, TEACHER);
+        return TEACHER.equals(role(room, teacherId));
+    }
+
+    @Override
+    public boolean addStudent(final String room, final long studentId) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, room, studentId, STUDENT);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // The user id does not reference a user
+            return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.seminote.user.auth;
+
+/**
+ * Login credentials.
+ *
+ * @param username username
+ * @param password password
+ */
+public record LoginRequest(String username, String password) {
+}
@@ -0,0 +1,11 @@
+package com.seminote.user.auth;
+
+/**
+ * Successful login.
+ *
+ * @param userId user id
+ * @param accessToken signed JWT for the gateway
+ * @param expiresIn token lifetime in seconds
+ */
+public record LoginView(long userId, String accessToken, long expiresIn) {
+}
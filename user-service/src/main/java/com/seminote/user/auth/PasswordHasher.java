@@ -0,0 +1,169 @@
+package com.seminote.user.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies bcrypt passwords on a small dedicated pool.
+ *
+ * Request threads only enqueue: the pool has a fixed number of platform
+ * threads and a bounded queue, so a login storm can take at most those cores
+ * and queue slots, and everything beyond is rejected at once instead of
+ * piling up. A verification that waited longer than the maximum queue wait
+ * is dropped unrun, since its client has most likely given up. A stored hash
+ * weaker than the configured cost is rehashed in the same task after a
+ * successful match.
+ */
+public class PasswordHasher implements AutoCloseable {
+
+    /** Well-formed bcrypt hash with a two digit cost at offset 4, usable in Java and Postgres regexes. */
+    static final String BCRYPT_PATTERN = "^\\$2[aby]\\$[0-9]{2}\\$[./0-9A-Za-z]{53}$";
+
+    private static final Pattern BCRYPT = Pattern.compile(BCRYPT_PATTERN);
+    private static final int COST_OFFSET = 4;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter queueFull;
+    private final Counter expired;
+
+    /**
+     * Create a hasher and start its threads.
+     * @param properties pool size, queue and bcrypt cost
+     * @param registry registry for hashing latency, queue depth and rejection metrics
+     */
+    public PasswordHasher(final AuthProperties properties, final MeterRegistry registry) {
+        this.encoder = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        this.maxQueueWaitNanos = properties.getMaxQueueWait().toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getHashingThreads(), properties.getHashingThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.hashTimer = Timer.builder("seminote.users.auth.hashing")
+                .description("CPU time of one password verification, including a rehash")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.waitTimer = Timer.builder("seminote.users.auth.hashing.wait")
+                .description("Time a verification waited for a hashing thread")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.queueFull = rejected(registry, "queue_full");
+        this.expired = rejected(registry, "expired");
+        Gauge.builder("seminote.users.auth.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Verifications waiting for a hashing thread").register(registry);
+        Gauge.builder("seminote.users.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verifications being hashed").register(registry);
+    }
+
+    /**
+     * Hash a password at the configured cost, on the calling thread.
+     * @param rawPassword password
+     * @return bcrypt hash
+     */
+    public String hash(final String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    /**
+     * Hash a password at a given cost, on the calling thread.
+     * @param rawPassword password
+     * @param cost bcrypt cost
+     * @return bcrypt hash
+     */
+    public String hash(final String rawPassword, final int cost) {
+        return new BCryptPasswordEncoder(cost).encode(rawPassword);
+    }
+
+    /**
+     * Cost of a stored hash.
+     * @param hash stored hash
+     * @return bcrypt cost, or -1 if the hash is not a well-formed bcrypt hash
+     */
+    static int cost(final String hash) {
+        if (hash == null || !BCRYPT.matcher(hash).matches()) {
+            return -1;
+        }
+        return Integer.parseInt(hash.substring(COST_OFFSET, COST_OFFSET + 2));
+    }
+
+    /**
+     * Verify a password against a stored hash.
+     * @param rawPassword password given by the client
+     * @param storedHash stored bcrypt hash
+     * @return verification, failing with {@link HashingRejectedException} if it waited too long
+     * @throws HashingRejectedException if the queue is full
+     */
+    public CompletableFuture<Verification> verify(final String rawPassword, final String storedHash) {
+        long enqueued = System.nanoTime();
+        CompletableFuture<Verification> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueued;
+                waitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    expired.increment();
+                    result.completeExceptionally(new HashingRejectedException("Verification expired in the queue"));
+                    return;
+                }
+                try {
+                    result.complete(hashTimer.record(() -> match(rawPassword, storedHash)));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw new HashingRejectedException("Password hashing queue is full");
+        }
+        return result;
+    }
+
+    private Verification match(final String rawPassword, final String storedHash) {
+        if (!encoder.matches(rawPassword, storedHash)) {
+            return Verification.FAILED;
+        }
+        String upgraded = encoder.upgradeEncoding(storedHash) ? encoder.encode(rawPassword) : null;
+        return new Verification(true, upgraded);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static Counter rejected(final MeterRegistry registry, final String reason) {
+        return Counter.builder("seminote.users.auth.hashing.rejected")
+                .description("Verifications rejected because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Outcome of a verification.
+     *
+     * @param matches whether the password matched
+     * @param upgradedHash hash of the password at the configured cost if the stored one was weaker, else null
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+
+        static final Verification FAILED = new Verification(false, null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.seminote.user.auth;
+
+import com.seminote.common.users.GatewayUser;
+import com.seminote.security.RoomTicket;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Signaling room membership and tickets.
+ *
+ * The user who opens a room is its teacher and adds the students. Members
+ * get a {@link RoomTicket} for the role they hold, which the gateway requires
+ * to join the room; the ticket names the caller from the gateway's
+ * {@link GatewayUser#USER_ID_HEADER}, so it is useless to anyone else.
+ */
+@RestController
+@RequestMapping("/api/v1/users/rooms")
+public class RoomController {
+
+    private static final Pattern ROOM_ID = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private final RoomMemberStore store;
+    private final RoomTicket tickets;
+    private final Duration ticketTtl;
+
+    /**
+     * Create the controller.
+     * @param store room members
+     * @param tickets ticket issuer, keyed with the secret the gateway verifies with
+     * @param properties auth settings, for the ticket lifetime
+     */
+    public RoomController(final RoomMemberStore store, final RoomTicket tickets, final AuthProperties properties) {
+        this.store = store;
+        this.tickets = tickets;
+        this.ticketTtl = properties.getRoomTicketTtl();
+    }
+
+    /**
+     * Open a room with the caller as its teacher.
+     * @param callerId user id forwarded by the gateway
+     * @param room room id
+     * @return 204, or 409 if the room belongs to someone else
+     */
+    @PutMapping("/{room}")
+    public ResponseEntity<Void> open(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final String room) {
+        long teacherId = GatewayUser.require(callerId);
+        if (!store.open(roomId(room), teacherId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Room is held by another user");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Add a student to a room the caller teaches.
+     * @param callerId user id forwarded by the gateway
+     * @param room room id
+     * @param userId student to add
+     * @return 204, 403 if the caller is not the room's teacher, or 404 if there is no such user
+     */
+    @PutMapping("/{room}/members/{userId}")
+    public ResponseEntity<Void> addStudent(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final String room,
+            @PathVariable final long userId) {
+        long teacherId = GatewayUser.require(callerId);
+        if (!RoomMemberStore.TEACHER.equals(store.role(roomId(room), teacherId))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the room's teacher can add students");
+        }
+        if (userId <= 0 || !store.addStudent(room, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Issue the caller a ticket to join a room in their role.
+     * @param callerId user id forwarded by the gateway
+     * @param room room id
+     * @return ticket, or 403 if the caller is not a member of the room
+     */
+    @PostMapping("/{room}/ticket")
+    public RoomTicketView ticket(
+            @RequestHeader(value = GatewayUser.USER_ID_HEADER, required = false) final String callerId,
+            @PathVariable final String room) {
+        long userId = GatewayUser.require(callerId);
+        String role = store.role(roomId(room), userId);
+        if (role == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a member of this room");
+        }
+        return new RoomTicketView(room, role, tickets.issue(room, String.valueOf(userId), role, ticketTtl),
+                ticketTtl.toSeconds());
+    }
+
+    private static String roomId(final String room) {
+        if (room == null || !ROOM_ID.matcher(room).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "room must be 1 to 128 letters, digits or . _ : -");
+        }
+        return room;
+    }
+}
@@ -0,0 +1,37 @@
+package com.seminote.user.auth;
+
+/**
+ * Who may join a signaling room, and in which role.
+ */
+public interface RoomMemberStore {
+
+    /** Role of the user who opened a room. */
+    String TEACHER = "teacher";
+
+    /** Role of a user the teacher added. */
+    String STUDENT = "student";
+
+    /**
+     * Role of a user in a room.
+     * @param room room id
+     * @param userId user id
+     * @return {@link #TEACHER}, {@link #STUDENT}, or null if the user is not a member
+     */
+    String role(String room, long userId);
+
+    /**
+     * Open a room with the user as its teacher; reopening one's own room is a no-op.
+     * @param room room id
+     * @param teacherId user opening the room
+     * @return whether the user is the room's teacher, false if another teacher or a student holds it
+     */
+    boolean open(String room, long teacherId);
+
+    /**
+     * Add a student to a room; a user who is already a member keeps their role.
+     * @param room room id
+     * @param studentId user to add
+     * @return whether the user exists
+     */
+    boolean addStudent(String room, long studentId);
+}
@@ -0,0 +1,12 @@
+package com.seminote.user.auth;
+
+/**
+ * Ticket to join a signaling room at the gateway.
+ *
+ * @param room room id
+ * @param role role the ticket admits the user in
+ * @param ticket signed ticket for the join message
+ * @param expiresIn ticket lifetime in seconds
+ */
+public record RoomTicketView(String room, String role, String ticket, long expiresIn) {
+}
@@ -0,0 +1,61 @@
+package com.seminote.user.profile;
+
+import com.seminote.common.users.UserSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Profiles in the {@code users} table.
+ *
+ * A batch of ids is bound as one array and matched with {@code = ANY}, so a
+ * multi-get is a single primary key lookup however many ids it carries.
+ * Statistics are one grouped scan, run on the refresh interval, never per
+ * request.
+ */
+public class JdbcUserProfileStore implements UserProfileStore {
+
+    private static final String FIND_ALL_SQL = "SELECT id, username, instrument_preference, skill_level FROM users "
+            + "WHERE id = ANY(?)";
+    private static final String STATS_SQL = "SELECT skill_level, instrument_preference, count(*) FROM users "
+            + "GROUP BY skill_level, instrument_preference";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create a store.
+     * @param jdbcTemplate template over the user datasource
+     */
+    public JdbcUserProfileStore(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, UserSummary> findAll(final Collection<Long> userIds) {
+        // Ids are SERIAL, anything outside the integer range cannot exist
+        Integer[] ids = userIds.stream().filter(id -> id > 0 && id <= Integer.MAX_VALUE).map(Math::toIntExact)
+                .toArray(Integer[]::new);
+        Map<Long, UserSummary> profiles = new HashMap<>();
+        if (ids.length == 0) {
+            return profiles;
+        }
+        jdbcTemplate.query(FIND_ALL_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids)),
+                rs -> {
+                    UserSummary profile = new UserSummary(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4));
+                    profiles.put(profile.id(), profile);
+                });
+        return profiles;
+    }
+
+    @Override
+    public UserStats stats() {
+        UserStats.Builder stats = UserStats.builder();
+        RowCallbackHandler collect = rs -> stats.add(rs.getString(1), rs.getString(2), rs.getLong(3));
+        jdbcTemplate.query(STATS_SQL, collect);
+        return stats.build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.seminote.user.profile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Wires cached profile lookups and user statistics.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(UserProfileProperties.class)
+public class UserProfileConfiguration {
+
+    /**
+     * Profile store.
+     * @param jdbcTemplate template over the user datasource
+     * @return store
+     */
+    @Bean
+    public UserProfileStore userProfileStore(final JdbcTemplate jdbcTemplate) {
+        return new JdbcUserProfileStore(jdbcTemplate);
+    }
+
+    /**
+     * Profile service.
+     * @param store profile store
+     * @param properties cache settings
+     * @param registry metrics registry
+     * @return service
+     */
+    @Bean
+    public UserProfileService userProfileService(final UserProfileStore store,
+                                                 final UserProfileProperties properties,
+                                                 final MeterRegistry registry) {
+        return new UserProfileService(store, properties, registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.seminote.user.profile;
+
+import com.seminote.common.users.UserProfileClient;
+import com.seminote.common.users.UserSummary;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * User profile read API.
+ *
+ * Other services resolve many users per call through the multi-get, which
+ * {@link UserProfileClient} batches lookups into; every read is served from
+ * the profile cache.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserProfileController {
+
+    static final int MAX_IDS = UserProfileClient.MAX_IDS_PER_CALL;
+
+    private final UserProfileService service;
+
+    /**
+     * Create the controller.
+     * @param service profile service
+     */
+    public UserProfileController(final UserProfileService service) {
+        this.service = service;
+    }
+
+    /**
+     * Several profiles by id.
+     * @param ids comma-separated user ids, duplicates ignored
+     * @return profiles found and ids without a user
+     */
+    @GetMapping
+    public UsersView users(@RequestParam final List<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        if (unique.isEmpty() || unique.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must list 1 to " + MAX_IDS + " ids");
+        }
+        Map<Long, UserSummary> found = service.findAll(unique);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : unique) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        return new UsersView(List.copyOf(found.values()), missing);
+    }
+
+    /**
+     * One profile.
+     * @param userId user id
+     * @return profile
+     */
+    @GetMapping("/{userId}")
+    public UserSummary user(@PathVariable final long userId) {
+        UserSummary user = service.find(userId);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return user;
+    }
+
+    /**
+     * Registered users by skill level and instrument, from the in-memory counters.
+     * @return statistics
+     */
+    @GetMapping("/stats")
+    public UserStats stats() {
+        return service.stats();
+    }
+}
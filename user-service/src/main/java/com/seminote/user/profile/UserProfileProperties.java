@@ -0,0 +1,70 @@
+package com.seminote.user.profile;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for cached profile lookups and user statistics.
+ */
+@ConfigurationProperties(prefix = "seminote.users.profiles")
+public class UserProfileProperties {
+
+    private static final int DEFAULT_CACHE_SIZE = 200_000;
+    private static final long DEFAULT_EXPIRE_AFTER_WRITE_MINUTES = 10;
+    private static final long DEFAULT_MISSING_EXPIRE_AFTER_WRITE_SECONDS = 30;
+    private static final long DEFAULT_STATS_REFRESH_INTERVAL_MINUTES = 5;
+
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private Duration expireAfterWrite = Duration.ofMinutes(DEFAULT_EXPIRE_AFTER_WRITE_MINUTES);
+    private Duration missingExpireAfterWrite = Duration.ofSeconds(DEFAULT_MISSING_EXPIRE_AFTER_WRITE_SECONDS);
+    private Duration statsRefreshInterval = Duration.ofMinutes(DEFAULT_STATS_REFRESH_INTERVAL_MINUTES);
+
+    /**
+     * Maximum cached profiles, including ids cached as missing.
+     * @return cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * How long a cached profile is served before it is reloaded, bounding staleness of changes made elsewhere.
+     * @return time to live
+     */
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(final Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * How long an id is cached as missing, bounding how long a newly registered user stays invisible.
+     * @return time to live of missing ids
+     */
+    public Duration getMissingExpireAfterWrite() {
+        return missingExpireAfterWrite;
+    }
+
+    public void setMissingExpireAfterWrite(final Duration missingExpireAfterWrite) {
+        this.missingExpireAfterWrite = missingExpireAfterWrite;
+    }
+
+    /**
+     * Interval at which the statistics are recounted from the database.
+     * @return refresh interval
+     */
+    public Duration getStatsRefreshInterval() {
+        return statsRefreshInterval;
+    }
+
+    public void setStatsRefreshInterval(final Duration statsRefreshInterval) {
+        this.statsRefreshInterval = statsRefreshInterval;
+    }
+}
@@ -0,0 +1,225 @@
+package com.seminote.user.profile;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.seminote.common.users.UserSummary;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-through profile cache and user statistics.
+ *
+ * Profiles are held in a size-bounded async cache: a lookup that misses
+ * installs a pending entry before loading, so concurrent lookups of the same
+ * id wait for that one load instead of starting their own, and the misses of
+ * a multi-get are loaded together in one query. Ids that do not exist are
+ * cached as missing too, for a much shorter time than profiles, so probing
+ * unknown ids rarely reaches the database while a user registered elsewhere
+ * is found soon after. Loads run on the requesting thread.
+ *
+ * Statistics are recounted from the store on start and on an interval, and
+ * reads are served from the last count without querying the database. Users
+ * are registered and edited outside this service, so the counts trail those
+ * changes by at most the refresh interval.
+ */
+public class UserProfileService implements SmartLifecycle {
+
+    /** Cache name used for the Caffeine metrics. */
+    public static final String CACHE_NAME = "users.profiles";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserProfileService.class);
+
+    private final UserProfileStore store;
+    private final UserProfileProperties properties;
+    private final AsyncLoadingCache<Long, Optional<UserSummary>> profiles;
+    private final AtomicReference<UserStats> stats = new AtomicReference<>(UserStats.empty());
+    private final Timer loadTimer;
+    private final DistributionSummary loadSize;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create the service.
+     * @param store durable profiles
+     * @param properties cache settings
+     * @param registry registry for cache and load metrics
+     */
+    public UserProfileService(final UserProfileStore store, final UserProfileProperties properties,
+                              final MeterRegistry registry) {
+        this.store = store;
+        this.properties = properties;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfter(new ProfileExpiry(properties.getExpireAfterWrite(),
+                        properties.getMissingExpireAfterWrite()))
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync(new ProfileLoader());
+        CaffeineCacheMetrics.monitor(registry, profiles, CACHE_NAME);
+        this.loadTimer = Timer.builder("seminote.users.profiles.load")
+                .description("Time to load a batch of profiles from the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.loadSize = DistributionSummary.builder("seminote.users.profiles.load.size")
+                .description("Profiles requested per database load").register(registry);
+    }
+
+    /**
+     * Look up one profile.
+     * @param userId user id
+     * @return profile, or null if there is no such user
+     */
+    public UserSummary find(final long userId) {
+        return join(profiles.get(userId)).orElse(null);
+    }
+
+    /**
+     * Look up several profiles; all ids not cached are loaded in one query.
+     * @param userIds user ids
+     * @return profiles by id in request order, without ids that do not exist
+     */
+    public Map<Long, UserSummary> findAll(final Collection<Long> userIds) {
+        Map<Long, Optional<UserSummary>> cached = join(profiles.getAll(userIds));
+        Map<Long, UserSummary> found = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            Optional<UserSummary> profile = cached.get(userId);
+            if (profile != null && profile.isPresent()) {
+                found.put(userId, profile.get());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Current user statistics.
+     * @return statistics
+     */
+    public UserStats stats() {
+        return stats.get();
+    }
+
+    /**
+     * Recount the statistics from the store.
+     */
+    public void refreshStats() {
+        stats.set(store.stats());
+    }
+
+    private void refreshStatsQuietly() {
+        try {
+            refreshStats();
+        } catch (RuntimeException e) {
+            LOGGER.warn("User statistics refresh failed, keeping the current counts: {}", e.toString());
+        }
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        refreshStatsQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getStatsRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshStatsQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Keeps profiles for the write TTL and ids cached as missing for the shorter missing TTL.
+     */
+    private static final class ProfileExpiry implements Expiry<Long, Optional<UserSummary>> {
+
+        private final long presentNanos;
+        private final long missingNanos;
+
+        ProfileExpiry(final Duration present, final Duration missing) {
+            this.presentNanos = present.toNanos();
+            this.missingNanos = missing.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(final Long userId, final Optional<UserSummary> profile, final long currentTime) {
+            return profile.isPresent() ? presentNanos : missingNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final Long userId, final Optional<UserSummary> profile, final long currentTime,
+                                      final long currentDuration) {
+            return expireAfterCreate(userId, profile, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final Long userId, final Optional<UserSummary> profile, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private final class ProfileLoader implements CacheLoader<Long, Optional<UserSummary>> {
+
+        @Override
+        public Optional<UserSummary> load(final Long userId) {
+            return loadAll(Set.of(userId)).get(userId);
+        }
+
+        @Override
+        public Map<Long, Optional<UserSummary>> loadAll(final Set<? extends Long> userIds) {
+            loadSize.record(userIds.size());
+            Map<Long, UserSummary> found = loadTimer.record(() -> store.findAll(List.copyOf(userIds)));
+            Map<Long, Optional<UserSummary>> loaded = new HashMap<>();
+            for (Long userId : userIds) {
+                loaded.put(userId, Optional.ofNullable(found.get(userId)));
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.seminote.user.profile;
+
+import com.seminote.common.users.UserSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Durable user profiles behind the cache.
+ */
+public interface UserProfileStore {
+
+    /**
+     * Read several profiles in one query.
+     * @param userIds user ids
+     * @return profiles by id, without ids that do not exist
+     */
+    Map<Long, UserSummary> findAll(Collection<Long> userIds);
+
+    /**
+     * Count all users by skill level and instrument.
+     * @return current statistics
+     */
+    UserStats stats();
+}
@@ -0,0 +1,74 @@
+package com.seminote.user.profile;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registered users by skill level and instrument.
+ *
+ * @param registered registered users
+ * @param bySkillLevel users per skill level
+ * @param byInstrument users per preferred instrument
+ */
+public record UserStats(long registered, Map<String, Long> bySkillLevel, Map<String, Long> byInstrument) {
+
+    /** Key counting users without a skill level or instrument. */
+    public static final String UNSPECIFIED = "unspecified";
+
+    /**
+     * Statistics without users.
+     * @return empty statistics
+     */
+    public static UserStats empty() {
+        return new UserStats(0, Map.of(), Map.of());
+    }
+
+    /**
+     * Start counting users.
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Accumulates counts into statistics.
+     */
+    public static final class Builder {
+
+        private final Map<String, Long> bySkillLevel = new TreeMap<>();
+        private final Map<String, Long> byInstrument = new TreeMap<>();
+        private long registered;
+
+        private Builder() {
+        }
+
+        /**
+         * Count users with one skill level and instrument.
+         * @param skillLevel skill level, null if unspecified
+         * @param instrument preferred instrument, null if unspecified
+         * @param users number of users
+         * @return this builder
+         */
+        public Builder add(final String skillLevel, final String instrument, final long users) {
+            registered += users;
+            count(bySkillLevel, skillLevel, users);
+            count(byInstrument, instrument, users);
+            return this;
+        }
+
+        /**
+         * Statistics counted so far.
+         * @return statistics
+         */
+        public UserStats build() {
+            return new UserStats(registered, Collections.unmodifiableMap(new TreeMap<>(bySkillLevel)),
+                    Collections.unmodifiableMap(new TreeMap<>(byInstrument)));
+        }
+
+        private static void count(final Map<String, Long> counts, final String key, final long users) {
+            counts.merge(key == null ? UNSPECIFIED : key, users, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
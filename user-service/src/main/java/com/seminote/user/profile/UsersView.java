@@ -0,0 +1,14 @@
+package com.seminote.user.profile;
+
+import com.seminote.common.users.UserSummary;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get.
+ *
+ * @param users profiles found, in request order
+ * @param missing requested ids without a user
+ */
+public record UsersView(List<UserSummary> users, List<Long> missing) {
+}
@@ -0,0 +1,117 @@
+package com.seminote.user;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test comparing blocking JDBC calls on a bounded platform-thread pool
+ * (the classic Tomcat model) with one virtual thread per request.
+ *
+ * Both runs share the same connection pool; only the request threads differ.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("load")
+class VirtualThreadJdbcLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadJdbcLoadTest.class);
+    private static final int REQUESTS = 1_000;
+    private static final int PLATFORM_THREADS = 32;
+    private static final int CONNECTIONS = 100;
+    private static final String BLOCKING_QUERY = "SELECT pg_sleep(0.02)";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void createPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        config.setMaximumPoolSize(CONNECTIONS);
+        config.setMinimumIdle(CONNECTIONS);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @AfterAll
+    static void closePool() {
+        dataSource.close();
+    }
+
+    @Test
+    void virtualThreadsRaiseBlockingJdbcConcurrency() throws Exception {
+        // Warm up the pool so both runs start with open connections
+        run(Executors.newVirtualThreadPerTaskExecutor());
+
+        Result platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS));
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor());
+
+        LOGGER.info("Platform threads ({}): {} ms, peak {} concurrent queries",
+                PLATFORM_THREADS, platform.elapsedMillis, platform.peakConcurrency);
+        LOGGER.info("Virtual threads: {} ms, peak {} concurrent queries",
+                virtual.elapsedMillis, virtual.peakConcurrency);
+
+        assertTrue(platform.peakConcurrency <= PLATFORM_THREADS);
+        assertTrue(virtual.peakConcurrency > PLATFORM_THREADS,
+                "Virtual threads should only be limited by the connection pool");
+        assertTrue(virtual.elapsedMillis < platform.elapsedMillis);
+    }
+
+    private static Result run(final ExecutorService executor) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    blockingQuery(inFlight, peak);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Result((System.nanoTime() - start) / 1_000_000, peak.get());
+    }
+
+    private static void blockingQuery(final AtomicInteger inFlight, final AtomicInteger peak) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(BLOCKING_QUERY)) {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                statement.execute();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private record Result(long elapsedMillis, int peakConcurrency) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.seminote.user.auth;
+
+import com.seminote.security.JwtIssuer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthenticationServiceTest {
+
+    private static final String PASSWORD = "c-major-scale";
+    private static final int STRENGTH = 5;
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final List<PasswordHasher> hashers = new ArrayList<>();
+
+    @AfterEach
+    void closeHashers() {
+        hashers.forEach(PasswordHasher::close);
+    }
+
+    private PasswordHasher hasher(final int threads, final int queueCapacity, final Duration maxQueueWait,
+                                  final int strength) {
+        AuthProperties properties = new AuthProperties();
+        properties.setHashingThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxQueueWait(maxQueueWait);
+        properties.setBcryptStrength(strength);
+        PasswordHasher hasher = new PasswordHasher(properties, new SimpleMeterRegistry());
+        hashers.add(hasher);
+        return hasher;
+    }
+
+    private AuthenticationService service() {
+        PasswordHasher hasher = hasher(2, 16, Duration.ofSeconds(5), STRENGTH);
+        return new AuthenticationService(store, hasher, new JwtIssuer("test-secret-of-at-least-32-bytes!!"), new AuthProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void issuesATokenAndUpgradesAWeakerHash() {
+        String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        store.add(new Credentials(7, "clara", weak));
+        AuthenticationService service = service();
+
+        LoginView login = service.login("clara", PASSWORD);
+        assertNotNull(login);
+        assertEquals(7, login.userId());
+        assertEquals(3, login.accessToken().split("\\.").length);
+        String upgraded = store.hashOf("clara");
+        assertNotEquals(weak, upgraded);
+        assertTrue(upgraded.startsWith("$2a$05$"));
+
+        assertNotNull(service.login("clara", PASSWORD));
+        assertEquals(upgraded, store.hashOf("clara"));
+        assertEquals(1, store.replacements);
+    }
+
+    @Test
+    void rejectsWrongPasswordsAndUnknownUsersAlike() {
+        store.add(new Credentials(7, "clara", new BCryptPasswordEncoder(STRENGTH).encode(PASSWORD)));
+        AuthenticationService service = service();
+
+        assertNull(service.login("clara", "wrong"));
+        assertNull(service.login("nobody", PASSWORD));
+        assertEquals(0, store.replacements);
+    }
+
+    @Test
+    void verifiesUnknownUsersAtTheCostOfTheStoredHashes() {
+        store.add(new Credentials(7, "clara", new BCryptPasswordEncoder(4).encode(PASSWORD)));
+        store.add(new Credentials(8, "frederic", new BCryptPasswordEncoder(4).encode(PASSWORD)));
+        store.add(new Credentials(9, "franz", new BCryptPasswordEncoder(STRENGTH).encode(PASSWORD)));
+
+        assertEquals(4, service().dummyCost());
+        store.users.clear();
+        assertEquals(STRENGTH, service().dummyCost());
+    }
+
+    @Test
+    void rejectsStoredValuesThatAreNotBcryptHashes() {
+        store.add(new Credentials(7, "clara", "$2a$10$dummy.hash.for.development"));
+        AuthenticationService service = service();
+
+        assertNull(service.login("clara", PASSWORD));
+        assertNull(service.login("clara", "$2a$10$dummy.hash.for.development"));
+        assertEquals(STRENGTH, service.dummyCost());
+        assertEquals(-1, PasswordHasher.cost("$2a$10$dummy.hash.for.development"));
+    }
+
+    @Test
+    void rejectsVerificationsBeyondTheQueueAtOnce() {
+        PasswordHasher hasher = hasher(1, 1, Duration.ofSeconds(5), 12);
+        String slow = hasher.hash(PASSWORD);
+
+        int accepted = 0;
+        boolean rejected = false;
+        for (int i = 0; i < 3 && !rejected; i++) {
+            try {
+                hasher.verify(PASSWORD, slow);
+                accepted++;
+            } catch (HashingRejectedException e) {
+                rejected = true;
+            }
+        }
+        assertTrue(rejected);
+        assertTrue(accepted <= 2);
+    }
+
+    @Test
+    void dropsVerificationsThatWaitedTooLong() {
+        PasswordHasher hasher = hasher(1, 4, Duration.ofMillis(20), 12);
+        String slow = hasher.hash(PASSWORD);
+
+        CompletableFuture<PasswordHasher.Verification> running = hasher.verify(PASSWORD, slow);
+        CompletableFuture<PasswordHasher.Verification> queued = hasher.verify(PASSWORD, slow);
+        assertTrue(running.join().matches());
+        CompletionException e = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(HashingRejectedException.class, e.getCause());
+    }
+
+    private static final class InMemoryStore implements CredentialStore {
+
+        private final Map<String, Credentials> users = new HashMap<>();
+        private int replacements;
+
+        void add(final Credentials credentials) {
+            users.put(credentials.username(), credentials);
+        }
+
+        String hashOf(final String username) {
+            return users.get(username).passwordHash();
+        }
+
+        @Override
+        public Credentials find(final String username) {
+            return users.get(username);
+        }
+
+        @Override
+        public synchronized boolean replaceHash(final long userId, final String previousHash, final String newHash) {
+            for (Credentials credentials : users.values()) {
+                if (credentials.userId() == userId && credentials.passwordHash().equals(previousHash)) {
+                    users.put(credentials.username(), new Credentials(userId, credentials.username(), newHash));
+                    replacements++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized Integer commonHashCost() {
+            Map<Integer, Integer> costs = new HashMap<>();
+            users.values().forEach(credentials -> costs.merge(PasswordHasher.cost(credentials.passwordHash()), 1,
+                    Integer::sum));
+            costs.remove(-1);
+            return costs.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.seminote.user.auth;
+
+import com.seminote.common.users.UserSummary;
+import com.seminote.security.JwtIssuer;
+import com.seminote.user.profile.UserProfileProperties;
+import com.seminote.user.profile.UserProfileService;
+import com.seminote.user.profile.UserProfileStore;
+import com.seminote.user.profile.UserStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test: profile reads during a login flood.
+ *
+ * Logins and profile reads both run on virtual threads, as requests do in
+ * the service. Far more logins arrive than the hashing pool can verify; the
+ * pool must shed them with rejections while reads keep their latency, since
+ * hashing can only take the pool's threads away from the carriers.
+ */
+@Tag("load")
+class LoginFloodLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginFloodLoadTest.class);
+    private static final String PASSWORD = "moonlight-sonata";
+    private static final int USERS = 10_000;
+    private static final int LOGIN_CLIENTS = 500;
+    private static final int READERS = 50;
+    private static final int READS_PER_READER = 400;
+    private static final long MAX_READ_P99_MILLIS = 25;
+    private static final long FLOOD_RAMP_MILLIS = 500;
+
+    @Test
+    void profileReadsStayFastDuringALoginFlood() throws Exception {
+        AuthProperties properties = new AuthProperties();
+        properties.setBcryptStrength(10);
+        PasswordHasher hasher = new PasswordHasher(properties, new SimpleMeterRegistry());
+        String hash = hasher.hash(PASSWORD);
+        AuthenticationService auth = new AuthenticationService(new SharedPassword(hash), hasher,
+                new JwtIssuer("load-test-secret-of-at-least-32-bytes"), properties, new SimpleMeterRegistry());
+        UserProfileService profiles = new UserProfileService(new GeneratedProfiles(), new UserProfileProperties(),
+                new SimpleMeterRegistry());
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        long[] readNanos = new long[READERS * READS_PER_READER];
+        ExecutorService logins = Executors.newVirtualThreadPerTaskExecutor();
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < LOGIN_CLIENTS; i++) {
+                logins.submit(() -> {
+                    while (flooding.get()) {
+                        String username = "u" + ThreadLocalRandom.current().nextInt(1, USERS + 1);
+                        try {
+                            auth.login(username, PASSWORD);
+                            succeeded.incrementAndGet();
+                        } catch (HashingRejectedException e) {
+                            rejected.incrementAndGet();
+                            Thread.sleep(1);
+                        }
+                    }
+                    return null;
+                });
+            }
+            // Let the flood saturate the pool before measuring
+            Thread.sleep(FLOOD_RAMP_MILLIS);
+            List<Future<?>> reads = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                int reader = r;
+                reads.add(readers.submit(() -> {
+                    for (int i = 0; i < READS_PER_READER; i++) {
+                        long start = System.nanoTime();
+                        assertNotNull(profiles.find(ThreadLocalRandom.current().nextLong(1, USERS + 1)));
+                        readNanos[reader * READS_PER_READER + i] = System.nanoTime() - start;
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> read : reads) {
+                read.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            flooding.set(false);
+            readers.shutdownNow();
+            logins.shutdown();
+            assertTrue(logins.awaitTermination(1, TimeUnit.MINUTES));
+            hasher.close();
+        }
+
+        Arrays.sort(readNanos);
+        long p50 = TimeUnit.NANOSECONDS.toMicros(readNanos[readNanos.length / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMicros(readNanos[readNanos.length * 99 / 100]);
+        LOGGER.info("Login flood: {} verified, {} rejected with 429; profile reads p50 {} us, p99 {} us",
+                succeeded.get(), rejected.get(), p50, p99);
+
+        assertTrue(succeeded.get() > 0);
+        assertTrue(rejected.get() > succeeded.get(), "The flood should exceed what the pool can verify");
+        assertTrue(p99 < TimeUnit.MILLISECONDS.toMicros(MAX_READ_P99_MILLIS),
+                "Profile read p99 was " + p99 + " us during the login flood");
+    }
+
+    private static final class SharedPassword implements CredentialStore {
+
+        private final String hash;
+
+        SharedPassword(final String hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public Credentials find(final String username) {
+            return new Credentials(Long.parseLong(username.substring(1)), username, hash);
+        }
+
+        @Override
+        public boolean replaceHash(final long userId, final String previousHash, final String newHash) {
+            return false;
+        }
+
+        @Override
+        public Integer commonHashCost() {
+            return PasswordHasher.cost(hash);
+        }
+    }
+
+    private static final class GeneratedProfiles implements UserProfileStore {
+
+        @Override
+        public Map<Long, UserSummary> findAll(final Collection<Long> userIds) {
+            Map<Long, UserSummary> found = new HashMap<>();
+            for (Long userId : userIds) {
+                found.put(userId, new UserSummary(userId, "u" + userId, "piano", "beginner"));
+            }
+            return found;
+        }
+
+        @Override
+        public UserStats stats() {
+            return UserStats.empty();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.seminote.user.auth;
+
+import com.seminote.security.RoomTicket;
+import com.seminote.security.SeminoteSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomControllerTest {
+
+    private static final byte[] SECRET = SeminoteSecurityConfig.requireJwtSecret("test-secret-of-at-least-32-bytes!!");
+
+    private final InMemoryStore store = new InMemoryStore(Set.of(7L, 8L, 9L));
+    private final RoomController controller = new RoomController(store, new RoomTicket(SECRET, Clock.systemUTC()),
+            new AuthProperties());
+    /** What the gateway's signaling hub verifies join messages with. */
+    private final RoomTicket gateway = new RoomTicket(SECRET, Clock.systemUTC());
+
+    @Test
+    void issuesTicketsTheGatewayAcceptsForEachMembersRole() {
+        controller.open("7", "lesson-42");
+        controller.addStudent("7", "lesson-42", 8);
+
+        RoomTicketView teacher = controller.ticket("7", "lesson-42");
+        RoomTicketView student = controller.ticket("8", "lesson-42");
+
+        assertEquals("teacher", teacher.role());
+        assertEquals(300, teacher.expiresIn());
+        assertTrue(gateway.verify(teacher.ticket(), "lesson-42", "7", "teacher"));
+        assertEquals("student", student.role());
+        assertTrue(gateway.verify(student.ticket(), "lesson-42", "8", "student"));
+        assertFalse(gateway.verify(student.ticket(), "lesson-42", "8", "teacher"));
+        assertFalse(gateway.verify(student.ticket(), "lesson-42", "9", "student"));
+        assertFalse(gateway.verify(student.ticket(), "lesson-43", "8", "student"));
+    }
+
+    @Test
+    void refusesAnonymousCallersNonMembersAndOtherTeachers() {
+        controller.open("7", "lesson-42");
+
+        assertStatus(HttpStatus.UNAUTHORIZED, () -> controller.ticket(null, "lesson-42"));
+        assertStatus(HttpStatus.FORBIDDEN, () -> controller.ticket("8", "lesson-42"));
+        assertStatus(HttpStatus.CONFLICT, () -> controller.open("8", "lesson-42"));
+        assertStatus(HttpStatus.FORBIDDEN, () -> controller.addStudent("8", "lesson-42", 8));
+        assertStatus(HttpStatus.NOT_FOUND, () -> controller.addStudent("7", "lesson-42", 404));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> controller.ticket("7", "lesson 42"));
+
+        controller.open("7", "lesson-42");
+        controller.addStudent("7", "lesson-42", 7);
+        assertEquals("teacher", controller.ticket("7", "lesson-42").role());
+    }
+
+    private static void assertStatus(final HttpStatus status, final Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(status, e.getStatusCode());
+    }
+
+    /**
+     * Members with the same conflict rules as the JDBC store.
+     */
+    private static final class InMemoryStore implements RoomMemberStore {
+
+        private final Set<Long> users;
+        private final Map<String, Map<Long, String>> rooms = new HashMap<>();
+
+        InMemoryStore(final Set<Long> users) {
+            this.users = users;
+        }
+
+        @Override
+        public String role(final String room, final long userId) {
+            return rooms.getOrDefault(room, Map.of()).get(userId);
+        }
+
+        @Override
+        public boolean open(final String room, final long teacherId) {
+            Map<Long, String> members = rooms.computeIfAbsent(room, r -> new HashMap<>());
+            if (!members.containsValue(TEACHER)) {
+                members.putIfAbsent(teacherId, TEACHER);
+            }
+            return TEACHER.equals(members.get(teacherId));
+        }
+
+        @Override
+        public boolean addStudent(final String room, final long studentId) {
+            if (!users.contains(studentId)) {
+                return false;
+            }
+            rooms.computeIfAbsent(room, r -> new HashMap<>()).putIfAbsent(studentId, STUDENT);
+            return true;
+        }
+    }
+}
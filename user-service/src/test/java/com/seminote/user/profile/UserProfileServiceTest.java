@@ -0,0 +1,173 @@
+package com.seminote.user.profile;
+
+import com.seminote.common.users.UserSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserProfileServiceTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private final UserProfileProperties properties = new UserProfileProperties();
+
+    private UserProfileService service() {
+        return new UserProfileService(store, properties, new SimpleMeterRegistry());
+    }
+
+    private static UserSummary user(final long id, final String skillLevel) {
+        return new UserSummary(id, "pianist" + id, "piano", skillLevel);
+    }
+
+    @Test
+    void loadsAllMissesOfAMultiGetInOneQueryAndCachesMissingIds() {
+        store.add(user(1, "beginner"));
+        store.add(user(2, "advanced"));
+        store.add(user(3, "beginner"));
+        UserProfileService service = service();
+
+        assertEquals(List.of(1L, 2L), List.copyOf(service.findAll(List.of(1L, 2L, 9L)).keySet()));
+        assertEquals(List.of(3L, 2L, 1L), List.copyOf(service.findAll(List.of(3L, 2L, 1L, 9L)).keySet()));
+        assertNull(service.find(9));
+        assertEquals("advanced", service.find(2).skillLevel());
+        assertEquals(2, store.queries.size());
+        assertEquals(List.of(3L), store.queries.get(1));
+    }
+
+    @Test
+    void coalescesConcurrentLookupsOfTheSameUser() throws Exception {
+        store.add(user(7, "intermediate"));
+        store.gate = new CountDownLatch(1);
+        UserProfileService service = service();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserSummary>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(executor.submit(() -> service.find(7)));
+            }
+            assertTrue(store.loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            store.gate.countDown();
+            UserSummary first = lookups.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<UserSummary> lookup : lookups) {
+                assertSame(first, lookup.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, store.queries.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotCacheFailedLoads() {
+        store.add(user(1, "beginner"));
+        store.failure = new IllegalStateException("database unavailable");
+        UserProfileService service = service();
+
+        assertThrows(IllegalStateException.class, () -> service.find(1));
+        store.failure = null;
+        assertEquals("beginner", service.find(1).skillLevel());
+    }
+
+    @Test
+    void findsUsersRegisteredAfterTheirIdWasCachedAsMissing() throws Exception {
+        properties.setMissingExpireAfterWrite(Duration.ofMillis(20));
+        UserProfileService service = service();
+
+        assertNull(service.find(4));
+        store.add(user(4, "beginner"));
+        assertNull(service.find(4));
+        Thread.sleep(50);
+        assertEquals("beginner", service.find(4).skillLevel());
+        assertEquals(2, store.queries.size());
+    }
+
+    @Test
+    void servesStatsFromTheLastCount() {
+        store.add(user(1, "beginner"));
+        store.add(user(2, "advanced"));
+        UserProfileService service = service();
+        service.start();
+        try {
+            UserStats stats = service.stats();
+            assertEquals(2, stats.registered());
+            assertEquals(Map.of("advanced", 1L, "beginner", 1L), stats.bySkillLevel());
+            assertEquals(Map.of("piano", 2L), stats.byInstrument());
+
+            store.add(user(3, "beginner"));
+            assertEquals(2, service.stats().registered());
+            assertEquals(1, store.statsQueries);
+
+            service.refreshStats();
+            assertEquals(3, service.stats().registered());
+            assertEquals(Map.of("advanced", 1L, "beginner", 2L), service.stats().bySkillLevel());
+            assertEquals(2, store.statsQueries);
+        } finally {
+            service.stop();
+        }
+    }
+
+    private static final class InMemoryStore implements UserProfileStore {
+
+        private final Map<Long, UserSummary> users = new ConcurrentHashMap<>();
+        private final List<List<Long>> queries = new CopyOnWriteArrayList<>();
+        private final CountDownLatch loading = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile RuntimeException failure;
+        private int statsQueries;
+
+        void add(final UserSummary user) {
+            users.put(user.id(), user);
+        }
+
+        @Override
+        public Map<Long, UserSummary> findAll(final Collection<Long> userIds) {
+            queries.add(userIds.stream().sorted().toList());
+            loading.countDown();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            Map<Long, UserSummary> found = new HashMap<>();
+            for (Long userId : userIds) {
+                if (users.containsKey(userId)) {
+                    found.put(userId, users.get(userId));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public UserStats stats() {
+            statsQueries++;
+            UserStats.Builder stats = UserStats.builder();
+            users.values().forEach(user -> stats.add(user.skillLevel(), user.instrumentPreference(), 1));
+            return stats.build();
+        }
+    }
+}